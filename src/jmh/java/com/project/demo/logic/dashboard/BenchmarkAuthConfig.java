@@ -0,0 +1,25 @@
+package com.project.demo.logic.dashboard;
+
+import com.project.demo.logic.entity.auth.GoogleAuthService;
+import com.project.demo.logic.entity.auth.JwtService;
+import com.project.demo.logic.entity.user.UserRepository;
+import com.project.demo.logic.outbound.OutboundHttpClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Beans que el perfil "test" deja fuera pero que el contexto completo necesita para arrancar.
+ * {@link GoogleAuthService} es {@code @Profile("!test")} y AuthRestController lo recibe en su constructor;
+ * en los benchmarks nunca se llama, así que basta con una instancia con el client-id de prueba.
+ */
+@Configuration
+@Profile("benchmark")
+public class BenchmarkAuthConfig {
+
+    @Bean
+    public GoogleAuthService googleAuthService(UserRepository userRepository, JwtService jwtService,
+                                               OutboundHttpClients outboundHttpClients) {
+        return new GoogleAuthService(userRepository, jwtService, outboundHttpClients, "dummy");
+    }
+}
@@ -0,0 +1,221 @@
+package com.project.demo.logic.dashboard;
+
+import com.project.demo.DemoApplication;
+import com.project.demo.rest.dashboard.DTO.CropYieldDTO;
+import com.project.demo.rest.dashboard.DTO.DashboardOverviewDTO;
+import com.project.demo.rest.dashboard.DTO.IncomeVsExpensesDTO;
+import com.project.demo.rest.dashboard.DTO.OperationalCostDTO;
+import com.project.demo.rest.dashboard.DTO.ReportRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la generación de reportes de {@link DashboardService} con el contexto completo de Spring sobre H2 en modo
+ * MySQL, con un conjunto de datos sembrado por JDBC y el acumulado mensual reconstruido.
+ * Se activa el perfil "test" para que no corran los seeders ni el runner de migraciones; los beans que ese perfil
+ * excluye y que el contexto necesita se definen en {@link BenchmarkAuthConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DashboardServiceBenchmark {
+
+    private static final int USERS = 20;
+    private static final int FARMS_PER_USER = 3;
+    private static final int CROPS_PER_USER = 10;
+    private static final int TRANSACTIONS_PER_USER = 5_000;
+    private static final int MANAGEMENT_RECORDS_PER_USER = 1_000;
+    private static final int MONTHS = 24;
+    private static final long USER_ID = 7L;
+
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private ReportRequestDTO yearReport;
+    private ReportRequestDTO farmQuarterReport;
+
+    @Setup(Level.Trial)
+    public void startContext() throws SQLException {
+        context = new SpringApplicationBuilder(DemoApplication.class, BenchmarkAuthConfig.class)
+                .profiles("test", "benchmark")
+                .run();
+        seed(context.getBean(DataSource.class));
+        context.getBean(TransactionRollupService.class).rebuild(null);
+        dashboardService = context.getBean(DashboardService.class);
+
+        LocalDate today = LocalDate.now();
+        yearReport = report(today.minusYears(1).withDayOfMonth(15), today, null);
+        farmQuarterReport = report(today.minusMonths(3), today, farmId(USER_ID, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public DashboardOverviewDTO overview() {
+        return dashboardService.getOverviewForUser(USER_ID);
+    }
+
+    @Benchmark
+    public IncomeVsExpensesDTO incomeVsExpensesYear() {
+        return dashboardService.generateIncomeVsExpensesReport(USER_ID, yearReport);
+    }
+
+    @Benchmark
+    public IncomeVsExpensesDTO incomeVsExpensesFarmQuarter() {
+        return dashboardService.generateIncomeVsExpensesReport(USER_ID, farmQuarterReport);
+    }
+
+    @Benchmark
+    public List<CropYieldDTO> cropYieldYear() {
+        return dashboardService.generateCropYieldReport(USER_ID, yearReport);
+    }
+
+    @Benchmark
+    public List<OperationalCostDTO> operationalCostYear() {
+        return dashboardService.generateOperationalCostReport(USER_ID, yearReport);
+    }
+
+    private static ReportRequestDTO report(LocalDate start, LocalDate end, Long farmId) {
+        ReportRequestDTO request = new ReportRequestDTO();
+        request.setStartDate(start);
+        request.setEndDate(end);
+        request.setFarmId(farmId);
+        return request;
+    }
+
+    private static long farmId(long userId, int index) {
+        return userId * FARMS_PER_USER + index;
+    }
+
+    private static long cropId(long userId, int index) {
+        return userId * CROPS_PER_USER + index;
+    }
+
+    /**
+     * Siembra fincas, cultivos, transacciones y manejo de cultivos. Se desactiva la integridad referencial
+     * para no tener que crear usuarios, roles y parcelas que los reportes no leen.
+     */
+    private static void seed(DataSource dataSource) throws SQLException {
+        Random random = new Random(42);
+        LocalDateTime firstMonth = LocalDate.now().withDayOfMonth(1).minusMonths(MONTHS - 1).atStartOfDay();
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement st = connection.createStatement()) {
+                st.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                st.execute("CREATE ALIAS IF NOT EXISTS DATE_FORMAT FOR '" + DashboardServiceBenchmark.class.getName() + ".dateFormat'");
+            }
+            try (PreparedStatement farms = connection.prepareStatement(
+                    "INSERT INTO farms (id, farm_name) VALUES (?, ?)");
+                 PreparedStatement userFarms = connection.prepareStatement(
+                         "INSERT INTO user_x_farm (farm_id, user_id) VALUES (?, ?)");
+                 PreparedStatement crops = connection.prepareStatement(
+                         "INSERT INTO crops (id, user_id, crop_name, is_active) VALUES (?, ?, ?, TRUE)")) {
+                for (long user = 1; user <= USERS; user++) {
+                    for (int f = 0; f < FARMS_PER_USER; f++) {
+                        farms.setLong(1, farmId(user, f));
+                        farms.setString(2, "Finca " + user + "-" + f);
+                        farms.addBatch();
+                        userFarms.setLong(1, farmId(user, f));
+                        userFarms.setLong(2, user);
+                        userFarms.addBatch();
+                    }
+                    for (int c = 0; c < CROPS_PER_USER; c++) {
+                        crops.setLong(1, cropId(user, c));
+                        crops.setLong(2, user);
+                        crops.setString(3, "Cultivo " + c);
+                        crops.addBatch();
+                    }
+                }
+                farms.executeBatch();
+                userFarms.executeBatch();
+                crops.executeBatch();
+            }
+
+            long id = 1;
+            try (PreparedStatement transactions = connection.prepareStatement(
+                    "INSERT INTO transactions (id, user_id, farm_id, crop_id, transaction_type, quantity, measure_unit, " +
+                            "price_per_unit, total_value, transaction_date, is_active, month_key) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, 'KILOGRAMO', ?, ?, ?, TRUE, ?)")) {
+                for (long user = 1; user <= USERS; user++) {
+                    for (int i = 0; i < TRANSACTIONS_PER_USER; i++) {
+                        LocalDateTime date = firstMonth.plusMonths(random.nextInt(MONTHS))
+                                .plusDays(random.nextInt(28)).plusMinutes(random.nextInt(1440));
+                        double quantity = 1 + random.nextInt(500);
+                        double price = 100 + random.nextInt(5_000);
+                        transactions.setLong(1, id++);
+                        transactions.setLong(2, user);
+                        transactions.setLong(3, farmId(user, random.nextInt(FARMS_PER_USER)));
+                        transactions.setLong(4, cropId(user, random.nextInt(CROPS_PER_USER)));
+                        transactions.setString(5, random.nextBoolean() ? "VENTA" : "COMPRA");
+                        transactions.setDouble(6, quantity);
+                        transactions.setDouble(7, price);
+                        transactions.setDouble(8, quantity * price);
+                        transactions.setTimestamp(9, Timestamp.valueOf(date));
+                        transactions.setString(10, date.toString().substring(0, 7));
+                        transactions.addBatch();
+                        if (id % 1_000 == 0) {
+                            transactions.executeBatch();
+                        }
+                    }
+                }
+                transactions.executeBatch();
+            }
+
+            id = 1;
+            try (PreparedStatement management = connection.prepareStatement(
+                    "INSERT INTO crops_management (id, id_crop, id_farm, action_name, value_spent, action_date, month_key, is_active) " +
+                            "VALUES (?, ?, ?, 'Fertilización', ?, ?, ?, TRUE)")) {
+                for (long user = 1; user <= USERS; user++) {
+                    for (int i = 0; i < MANAGEMENT_RECORDS_PER_USER; i++) {
+                        LocalDateTime date = firstMonth.plusMonths(random.nextInt(MONTHS)).plusDays(random.nextInt(28));
+                        management.setLong(1, id++);
+                        management.setLong(2, cropId(user, random.nextInt(CROPS_PER_USER)));
+                        management.setLong(3, farmId(user, random.nextInt(FARMS_PER_USER)));
+                        management.setDouble(4, 1_000 + random.nextInt(20_000));
+                        management.setTimestamp(5, Timestamp.valueOf(date));
+                        management.setString(6, date.toString().substring(0, 7));
+                        management.addBatch();
+                        if (id % 1_000 == 0) {
+                            management.executeBatch();
+                        }
+                    }
+                }
+                management.executeBatch();
+            }
+
+            try (Statement st = connection.createStatement()) {
+                st.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+    }
+
+    /**
+     * Sustituto de DATE_FORMAT de MySQL para H2; solo se usa con el formato '%Y-%m'.
+     */
+    public static String dateFormat(Timestamp value, String pattern) {
+        return value == null ? null : value.toLocalDateTime().toString().substring(0, 7);
+    }
+}
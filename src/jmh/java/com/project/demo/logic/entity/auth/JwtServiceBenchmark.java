@@ -0,0 +1,64 @@
+package com.project.demo.logic.entity.auth;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el throughput de emitir y validar tokens de sesión con {@link JwtService}.
+ * "validateRotated" verifica un token firmado con una clave anterior, seleccionada por su "kid".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+    private String rotatedToken;
+
+    @Setup
+    public void setUp() {
+        String previousSecret = secret('p');
+        String activeSecret = secret('a');
+        user = User.withUsername("benchmark@example.com").password("x").roles("USER").build();
+
+        JwtService previous = new JwtService(previousSecret, "k1", "", 3_600_000, 900_000);
+        rotatedToken = previous.generateToken(user);
+
+        jwtService = new JwtService(activeSecret, "k2", "k1=" + previousSecret, 3_600_000, 900_000);
+        token = jwtService.generateToken(user);
+    }
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        Claims claims = jwtService.extractAllClaims(token);
+        return jwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean validateRotated() {
+        Claims claims = jwtService.extractAllClaims(rotatedToken);
+        return jwtService.isTokenValid(claims, user);
+    }
+}
@@ -0,0 +1,167 @@
+package com.project.demo.rest.suggestion;
+
+import com.project.demo.logic.entity.animal.IAnimalContext;
+import com.project.demo.logic.entity.animal.IAnimalGroupContext;
+import com.project.demo.logic.entity.animal.ProductionTypeEnum;
+import com.project.demo.logic.entity.cropsmanagement.ICropsManagementContext;
+import com.project.demo.logic.entity.farm.IFarmContext;
+import com.project.demo.logic.entity.plot.IPlotContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mide la conversión a texto del contexto de la IA ({@link FarmContextLoader#render}) y su recorte
+ * ({@link AiSuggestionService#cutContext}) para fincas de distintos tamaños, con el contador de tokens aproximado
+ * y con uno BPE. El vocabulario BPE se entrena en el setup sobre el mismo contexto (unas 1000 fusiones), así que
+ * no hace falta descargar uno; el costo por token es comparable al de un vocabulario real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AiSuggestionServiceBenchmark {
+
+    /**
+     * Tokens disponibles para el contexto con la configuración por defecto (4000 - pregunta - max_tokens).
+     */
+    private static final int CONTEXT_TOKENS = 3_150;
+
+    private static final int BPE_MERGES = 1_000;
+    private static final Pattern TRAINING_PIECES = Pattern.compile(" ?\\S+|\\s+");
+
+    @Param({"2", "40", "200"})
+    private int plots;
+
+    @Param({"approximate", "bpe"})
+    private String tokenCounter;
+
+    private AiSuggestionService service;
+    private FarmContextLoader.FarmContext farmData;
+    private String context;
+
+    @Setup
+    public void setUp() {
+        farmData = farmData(plots);
+        context = FarmContextLoader.render(farmData);
+        TokenCounter counter = "bpe".equals(tokenCounter) ? trainBpe(context, BPE_MERGES) : new ApproximateTokenCounter();
+        service = new AiSuggestionService(null, counter);
+    }
+
+    @Benchmark
+    public String render() {
+        return FarmContextLoader.render(farmData);
+    }
+
+    @Benchmark
+    public String cutContext() {
+        return service.cutContext(context, CONTEXT_TOKENS);
+    }
+
+    @Benchmark
+    public String buildAndCut() {
+        return service.cutContext(FarmContextLoader.render(farmData), CONTEXT_TOKENS);
+    }
+
+    /**
+     * Entrena un vocabulario BPE pequeño sobre el texto: parte de los 256 bytes y agrega en cada paso
+     * el par de partes contiguas más frecuente.
+     */
+    private static BpeTokenCounter trainBpe(String corpus, int merges) {
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int b = 0; b < 256; b++) {
+            ranks.put(String.valueOf((char) b), b);
+        }
+        Map<String, Integer> pieceCounts = new HashMap<>();
+        Matcher matcher = TRAINING_PIECES.matcher(corpus);
+        while (matcher.find()) {
+            pieceCounts.merge(new String(matcher.group().getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1), 1, Integer::sum);
+        }
+        Map<List<String>, Integer> words = new HashMap<>();
+        pieceCounts.forEach((piece, count) -> words.put(piece.chars().mapToObj(c -> String.valueOf((char) c)).toList(), count));
+
+        for (int rank = 256; rank < 256 + merges; rank++) {
+            Map<List<String>, Integer> pairCounts = new HashMap<>();
+            words.forEach((parts, count) -> {
+                for (int i = 0; i < parts.size() - 1; i++) {
+                    pairCounts.merge(List.of(parts.get(i), parts.get(i + 1)), count, Integer::sum);
+                }
+            });
+            if (pairCounts.isEmpty()) {
+                break;
+            }
+            List<String> best = Collections.max(pairCounts.entrySet(), Map.Entry.comparingByValue()).getKey();
+            String merged = best.get(0) + best.get(1);
+            ranks.put(merged, rank);
+
+            Map<List<String>, Integer> mergedWords = new HashMap<>();
+            words.forEach((parts, count) -> {
+                List<String> next = new ArrayList<>(parts.size());
+                for (int i = 0; i < parts.size(); i++) {
+                    if (i < parts.size() - 1 && parts.get(i).equals(best.get(0)) && parts.get(i + 1).equals(best.get(1))) {
+                        next.add(merged);
+                        i++;
+                    } else {
+                        next.add(parts.get(i));
+                    }
+                }
+                mergedWords.merge(next, count, Integer::sum);
+            });
+            words.clear();
+            words.putAll(mergedWords);
+        }
+        return new BpeTokenCounter(ranks);
+    }
+
+    private record Farm(String getFarmName, String getFarmCountry, String getFarmStateProvince,
+                        String getFarmOtherDirections, String getFarmLocation, Double getFarmSize,
+                        String getFarmMeasureUnit, Long getTechnicalInfoId, String getSoilPh,
+                        String getSoilNutrients, String getIrrigationSystemType, Boolean getWaterAvailable,
+                        String getWaterUsageType, Boolean getFertilizerPesticideUse) implements IFarmContext {}
+
+    private record AnimalGroup(Long getId, String getGroupName, ProductionTypeEnum getProductionType,
+                               String getMeasure) implements IAnimalGroupContext {}
+
+    private record Animal(Long getGroupId, String getSpecies, String getBreed, Integer getCount) implements IAnimalContext {}
+
+    private record Plot(Long getId, String getPlotName, String getPlotDescription, String getPlotType,
+                        String getCurrentUsage) implements IPlotContext {}
+
+    private record Management(Long getPlotId, String getActionName, LocalDateTime getActionDate, Double getValueSpent,
+                              String getCropName, String getCropType, String getCropVariety) implements ICropsManagementContext {}
+
+    private static FarmContextLoader.FarmContext farmData(int plotCount) {
+        Farm farm = new Farm("Finca La Esperanza", "Costa Rica", "Alajuela", null, "10.0162,-84.2116", 12.5, "ha",
+                1L, "6.5", "Nitrógeno medio, fósforo bajo", "Goteo", true, "Riego", true);
+
+        List<IAnimalGroupContext> groups = List.of(new AnimalGroup(1L, "Vacas lecheras", ProductionTypeEnum.LECHE, "litros"));
+        List<IAnimalContext> animals = List.of(new Animal(1L, "Bovino", "Jersey", 12));
+
+        List<IPlotContext> plotList = new ArrayList<>();
+        List<ICropsManagementContext> managements = new ArrayList<>();
+        for (long p = 0; p < plotCount; p++) {
+            plotList.add(new Plot(p, "Parcela " + p, "Ladera con buena exposición al sol", "Cultivo", "Producción"));
+            for (int m = 0; m < 10; m++) {
+                managements.add(new Management(p, "Aplicación de fertilizante " + m,
+                        LocalDateTime.of(2024, 1 + m % 9, 15, 8, 0), 15_000.0 + m * 250,
+                        "Café", "Perenne", "Caturra"));
+            }
+        }
+        return new FarmContextLoader.FarmContext(farm, groups, animals, plotList, managements);
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.demo.rest.transaction;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.demo.logic.entity.crop.Crop;
+import com.project.demo.logic.entity.farm.Farm;
+import com.project.demo.logic.entity.http.HttpResponse;
+import com.project.demo.logic.entity.http.Meta;
+import com.project.demo.logic.entity.transaction.MeasureUnitEnum;
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el mapeo de entidades Transaction a {@link TransactionDTO} y la serialización con Jackson de la respuesta
+ * estándar {@code HttpResponse<List<TransactionDTO>>}, para un tamaño de página típico y para una exportación grande.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int rows;
+
+    private List<Transaction> transactions;
+    private HttpResponse<List<TransactionDTO>> response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Farm farm = new Farm();
+        farm.setId(1L);
+        farm.setFarmName("Finca La Esperanza");
+        Crop crop = new Crop();
+        crop.setId(1L);
+        crop.setCropName("Café");
+
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 8, 0);
+        transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setId((long) i);
+            transaction.setFarm(farm);
+            transaction.setCrop(crop);
+            transaction.setTransactionType(i % 2 == 0 ? TransactionEnum.VENTA : TransactionEnum.COMPRA);
+            transaction.setQuantity(10.0 + i);
+            transaction.setMeasureUnit(MeasureUnitEnum.KILOGRAMO);
+            transaction.setPricePerUnit(1250.5);
+            transaction.setTotalValue((10.0 + i) * 1250.5);
+            transaction.setTransactionDate(date.plusHours(i));
+            transactions.add(transaction);
+        }
+        response = new HttpResponse<>("Transacción obtenida exitosamente!", toDtos(), meta());
+    }
+
+    private List<TransactionDTO> toDtos() {
+        List<TransactionDTO> dtos = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            dtos.add(new TransactionDTO(transaction));
+        }
+        return dtos;
+    }
+
+    private Meta meta() {
+        Meta meta = new Meta("GET", "http://localhost/transactions");
+        meta.setPageNumber(1);
+        meta.setPageSize(rows);
+        meta.setTotalElements(rows);
+        meta.setTotalPages(1);
+        return meta;
+    }
+
+    @Benchmark
+    public List<TransactionDTO> mapToDto() {
+        return toDtos();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new HttpResponse<>("Transacción obtenida exitosamente!", toDtos(), meta()));
+    }
+}
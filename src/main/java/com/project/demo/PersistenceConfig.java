@@ -0,0 +1,25 @@
+package com.project.demo;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Activa el envío de INSERT/UPDATE en lotes JDBC. Los valores se pueden sobrescribir con
+ * spring.jpa.properties.hibernate.*; en MySQL conviene además rewriteBatchedStatements=true en la URL
+ * para que el driver combine cada lote en un único INSERT de varias filas.
+ */
+@Configuration
+public class PersistenceConfig {
+
+    static final int JDBC_BATCH_SIZE = 50;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", JDBC_BATCH_SIZE);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.demo.logic.dashboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.persistence.AfterCommit;
+import com.project.demo.rest.dashboard.DTO.DashboardCacheStatsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de los resultados del dashboard, por usuario y parámetros del reporte.
+ * Tiene tamaño máximo y tiempo de vida; además se invalida cuando se escribe una transacción
+ * o un registro de manejo de cultivos del usuario o de la finca.
+ *
+ * Las entradas se agrupan por usuario: cada usuario tiene su propia caché de reportes, de modo que
+ * invalidar a un usuario es quitar una sola clave en lugar de recorrer toda la caché. Una lectura que
+ * empezó antes de la invalidación guarda su resultado en la caché del usuario ya descartada, así que
+ * un valor calculado con datos anteriores al cambio no vuelve a quedar visible.
+ */
+@Component
+public class DashboardCache {
+
+    /**
+     * Clave de un reporte dentro de la caché de un usuario: nombre del reporte y sus parámetros
+     * (null si no tiene). Los parámetros deben implementar equals/hashCode por valor.
+     */
+    record Key(String report, Object params) {}
+
+    private final Cache<Long, Cache<Key, Object>> users;
+    private final long maxEntriesPerUser;
+    private final Duration ttl;
+
+    /**
+     * Contadores compartidos por las cachés de todos los usuarios, para poder reportarlos juntos.
+     */
+    private final ConcurrentStatsCounter statsCounter = new ConcurrentStatsCounter();
+
+    @Autowired
+    private UserXFarmRepository userXFarmRepository;
+
+    public DashboardCache(@Value("${dashboard.cache.max-users:10000}") long maxUsers,
+                          @Value("${dashboard.cache.max-entries-per-user:200}") long maxEntriesPerUser,
+                          @Value("${dashboard.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntriesPerUser = maxEntriesPerUser;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    /**
+     * Devuelve el valor en caché o lo calcula con el loader y lo guarda.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String report, Object params, Supplier<T> loader) {
+        Cache<Key, Object> reports = users.get(userId, id -> Caffeine.newBuilder()
+                .maximumSize(maxEntriesPerUser)
+                .expireAfterWrite(ttl)
+                .recordStats(() -> statsCounter)
+                .build());
+        return (T) reports.get(new Key(report, params), k -> loader.get());
+    }
+
+    /**
+     * Invalida todas las entradas de un usuario. Si hay una transacción de base de datos activa,
+     * la invalidación se hace después del commit, para que una lectura que llegue antes del commit
+     * no guarde en caché un valor que todavía no incluye el cambio.
+     */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        AfterCommit.run(() -> users.invalidate(userId));
+    }
+
+    /**
+     * Invalida las entradas de todos los usuarios asociados a una finca.
+     */
+    public void evictFarm(Long farmId) {
+        if (farmId == null) {
+            return;
+        }
+        List<Long> userIds = userXFarmRepository.findByFarmId(farmId).stream()
+                .map(uxf -> uxf.getId().getUserId())
+                .toList();
+        AfterCommit.run(() -> users.invalidateAll(userIds));
+    }
+
+    public void evictAll() {
+        AfterCommit.run(users::invalidateAll);
+    }
+
+    public DashboardCacheStatsDTO stats() {
+        CacheStats stats = statsCounter.snapshot();
+        long size = users.asMap().values().stream().mapToLong(Cache::estimatedSize).sum();
+        return new DashboardCacheStatsDTO(
+                size,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate());
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.demo.logic.dashboard;
 
+import com.project.demo.logic.entity.transaction.TransactionMonthlyRollupRepository;
 import com.project.demo.logic.entity.transaction.TransactionRepository;
 import com.project.demo.rest.dashboard.DTO.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,33 +21,82 @@ public class DashboardService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private ReportQueryRepository reportQueryRepository;
+
     /**
      * Obtiene un resumen del dashboard para el usuario especificado.
      * Incluye ingresos totales, gastos totales y número de transacciones.
      */
     @Transactional(readOnly = true)
     public DashboardSummaryDTO getSummaryForUser(Long userId) {
-        Double totalIncome = transactionRepository.sumTotalIncomeByUserId(userId);
-        Double totalExpenses = transactionRepository.sumTotalExpensesByUserId(userId);
-        Long transactionCount = transactionRepository.countTransactionsByUserId(userId);
+        return toSummary(loadTotals(userId));
+    }
+
+    /**
+     * Obtiene en una sola respuesta el resumen, el gráfico del mes en curso y los 5 cultivos principales.
+     * El resumen y el gráfico salen de la misma consulta de totales.
+     */
+    @Transactional(readOnly = true)
+    public DashboardOverviewDTO getOverviewForUser(Long userId) {
+        IDashboardTotals totals = loadTotals(userId);
+        return new DashboardOverviewDTO(
+                toSummary(totals),
+                toMonthlyChart(totals),
+                transactionRepository.findTop5CropYieldsByUserId(userId));
+    }
+
+    private IDashboardTotals loadTotals(Long userId) {
+        LocalDate firstDayOfMonth = LocalDate.now().withDayOfMonth(1);
+        return transactionRepository.getDashboardTotals(
+                userId,
+                firstDayOfMonth.atStartOfDay(),
+                firstDayOfMonth.plusMonths(1).atStartOfDay());
+    }
 
-        return new DashboardSummaryDTO(totalIncome, totalExpenses, transactionCount);
+    private static DashboardSummaryDTO toSummary(IDashboardTotals totals) {
+        return new DashboardSummaryDTO(
+                valueOrZero(totals.getTotalIncome()),
+                valueOrZero(totals.getTotalExpenses()),
+                totals.getTransactionCount() != null ? totals.getTransactionCount() : 0L);
+    }
+
+    private static DoughnutChartDTO toMonthlyChart(IDashboardTotals totals) {
+        List<String> labels = List.of("Ingresos", "Egresos");
+        List<Double> data = List.of(valueOrZero(totals.getMonthIncome()), valueOrZero(totals.getMonthExpenses()));
+        return new DoughnutChartDTO(labels, data);
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
     }
 
     /**
      * Genera los datos para el gráfico de ingresos vs. gastos basado en el rango de fechas y la finca proporcionados.
+     * Los meses completos se leen del acumulado mensual; los tramos de mes incompleto, de las transacciones.
      */
     @Transactional(readOnly = true)
     public IncomeVsExpensesDTO generateIncomeVsExpensesReport(Long userId, ReportRequestDTO request) {
-        LocalDateTime startDateTime = request.getStartDate().atStartOfDay();
-        LocalDateTime endDateTime = request.getEndDate().atTime(LocalTime.MAX);
+        ReportPeriod period = ReportPeriod.of(request.getStartDate(), request.getEndDate());
+        Map<String, double[]> totalsByMonth = new TreeMap<>();
 
-        List<IMonthlySummary> summaries = transactionRepository.getIncomeVsExpensesSummary(
-                userId, startDateTime, endDateTime, request.getFarmId());
+        if (period.hasFullMonths()) {
+            rollupRepository.sumIncomeVsExpensesByMonth(
+                            userId, period.firstFullMonthKey(), period.lastFullMonthKey(), request.getFarmId())
+                    .forEach(s -> addMonthlySummary(totalsByMonth, s));
+        }
+        for (ReportPeriod.Range range : period.partialRanges()) {
+            reportQueryRepository.sumActiveIncomeVsExpensesByMonth(
+                            userId, range.start(), range.end(), request.getFarmId())
+                    .forEach(s -> addMonthlySummary(totalsByMonth, s));
+        }
 
-        List<String> labels = summaries.stream().map(IMonthlySummary::getMonth).collect(Collectors.toList());
-        List<Double> incomeData = summaries.stream().map(IMonthlySummary::getTotalIncome).collect(Collectors.toList());
-        List<Double> expensesData = summaries.stream().map(IMonthlySummary::getTotalExpenses).collect(Collectors.toList());
+        List<String> labels = List.copyOf(totalsByMonth.keySet());
+        List<Double> incomeData = totalsByMonth.values().stream().map(t -> t[0]).collect(Collectors.toList());
+        List<Double> expensesData = totalsByMonth.values().stream().map(t -> t[1]).collect(Collectors.toList());
 
         return new IncomeVsExpensesDTO(labels, incomeData, expensesData);
     }
@@ -54,17 +106,7 @@ public class DashboardService {
      */
     @Transactional(readOnly = true)
     public DoughnutChartDTO getCurrentMonthChartForUser(Long userId) {
-        LocalDate today = LocalDate.now();
-        LocalDateTime startOfMonth = today.withDayOfMonth(1).atStartOfDay();
-        LocalDateTime endOfMonth = today.withDayOfMonth(today.lengthOfMonth()).atTime(LocalTime.MAX);
-
-        Double totalIncome = transactionRepository.sumTotalIncomeByUserIdAndDateRange(userId, startOfMonth, endOfMonth);
-        Double totalExpenses = transactionRepository.sumTotalExpensesByUserIdAndDateRange(userId, startOfMonth, endOfMonth);
-
-        List<String> labels = List.of("Ingresos", "Egresos");
-        List<Double> data = List.of(totalIncome, totalExpenses);
-
-        return new DoughnutChartDTO(labels, data);
+        return toMonthlyChart(loadTotals(userId));
     }
 
     @Transactional(readOnly = true)
@@ -106,13 +148,12 @@ public class DashboardService {
      */
     @Transactional(readOnly = true)
     public List<CropYieldDTO> generateCropYieldReport(Long userId, ReportRequestDTO request) {
-        LocalDateTime startDateTime = request.getStartDate().atStartOfDay();
-        LocalDateTime endDateTime = request.getEndDate().atTime(LocalTime.MAX);
+        ReportPeriod.Range range = ReportPeriod.of(request.getStartDate(), request.getEndDate()).fullRange();
 
-        List<ICropYield> projections = transactionRepository.getCropYieldSummary(
+        List<ICropYield> projections = reportQueryRepository.getCropYieldSummary(
                 userId,
-                startDateTime,
-                endDateTime,
+                range.start(),
+                range.end(),
                 request.getFarmId(),
                 request.getCropId()
         );
@@ -133,13 +174,12 @@ public class DashboardService {
      */
     @Transactional(readOnly = true)
     public List<CropCostDTO> generateCropCostReport(Long userId, ReportRequestDTO request) {
-        LocalDateTime startDateTime = request.getStartDate().atStartOfDay();
-        LocalDateTime endDateTime = request.getEndDate().atTime(LocalTime.MAX);
+        ReportPeriod.Range range = ReportPeriod.of(request.getStartDate(), request.getEndDate()).fullRange();
 
-        List<ICropCost> projections = transactionRepository.getCropCostSummary(
+        List<ICropCost> projections = reportQueryRepository.getCropCostSummary(
                 userId,
-                startDateTime,
-                endDateTime,
+                range.start(),
+                range.end(),
                 request.getFarmId()
         );
 
@@ -153,24 +193,33 @@ public class DashboardService {
 
     /**
      * Genera los datos para el reporte de costos operativos.
+     * Los egresos por transacciones se leen del acumulado mensual (y de las transacciones en los meses incompletos);
+     * los gastos de manejo de cultivos se suman aparte.
      */
     @Transactional(readOnly = true)
     public List<OperationalCostDTO> generateOperationalCostReport(Long userId, ReportRequestDTO request) {
-        LocalDateTime startDateTime = request.getStartDate().atStartOfDay();
-        LocalDateTime endDateTime = request.getEndDate().atTime(LocalTime.MAX);
+        ReportPeriod period = ReportPeriod.of(request.getStartDate(), request.getEndDate());
+        Map<String, Double> costByMonth = new TreeMap<>();
 
-        List<IOperationalCost> projections = transactionRepository.getOperationalCostSummary(
-                userId,
-                startDateTime,
-                endDateTime,
-                request.getFarmId()
-        );
+        if (period.hasFullMonths()) {
+            rollupRepository.sumExpensesByMonth(
+                            userId, period.firstFullMonthKey(), period.lastFullMonthKey(), request.getFarmId())
+                    .forEach(c -> addOperationalCost(costByMonth, c));
+        }
+        for (ReportPeriod.Range range : period.partialRanges()) {
+            reportQueryRepository.sumActiveExpensesByMonth(
+                            userId, range.start(), range.end(), request.getFarmId())
+                    .forEach(c -> addOperationalCost(costByMonth, c));
+        }
+        if (!period.isEmpty()) {
+            ReportPeriod.Range fullRange = period.fullRange();
+            reportQueryRepository.sumCropManagementCostByMonth(
+                            userId, fullRange.start(), fullRange.end(), request.getFarmId())
+                    .forEach(c -> addOperationalCost(costByMonth, c));
+        }
 
-        return projections.stream()
-                .map(p -> new OperationalCostDTO(
-                        p.getMonth(),
-                        p.getTotalCost()
-                ))
+        return costByMonth.entrySet().stream()
+                .map(e -> new OperationalCostDTO(e.getKey(), e.getValue()))
                 .collect(Collectors.toList());
     }
 
@@ -195,4 +244,15 @@ public class DashboardService {
                 ))
                 .collect(Collectors.toList());
     }
+
+    private static void addMonthlySummary(Map<String, double[]> totalsByMonth, IMonthlySummary summary) {
+        double[] totals = totalsByMonth.computeIfAbsent(summary.getMonth(), k -> new double[2]);
+        totals[0] += summary.getTotalIncome() != null ? summary.getTotalIncome() : 0.0;
+        totals[1] += summary.getTotalExpenses() != null ? summary.getTotalExpenses() : 0.0;
+    }
+
+    private static void addOperationalCost(Map<String, Double> costByMonth, IOperationalCost cost) {
+        double value = cost.getTotalCost() != null ? cost.getTotalCost() : 0.0;
+        costByMonth.merge(cost.getMonth(), value, Double::sum);
+    }
 }
@@ -0,0 +1,13 @@
+package com.project.demo.logic.dashboard;
+
+/**
+ * Proyección de interfaz para los totales del dashboard calculados en una sola consulta:
+ * totales históricos del usuario y totales del mes en curso.
+ */
+public interface IDashboardTotals {
+    Double getTotalIncome();
+    Double getTotalExpenses();
+    Long getTransactionCount();
+    Double getMonthIncome();
+    Double getMonthExpenses();
+}
@@ -0,0 +1,16 @@
+package com.project.demo.logic.dashboard;
+
+/**
+ * Proyección de interfaz para una fila del acumulado mensual recalculada desde las transacciones.
+ * Los nombres de los métodos deben coincidir con los alias de la consulta SQL nativa.
+ */
+public interface IRollupRow {
+    Long getUserId();
+    Long getFarmId();
+    Long getCropId();
+    String getMonthKey();
+    Double getTotalIncome();
+    Double getTotalExpenses();
+    Double getQuantitySold();
+    Long getTransactionCount();
+}
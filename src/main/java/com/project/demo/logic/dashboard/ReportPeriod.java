@@ -0,0 +1,85 @@
+package com.project.demo.logic.dashboard;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divide el rango de fechas de un reporte en meses completos, que se leen del acumulado mensual,
+ * y tramos de mes incompleto al inicio y al final, que se leen de la tabla de transacciones.
+ */
+final class ReportPeriod {
+
+    /**
+     * Rango semiabierto [start, end).
+     */
+    record Range(LocalDateTime start, LocalDateTime end) {}
+
+    private final LocalDate start;
+    private final LocalDate endExclusive;
+    private final YearMonth firstFullMonth;
+    private final YearMonth lastFullMonth;
+
+    private ReportPeriod(LocalDate start, LocalDate endExclusive) {
+        this.start = start;
+        this.endExclusive = endExclusive;
+        this.firstFullMonth = start.getDayOfMonth() == 1 ? YearMonth.from(start) : YearMonth.from(start).plusMonths(1);
+        this.lastFullMonth = YearMonth.from(endExclusive).minusMonths(1);
+    }
+
+    /**
+     * @param startDate Primer día del reporte (inclusive).
+     * @param endDate Último día del reporte (inclusive).
+     */
+    static ReportPeriod of(LocalDate startDate, LocalDate endDate) {
+        return new ReportPeriod(startDate, endDate.plusDays(1));
+    }
+
+    boolean isEmpty() {
+        return !start.isBefore(endExclusive);
+    }
+
+    boolean hasFullMonths() {
+        return !isEmpty() && !firstFullMonth.isAfter(lastFullMonth);
+    }
+
+    String firstFullMonthKey() {
+        return firstFullMonth.toString();
+    }
+
+    String lastFullMonthKey() {
+        return lastFullMonth.toString();
+    }
+
+    /**
+     * Tramos del periodo que no cubren un mes completo.
+     */
+    List<Range> partialRanges() {
+        List<Range> ranges = new ArrayList<>();
+        if (isEmpty()) {
+            return ranges;
+        }
+        if (!hasFullMonths()) {
+            ranges.add(new Range(start.atStartOfDay(), endExclusive.atStartOfDay()));
+            return ranges;
+        }
+        LocalDate fullStart = firstFullMonth.atDay(1);
+        LocalDate fullEnd = lastFullMonth.plusMonths(1).atDay(1);
+        if (start.isBefore(fullStart)) {
+            ranges.add(new Range(start.atStartOfDay(), fullStart.atStartOfDay()));
+        }
+        if (fullEnd.isBefore(endExclusive)) {
+            ranges.add(new Range(fullEnd.atStartOfDay(), endExclusive.atStartOfDay()));
+        }
+        return ranges;
+    }
+
+    /**
+     * Rango completo del periodo, [inicio, fin + 1 día).
+     */
+    Range fullRange() {
+        return new Range(start.atStartOfDay(), endExclusive.atStartOfDay());
+    }
+}
@@ -0,0 +1,125 @@
+package com.project.demo.logic.dashboard;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Construye las consultas nativas de reportes incluyendo solo los filtros que realmente vienen en la solicitud.
+ * Así se evita el patrón {@code (:farmId IS NULL OR t.farm_id = :farmId)}, que impide a MySQL usar el índice
+ * de la finca o del cultivo y lo obliga a un único plan genérico para todas las combinaciones de filtros.
+ * Los rangos de fechas son semiabiertos ({@code >= inicio AND < fin}).
+ */
+final class ReportQueryBuilder {
+
+    private final String from;
+    private final List<String> select = new ArrayList<>();
+    private final List<String> joins = new ArrayList<>();
+    private final List<String> predicates = new ArrayList<>();
+    private final List<String> groupBy = new ArrayList<>();
+    private final List<String> orderBy = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    private ReportQueryBuilder(String from) {
+        this.from = from;
+    }
+
+    /**
+     * @param from Tabla principal con su alias, por ejemplo {@code "transactions t"}.
+     */
+    static ReportQueryBuilder from(String from) {
+        return new ReportQueryBuilder(from);
+    }
+
+    ReportQueryBuilder select(String... expressions) {
+        select.addAll(Arrays.asList(expressions));
+        return this;
+    }
+
+    ReportQueryBuilder join(String join) {
+        joins.add(join);
+        return this;
+    }
+
+    /**
+     * Agrega un predicado fijo, sin parámetros.
+     */
+    ReportQueryBuilder where(String predicate) {
+        predicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * Agrega {@code column = :param}; el valor es obligatorio.
+     */
+    ReportQueryBuilder whereEquals(String column, String param, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Parameter " + param + " is required");
+        }
+        predicates.add(column + " = :" + param);
+        parameters.put(param, value);
+        return this;
+    }
+
+    /**
+     * Agrega {@code column = :param} solo si el valor no es null.
+     */
+    ReportQueryBuilder whereEqualsIfPresent(String column, String param, Object value) {
+        if (value != null) {
+            predicates.add(column + " = :" + param);
+            parameters.put(param, value);
+        }
+        return this;
+    }
+
+    /**
+     * Agrega el rango semiabierto {@code column >= :startDate AND column < :endDate}.
+     */
+    ReportQueryBuilder whereInRange(String column, LocalDateTime start, LocalDateTime endExclusive) {
+        predicates.add(column + " >= :startDate");
+        predicates.add(column + " < :endDate");
+        parameters.put("startDate", start);
+        parameters.put("endDate", endExclusive);
+        return this;
+    }
+
+    ReportQueryBuilder groupBy(String... columns) {
+        groupBy.addAll(Arrays.asList(columns));
+        return this;
+    }
+
+    ReportQueryBuilder orderBy(String... columns) {
+        orderBy.addAll(Arrays.asList(columns));
+        return this;
+    }
+
+    String toSql() {
+        if (select.isEmpty()) {
+            throw new IllegalStateException("Report query without select list");
+        }
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(String.join(", ", select))
+                .append(" FROM ").append(from);
+        for (String join : joins) {
+            sql.append(' ').append(join);
+        }
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        if (!groupBy.isEmpty()) {
+            sql.append(" GROUP BY ").append(String.join(", ", groupBy));
+        }
+        if (!orderBy.isEmpty()) {
+            sql.append(" ORDER BY ").append(String.join(", ", orderBy));
+        }
+        return sql.toString();
+    }
+
+    Map<String, Object> parameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.demo.logic.dashboard;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de reportes del dashboard con filtros opcionales, armadas con {@link ReportQueryBuilder}.
+ * Agrupan por la columna precalculada month_key en lugar de DATE_FORMAT.
+ */
+@Repository
+public class ReportQueryRepository {
+
+    private static final String SALE = "t.transaction_type = 'VENTA'";
+    private static final String EXPENSE = "t.transaction_type IN ('COMPRA', 'GASTO_INSUMO')";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Ingresos y egresos por mes de las transacciones activas en el rango [startDate, endDate).
+     */
+    public List<IMonthlySummary> sumActiveIncomeVsExpensesByMonth(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return this.<Object[]>list(incomeVsExpensesByMonthQuery(userId, startDate, endDate, farmId)).stream()
+                .map(row -> (IMonthlySummary) new MonthlySummaryRow((String) row[0], toDouble(row[1]), toDouble(row[2])))
+                .toList();
+    }
+
+    /**
+     * Egresos por mes de las transacciones activas en el rango [startDate, endDate).
+     */
+    public List<IOperationalCost> sumActiveExpensesByMonth(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return this.<Object[]>list(expensesByMonthQuery(userId, startDate, endDate, farmId)).stream()
+                .map(row -> (IOperationalCost) new OperationalCostRow((String) row[0], toDouble(row[1])))
+                .toList();
+    }
+
+    /**
+     * Valor gastado en manejo de cultivos por mes, en el rango [startDate, endDate), para las fincas del usuario.
+     */
+    public List<IOperationalCost> sumCropManagementCostByMonth(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return this.<Object[]>list(cropManagementCostByMonthQuery(userId, startDate, endDate, farmId)).stream()
+                .map(row -> (IOperationalCost) new OperationalCostRow((String) row[0], toDouble(row[1])))
+                .toList();
+    }
+
+    /**
+     * Rendimiento por cultivo en el rango [startDate, endDate).
+     */
+    public List<ICropYield> getCropYieldSummary(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId, Long cropId) {
+        return this.<Object[]>list(cropYieldQuery(userId, startDate, endDate, farmId, cropId)).stream()
+                .map(row -> (ICropYield) new CropYieldRow((String) row[0], toDouble(row[1]), (String) row[2],
+                        toDouble(row[3]), toDouble(row[4])))
+                .toList();
+    }
+
+    /**
+     * Costos por cultivo en el rango [startDate, endDate).
+     */
+    public List<ICropCost> getCropCostSummary(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return this.<Object[]>list(cropCostQuery(userId, startDate, endDate, farmId)).stream()
+                .map(row -> (ICropCost) new CropCostRow((String) row[0], toDouble(row[1])))
+                .toList();
+    }
+
+    static ReportQueryBuilder incomeVsExpensesByMonthQuery(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return ReportQueryBuilder.from("transactions t")
+                .select("t.month_key AS month",
+                        "COALESCE(SUM(CASE WHEN " + SALE + " THEN t.total_value ELSE 0 END), 0.0) AS totalIncome",
+                        "COALESCE(SUM(CASE WHEN " + EXPENSE + " THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses")
+                .whereEquals("t.user_id", "userId", userId)
+                .whereEqualsIfPresent("t.farm_id", "farmId", farmId)
+                .whereInRange("t.transaction_date", startDate, endDate)
+                .where("t.is_active = TRUE")
+                .groupBy("t.month_key")
+                .orderBy("t.month_key ASC");
+    }
+
+    static ReportQueryBuilder expensesByMonthQuery(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return ReportQueryBuilder.from("transactions t")
+                .select("t.month_key AS month", "COALESCE(SUM(t.total_value), 0.0) AS totalCost")
+                .whereEquals("t.user_id", "userId", userId)
+                .whereEqualsIfPresent("t.farm_id", "farmId", farmId)
+                .whereInRange("t.transaction_date", startDate, endDate)
+                .where(EXPENSE)
+                .where("t.is_active = TRUE")
+                .groupBy("t.month_key")
+                .orderBy("t.month_key ASC");
+    }
+
+    static ReportQueryBuilder cropManagementCostByMonthQuery(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return ReportQueryBuilder.from("crops_management cm")
+                .select("cm.month_key AS month", "COALESCE(SUM(cm.value_spent), 0.0) AS totalCost")
+                .join("JOIN user_x_farm uxf ON cm.id_farm = uxf.farm_id")
+                .whereEquals("uxf.user_id", "userId", userId)
+                .whereEqualsIfPresent("cm.id_farm", "farmId", farmId)
+                .whereInRange("cm.action_date", startDate, endDate)
+                .where("cm.value_spent > 0")
+                .groupBy("cm.month_key")
+                .orderBy("cm.month_key ASC");
+    }
+
+    static ReportQueryBuilder cropYieldQuery(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId, Long cropId) {
+        return ReportQueryBuilder.from("transactions t")
+                .select("c.crop_name AS cropName",
+                        "COALESCE(SUM(CASE WHEN " + SALE + " THEN t.quantity ELSE 0 END), 0.0) AS totalQuantitySold",
+                        "t.measure_unit AS measureUnit",
+                        "COALESCE(SUM(CASE WHEN " + SALE + " THEN t.total_value ELSE 0 END), 0.0) AS totalIncome",
+                        "COALESCE(SUM(CASE WHEN " + EXPENSE + " THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses")
+                .join("JOIN crops c ON t.crop_id = c.id")
+                .whereEquals("t.user_id", "userId", userId)
+                .whereEqualsIfPresent("t.farm_id", "farmId", farmId)
+                .whereEqualsIfPresent("t.crop_id", "cropId", cropId)
+                .whereInRange("t.transaction_date", startDate, endDate)
+                .where("t.is_active = TRUE")
+                .groupBy("c.crop_name", "t.measure_unit")
+                .orderBy("c.crop_name ASC");
+    }
+
+    static ReportQueryBuilder cropCostQuery(Long userId, LocalDateTime startDate, LocalDateTime endDate, Long farmId) {
+        return ReportQueryBuilder.from("transactions t")
+                .select("c.crop_name AS cropName", "COALESCE(SUM(t.total_value), 0.0) AS totalCost")
+                .join("JOIN crops c ON t.crop_id = c.id")
+                .whereEquals("t.user_id", "userId", userId)
+                .whereEqualsIfPresent("t.farm_id", "farmId", farmId)
+                .whereInRange("t.transaction_date", startDate, endDate)
+                .where(EXPENSE)
+                .where("t.is_active = TRUE")
+                .groupBy("c.crop_name")
+                .orderBy("c.crop_name ASC");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> list(ReportQueryBuilder builder) {
+        Query query = entityManager.createNativeQuery(builder.toSql());
+        builder.parameters().forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    private static Double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0.0;
+    }
+
+    private record MonthlySummaryRow(String month, Double totalIncome, Double totalExpenses) implements IMonthlySummary {
+        public String getMonth() { return month; }
+        public Double getTotalIncome() { return totalIncome; }
+        public Double getTotalExpenses() { return totalExpenses; }
+    }
+
+    private record OperationalCostRow(String month, Double totalCost) implements IOperationalCost {
+        public String getMonth() { return month; }
+        public Double getTotalCost() { return totalCost; }
+    }
+
+    private record CropYieldRow(String cropName, Double totalQuantitySold, String measureUnit,
+                                Double totalIncome, Double totalExpenses) implements ICropYield {
+        public String getCropName() { return cropName; }
+        public Double getTotalQuantitySold() { return totalQuantitySold; }
+        public String getMeasureUnit() { return measureUnit; }
+        public Double getTotalIncome() { return totalIncome; }
+        public Double getTotalExpenses() { return totalExpenses; }
+    }
+
+    private record CropCostRow(String cropName, Double totalCost) implements ICropCost {
+        public String getCropName() { return cropName; }
+        public Double getTotalCost() { return totalCost; }
+    }
+}
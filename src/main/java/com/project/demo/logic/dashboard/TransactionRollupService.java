@@ -0,0 +1,215 @@
+package com.project.demo.logic.dashboard;
+
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionEnum;
+import com.project.demo.logic.entity.transaction.TransactionMonthlyRollup;
+import com.project.demo.logic.entity.transaction.TransactionMonthlyRollupRepository;
+import com.project.demo.logic.entity.transaction.TransactionRepository;
+import com.project.demo.rest.dashboard.DTO.RollupConsistencyReportDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mantiene el acumulado mensual de transacciones (tabla transaction_monthly_rollups).
+ * Cada alta, edición o desactivación de una transacción se traduce en un delta que se suma
+ * a la fila (usuario, finca, cultivo, mes) correspondiente.
+ */
+@Service
+public class TransactionRollupService {
+
+    private static final double EPSILON = 0.005;
+
+    /**
+     * Tipos que cuentan como egreso. Debe coincidir con el IN ('COMPRA', 'GASTO_INSUMO') de las consultas de
+     * reconstrucción y de verificación; cualquier otro tipo (o ninguno) no suma ni a ingresos ni a egresos.
+     */
+    static final Set<String> EXPENSE_TYPES = Set.of("COMPRA", "GASTO_INSUMO");
+
+    @Autowired
+    private TransactionMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    /**
+     * Aporte de una transacción al acumulado. Se toma antes de modificar la entidad,
+     * porque después de guardar los valores anteriores ya no están disponibles.
+     */
+    public record RollupDelta(Long userId, Long farmId, Long cropId, String monthKey,
+                              double income, double expenses, double quantitySold) {}
+
+    /**
+     * Calcula el aporte de una transacción al acumulado.
+     * Las transacciones inactivas, sin fecha o sin finca/cultivo no aportan nada y devuelven null.
+     */
+    public RollupDelta snapshot(Transaction transaction) {
+        if (transaction == null
+                || !Boolean.TRUE.equals(transaction.getIsActive())
+                || transaction.getTransactionDate() == null
+                || transaction.getUser() == null
+                || transaction.getFarm() == null
+                || transaction.getCrop() == null) {
+            return null;
+        }
+        double value = transaction.getTotalValue() != null ? transaction.getTotalValue() : 0.0;
+        boolean isSale = transaction.getTransactionType() == TransactionEnum.VENTA;
+        boolean isExpense = transaction.getTransactionType() != null
+                && EXPENSE_TYPES.contains(transaction.getTransactionType().name());
+        double quantity = isSale && transaction.getQuantity() != null ? transaction.getQuantity() : 0.0;
+
+        return new RollupDelta(
+                transaction.getUser().getId(),
+                transaction.getFarm().getId(),
+                transaction.getCrop().getId(),
+                TransactionMonthlyRollup.monthKeyOf(transaction.getTransactionDate()),
+                isSale ? value : 0.0,
+                isExpense ? value : 0.0,
+                quantity);
+    }
+
+    /**
+     * Aplica al acumulado el cambio de una transacción: resta su aporte anterior y suma el nuevo.
+     *
+     * @param before Aporte antes del cambio (null para altas).
+     * @param after Aporte después del cambio (null para desactivaciones).
+     */
+    @Transactional
+    public void recordChange(RollupDelta before, RollupDelta after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    /**
+     * Aplica al acumulado una carga masiva de altas. Los aportes se agrupan por (usuario, finca, cultivo, mes)
+     * y se hace un solo upsert por grupo, en lugar de uno por transacción.
+     */
+    @Transactional
+    public void recordInserts(Collection<RollupDelta> deltas) {
+        Map<String, RollupDelta> totals = new HashMap<>();
+        Map<String, Long> counts = new HashMap<>();
+        for (RollupDelta delta : deltas) {
+            if (delta == null) {
+                continue;
+            }
+            String key = delta.userId() + ":" + key(delta.farmId(), delta.cropId(), delta.monthKey());
+            totals.merge(key, delta, (a, b) -> new RollupDelta(a.userId(), a.farmId(), a.cropId(), a.monthKey(),
+                    a.income() + b.income(), a.expenses() + b.expenses(), a.quantitySold() + b.quantitySold()));
+            counts.merge(key, 1L, Long::sum);
+        }
+        totals.forEach((key, total) -> rollupRepository.upsertDelta(
+                total.userId(), total.farmId(), total.cropId(), total.monthKey(),
+                total.income(), total.expenses(), total.quantitySold(), counts.get(key)));
+    }
+
+    private void apply(RollupDelta delta, int sign) {
+        rollupRepository.upsertDelta(
+                delta.userId(), delta.farmId(), delta.cropId(), delta.monthKey(),
+                sign * delta.income(), sign * delta.expenses(), sign * delta.quantitySold(), (long) sign);
+        if (sign < 0) {
+            rollupRepository.deleteIfEmpty(delta.userId(), delta.farmId(), delta.cropId(), delta.monthKey());
+        }
+    }
+
+    /**
+     * Recalcula el acumulado desde la tabla de transacciones.
+     *
+     * @param userId Usuario a recalcular, o null para recalcular todos.
+     * @return Número de filas generadas en el acumulado.
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        if (userId == null) {
+            rollupRepository.deleteAllInBatch();
+            return rollupRepository.rebuildAll();
+        }
+        rollupRepository.deleteAllByUserId(userId);
+        return rollupRepository.rebuildForUser(userId);
+    }
+
+    /**
+     * Compara el acumulado contra lo que resultaría de recalcularlo desde las transacciones.
+     *
+     * @param userId Usuario a verificar, o null para verificar todos.
+     */
+    @Transactional(readOnly = true)
+    public RollupConsistencyReportDTO checkConsistency(Long userId) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (userId != null) {
+            userIds.add(userId);
+        } else {
+            userIds.addAll(transactionRepository.findDistinctActiveUserIds());
+            userIds.addAll(rollupRepository.findDistinctUserIds());
+        }
+
+        List<RollupConsistencyReportDTO.Mismatch> mismatches = new ArrayList<>();
+        long checkedRows = 0;
+
+        for (Long id : userIds) {
+            Map<String, TransactionMonthlyRollup> actualByKey = new HashMap<>();
+            for (TransactionMonthlyRollup row : rollupRepository.findByUserId(id)) {
+                actualByKey.put(key(row.getFarmId(), row.getCropId(), row.getMonthKey()), row);
+            }
+
+            for (IRollupRow expected : transactionRepository.aggregateRollupRowsByUserId(id)) {
+                checkedRows++;
+                TransactionMonthlyRollup actual = actualByKey.remove(
+                        key(expected.getFarmId(), expected.getCropId(), expected.getMonthKey()));
+                double actualIncome = actual != null ? actual.getTotalIncome() : 0.0;
+                double actualExpenses = actual != null ? actual.getTotalExpenses() : 0.0;
+                double actualQuantity = actual != null ? actual.getQuantitySold() : 0.0;
+                long actualCount = actual != null ? actual.getTransactionCount() : 0L;
+
+                if (actual == null
+                        || differs(expected.getTotalIncome(), actualIncome)
+                        || differs(expected.getTotalExpenses(), actualExpenses)
+                        || differs(expected.getQuantitySold(), actualQuantity)
+                        || expected.getTransactionCount() != actualCount) {
+                    mismatches.add(new RollupConsistencyReportDTO.Mismatch(
+                            id, expected.getFarmId(), expected.getCropId(), expected.getMonthKey(),
+                            expected.getTotalIncome(), actualIncome,
+                            expected.getTotalExpenses(), actualExpenses,
+                            expected.getQuantitySold(), actualQuantity,
+                            expected.getTransactionCount(), actualCount));
+                }
+            }
+
+            // Filas del acumulado que ya no tienen transacciones detrás
+            for (TransactionMonthlyRollup orphan : actualByKey.values()) {
+                checkedRows++;
+                mismatches.add(new RollupConsistencyReportDTO.Mismatch(
+                        id, orphan.getFarmId(), orphan.getCropId(), orphan.getMonthKey(),
+                        0.0, orphan.getTotalIncome(),
+                        0.0, orphan.getTotalExpenses(),
+                        0.0, orphan.getQuantitySold(),
+                        0L, orphan.getTransactionCount()));
+            }
+        }
+
+        return new RollupConsistencyReportDTO(userIds.size(), checkedRows, mismatches.size(), mismatches);
+    }
+
+    private static String key(Long farmId, Long cropId, String monthKey) {
+        return farmId + ":" + cropId + ":" + monthKey;
+    }
+
+    private static boolean differs(double expected, double actual) {
+        return Math.abs(expected - actual) > EPSILON;
+    }
+}
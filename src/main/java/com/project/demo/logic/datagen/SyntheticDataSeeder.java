@@ -0,0 +1,549 @@
+package com.project.demo.logic.datagen;
+
+import com.project.demo.logic.dashboard.TransactionRollupService;
+import com.project.demo.logic.entity.role.Role;
+import com.project.demo.logic.entity.role.RoleEnum;
+import com.project.demo.logic.entity.role.RoleRepository;
+import com.project.demo.logic.entity.transaction.MeasureUnitEnum;
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionEnum;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * Genera un conjunto de datos sintético para pruebas de carga y de escala: usuarios, fincas, parcelas,
+ * cultivos, manejo de cultivos, grupos de animales con su historial y transacciones.
+ *
+ * Solo se activa con el perfil "datagen" (por ejemplo --spring.profiles.active=datagen) y debe ejecutarse
+ * sobre una base de datos dedicada. Las filas se insertan por JDBC en lotes de datagen.batch-size, con ids
+ * asignados a partir del máximo actual de cada tabla; en MySQL conviene agregar rewriteBatchedStatements=true
+ * a la URL para que cada lote viaje como un único INSERT de varias filas. Al terminar se reconstruye el
+ * acumulado mensual de transacciones.
+ *
+ * Las transacciones se reparten entre los usuarios con una distribución sesgada (pocos usuarios concentran
+ * muchas transacciones), con más ventas en los meses de cosecha, más compras en los de siembra y un
+ * crecimiento gradual hacia los meses recientes. Con la misma semilla se genera siempre el mismo conjunto.
+ * Si ya existen usuarios generados, no se hace nada.
+ */
+@Profile("datagen")
+@Component
+@Order(10)
+public class SyntheticDataSeeder implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+
+    static final String EMAIL_DOMAIN = "@datagen.agrisync.com";
+
+    private static final String[] CROP_NAMES = {
+            "Café", "Banano", "Piña", "Caña de azúcar", "Arroz", "Frijol",
+            "Maíz", "Papa", "Tomate", "Chile dulce", "Cebolla", "Yuca"
+    };
+    private static final String[] CROP_TYPES = {"Perenne", "Anual", "Hortaliza", "Grano"};
+    private static final MeasureUnitEnum[] CROP_UNITS = {
+            MeasureUnitEnum.KILOGRAMO, MeasureUnitEnum.TONELADA, MeasureUnitEnum.SACO,
+            MeasureUnitEnum.CAJA, MeasureUnitEnum.UNIDAD, MeasureUnitEnum.LITRO
+    };
+    private static final String[] PLOT_USAGES = {"Producción", "Descanso", "Siembra", "Pastoreo"};
+    private static final String[] MANAGEMENT_ACTIONS = {
+            "Fertilización", "Riego", "Control de plagas", "Poda", "Deshierba", "Cosecha", "Siembra"
+    };
+    private static final String[] PROVINCES = {
+            "Alajuela", "Cartago", "Guanacaste", "Heredia", "Limón", "Puntarenas", "San José"
+    };
+
+    /**
+     * Especies de los grupos de animales, con su tipo de producción (en minúscula, como lo guarda
+     * ProductionTypeEnumConverter), la unidad y la producción semanal promedio por animal.
+     */
+    private record AnimalProfile(String species, String productionType, String measure, double weeklyPerAnimal) {}
+
+    private static final AnimalProfile[] ANIMAL_PROFILES = {
+            new AnimalProfile("Bovino", "leche", "Litros", 84),
+            new AnimalProfile("Bovino", "carne", "Kilogramos", 5),
+            new AnimalProfile("Gallina", "huevos", "Unidades", 6),
+            new AnimalProfile("Porcino", "carne", "Kilogramos", 4),
+            new AnimalProfile("Caprino", "leche", "Litros", 14)
+    };
+
+    /**
+     * Peso relativo de cada mes del año (enero = 0) para ventas y compras.
+     * Las ventas se concentran en la cosecha (noviembre a febrero) y las compras en la siembra (mayo a julio).
+     */
+    private static final double[] SALE_SEASONALITY = {1.6, 1.4, 1.0, 0.8, 0.7, 0.7, 0.8, 0.8, 0.9, 1.0, 1.4, 1.7};
+    private static final double[] PURCHASE_SEASONALITY = {0.8, 0.8, 0.9, 1.1, 1.4, 1.6, 1.4, 1.1, 0.9, 0.8, 0.7, 0.8};
+
+    private static final double SALE_RATIO = 0.4;
+    private static final double INACTIVE_RATIO = 0.02;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionRollupService rollupService;
+    private final FarmAccessService farmAccessService;
+
+    @Value("${datagen.users:100}")
+    private int users;
+
+    @Value("${datagen.farms-per-user:3}")
+    private int farmsPerUser;
+
+    @Value("${datagen.plots-per-farm:5}")
+    private int plotsPerFarm;
+
+    @Value("${datagen.crops-per-user:8}")
+    private int cropsPerUser;
+
+    @Value("${datagen.management-per-plot:40}")
+    private int managementPerPlot;
+
+    @Value("${datagen.animal-groups-per-farm:2}")
+    private int animalGroupsPerFarm;
+
+    @Value("${datagen.history-per-group:104}")
+    private int historyPerGroup;
+
+    @Value("${datagen.transactions:1000000}")
+    private long transactions;
+
+    @Value("${datagen.months:24}")
+    private int months;
+
+    @Value("${datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                               TransactionRollupService rollupService, FarmAccessService farmAccessService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.rollupService = rollupService;
+        this.farmAccessService = farmAccessService;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (users < 1 || farmsPerUser < 1 || cropsPerUser < 1 || batchSize < 1) {
+            logger.warn("datagen.users, farms-per-user, crops-per-user and batch-size must be positive, skipping");
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE user_email LIKE ?", Integer.class, "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            logger.info("Synthetic data already present ({} users), skipping generation", existing);
+            return;
+        }
+        Optional<Role> userRole = roleRepository.findByRoleName(RoleEnum.USER);
+        if (userRole.isEmpty()) {
+            logger.warn("Role USER not found, skipping synthetic data generation");
+            return;
+        }
+
+        long started = System.nanoTime();
+        Dataset dataset = new Dataset(
+                nextId("users"), nextId("farms"), nextId("farm_plots"), nextId("crops"),
+                nextId("animal_groups"));
+        SplittableRandom random = new SplittableRandom(seed);
+
+        insertUsers(dataset, userRole.get().getId());
+        insertFarms(dataset, random.split());
+        // Los vínculos de user_x_farm se insertan por JDBC, sin pasar por los controladores que invalidan
+        farmAccessService.evictAll();
+        insertPlots(dataset);
+        insertCrops(dataset, random.split());
+        insertCropsManagement(dataset, random.split());
+        insertAnimalGroups(dataset, random.split());
+        insertAnimalGroupHistory(dataset, random.split());
+        insertTransactions(dataset, random.split());
+
+        int rollupRows = rollupService.rebuild(null);
+        logger.info("Synthetic data generated in {} s ({} rollup rows)",
+                (System.nanoTime() - started) / 1_000_000_000, rollupRows);
+    }
+
+    /**
+     * Ids asignados a cada entidad generada. Las entidades de un usuario o finca ocupan rangos
+     * contiguos, así que los ids de los hijos se calculan sin consultar la base de datos.
+     */
+    private final class Dataset {
+        final long userBase;
+        final long farmBase;
+        final long plotBase;
+        final long cropBase;
+        final long animalGroupBase;
+        /** Precio base por unidad de cada cultivo generado, indexado como cropId - cropBase. */
+        double[] cropPrices;
+        /** Unidad de medida de cada cultivo generado. */
+        MeasureUnitEnum[] cropUnits;
+
+        Dataset(long userBase, long farmBase, long plotBase, long cropBase, long animalGroupBase) {
+            this.userBase = userBase;
+            this.farmBase = farmBase;
+            this.plotBase = plotBase;
+            this.cropBase = cropBase;
+            this.animalGroupBase = animalGroupBase;
+        }
+
+        long userId(int user) {
+            return userBase + user;
+        }
+
+        long farmId(int user, int farm) {
+            return farmBase + (long) user * farmsPerUser + farm;
+        }
+
+        long cropId(int user, int crop) {
+            return cropBase + (long) user * cropsPerUser + crop;
+        }
+    }
+
+    private void insertUsers(Dataset dataset, long roleId) {
+        String password = passwordEncoder.encode("datagen123");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insert("users",
+                "INSERT INTO users (id, user_name, user_first_surename, user_email, user_password, role, " +
+                        "created_at, updated_at, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, TRUE)",
+                users, (ps, row) -> {
+                    ps.setLong(1, dataset.userId((int) row));
+                    ps.setString(2, "Usuario " + row);
+                    ps.setString(3, "Sintético");
+                    ps.setString(4, "user" + row + EMAIL_DOMAIN);
+                    ps.setString(5, password);
+                    ps.setLong(6, roleId);
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                });
+    }
+
+    private void insertFarms(Dataset dataset, SplittableRandom random) {
+        long farms = (long) users * farmsPerUser;
+        insert("farms",
+                "INSERT INTO farms (id, farm_name, farm_country, farm_state_province, farm_size, farm_measure_unit, " +
+                        "is_active) VALUES (?, ?, 'Costa Rica', ?, ?, 'ha', TRUE)",
+                farms, (ps, row) -> {
+                    ps.setLong(1, dataset.farmBase + row);
+                    ps.setString(2, "Finca " + row);
+                    ps.setString(3, PROVINCES[random.nextInt(PROVINCES.length)]);
+                    ps.setDouble(4, round(logNormal(random, Math.log(15), 0.8), 1));
+                });
+        insert("user_x_farm",
+                "INSERT INTO user_x_farm (user_id, farm_id, is_active) VALUES (?, ?, TRUE)",
+                farms, (ps, row) -> {
+                    ps.setLong(1, dataset.userId((int) (row / farmsPerUser)));
+                    ps.setLong(2, dataset.farmBase + row);
+                });
+    }
+
+    private void insertPlots(Dataset dataset) {
+        long plots = (long) users * farmsPerUser * plotsPerFarm;
+        insert("farm_plots",
+                "INSERT INTO farm_plots (id, farm_id, plot_name, plot_type, current_usage, is_active) " +
+                        "VALUES (?, ?, ?, ?, ?, TRUE)",
+                plots, (ps, row) -> {
+                    ps.setLong(1, dataset.plotBase + row);
+                    ps.setLong(2, dataset.farmBase + row / plotsPerFarm);
+                    ps.setString(3, "Parcela " + (row % plotsPerFarm + 1));
+                    ps.setString(4, row % 4 == 3 ? "Pastoreo" : "Cultivo");
+                    ps.setString(5, PLOT_USAGES[(int) (row % PLOT_USAGES.length)]);
+                });
+    }
+
+    private void insertCrops(Dataset dataset, SplittableRandom random) {
+        int crops = users * cropsPerUser;
+        dataset.cropPrices = new double[crops];
+        dataset.cropUnits = new MeasureUnitEnum[crops];
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insert("crops",
+                "INSERT INTO crops (id, user_id, crop_name, crop_type, crop_variety, created_at, updated_at, is_active) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE)",
+                crops, (ps, row) -> {
+                    int index = (int) row;
+                    String name = CROP_NAMES[random.nextInt(CROP_NAMES.length)];
+                    dataset.cropPrices[index] = 200 + random.nextInt(4_800);
+                    dataset.cropUnits[index] = CROP_UNITS[random.nextInt(CROP_UNITS.length)];
+                    ps.setLong(1, dataset.cropBase + row);
+                    ps.setLong(2, dataset.userId(index / cropsPerUser));
+                    ps.setString(3, name);
+                    ps.setString(4, CROP_TYPES[random.nextInt(CROP_TYPES.length)]);
+                    ps.setString(5, name + " " + (index % cropsPerUser + 1));
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+    }
+
+    private void insertCropsManagement(Dataset dataset, SplittableRandom random) {
+        long plots = (long) users * farmsPerUser * plotsPerFarm;
+        DateSampler dates = new DateSampler(months, null);
+        insert("crops_management",
+                "INSERT INTO crops_management (id_crop, id_farm_plot, id_farm, action_name, measure_unit, measure_value, " +
+                        "value_spent, action_date, month_key, is_active) VALUES (?, ?, ?, ?, 'Kilogramos', ?, ?, ?, ?, ?)",
+                plots * managementPerPlot, (ps, row) -> {
+                    long plotIndex = row / managementPerPlot;
+                    long farmIndex = plotIndex / plotsPerFarm;
+                    int user = (int) (farmIndex / farmsPerUser);
+                    LocalDateTime date = dates.sample(random);
+                    ps.setLong(1, dataset.cropId(user, random.nextInt(cropsPerUser)));
+                    ps.setLong(2, dataset.plotBase + plotIndex);
+                    ps.setLong(3, dataset.farmBase + farmIndex);
+                    ps.setString(4, MANAGEMENT_ACTIONS[random.nextInt(MANAGEMENT_ACTIONS.length)]);
+                    ps.setDouble(5, round(logNormal(random, Math.log(20), 0.7), 1));
+                    ps.setDouble(6, round(logNormal(random, Math.log(15_000), 0.9), 2));
+                    ps.setTimestamp(7, Timestamp.valueOf(date));
+                    ps.setString(8, monthKey(date));
+                    ps.setBoolean(9, random.nextDouble() >= INACTIVE_RATIO);
+                });
+    }
+
+    private void insertAnimalGroups(Dataset dataset, SplittableRandom random) {
+        long groups = (long) users * farmsPerUser * animalGroupsPerFarm;
+        insert("animal_groups",
+                "INSERT INTO animal_groups (id, user_id, farm_id, group_name, species, count, measure, production_type, " +
+                        "is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, TRUE)",
+                groups, (ps, row) -> {
+                    long farmIndex = row / animalGroupsPerFarm;
+                    AnimalProfile profile = animalProfile(dataset.animalGroupBase + row);
+                    ps.setLong(1, dataset.animalGroupBase + row);
+                    ps.setLong(2, dataset.userId((int) (farmIndex / farmsPerUser)));
+                    ps.setLong(3, dataset.farmBase + farmIndex);
+                    ps.setString(4, profile.species() + " " + (row % animalGroupsPerFarm + 1));
+                    ps.setString(5, profile.species());
+                    ps.setInt(6, animalCount(dataset.animalGroupBase + row));
+                    ps.setString(7, profile.measure());
+                    ps.setString(8, profile.productionType());
+                });
+    }
+
+    /**
+     * Un registro semanal por grupo, hacia atrás desde hoy, con una producción que varía alrededor
+     * del promedio de la especie multiplicado por el tamaño del grupo.
+     */
+    private void insertAnimalGroupHistory(Dataset dataset, SplittableRandom random) {
+        long groups = (long) users * farmsPerUser * animalGroupsPerFarm;
+        LocalDate today = LocalDate.now();
+        insert("animal_groups_history",
+                "INSERT INTO animal_groups_history (animal_group_id, record_date, production_value, production_measure) " +
+                        "VALUES (?, ?, ?, ?)",
+                groups * historyPerGroup, (ps, row) -> {
+                    long groupId = dataset.animalGroupBase + row / historyPerGroup;
+                    AnimalProfile profile = animalProfile(groupId);
+                    double expected = profile.weeklyPerAnimal() * animalCount(groupId);
+                    ps.setLong(1, groupId);
+                    ps.setDate(2, Date.valueOf(today.minusWeeks(row % historyPerGroup)));
+                    ps.setDouble(3, round(Math.max(0, expected * (1 + 0.15 * random.nextGaussian())), 1));
+                    ps.setString(4, profile.measure());
+                });
+    }
+
+    private void insertTransactions(Dataset dataset, SplittableRandom random) {
+        long firstId = reserveTransactionIds(transactions);
+        long[] perUser = transactionsPerUser(random);
+        DateSampler saleDates = new DateSampler(months, SALE_SEASONALITY);
+        DateSampler purchaseDates = new DateSampler(months, PURCHASE_SEASONALITY);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // El escritor avanza por los usuarios en orden, porque las filas se piden en orden creciente.
+        int[] user = {0};
+        long[] remaining = {perUser[0]};
+        insert("transactions",
+                "INSERT INTO transactions (id, user_id, farm_id, crop_id, transaction_type, quantity, measure_unit, " +
+                        "price_per_unit, total_value, transaction_date, created_at, updated_at, is_active, month_key) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                transactions, (ps, row) -> {
+                    while (remaining[0] == 0) {
+                        remaining[0] = perUser[++user[0]];
+                    }
+                    remaining[0]--;
+                    int cropIndex = user[0] * cropsPerUser + random.nextInt(cropsPerUser);
+                    boolean sale = random.nextDouble() < SALE_RATIO;
+                    LocalDateTime date = (sale ? saleDates : purchaseDates).sample(random);
+                    double quantity = round(logNormal(random, Math.log(50), 1.0), 1);
+                    double price = round(dataset.cropPrices[cropIndex] * (sale ? 1.0 : 0.8)
+                            * Math.max(0.3, 1 + 0.15 * random.nextGaussian()), 2);
+                    ps.setLong(1, firstId + row);
+                    ps.setLong(2, dataset.userId(user[0]));
+                    ps.setLong(3, dataset.farmId(user[0], random.nextInt(farmsPerUser)));
+                    ps.setLong(4, dataset.cropBase + cropIndex);
+                    ps.setString(5, (sale ? TransactionEnum.VENTA : TransactionEnum.COMPRA).name());
+                    ps.setDouble(6, quantity);
+                    ps.setString(7, dataset.cropUnits[cropIndex].name());
+                    ps.setDouble(8, price);
+                    ps.setDouble(9, round(quantity * price, 2));
+                    ps.setTimestamp(10, Timestamp.valueOf(date));
+                    ps.setTimestamp(11, now);
+                    ps.setTimestamp(12, now);
+                    ps.setBoolean(13, random.nextDouble() >= INACTIVE_RATIO);
+                    ps.setString(14, monthKey(date));
+                });
+    }
+
+    /**
+     * Reparte el total de transacciones con pesos de una distribución de Pareto, de modo que unos pocos
+     * usuarios tengan muchas más transacciones que la mayoría.
+     */
+    private long[] transactionsPerUser(SplittableRandom random) {
+        double[] weights = new double[users];
+        double total = 0;
+        for (int i = 0; i < users; i++) {
+            weights[i] = Math.pow(1 - random.nextDouble(), -1 / 1.2);
+            total += weights[i];
+        }
+        long[] counts = new long[users];
+        long assigned = 0;
+        for (int i = 0; i < users; i++) {
+            counts[i] = (long) Math.floor(transactions * weights[i] / total);
+            assigned += counts[i];
+        }
+        counts[users - 1] += transactions - assigned;
+        return counts;
+    }
+
+    /**
+     * Reserva un rango contiguo de ids de transacciones en id_generators, para que las altas posteriores
+     * hechas por Hibernate no choquen con las filas generadas.
+     *
+     * @return Primer id del rango reservado.
+     */
+    long reserveTransactionIds(long count) {
+        Long firstId = transactionTemplate.execute(status -> {
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM id_generators WHERE generator_name = 'transactions' FOR UPDATE", Long.class);
+            long maxId = nextId("transactions") - 1;
+            long first = Math.max(current.isEmpty() ? 0 : current.get(0), maxId) + 1;
+            long next = first + count - 1 + Transaction.ID_ALLOCATION_SIZE;
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO id_generators (generator_name, next_val) VALUES ('transactions', ?)", next);
+            } else {
+                jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE generator_name = 'transactions'", next);
+            }
+            return first;
+        });
+        return firstId != null ? firstId : 1;
+    }
+
+    /**
+     * Escribe los parámetros de la fila número {@code row} (desde 0) de una inserción por lotes.
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, long row) throws SQLException;
+    }
+
+    private void insert(String table, String sql, long rows, RowWriter writer) {
+        long started = System.nanoTime();
+        for (long offset = 0; offset < rows; offset += batchSize) {
+            long from = offset;
+            int size = (int) Math.min(batchSize, rows - offset);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    writer.write(ps, from + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+        logger.info("Synthetic data: {} rows inserted into {} in {} ms",
+                rows, table, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    private static AnimalProfile animalProfile(long groupId) {
+        return ANIMAL_PROFILES[(int) (groupId % ANIMAL_PROFILES.length)];
+    }
+
+    /**
+     * Tamaño del grupo, derivado del id para que el historial pueda calcularlo sin guardarlo.
+     */
+    private static int animalCount(long groupId) {
+        return 5 + (int) ((groupId * 37) % 120);
+    }
+
+    private static double logNormal(SplittableRandom random, double mu, double sigma) {
+        return Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+
+    private static String monthKey(LocalDateTime date) {
+        return YearMonth.from(date).toString();
+    }
+
+    /**
+     * Elige fechas dentro de los últimos meses (incluido el actual, hasta hoy). Cada mes pesa según su
+     * estacionalidad y según una tendencia creciente hacia el presente.
+     */
+    private static final class DateSampler {
+        private final YearMonth firstMonth;
+        private final double[] cumulative;
+        private final LocalDate today = LocalDate.now();
+
+        DateSampler(int months, double[] seasonality) {
+            YearMonth current = YearMonth.from(today);
+            this.firstMonth = current.minusMonths(months - 1L);
+            this.cumulative = new double[months];
+            double total = 0;
+            for (int i = 0; i < months; i++) {
+                YearMonth month = firstMonth.plusMonths(i);
+                double weight = 1 + 0.5 * i / months;
+                if (seasonality != null) {
+                    weight *= seasonality[month.getMonthValue() - 1];
+                }
+                if (month.equals(current)) {
+                    weight *= (double) today.getDayOfMonth() / month.lengthOfMonth();
+                }
+                total += weight;
+                cumulative[i] = total;
+            }
+        }
+
+        LocalDateTime sample(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            YearMonth month = firstMonth.plusMonths(Math.min(index, cumulative.length - 1));
+            int lastDay = month.equals(YearMonth.from(today)) ? today.getDayOfMonth() : month.lengthOfMonth();
+            return month.atDay(1 + random.nextInt(lastDay))
+                    .atTime(6 + random.nextInt(12), random.nextInt(60));
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.project.demo.logic.entity.animal;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +15,8 @@ public interface AnimalGroupRepository extends JpaRepository<AnimalGroup, Long>
     List<AnimalGroup> findByFarmId(Long farmId);
 
     Optional<AnimalGroup> findByIdAndFarmId(Long groupId, Long farmId);
+
+    @Query("SELECT g.id AS id, g.groupName AS groupName, g.productionType AS productionType, g.measure AS measure " +
+            "FROM AnimalGroup g WHERE g.farm.id = :farmId ORDER BY g.id")
+    List<IAnimalGroupContext> findContextByFarmId(@Param("farmId") Long farmId, Limit limit);
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.project.demo.logic.entity.animal;
 
 import com.project.demo.logic.entity.user.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +22,8 @@ public interface AnimalRepository extends JpaRepository<Animal, Long> {
     Page<Animal> findByFarmIdAndAnimalGroupId(Long farmId, Long groupId, Pageable pageable);
 
     Optional<Animal> findByIdAndFarmId(Long animalId, Long farmId);
+
+    @Query("SELECT a.animalGroup.id AS groupId, a.species AS species, a.breed AS breed, a.count AS count " +
+            "FROM Animal a WHERE a.animalGroup.id IN :groupIds ORDER BY a.animalGroup.id, a.id")
+    List<IAnimalContext> findContextByGroupIds(@Param("groupIds") Collection<Long> groupIds, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.project.demo.logic.entity.animal;
+
+/**
+ * Proyección de interfaz de un animal para el contexto de la IA.
+ */
+public interface IAnimalContext {
+    Long getGroupId();
+    String getSpecies();
+    String getBreed();
+    Integer getCount();
+}
@@ -0,0 +1,11 @@
+package com.project.demo.logic.entity.animal;
+
+/**
+ * Proyección de interfaz de un grupo de animales para el contexto de la IA.
+ */
+public interface IAnimalGroupContext {
+    Long getId();
+    String getGroupName();
+    ProductionTypeEnum getProductionType();
+    String getMeasure();
+}
@@ -0,0 +1,108 @@
+package com.project.demo.logic.entity.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project.demo.logic.entity.user.User;
+import com.project.demo.logic.persistence.AfterCommit;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guarda por token los claims ya verificados y el usuario resuelto, para que el filtro JWT no tenga que
+ * verificar la firma ni consultar la base de datos en cada solicitud. Cada entrada vence cuando vence su token,
+ * o antes si se alcanza el tiempo máximo configurado, de modo que los cambios hechos fuera de la aplicación
+ * también terminan viéndose.
+ *
+ * Del usuario se guarda una copia inmutable ({@link UserSnapshot}) y cada acierto entrega una instancia nueva,
+ * así una solicitud no puede modificar el principal que ven las demás. Un usuario que deja de estar habilitado
+ * se rechaza en el siguiente acierto, sin esperar a que venza la entrada.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private record Entry(Claims claims, UserSnapshot snapshot) {}
+
+    private final Cache<String, Entry> cache;
+
+    public AuthenticatedUserCache(
+            @Value("${security.jwt.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.jwt.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String token, Entry entry, long currentTime) {
+                        long untilExpiration = entry.claims().getExpiration() == null ? maxTtlNanos
+                                : Duration.ofMillis(entry.claims().getExpiration().getTime() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(maxTtlNanos, untilExpiration));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return Una instancia nueva del usuario del token, propia de la solicitud que la pide, o null si el token
+     * no está en caché o si el usuario ya no está habilitado.
+     */
+    public UserDetails get(String token) {
+        Entry entry = cache.getIfPresent(token);
+        if (entry == null) {
+            return null;
+        }
+        User user = entry.snapshot().toUser();
+        if (!isUsable(user)) {
+            cache.invalidate(token);
+            return null;
+        }
+        return user;
+    }
+
+    /**
+     * Guarda el token verificado. Solo se guardan entidades {@link User} habilitadas; cualquier otro
+     * {@link UserDetails} se vuelve a cargar en cada solicitud.
+     */
+    public void put(String token, Claims claims, UserDetails user) {
+        if (user instanceof User entity && isUsable(entity)) {
+            cache.put(token, new Entry(claims, UserSnapshot.of(entity)));
+        }
+    }
+
+    /**
+     * Descarta todas las entradas del usuario. Debe llamarse cuando cambian sus datos, su contraseña, su rol
+     * o cuando se desactiva o elimina. Si hay una transacción de base de datos activa, se descarta después
+     * del commit, para que una solicitud concurrente no vuelva a guardar el usuario anterior al cambio.
+     * @param username El correo con el que el usuario inicia sesión (el subject de sus tokens).
+     */
+    public void evictUser(String username) {
+        if (username == null) {
+            return;
+        }
+        AfterCommit.run(() -> cache.asMap().values()
+                .removeIf(entry -> username.equalsIgnoreCase(entry.snapshot().userEmail())));
+    }
+
+    public void evictAll() {
+        AfterCommit.run(cache::invalidateAll);
+    }
+
+    private static boolean isUsable(UserDetails user) {
+        return user.isEnabled() && user.isAccountNonLocked() && user.isAccountNonExpired();
+    }
+}
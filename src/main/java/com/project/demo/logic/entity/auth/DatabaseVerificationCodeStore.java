@@ -0,0 +1,55 @@
+package com.project.demo.logic.entity.auth;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Códigos de verificación en la tabla verification_codes, compartidos entre todos los nodos.
+ * La verificación es un DELETE condicionado al hash, al vencimiento y a los intentos: solo la solicitud que
+ * borra la fila acepta el código. Los intentos fallidos se suman con un UPDATE condicionado al límite, así que
+ * las solicitudes concurrentes (en uno o varios nodos) no pueden pasar del máximo ni perder incrementos.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.verification-codes.store", havingValue = "database")
+public class DatabaseVerificationCodeStore implements VerificationCodeStore {
+
+    private final VerificationCodeRepository verificationCodeRepository;
+
+    public DatabaseVerificationCodeStore(VerificationCodeRepository verificationCodeRepository) {
+        this.verificationCodeRepository = verificationCodeRepository;
+    }
+
+    @Override
+    @Transactional
+    public void put(String email, String codeHash, Instant expiresAt) {
+        verificationCodeRepository.save(new VerificationCode(email, codeHash, expiresAt));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<VerificationCodeEntry> get(String email) {
+        return verificationCodeRepository.findById(email)
+                .map(code -> new VerificationCodeEntry(code.getCodeHash(), code.getExpiresAt(), code.getFailedAttempts()));
+    }
+
+    @Override
+    @Transactional
+    public boolean consume(String email, String codeHash, Instant now, int maxAttempts) {
+        if (verificationCodeRepository.deleteIfMatches(email, codeHash, now, maxAttempts) == 1) {
+            return true;
+        }
+        verificationCodeRepository.incrementFailedAttempts(email, now, maxAttempts);
+        verificationCodeRepository.deleteIfExhausted(email, now, maxAttempts);
+        return false;
+    }
+
+    @Override
+    @Transactional
+    public void removeExpired(Instant now) {
+        verificationCodeRepository.deleteExpired(now);
+    }
+}
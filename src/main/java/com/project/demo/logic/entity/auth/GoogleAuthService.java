@@ -2,6 +2,9 @@ package com.project.demo.logic.entity.auth;
 
 import com.project.demo.logic.entity.user.User;
 import com.project.demo.logic.entity.user.UserRepository;
+import com.project.demo.logic.outbound.OutboundDestination;
+import com.project.demo.logic.outbound.OutboundHttpClients;
+import com.project.demo.logic.outbound.OutboundIntegration;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
 import com.google.api.client.http.javanet.NetHttpTransport;
@@ -12,7 +15,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Profile;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -25,7 +27,7 @@ public class GoogleAuthService {
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final RestTemplate restTemplate;
+    private final OutboundIntegration google;
     private final GoogleIdTokenVerifier verifier;
 
     @Value("${google.client-id}")
@@ -40,10 +42,11 @@ public class GoogleAuthService {
     @Value("${google.token-uri}")
     private String tokenUri;
 
-    public GoogleAuthService(UserRepository userRepository, JwtService jwtService, @Value("${google.client-id}") String clientId) {
+    public GoogleAuthService(UserRepository userRepository, JwtService jwtService, OutboundHttpClients outboundHttpClients,
+                             @Value("${google.client-id}") String clientId) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
-        this.restTemplate = new RestTemplate();
+        this.google = outboundHttpClients.get(OutboundDestination.GOOGLE);
         this.verifier = new GoogleIdTokenVerifier.Builder(new NetHttpTransport(), new GsonFactory())
                 .setAudience(Collections.singletonList(clientId))
                 .build();
@@ -105,6 +108,6 @@ public class GoogleAuthService {
         map.add("grant_type", "authorization_code");
 
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(map, headers);
-        return restTemplate.postForEntity(tokenUri, request, Map.class);
+        return google.execute(() -> google.restTemplate().postForEntity(tokenUri, request, Map.class));
     }
 }
\ No newline at end of file
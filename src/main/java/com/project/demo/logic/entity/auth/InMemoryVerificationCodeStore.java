@@ -0,0 +1,92 @@
+package com.project.demo.logic.entity.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Códigos de verificación en memoria, con tamaño máximo y vencimiento por entrada. Caffeine programa
+ * la expiración de cada código, así que los de restablecimientos abandonados se liberan solos.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.verification-codes.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private final Cache<String, VerificationCodeEntry> codes;
+    private final Clock clock;
+
+    @Autowired
+    public InMemoryVerificationCodeStore(@Value("${auth.verification-codes.max-entries:100000}") long maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    InMemoryVerificationCodeStore(long maxEntries, Clock clock) {
+        this.clock = clock;
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, VerificationCodeEntry>() {
+                    @Override
+                    public long expireAfterCreate(String email, VerificationCodeEntry entry, long currentTime) {
+                        return Math.max(0, Duration.between(clock.instant(), entry.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String email, VerificationCodeEntry entry, long currentTime, long currentDuration) {
+                        return Math.max(0, Duration.between(clock.instant(), entry.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String email, VerificationCodeEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    @Override
+    public void put(String email, String codeHash, Instant expiresAt) {
+        codes.put(email, new VerificationCodeEntry(codeHash, expiresAt, 0));
+    }
+
+    @Override
+    public Optional<VerificationCodeEntry> get(String email) {
+        return Optional.ofNullable(codes.getIfPresent(email));
+    }
+
+    @Override
+    public boolean consume(String email, String codeHash, Instant now, int maxAttempts) {
+        boolean[] matched = new boolean[1];
+        codes.asMap().computeIfPresent(email, (key, entry) -> {
+            if (entry.isExpired(now) || entry.failedAttempts() >= maxAttempts) {
+                return null;
+            }
+            if (MessageDigest.isEqual(entry.codeHash().getBytes(StandardCharsets.US_ASCII),
+                    codeHash.getBytes(StandardCharsets.US_ASCII))) {
+                matched[0] = true;
+                return null;
+            }
+            int failedAttempts = entry.failedAttempts() + 1;
+            return failedAttempts >= maxAttempts ? null
+                    : new VerificationCodeEntry(entry.codeHash(), entry.expiresAt(), failedAttempts);
+        });
+        return matched[0];
+    }
+
+    @Override
+    public void removeExpired(Instant now) {
+        codes.cleanUp();
+    }
+}
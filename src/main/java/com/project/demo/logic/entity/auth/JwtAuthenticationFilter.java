@@ -1,5 +1,6 @@
 package com.project.demo.logic.entity.auth;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,15 +24,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
             UserDetailsService userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver
+            HandlerExceptionResolver handlerExceptionResolver,
+            AuthenticatedUserCache authenticatedUserCache
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Override
@@ -49,14 +53,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
-
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (authentication == null) {
+                UserDetails userDetails = resolveUser(jwt);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -73,4 +75,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el usuario del token, desde el caché si el token ya se verificó antes. En caso contrario
+     * verifica la firma una sola vez, carga el usuario y guarda ambos hasta que el token venza.
+     * @return El usuario, o null si el token no es válido para él.
+     */
+    private UserDetails resolveUser(String jwt) {
+        UserDetails cached = authenticatedUserCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtService.extractAllClaims(jwt);
+        if (claims.getSubject() == null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        authenticatedUserCache.put(jwt, claims, userDetails);
+        return userDetails;
+    }
+}
@@ -1,13 +1,19 @@
 package com.project.demo.logic.entity.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -15,15 +21,65 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+/**
+ * Emite y verifica los tokens JWT de sesión y de registro.
+ *
+ * Las claves HMAC y el parser se construyen una sola vez al crear el servicio (el JwtParser es inmutable y
+ * seguro entre hilos). Los tokens se firman con la clave activa y llevan su identificador en el encabezado
+ * "kid"; al verificar se elige la clave según ese encabezado, lo que permite rotar la clave activa sin
+ * invalidar las sesiones abiertas mientras la anterior siga configurada en security.jwt.previous-keys.
+ * Los tokens sin "kid" (emitidos antes de la rotación) se verifican con la clave activa.
+ */
 @Service
 public class JwtService {
-    @Value("${security.jwt.registration-expiration-time}")
-    private long registrationTokenExpiration;
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
 
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpiration;
+    private final long registrationTokenExpiration;
+    private final long jwtExpiration;
+
+    private final String activeKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final JwtParser parser;
+
+    /**
+     * @param secretKey Clave activa, en base64.
+     * @param activeKeyId Identificador ("kid") de la clave activa.
+     * @param previousKeys Claves anteriores que se siguen aceptando al verificar, como "kid=base64,kid2=base64".
+     */
+    public JwtService(
+            @Value("${security.jwt.secret-key}") String secretKey,
+            @Value("${security.jwt.key-id:default}") String activeKeyId,
+            @Value("${security.jwt.previous-keys:}") String previousKeys,
+            @Value("${security.jwt.expiration-time}") long jwtExpiration,
+            @Value("${security.jwt.registration-expiration-time:900000}") long registrationTokenExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.registrationTokenExpiration = registrationTokenExpiration;
+        this.activeKeyId = activeKeyId;
+        this.signingKey = toKey(secretKey);
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        keys.put(activeKeyId, signingKey);
+        for (String entry : previousKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("security.jwt.previous-keys must be a list of kid=base64Secret");
+            }
+            keys.putIfAbsent(entry.substring(0, separator).trim(), toKey(entry.substring(separator + 1).trim()));
+        }
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -53,38 +109,48 @@ public class JwtService {
     ) {
         return Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Valida claims ya extraídos, para no volver a verificar la firma del token.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null && username.equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private Key resolveKey(String keyId) {
+        if (keyId == null) {
+            return signingKey;
+        }
+        Key key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + keyId);
+        }
+        return key;
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+    private static Key toKey(String base64Secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(base64Secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
@@ -94,11 +160,12 @@ public class JwtService {
      */
     public String generateRegistrationToken(Map<String, Object> claims) {
     return Jwts.builder()
+        .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
         .setClaims(claims)
         .setSubject((String) claims.get("email"))
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + registrationTokenExpiration))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS256) // USA LA CLAVE PRINCIPAL
+        .signWith(signingKey, SignatureAlgorithm.HS256) // USA LA CLAVE PRINCIPAL
         .compact();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.project.demo.logic.entity.auth;
+
+import com.project.demo.logic.entity.role.Role;
+import com.project.demo.logic.entity.role.RoleEnum;
+import com.project.demo.logic.entity.user.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia inmutable de los datos de un {@link User} guardada en {@link AuthenticatedUserCache}.
+ * El caché no guarda la entidad, porque la misma instancia quedaría compartida entre solicitudes concurrentes
+ * y cualquier cambio hecho sobre el principal de una solicitud se vería en las demás. Cada acierto construye
+ * un {@link User} nuevo a partir de esta copia.
+ */
+record UserSnapshot(
+        Long id,
+        String businessName,
+        String businessMission,
+        String businessVision,
+        String businessId,
+        String businessCountry,
+        String businessStateProvince,
+        String businessOtherDirections,
+        String businessLocation,
+        String name,
+        String userFirstSurename,
+        String userSecondSurename,
+        String userGender,
+        String userPhoneNumber,
+        String userEmail,
+        String userPassword,
+        Long roleId,
+        RoleEnum roleName,
+        String roleDescription,
+        LocalDateTime roleCreatedAt,
+        LocalDateTime roleUpdatedAt,
+        boolean roleActive,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Boolean isActive) {
+
+    static UserSnapshot of(User user) {
+        Role role = user.getRole();
+        return new UserSnapshot(
+                user.getId(),
+                user.getBusinessName(),
+                user.getBusinessMission(),
+                user.getBusinessVision(),
+                user.getBusinessId(),
+                user.getBusinessCountry(),
+                user.getBusinessStateProvince(),
+                user.getBusinessOtherDirections(),
+                user.getBusinessLocation(),
+                user.getName(),
+                user.getUserFirstSurename(),
+                user.getUserSecondSurename(),
+                user.getUserGender(),
+                user.getUserPhoneNumber(),
+                user.getUserEmail(),
+                user.getUserPassword(),
+                role != null ? role.getId() : null,
+                role != null ? role.getRoleName() : null,
+                role != null ? role.getRoleDescription() : null,
+                role != null ? role.getCreatedAt() : null,
+                role != null ? role.getUpdatedAt() : null,
+                role != null && role.isActive(),
+                user.getCreatedAt(),
+                user.getUpdatedAt(),
+                user.getIsActive());
+    }
+
+    User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setBusinessName(businessName);
+        user.setBusinessMission(businessMission);
+        user.setBusinessVision(businessVision);
+        user.setBusinessId(businessId);
+        user.setBusinessCountry(businessCountry);
+        user.setBusinessStateProvince(businessStateProvince);
+        user.setBusinessOtherDirections(businessOtherDirections);
+        user.setBusinessLocation(businessLocation);
+        user.setName(name);
+        user.setUserFirstSurename(userFirstSurename);
+        user.setUserSecondSurename(userSecondSurename);
+        user.setUserGender(userGender);
+        user.setUserPhoneNumber(userPhoneNumber);
+        user.setUserEmail(userEmail);
+        user.setUserPassword(userPassword);
+        if (roleId != null || roleName != null) {
+            Role role = new Role();
+            role.setId(roleId);
+            role.setRoleName(roleName);
+            role.setRoleDescription(roleDescription);
+            role.setCreatedAt(roleCreatedAt);
+            role.setUpdatedAt(roleUpdatedAt);
+            role.setActive(roleActive);
+            user.setRole(role);
+        }
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(updatedAt);
+        user.setIsActive(isActive);
+        return user;
+    }
+}
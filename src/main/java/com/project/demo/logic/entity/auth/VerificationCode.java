@@ -0,0 +1,45 @@
+package com.project.demo.logic.entity.auth;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Código de verificación guardado en base de datos (auth.verification-codes.store=database),
+ * para que todos los nodos de la aplicación vean los mismos códigos.
+ */
+@Entity
+@Table(name = "verification_codes",
+        indexes = @Index(name = "idx_verification_codes_expires_at", columnList = "expires_at"))
+public class VerificationCode {
+
+    @Id
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "code_hash", nullable = false, length = 64)
+    private String codeHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "failed_attempts", nullable = false)
+    private int failedAttempts;
+
+    public VerificationCode() {}
+
+    public VerificationCode(String email, String codeHash, Instant expiresAt) {
+        this.email = email;
+        this.codeHash = codeHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getCodeHash() { return codeHash; }
+    public void setCodeHash(String codeHash) { this.codeHash = codeHash; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+    public int getFailedAttempts() { return failedAttempts; }
+    public void setFailedAttempts(int failedAttempts) { this.failedAttempts = failedAttempts; }
+}
@@ -0,0 +1,17 @@
+package com.project.demo.logic.entity.auth;
+
+import java.time.Instant;
+
+/**
+ * Código de verificación guardado para un email.
+ *
+ * @param codeHash HMAC-SHA256 del código con la clave del servidor (nunca se guarda el código en claro).
+ * @param expiresAt Momento en que el código deja de ser válido.
+ * @param failedAttempts Intentos fallidos de verificación.
+ */
+public record VerificationCodeEntry(String codeHash, Instant expiresAt, int failedAttempts) {
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.demo.logic.entity.auth;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface VerificationCodeRepository extends JpaRepository<VerificationCode, String> {
+
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.email = :email AND v.codeHash = :codeHash " +
+            "AND v.expiresAt > :now AND v.failedAttempts < :maxAttempts")
+    int deleteIfMatches(@Param("email") String email, @Param("codeHash") String codeHash,
+                        @Param("now") Instant now, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE VerificationCode v SET v.failedAttempts = v.failedAttempts + 1 " +
+            "WHERE v.email = :email AND v.expiresAt > :now AND v.failedAttempts < :maxAttempts")
+    int incrementFailedAttempts(@Param("email") String email, @Param("now") Instant now,
+                                @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.email = :email " +
+            "AND (v.expiresAt <= :now OR v.failedAttempts >= :maxAttempts)")
+    int deleteIfExhausted(@Param("email") String email, @Param("now") Instant now,
+                          @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,67 +1,130 @@
 package com.project.demo.logic.entity.auth;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio para generación, almacenamiento temporal y validación de códigos de verificación
  * para flujos como recuperación de contraseña.
- * Los códigos se almacenan en memoria y expiran automáticamente.
+ * Los códigos se guardan en un {@link VerificationCodeStore} como HMAC-SHA256 con una clave del servidor
+ * (auth.verification-codes.hmac-secret), de modo que una copia de la base de datos no basta para probar los
+ * 10^6 códigos posibles. Expiran automáticamente y se invalidan después de auth.verification-codes.max-attempts
+ * intentos fallidos. Un barrido periódico borra los códigos vencidos que nadie volvió a consultar.
  */
 @Service
 public class VerificationCodeService {
-    // Store codes in memory with expiration time
-    private final Map<String, CodeData> verificationCodes = new ConcurrentHashMap<>();
+
+    private static final Logger logger = LoggerFactory.getLogger(VerificationCodeService.class);
     private static final int CODE_LENGTH = 6;
-    private static final int CODE_EXPIRATION_MINUTES = 60;
+    private static final int CODE_BOUND = (int) Math.pow(10, CODE_LENGTH);
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final VerificationCodeStore store;
+    private final Duration expiration;
+    private final int maxAttempts;
+    private final long sweepIntervalSeconds;
+    private final Clock clock;
+    private final SecretKeySpec hmacKey;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("verification-code-sweeper").daemon().factory());
 
-    private static class CodeData {
-        String code;
-        LocalDateTime expirationTime;
+    @Autowired
+    public VerificationCodeService(
+            VerificationCodeStore store,
+            @Value("${auth.verification-codes.expiration-minutes:60}") long expirationMinutes,
+            @Value("${auth.verification-codes.max-attempts:5}") int maxAttempts,
+            @Value("${auth.verification-codes.sweep-interval-seconds:60}") long sweepIntervalSeconds,
+            @Value("${auth.verification-codes.hmac-secret:}") String hmacSecret) {
+        this(store, Duration.ofMinutes(expirationMinutes), maxAttempts, sweepIntervalSeconds, Clock.systemUTC(),
+                hmacKey(store, hmacSecret));
+    }
+
+    VerificationCodeService(VerificationCodeStore store, Duration expiration, int maxAttempts,
+                            long sweepIntervalSeconds, Clock clock, byte[] hmacKey) {
+        this.store = store;
+        this.expiration = expiration;
+        this.maxAttempts = maxAttempts;
+        this.sweepIntervalSeconds = sweepIntervalSeconds;
+        this.clock = clock;
+        this.hmacKey = new SecretKeySpec(hmacKey, HMAC_ALGORITHM);
+    }
 
-        CodeData(String code, LocalDateTime expirationTime) {
-            this.code = code;
-            this.expirationTime = expirationTime;
+    /**
+     * Sin clave configurada se usa una aleatoria del proceso, lo que solo sirve con el almacenamiento en memoria:
+     * con la base de datos los demás nodos (o el mismo nodo tras reiniciar) no podrían verificar los códigos.
+     */
+    private static byte[] hmacKey(VerificationCodeStore store, String hmacSecret) {
+        if (hmacSecret != null && !hmacSecret.isBlank()) {
+            return hmacSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        if (!(store instanceof InMemoryVerificationCodeStore)) {
+            throw new IllegalStateException("auth.verification-codes.hmac-secret is required when verification codes are stored in the database");
         }
+        logger.warn("auth.verification-codes.hmac-secret is not set, using a random key for this process");
+        byte[] key = new byte[32];
+        RANDOM.nextBytes(key);
+        return key;
+    }
+
+    @PostConstruct
+    void startSweeper() {
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                store.removeExpired(clock.instant());
+            } catch (RuntimeException e) {
+                logger.warn("Could not remove expired verification codes", e);
+            }
+        }, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopSweeper() {
+        sweeper.shutdownNow();
     }
 
     /**
      * Genera un código aleatorio y lo asocia al email, con expiración.
+     * Reemplaza el código anterior del email y reinicia sus intentos.
      * @param email Email del usuario.
      * @return Código generado.
      */
     public String generateCode(String email) {
         String code = generateRandomCode();
-        verificationCodes.put(email, new CodeData(code, LocalDateTime.now().plusMinutes(CODE_EXPIRATION_MINUTES)));
+        store.put(normalize(email), hash(email, code), clock.instant().plus(expiration));
         return code;
     }
 
     /**
      * Verifica si el código es válido y no ha expirado para el email dado.
+     * Un código correcto se consume; uno incorrecto suma un intento fallido.
      * @param email Email del usuario.
      * @param code Código recibido.
-     * @return true si el código es válido, false si es incorrecto o expiró.
+     * @return true si el código es válido, false si es incorrecto, expiró o se agotaron los intentos.
      */
     public boolean verifyCode(String email, String code) {
-        CodeData codeData = verificationCodes.get(email);
-        if (codeData == null) {
-            return false;
-        }
-
-        if (LocalDateTime.now().isAfter(codeData.expirationTime)) {
-            verificationCodes.remove(email);
+        if (code == null) {
             return false;
         }
-
-        if (codeData.code.equals(code)) {
-            verificationCodes.remove(email);
-            return true;
-        }
-
-        return false;
+        return store.consume(normalize(email), hash(email, code), clock.instant(), maxAttempts);
     }
 
     /**
@@ -69,13 +132,20 @@ public class VerificationCodeService {
      * @return Código como String.
      */
     private String generateRandomCode() {
-        SecureRandom random = new SecureRandom();
-        StringBuilder code = new StringBuilder();
-        
-        for (int i = 0; i < CODE_LENGTH; i++) {
-            code.append(random.nextInt(10));
+        return String.format("%0" + CODE_LENGTH + "d", RANDOM.nextInt(CODE_BOUND));
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String hash(String email, String code) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return HexFormat.of().formatHex(mac.doFinal((normalize(email) + ":" + code).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
         }
-        
-        return code.toString();
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.project.demo.logic.entity.auth;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Almacenamiento de los códigos de verificación, uno por email. Se elige con auth.verification-codes.store:
+ * "memory" (por defecto, solo para un nodo) o "database" (tabla verification_codes, compartida entre nodos).
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * Guarda el código de un email, reemplazando el anterior y sus intentos fallidos.
+     */
+    void put(String email, String codeHash, Instant expiresAt);
+
+    Optional<VerificationCodeEntry> get(String email);
+
+    /**
+     * Compara y consume el código en una sola operación atómica, para que las verificaciones concurrentes no
+     * puedan saltarse el límite de intentos ni usar dos veces el mismo código. Si el hash coincide, el código no
+     * venció y no se agotaron los intentos, se borra y devuelve true. Si no coincide, suma un intento fallido; el
+     * código se borra cuando vence o llega a maxAttempts intentos.
+     */
+    boolean consume(String email, String codeHash, Instant now, int maxAttempts);
+
+    /**
+     * Borra los códigos vencidos. Se llama periódicamente desde {@link VerificationCodeService}.
+     */
+    void removeExpired(Instant now);
+}
@@ -1,12 +1,17 @@
 package com.project.demo.logic.entity.crop;
 
+import com.project.demo.logic.entity.http.PageCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,6 +30,25 @@ public interface CropRepository extends JpaRepository<Crop, Long> {
      */
     Page<Crop> findAllByUserId(Long userId, Pageable pageable);
 
+    /**
+     * Igual que {@link #findAllByUserId(Long, Pageable)} pero sin la consulta COUNT.
+     */
+    Slice<Crop> findSliceByUserId(Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    List<Crop> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Limit limit);
+
+    /**
+     * Página por cursor de los cultivos del usuario en orden de ID.
+     * @param after Cursor de la última fila de la página anterior, o null para la primera página.
+     */
+    default PageCursor.Result<Crop> seekByUserId(Long userId, PageCursor after, int size) {
+        List<Crop> rows = findByUserIdAndIdGreaterThanOrderByIdAsc(
+                userId, after == null ? 0L : after.id(), Limit.of(PageCursor.fetchSize(size)));
+        return PageCursor.Result.of(rows, size, crop -> PageCursor.of(null, crop.getId()));
+    }
+
     /**
      * Busca un cultivo específico por su ID y el ID de su usuario propietario.
      * Esto asegura que un usuario no pueda acceder a cultivos de otros.
@@ -34,6 +58,11 @@ public interface CropRepository extends JpaRepository<Crop, Long> {
      */
     Optional<Crop> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * Busca, en una sola consulta, los cultivos de la lista que pertenecen al usuario.
+     */
+    List<Crop> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
     @Query("select crp from Crop crp where not exists(select 1 from CorporationMarketPrice cmp where cmp.crop.id=crp.id and cmp.corporation.id=:userId)")
     Page<Crop> findAllCrops(@Param("userId") Long userId, Pageable pageable);
 }
\ No newline at end of file
@@ -7,9 +7,12 @@ import jakarta.persistence.*;
 import org.hibernate.annotations.OnDelete;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 
 @Entity
-@Table(name = "crops_management")
+@Table(name = "crops_management", indexes = {
+        @Index(name = "idx_crops_management_farm_date", columnList = "id_farm, action_date, value_spent")
+})
 public class CropsManagement {
 
     @Id
@@ -56,6 +59,19 @@ public class CropsManagement {
     @Column(name = "isActive", columnDefinition = "TINYINT(1) DEFAULT 1")
     private boolean isActive;
 
+    /**
+     * Mes de la acción (yyyy-MM), precalculado para agrupar los reportes sin DATE_FORMAT.
+     */
+    @JsonIgnore
+    @Column(name = "month_key", length = 7)
+    private String monthKey;
+
+    @PrePersist
+    @PreUpdate
+    private void syncMonthKey() {
+        this.monthKey = actionDate != null ? YearMonth.from(actionDate).toString() : null;
+    }
+
     // Getters and Setters
     public Long getCropId() {
     return crop != null ? crop.getId() : null;
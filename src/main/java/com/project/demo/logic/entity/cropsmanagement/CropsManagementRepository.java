@@ -1,12 +1,28 @@
 package com.project.demo.logic.entity.cropsmanagement;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CropsManagementRepository extends JpaRepository<CropsManagement, Long> {
     List<CropsManagement> findByCrop_Id(Long cropId);
     List<CropsManagement> findByFarmPlot_Id(Long farmPlotId);
+
+    /**
+     * Registros de manejo más recientes de las parcelas indicadas de una finca, con los datos de su cultivo.
+     * Filtra por id_farm para aprovechar el índice (id_farm, action_date, value_spent).
+     */
+    @Query("SELECT cm.farmPlot.id AS plotId, cm.actionName AS actionName, cm.actionDate AS actionDate, " +
+            "cm.valueSpent AS valueSpent, c.cropName AS cropName, c.cropType AS cropType, c.cropVariety AS cropVariety " +
+            "FROM CropsManagement cm LEFT JOIN cm.crop c " +
+            "WHERE cm.farmId = :farmId AND cm.farmPlot.id IN :plotIds " +
+            "ORDER BY cm.actionDate DESC, cm.id DESC")
+    List<ICropsManagementContext> findContextByFarmIdAndPlotIds(@Param("farmId") Long farmId,
+                                                                @Param("plotIds") Collection<Long> plotIds, Limit limit);
 }
\ No newline at end of file
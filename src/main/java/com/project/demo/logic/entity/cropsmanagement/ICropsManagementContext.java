@@ -0,0 +1,16 @@
+package com.project.demo.logic.entity.cropsmanagement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de interfaz de un registro de manejo, con los datos de su cultivo, para el contexto de la IA.
+ */
+public interface ICropsManagementContext {
+    Long getPlotId();
+    String getActionName();
+    LocalDateTime getActionDate();
+    Double getValueSpent();
+    String getCropName();
+    String getCropType();
+    String getCropVariety();
+}
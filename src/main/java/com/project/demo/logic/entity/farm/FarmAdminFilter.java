@@ -0,0 +1,7 @@
+package com.project.demo.logic.entity.farm;
+
+/**
+ * Filtros opcionales del listado de fincas para SUPER_ADMIN. Los valores null no filtran.
+ * El rango de tamaño es cerrado ({@code minSize <= farmSize <= maxSize}).
+ */
+public record FarmAdminFilter(String country, String stateProvince, Boolean active, Double minSize, Double maxSize) {}
@@ -0,0 +1,127 @@
+package com.project.demo.logic.entity.farm;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listado paginado de todas las fincas para SUPER_ADMIN, con filtros opcionales.
+ *
+ * La consulta se arma con Criteria incluyendo solo los filtros que vienen en la solicitud (en lugar de
+ * {@code (:country IS NULL OR ...)}), y selecciona solo las columnas de {@link FarmListItem}, sin cargar
+ * entidades ni sus colecciones. El orden y la paginación se resuelven en la base de datos.
+ */
+@Repository
+public class FarmAdminQueryRepository {
+
+    /**
+     * Campos de {@link Farm} por los que se puede ordenar el listado.
+     */
+    public static final Set<String> SORTABLE_FIELDS = Set.of(
+            "id", "farmName", "farmCountry", "farmStateProvince", "farmSize", "createdAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Página de fincas con el total; el COUNT se omite cuando la página es la última y está incompleta.
+     */
+    public Page<FarmListItem> findPage(FarmAdminFilter filter, Pageable pageable) {
+        List<FarmListItem> content = fetch(filter, pageable, pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    /**
+     * Página de fincas sin total: se lee una fila de más para saber si hay página siguiente.
+     */
+    public Slice<FarmListItem> findSlice(FarmAdminFilter filter, Pageable pageable) {
+        return toSlice(fetch(filter, pageable, pageable.getPageSize() + 1), pageable);
+    }
+
+    /**
+     * Orden del listado: el campo pedido y, si no es el ID, el ID como desempate para que el orden sea estable
+     * entre páginas cuando varias fincas comparten el mismo valor.
+     */
+    public static Sort sortOf(Sort.Direction direction, String field) {
+        Sort sort = Sort.by(direction, field);
+        return "id".equals(field) ? sort : sort.and(Sort.by("id"));
+    }
+
+    /**
+     * Arma la página a partir de hasta {@code pageSize + 1} filas: si llegó la fila extra hay página siguiente
+     * y se descarta.
+     */
+    static <T> Slice<T> toSlice(List<T> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private List<FarmListItem> fetch(FarmAdminFilter filter, Pageable pageable, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Farm> farm = query.from(Farm.class);
+        query.multiselect(farm.get("id"), farm.get("farmName"), farm.get("farmCountry"), farm.get("farmStateProvince"),
+                farm.get("farmLocation"), farm.get("farmSize"), farm.get("farmMeasureUnit"), farm.get("isActive"),
+                farm.get("createdAt"), farm.get("updatedAt"));
+        query.where(predicates(cb, farm, filter));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), farm, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults)
+                .getResultList().stream()
+                .map(FarmAdminQueryRepository::toItem)
+                .toList();
+    }
+
+    private long count(FarmAdminFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Farm> farm = query.from(Farm.class);
+        query.select(cb.count(farm)).where(predicates(cb, farm, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Farm> farm, FarmAdminFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.country() != null) {
+            predicates.add(cb.equal(farm.get("farmCountry"), filter.country()));
+        }
+        if (filter.stateProvince() != null) {
+            predicates.add(cb.equal(farm.get("farmStateProvince"), filter.stateProvince()));
+        }
+        if (filter.active() != null) {
+            predicates.add(cb.equal(farm.get("isActive"), filter.active()));
+        }
+        if (filter.minSize() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(farm.<Double>get("farmSize"), filter.minSize()));
+        }
+        if (filter.maxSize() != null) {
+            predicates.add(cb.lessThanOrEqualTo(farm.<Double>get("farmSize"), filter.maxSize()));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static FarmListItem toItem(Tuple row) {
+        return new FarmListItem(row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class),
+                row.get(3, String.class), row.get(4, String.class), row.get(5, Double.class), row.get(6, String.class),
+                Boolean.TRUE.equals(row.get(7)), row.get(8, LocalDateTime.class), row.get(9, LocalDateTime.class));
+    }
+}
@@ -0,0 +1,10 @@
+package com.project.demo.logic.entity.farm;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de fincas para SUPER_ADMIN: solo las columnas propias de la finca, sin sus colecciones.
+ */
+public record FarmListItem(Long id, String farmName, String farmCountry, String farmStateProvince,
+                           String farmLocation, Double farmSize, String farmMeasureUnit, boolean active,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {}
@@ -1,5 +1,6 @@
 package com.project.demo.logic.entity.farm;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,4 +15,34 @@ public interface FarmRepository extends JpaRepository<Farm, Long> {
 
     @Query("SELECT f FROM Farm f JOIN UserXFarm uxf ON f.id = uxf.farm.id WHERE uxf.user.id = :userId")
     List<Farm> findFarmsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Datos generales de la finca junto con su información técnica, en una sola consulta.
+     */
+    @Query("SELECT f.farmName AS farmName, f.farmCountry AS farmCountry, f.farmStateProvince AS farmStateProvince, " +
+            "f.farmOtherDirections AS farmOtherDirections, f.farmLocation AS farmLocation, f.farmSize AS farmSize, " +
+            "f.farmMeasureUnit AS farmMeasureUnit, t.id AS technicalInfoId, t.soilPh AS soilPh, " +
+            "t.soilNutrients AS soilNutrients, t.irrigationSystemType AS irrigationSystemType, " +
+            "t.waterAvailable AS waterAvailable, t.waterUsageType AS waterUsageType, " +
+            "t.fertilizerPesticideUse AS fertilizerPesticideUse " +
+            "FROM Farm f LEFT JOIN FarmsTechnicalInformation t ON t.farm = f " +
+            "WHERE f.id = :farmId ORDER BY t.id")
+    List<IFarmContext> findContextById(@Param("farmId") Long farmId, Limit limit);
+
+    /**
+     * Fincas del usuario junto con su información técnica, en una sola consulta y sin cargar entidades.
+     * Ordenadas por finca; si una finca tuviera más de un registro técnico, aparece una fila por registro.
+     */
+    @Query("SELECT f.id AS id, f.farmName AS farmName, f.farmCountry AS farmCountry, " +
+            "f.farmStateProvince AS farmStateProvince, f.farmOtherDirections AS farmOtherDirections, " +
+            "f.farmLocation AS farmLocation, f.farmSize AS farmSize, f.farmMeasureUnit AS farmMeasureUnit, " +
+            "f.createdAt AS createdAt, f.updatedAt AS updatedAt, f.isActive AS active, " +
+            "t.id AS technicalInfoId, t.soilPh AS soilPh, t.soilNutrients AS soilNutrients, " +
+            "t.irrigationSystem AS irrigationSystem, t.irrigationSystemType AS irrigationSystemType, " +
+            "t.waterAvailable AS waterAvailable, t.waterUsageType AS waterUsageType, " +
+            "t.fertilizerPesticideUse AS fertilizerPesticideUse, t.createdAt AS technicalInfoCreatedAt, " +
+            "t.updatedAt AS technicalInfoUpdatedAt, t.isActive AS technicalInfoActive " +
+            "FROM UserXFarm uxf JOIN uxf.farm f LEFT JOIN FarmsTechnicalInformation t ON t.farm = f " +
+            "WHERE uxf.user.id = :userId ORDER BY f.id, t.id")
+    List<IFarmSummary> findSummariesByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.project.demo.logic.entity.farm;
+
+/**
+ * Proyección de interfaz con los datos generales y técnicos de una finca que se envían como contexto a la IA.
+ * Los campos técnicos son null cuando la finca no tiene información técnica (ver {@link #getTechnicalInfoId()}).
+ */
+public interface IFarmContext {
+    String getFarmName();
+    String getFarmCountry();
+    String getFarmStateProvince();
+    String getFarmOtherDirections();
+    String getFarmLocation();
+    Double getFarmSize();
+    String getFarmMeasureUnit();
+    Long getTechnicalInfoId();
+    String getSoilPh();
+    String getSoilNutrients();
+    String getIrrigationSystemType();
+    Boolean getWaterAvailable();
+    String getWaterUsageType();
+    Boolean getFertilizerPesticideUse();
+}
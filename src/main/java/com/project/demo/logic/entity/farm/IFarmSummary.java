@@ -0,0 +1,33 @@
+package com.project.demo.logic.entity.farm;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de interfaz con las columnas de una finca y de su información técnica, para listar fincas
+ * sin cargar las entidades ni sus colecciones.
+ * Los campos técnicos son null cuando la finca no tiene información técnica (ver {@link #getTechnicalInfoId()}).
+ */
+public interface IFarmSummary {
+    Long getId();
+    String getFarmName();
+    String getFarmCountry();
+    String getFarmStateProvince();
+    String getFarmOtherDirections();
+    String getFarmLocation();
+    Double getFarmSize();
+    String getFarmMeasureUnit();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Boolean getActive();
+    Long getTechnicalInfoId();
+    String getSoilPh();
+    String getSoilNutrients();
+    Boolean getIrrigationSystem();
+    String getIrrigationSystemType();
+    Boolean getWaterAvailable();
+    String getWaterUsageType();
+    Boolean getFertilizerPesticideUse();
+    LocalDateTime getTechnicalInfoCreatedAt();
+    LocalDateTime getTechnicalInfoUpdatedAt();
+    Boolean getTechnicalInfoActive();
+}
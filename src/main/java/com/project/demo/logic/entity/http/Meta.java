@@ -1,17 +1,27 @@
 package com.project.demo.logic.entity.http;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Metadatos de una respuesta paginada. En paginación por página se informan número y tamaño de página;
+ * en paginación por cursor se informa {@code nextCursor} (ausente en la última página). Los totales
+ * solo se incluyen cuando se calcularon, ya que requieren un COUNT adicional.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Meta {
     private String method;
     private String url;
 
-    private int totalPages;
+    private Integer totalPages;
 
-    private long totalElements;
+    private Long totalElements;
 
-    private int pageNumber;
+    private Integer pageNumber;
 
     private int pageSize;
 
+    private String nextCursor;
+
     public Meta(String method, String url) {
         this.method = method;
         this.url = url;
@@ -33,7 +43,7 @@ public class Meta {
         this.url = url;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
@@ -41,7 +51,7 @@ public class Meta {
         this.totalPages = totalPages;
     }
 
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
 
@@ -49,7 +59,7 @@ public class Meta {
         this.totalElements = totalElements;
     }
 
-    public int getPageNumber() {
+    public Integer getPageNumber() {
         return pageNumber;
     }
 
@@ -64,4 +74,12 @@ public class Meta {
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
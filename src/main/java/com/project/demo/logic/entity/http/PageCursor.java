@@ -0,0 +1,95 @@
+package com.project.demo.logic.entity.http;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor opaco para paginación por llave (keyset): guarda el valor de ordenamiento y el ID de la última fila
+ * entregada, de forma que la siguiente página se obtiene con un WHERE sobre el índice en lugar de un OFFSET.
+ * Se serializa como base64url de "sortKey|id"; el sortKey vacío representa un valor nulo.
+ */
+public record PageCursor(String sortKey, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PageCursor of(Object sortKey, Long id) {
+        return new PageCursor(sortKey == null ? null : sortKey.toString(), id);
+    }
+
+    public String encode() {
+        String raw = (sortKey == null ? "" : sortKey) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente. Un cursor vacío pide la primera página y se decodifica como null.
+     * @throws IllegalArgumentException si el cursor no tiene el formato esperado.
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            String sortKey = raw.substring(0, separator);
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new PageCursor(sortKey.isEmpty() ? null : sortKey, id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Interpreta el sortKey como fecha; null si el cursor se generó sobre una fila sin fecha.
+     * @throws IllegalArgumentException si el sortKey no es una fecha válida.
+     */
+    public LocalDateTime sortKeyAsDateTime() {
+        if (sortKey == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Cantidad de filas a pedir para una página de {@code size} elementos (una extra para saber si hay más).
+     * @throws IllegalArgumentException si el tamaño de página no es positivo.
+     */
+    public static int fetchSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero");
+        }
+        return size + 1;
+    }
+
+    /**
+     * Página obtenida por cursor. Las consultas piden size + 1 filas: si llega la fila extra hay página siguiente
+     * y su cursor se arma con la última fila entregada.
+     */
+    public record Result<T>(List<T> content, String nextCursor) {
+
+        public static <T> Result<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+            if (rows.size() <= size) {
+                return new Result<>(rows, null);
+            }
+            List<T> content = new ArrayList<>(rows.subList(0, size));
+            return new Result<>(content, cursorOf.apply(content.get(size - 1)).encode());
+        }
+
+        public <R> Result<R> map(Function<T, R> mapper) {
+            return new Result<>(content.stream().map(mapper).toList(), nextCursor);
+        }
+    }
+}
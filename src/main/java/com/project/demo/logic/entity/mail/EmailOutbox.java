@@ -0,0 +1,84 @@
+package com.project.demo.logic.entity.mail;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Correo pendiente de envío (patrón outbox). La solicitud que genera el correo solo inserta la fila;
+ * {@link EmailOutboxDispatcher} la envía en segundo plano y reintenta con espera creciente si falla.
+ */
+@Entity
+@Table(name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * Momento a partir del cual se puede (re)intentar el envío. Mientras un envío está en curso se adelanta
+     * un tiempo de gracia, para que otro despachador no lo tome y se reintente si el proceso se detiene.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(updatable = false, name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public EmailOutbox() {}
+
+    public EmailOutbox(String toEmail, String subject, String body) {
+        this.toEmail = toEmail;
+        this.subject = subject;
+        this.body = body;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getToEmail() { return toEmail; }
+    public void setToEmail(String toEmail) { this.toEmail = toEmail; }
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    public EmailOutboxStatus getStatus() { return status; }
+    public void setStatus(EmailOutboxStatus status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+}
@@ -0,0 +1,206 @@
+package com.project.demo.logic.entity.mail;
+
+import com.project.demo.logic.outbound.LatencyHistogram;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envía en segundo plano los correos del outbox.
+ *
+ * Cada ciclo toma lotes de correos vencidos: en una transacción corta los bloquea, suma el intento y adelanta
+ * su próximo intento un tiempo de gracia (así, si el proceso se detiene a mitad del envío, el correo se
+ * reintenta); después los envía en paralelo fuera de la transacción y guarda el resultado. Un envío fallido
+ * se reintenta con espera exponencial (con variación aleatoria) hasta agotar los intentos, y entonces queda
+ * como FAILED. El ciclo corre cada mail.outbox.poll-interval-ms y también justo después de encolar un correo.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Cuerpo que queda en las filas enviadas o fallidas: el original puede traer un código de verificación en
+     * claro, y ya no hace falta porque esas filas no se vuelven a enviar.
+     */
+    static final String REDACTED_BODY = "[redacted]";
+
+    /**
+     * Estado del outbox y contadores acumulados desde el arranque.
+     */
+    public record Stats(long pending, long failed, Long oldestPendingSeconds,
+                        long sent, long sendFailures, long retriesScheduled, LatencyHistogram.Snapshot sendLatency) {}
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailTransport emailTransport;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBase;
+    private final Duration retryMax;
+    private final Duration lease;
+    private final Duration retention;
+    private final long pollIntervalMillis;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("email-outbox").daemon().factory());
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final AtomicLong retriesScheduled = new AtomicLong();
+
+    public EmailOutboxDispatcher(
+            EmailOutboxRepository emailOutboxRepository,
+            EmailTransport emailTransport,
+            PlatformTransactionManager transactionManager,
+            @Value("${mail.outbox.batch-size:50}") int batchSize,
+            @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${mail.outbox.retry-base-seconds:30}") long retryBaseSeconds,
+            @Value("${mail.outbox.retry-max-seconds:3600}") long retryMaxSeconds,
+            @Value("${mail.outbox.lease-seconds:120}") long leaseSeconds,
+            @Value("${mail.outbox.retention-hours:24}") long retentionHours,
+            @Value("${mail.outbox.poll-interval-ms:5000}") long pollIntervalMillis) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailTransport = emailTransport;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBase = Duration.ofSeconds(retryBaseSeconds);
+        this.retryMax = Duration.ofSeconds(retryMaxSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofHours(retentionHours);
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::dispatchSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Pide un ciclo de envío inmediato. Varias llamadas seguidas se agrupan en un solo ciclo.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                wakeUpPending.set(false);
+                dispatchSafely();
+            });
+        }
+    }
+
+    public Stats getStats() {
+        LocalDateTime oldest = emailOutboxRepository.findOldestCreatedAt(EmailOutboxStatus.PENDING);
+        return new Stats(
+                emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING),
+                emailOutboxRepository.countByStatus(EmailOutboxStatus.FAILED),
+                oldest != null ? Duration.between(oldest, LocalDateTime.now()).toSeconds() : null,
+                sent.get(), sendFailures.get(), retriesScheduled.get(), sendLatency.snapshot());
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            logger.error("Email outbox dispatch failed", e);
+        }
+    }
+
+    /**
+     * Envía todos los correos vencidos, lote por lote, y borra los enviados más antiguos que la retención.
+     */
+    void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            sendBatch(batch);
+        } while (batch.size() == batchSize);
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.deleteSentBefore(
+                EmailOutboxStatus.SENT, LocalDateTime.now().minus(retention)));
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(EmailOutboxStatus.PENDING, now, Limit.of(batchSize));
+            for (EmailOutbox email : due) {
+                email.setAttempts(email.getAttempts() + 1);
+                email.setNextAttemptAt(now.plus(lease));
+            }
+            return emailOutboxRepository.saveAll(due);
+        });
+    }
+
+    private void sendBatch(List<EmailOutbox> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (EmailOutbox email : batch) {
+                executor.execute(() -> send(email));
+            }
+        }
+    }
+
+    private void send(EmailOutbox email) {
+        long start = System.nanoTime();
+        try {
+            emailTransport.send(email.getToEmail(), email.getSubject(), email.getBody());
+            sendLatency.record(System.nanoTime() - start);
+            email.setStatus(EmailOutboxStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setBody(REDACTED_BODY);
+            email.setLastError(null);
+            sent.incrementAndGet();
+        } catch (RuntimeException e) {
+            sendLatency.record(System.nanoTime() - start);
+            sendFailures.incrementAndGet();
+            String error = String.valueOf(e.getMessage());
+            email.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(EmailOutboxStatus.FAILED);
+                email.setBody(REDACTED_BODY);
+                logger.warn("Email {} failed after {} attempts: {}", email.getId(), email.getAttempts(), error);
+            } else {
+                email.setNextAttemptAt(LocalDateTime.now().plus(backoff(email.getAttempts())));
+                retriesScheduled.incrementAndGet();
+            }
+        }
+        emailOutboxRepository.save(email);
+    }
+
+    /**
+     * Espera antes del siguiente intento: retry-base * 2^(intentos - 1), con tope retry-max y entre 50% y 100%
+     * de ese valor para que los reintentos de varios correos no coincidan.
+     */
+    Duration backoff(int attempts) {
+        long baseMillis = retryBase.toMillis();
+        long exponential = attempts >= 31 ? Long.MAX_VALUE : baseMillis << Math.max(0, attempts - 1);
+        long capped = exponential < 0 || exponential > retryMax.toMillis() ? retryMax.toMillis() : exponential;
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.demo.logic.entity.mail;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Correos pendientes cuyo próximo intento ya venció, bloqueados para el despachador.
+     * Las filas bloqueadas por otro despachador se saltan (SKIP LOCKED) en lugar de esperar.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<EmailOutbox> findDueForUpdate(@Param("status") EmailOutboxStatus status, @Param("now") LocalDateTime now, Limit limit);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Query("SELECT MIN(e.createdAt) FROM EmailOutbox e WHERE e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") EmailOutboxStatus status);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.sentAt < :before")
+    int deleteSentBefore(@Param("status") EmailOutboxStatus status, @Param("before") LocalDateTime before);
+}
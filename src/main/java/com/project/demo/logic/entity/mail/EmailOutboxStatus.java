@@ -0,0 +1,7 @@
+package com.project.demo.logic.entity.mail;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -1,49 +1,38 @@
 package com.project.demo.logic.entity.mail;
 
-import com.sendgrid.Request;
-import com.sendgrid.SendGrid;
-import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.Method;
-import com.sendgrid.helpers.mail.objects.Content;
-import com.sendgrid.helpers.mail.objects.Email;
-import org.springframework.beans.factory.annotation.Value;
+import com.project.demo.logic.persistence.AfterCommit;
 import org.springframework.stereotype.Service;
-import java.io.IOException;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Servicio para el envío de correos electrónicos usando la API de SendGrid.
+ * Servicio para el envío de correos electrónicos.
  * Permite enviar códigos de verificación y otros mensajes transaccionales.
+ * Los correos no se envían durante la solicitud: se guardan en el outbox y {@link EmailOutboxDispatcher}
+ * los envía en segundo plano con el {@link EmailTransport} configurado (SendGrid por defecto).
  */
 @Service
 public class EmailService {
-    @Value("${sendgrid.api.key}")
-    private String sendGridApiKey;
 
-    @Value("${sendgrid.from.email}")
-    private String fromEmail;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+
+    public EmailService(EmailOutboxRepository emailOutboxRepository, EmailOutboxDispatcher emailOutboxDispatcher) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailOutboxDispatcher = emailOutboxDispatcher;
+    }
 
     /**
-     * Envía un código de verificación al correo electrónico indicado usando SendGrid.
+     * Encola el envío de un código de verificación al correo electrónico indicado.
+     * Retorna en cuanto el correo queda guardado; el envío se intenta justo después del commit.
      * @param toEmail Correo destino.
      * @param code Código de verificación a enviar.
      */
+    @Transactional
     public void sendVerificationCode(String toEmail, String code) {
-        Email from = new Email(fromEmail);
         String subject = "Password Reset Verification Code";
-        Email to = new Email(toEmail);
         String contentText = "Your verification code is: " + code + "\n\nThis code will expire in 15 minutes.";
-        Content content = new Content("text/plain", contentText);
-        Mail mail = new Mail(from, subject, to, content);
+        emailOutboxRepository.save(new EmailOutbox(toEmail, subject, contentText));
 
-        SendGrid sg = new SendGrid(sendGridApiKey);
-        Request request = new Request();
-        try {
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
-            sg.api(request);
-        } catch (IOException ex) {
-            throw new RuntimeException("Failed to send email", ex);
-        }
+        AfterCommit.run(emailOutboxDispatcher::wakeUp);
     }
 }
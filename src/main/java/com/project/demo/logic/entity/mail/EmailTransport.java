@@ -0,0 +1,13 @@
+package com.project.demo.logic.entity.mail;
+
+/**
+ * Envía un correo ya armado. La implementación se elige con mail.transport: "sendgrid" (por defecto)
+ * o "fake" para desarrollo local y pruebas.
+ */
+public interface EmailTransport {
+
+    /**
+     * @throws RuntimeException Si el correo no se pudo enviar; el outbox lo reintentará.
+     */
+    void send(String toEmail, String subject, String body);
+}
@@ -0,0 +1,47 @@
+package com.project.demo.logic.entity.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Buzón local para desarrollo y pruebas (mail.transport=fake): no envía nada, guarda en memoria los últimos
+ * correos y los registra en el log.
+ */
+@Component
+@ConditionalOnProperty(name = "mail.transport", havingValue = "fake")
+public class FakeEmailTransport implements EmailTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeEmailTransport.class);
+    private static final int MAX_MESSAGES = 100;
+
+    public record SentEmail(String toEmail, String subject, String body) {}
+
+    private final Deque<SentEmail> messages = new ArrayDeque<>();
+
+    @Override
+    public synchronized void send(String toEmail, String subject, String body) {
+        if (messages.size() == MAX_MESSAGES) {
+            messages.removeFirst();
+        }
+        messages.addLast(new SentEmail(toEmail, subject, body));
+        logger.info("Fake email to {}: {}", toEmail, subject);
+    }
+
+    /**
+     * @return Los correos recibidos, del más antiguo al más reciente.
+     */
+    public synchronized List<SentEmail> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.demo.logic.entity.mail;
+
+import com.project.demo.logic.outbound.OutboundDestination;
+import com.project.demo.logic.outbound.OutboundHttpClients;
+import com.project.demo.logic.outbound.OutboundIntegration;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+
+/**
+ * Envía los correos con la API de SendGrid. El correo se arma con los helpers de SendGrid y se envía con
+ * el cliente HTTP compartido de SendGrid (conexiones reutilizadas, tiempos de espera y circuit breaker).
+ */
+@Component
+@ConditionalOnProperty(name = "mail.transport", havingValue = "sendgrid", matchIfMissing = true)
+public class SendGridEmailTransport implements EmailTransport {
+
+    @Value("${sendgrid.api.key}")
+    private String sendGridApiKey;
+
+    @Value("${sendgrid.from.email}")
+    private String fromEmail;
+
+    @Value("${sendgrid.api.url:https://api.sendgrid.com/v3/mail/send}")
+    private String sendGridApiUrl;
+
+    private final OutboundIntegration sendGrid;
+
+    public SendGridEmailTransport(OutboundHttpClients outboundHttpClients) {
+        this.sendGrid = outboundHttpClients.get(OutboundDestination.SENDGRID);
+    }
+
+    @Override
+    public void send(String toEmail, String subject, String body) {
+        Mail mail = new Mail(new Email(fromEmail), subject, new Email(toEmail), new Content("text/plain", body));
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(sendGridApiKey);
+            HttpEntity<String> request = new HttpEntity<>(mail.build(), headers);
+            sendGrid.execute(() -> sendGrid.restTemplate().postForEntity(sendGridApiUrl, request, String.class));
+        } catch (IOException | RestClientException ex) {
+            throw new RuntimeException("Failed to send email", ex);
+        }
+    }
+}
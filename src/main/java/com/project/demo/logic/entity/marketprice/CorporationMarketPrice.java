@@ -8,7 +8,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "corporation_market_prices")
+@Table(name = "corporation_market_prices", indexes = {
+        @Index(name = "idx_market_prices_corporation_id", columnList = "user_id, id")
+})
 public class CorporationMarketPrice {
 
     @Id
@@ -1,8 +1,10 @@
 package com.project.demo.logic.entity.marketprice;
 
-import com.project.demo.logic.entity.crop.Crop;
+import com.project.demo.logic.entity.http.PageCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,9 +17,36 @@ import java.util.Optional;
 public interface CorporationMarketPriceRepository extends JpaRepository<CorporationMarketPrice, Long> {
     List<CorporationMarketPrice> findByCorporationId(Long corporationId);
 //Ordenamiento descendente
-    @Query("select cp  from CorporationMarketPrice cp where cp.corporation.id=:userId order by cp.updatedAt desc")
+    @Query("select cp  from CorporationMarketPrice cp where cp.corporation.id=:userId order by cp.id desc")
     Page<CorporationMarketPrice> findByCorporationId(@Param("userId")Long corporationId, Pageable pageable);
 
+    @Query("select cp from CorporationMarketPrice cp where cp.corporation.id=:userId order by cp.id desc")
+    Slice<CorporationMarketPrice> findSliceByCorporationId(@Param("userId") Long corporationId, Pageable pageable);
+
+    long countByCorporationId(Long corporationId);
+
+    @Query("select cp from CorporationMarketPrice cp where cp.corporation.id=:userId order by cp.id desc")
+    List<CorporationMarketPrice> findFirstByCorporationId(@Param("userId") Long corporationId, Limit limit);
+
+    @Query("select cp from CorporationMarketPrice cp where cp.corporation.id=:userId " +
+            "and cp.id < :id order by cp.id desc")
+    List<CorporationMarketPrice> findByCorporationIdAfter(@Param("userId") Long corporationId,
+                                                          @Param("id") Long id, Limit limit);
+
+    /**
+     * Página por cursor de los precios de la corporación, del más reciente al más antiguo.
+     * Se ordena por ID y no por updatedAt: updatedAt cambia cada vez que se edita un precio, y una fila editada
+     * mientras se recorren las páginas podría saltarse o aparecer dos veces.
+     * @param after Cursor (id) de la última fila de la página anterior, o null para la primera página.
+     */
+    default PageCursor.Result<CorporationMarketPrice> seekByCorporationId(Long corporationId, PageCursor after, int size) {
+        Limit limit = Limit.of(PageCursor.fetchSize(size));
+        List<CorporationMarketPrice> rows = after == null
+                ? findFirstByCorporationId(corporationId, limit)
+                : findByCorporationIdAfter(corporationId, after.id(), limit);
+        return PageCursor.Result.of(rows, size, price -> PageCursor.of(null, price.getId()));
+    }
+
     List<CorporationMarketPrice> findByCropId(Long cropId);
 
     Optional<CorporationMarketPrice> findByCropIdAndCorporationId(Long id, Long userId);
@@ -0,0 +1,65 @@
+package com.project.demo.logic.entity.plot;
+
+import com.project.demo.logic.geo.GeoShape;
+import com.project.demo.logic.geo.GeometryCodec;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Lob;
+
+/**
+ * Polígono de una parcela en la codificación binaria de {@link GeometryCodec}, completo y simplificado para cada
+ * {@link GeometryDetail}. Se calcula al guardar la geometría, así las consultas del mapa no tienen que leer ni
+ * simplificar el GeoJSON original. Todos los campos son null si el polígono no es un GeoJSON válido.
+ */
+@Embeddable
+public class EncodedGeometry {
+
+    @Lob
+    @Column(name = "geometry_encoded", columnDefinition = "LONGBLOB")
+    private byte[] fullEncoding;
+
+    @Lob
+    @Column(name = "geometry_encoded_high", columnDefinition = "MEDIUMBLOB")
+    private byte[] highEncoding;
+
+    @Lob
+    @Column(name = "geometry_encoded_medium", columnDefinition = "MEDIUMBLOB")
+    private byte[] mediumEncoding;
+
+    @Lob
+    @Column(name = "geometry_encoded_low", columnDefinition = "MEDIUMBLOB")
+    private byte[] lowEncoding;
+
+    static EncodedGeometry of(GeoShape shape) {
+        if (shape == null) {
+            return null;
+        }
+        EncodedGeometry encoded = new EncodedGeometry();
+        encoded.fullEncoding = GeometryCodec.encode(shape);
+        // Cada nivel se simplifica a partir del anterior, que ya tiene menos vértices
+        GeoShape high = shape.simplify(GeometryDetail.HIGH.getTolerance());
+        encoded.highEncoding = high == shape ? encoded.fullEncoding : GeometryCodec.encode(high);
+        GeoShape medium = high.simplify(GeometryDetail.MEDIUM.getTolerance());
+        encoded.mediumEncoding = medium == high ? encoded.highEncoding : GeometryCodec.encode(medium);
+        GeoShape low = medium.simplify(GeometryDetail.LOW.getTolerance());
+        encoded.lowEncoding = low == medium ? encoded.mediumEncoding : GeometryCodec.encode(low);
+        return encoded;
+    }
+
+    /**
+     * Codifica y simplifica el GeoJSON en el momento, para geometrías guardadas antes de tener esta codificación.
+     * @return null si el polígono no es un GeoJSON válido.
+     */
+    static EncodedGeometry of(String geoJson) {
+        return of(GeometryBounds.parse(geoJson));
+    }
+
+    public byte[] get(GeometryDetail detail) {
+        return switch (detail) {
+            case LOW -> lowEncoding;
+            case MEDIUM -> mediumEncoding;
+            case HIGH -> highEncoding;
+            case FULL -> fullEncoding;
+        };
+    }
+}
@@ -43,6 +43,9 @@ public class FarmPlot {
     @Column(name = "geometry_polygon", columnDefinition = "LONGTEXT")
     private String geometryPolygon; // Stores the polygon as GeoJSON string
 
+    @Embedded
+    private GeometryBounds bounds;
+
     @Column(name = "created_at", updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
 
@@ -63,6 +66,12 @@ public class FarmPlot {
         this.cropsManagements = cropsManagements;
     }
 
+    @PrePersist
+    @PreUpdate
+    private void syncBounds() {
+        this.bounds = GeometryBounds.of(geometryPolygon);
+    }
+
 
     // Getters and Setters
     public Long getId() { return id; }
@@ -86,4 +95,5 @@ public class FarmPlot {
 
     public String getGeometryPolygon() { return geometryPolygon; }
     public void setGeometryPolygon(String geometryPolygon) { this.geometryPolygon = geometryPolygon; }
+    public GeometryBounds getBounds() { return bounds; }
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.project.demo.logic.entity.plot;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FarmPlotRepository extends JpaRepository<FarmPlot, Long> {
@@ -12,4 +20,33 @@ public interface FarmPlotRepository extends JpaRepository<FarmPlot, Long> {
     Optional<FarmPlot> findByPlotNameAndFarmId(String plotName, Long farmId);
 
     Optional<FarmPlot> findByIdAndFarmId(Long id, Long farmId);
-}
\ No newline at end of file
+
+    /**
+     * Devuelve el ID de la finca a la que pertenece la parcela, sin cargar la parcela.
+     */
+    @Query("SELECT p.farm.id FROM FarmPlot p WHERE p.id = :plotId")
+    Optional<Long> findFarmIdById(@Param("plotId") Long plotId);
+
+    @Query("SELECT p.id AS id, p.plotName AS plotName, p.plotDescription AS plotDescription, " +
+            "p.plotType AS plotType, p.currentUsage AS currentUsage " +
+            "FROM FarmPlot p WHERE p.farm.id = :farmId ORDER BY p.id")
+    List<IPlotContext> findContextByFarmId(@Param("farmId") Long farmId, Limit limit);
+
+    /**
+     * Recorre los polígonos de todas las parcelas que tienen uno, sin cargarlos todos en memoria
+     * (ver TransactionRepository.streamActiveByUserId). El Stream debe cerrarse y usarse dentro de una transacción.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id AS plotId, p.farm.id AS farmId, COALESCE(g.geometryPolygon, p.geometryPolygon) AS geometry " +
+            "FROM FarmPlot p LEFT JOIN PlotGeometry g ON g.farmPlot = p " +
+            "WHERE g.id IS NOT NULL OR p.geometryPolygon IS NOT NULL")
+    Stream<IPlotGeometrySource> streamGeometrySources();
+
+    @Query("SELECT p.id AS plotId, p.farm.id AS farmId, COALESCE(g.geometryPolygon, p.geometryPolygon) AS geometry " +
+            "FROM FarmPlot p LEFT JOIN PlotGeometry g ON g.farmPlot = p " +
+            "WHERE p.id = :plotId AND (g.id IS NOT NULL OR p.geometryPolygon IS NOT NULL)")
+    Optional<IPlotGeometrySource> findGeometrySourceByPlotId(@Param("plotId") Long plotId);
+}
@@ -0,0 +1,74 @@
+package com.project.demo.logic.entity.plot;
+
+import com.project.demo.logic.geo.GeoShape;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Rectángulo envolvente y centroide de un polígono GeoJSON, precalculados al guardar para no tener que
+ * interpretar el texto del polígono en cada consulta. Todos los campos son null si el polígono falta o no es
+ * un GeoJSON válido.
+ */
+@Embeddable
+public class GeometryBounds {
+
+    @Column(name = "bbox_min_lng")
+    private Double minLng;
+
+    @Column(name = "bbox_min_lat")
+    private Double minLat;
+
+    @Column(name = "bbox_max_lng")
+    private Double maxLng;
+
+    @Column(name = "bbox_max_lat")
+    private Double maxLat;
+
+    @Column(name = "centroid_lng")
+    private Double centroidLng;
+
+    @Column(name = "centroid_lat")
+    private Double centroidLat;
+
+    /**
+     * @return Los límites del polígono, o null si no se puede interpretar.
+     */
+    static GeometryBounds of(String geoJson) {
+        return of(parse(geoJson));
+    }
+
+    static GeometryBounds of(GeoShape shape) {
+        if (shape == null) {
+            return null;
+        }
+        GeometryBounds bounds = new GeometryBounds();
+        bounds.minLng = shape.getBounds().minX();
+        bounds.minLat = shape.getBounds().minY();
+        bounds.maxLng = shape.getBounds().maxX();
+        bounds.maxLat = shape.getBounds().maxY();
+        bounds.centroidLng = shape.getCentroidX();
+        bounds.centroidLat = shape.getCentroidY();
+        return bounds;
+    }
+
+    /**
+     * @return El polígono interpretado, o null si falta o no es un GeoJSON válido.
+     */
+    static GeoShape parse(String geoJson) {
+        if (geoJson == null || geoJson.isBlank()) {
+            return null;
+        }
+        try {
+            return GeoShape.parseGeoJson(geoJson);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Double getMinLng() { return minLng; }
+    public Double getMinLat() { return minLat; }
+    public Double getMaxLng() { return maxLng; }
+    public Double getMaxLat() { return maxLat; }
+    public Double getCentroidLng() { return centroidLng; }
+    public Double getCentroidLat() { return centroidLat; }
+}
@@ -0,0 +1,42 @@
+package com.project.demo.logic.entity.plot;
+
+/**
+ * Niveles de detalle precalculados de la geometría de una parcela, según el zoom del mapa (Web Mercator,
+ * teselas de 256 px). La tolerancia de simplificación es medio píxel en el zoom máximo del nivel, así que la
+ * diferencia con el polígono original no se ve en pantalla.
+ */
+public enum GeometryDetail {
+    LOW(12),
+    MEDIUM(15),
+    HIGH(18),
+    FULL(Integer.MAX_VALUE);
+
+    private final int maxZoom;
+
+    GeometryDetail(int maxZoom) {
+        this.maxZoom = maxZoom;
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    /**
+     * @return Tolerancia en grados para Douglas-Peucker; 0 para el nivel completo.
+     */
+    public double getTolerance() {
+        return this == FULL ? 0 : 180.0 / (256 * Math.pow(2, maxZoom));
+    }
+
+    /**
+     * @return El nivel menos detallado que sigue siendo exacto a ese zoom.
+     */
+    public static GeometryDetail forZoom(int zoom) {
+        for (GeometryDetail detail : values()) {
+            if (zoom <= detail.maxZoom) {
+                return detail;
+            }
+        }
+        return FULL;
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.demo.logic.entity.plot;
+
+/**
+ * Proyección de interfaz de una parcela para el contexto de la IA.
+ */
+public interface IPlotContext {
+    Long getId();
+    String getPlotName();
+    String getPlotDescription();
+    String getPlotType();
+    String getCurrentUsage();
+}
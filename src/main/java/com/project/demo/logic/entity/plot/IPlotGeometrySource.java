@@ -0,0 +1,11 @@
+package com.project.demo.logic.entity.plot;
+
+/**
+ * Proyección de interfaz con el polígono GeoJSON de una parcela y su finca, para el índice espacial.
+ * El polígono es el de {@link PlotGeometry} si existe, o el guardado en la propia parcela.
+ */
+public interface IPlotGeometrySource {
+    Long getPlotId();
+    Long getFarmId();
+    String getGeometry();
+}
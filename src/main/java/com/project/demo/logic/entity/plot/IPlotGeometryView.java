@@ -0,0 +1,16 @@
+package com.project.demo.logic.entity.plot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de interfaz con los mismos campos que se exponen de {@link PlotGeometry}, sin las columnas de
+ * la codificación compacta, para responder la geometría sin leer los cuatro niveles codificados.
+ */
+public interface IPlotGeometryView {
+    Long getId();
+    FarmPlot getFarmPlot();
+    String getGeometryPolygon();
+    GeometryBounds getBounds();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -1,5 +1,7 @@
 package com.project.demo.logic.entity.plot;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.demo.logic.geo.GeoShape;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -23,12 +25,36 @@ public class PlotGeometry {
     @Column(name = "geometry_polygon", nullable = false, columnDefinition = "LONGTEXT")
     private String geometryPolygon; // Almacena el polígono como un string GeoJSON.
 
+    @Embedded
+    private GeometryBounds bounds;
+
+    @Embedded
+    @JsonIgnore
+    private EncodedGeometry encoded;
+
     @Column(name = "created_at", updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP")
     private LocalDateTime updatedAt;
 
+    @PrePersist
+    @PreUpdate
+    private void syncDerivedGeometry() {
+        GeoShape shape = GeometryBounds.parse(geometryPolygon);
+        this.bounds = GeometryBounds.of(shape);
+        this.encoded = EncodedGeometry.of(shape);
+    }
+
+    /**
+     * @return El polígono codificado con el nivel de detalle pedido, o null si no es un GeoJSON válido.
+     * Si la geometría se guardó antes de existir la codificación, se calcula en el momento.
+     */
+    public byte[] getEncoded(GeometryDetail detail) {
+        EncodedGeometry current = encoded != null ? encoded : EncodedGeometry.of(geometryPolygon);
+        return current == null ? null : current.get(detail);
+    }
+
     // Getters y Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -36,6 +62,7 @@ public class PlotGeometry {
     public void setFarmPlot(FarmPlot farmPlot) { this.farmPlot = farmPlot; }
     public String getGeometryPolygon() { return geometryPolygon; }
     public void setGeometryPolygon(String geometryPolygon) { this.geometryPolygon = geometryPolygon; }
+    public GeometryBounds getBounds() { return bounds; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
@@ -1,6 +1,8 @@
 package com.project.demo.logic.entity.plot;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -8,4 +10,34 @@ import java.util.Optional;
 @Repository
 public interface PlotGeometryRepository extends JpaRepository<PlotGeometry, Long> {
     Optional<PlotGeometry> findByFarmPlot_Id(Long plotId);
+
+    /**
+     * Lee la geometría de la parcela sin las columnas de la codificación compacta.
+     */
+    Optional<IPlotGeometryView> findViewByFarmPlot_Id(Long plotId);
+
+    /**
+     * Lee solo la codificación del nivel pedido, sin cargar el GeoJSON original ni los demás niveles.
+     * Vacío si la parcela no tiene geometría o si la geometría aún no tiene codificación.
+     */
+    default Optional<byte[]> findEncodedByPlotId(Long plotId, GeometryDetail detail) {
+        return switch (detail) {
+            case LOW -> findEncodedLowByPlotId(plotId);
+            case MEDIUM -> findEncodedMediumByPlotId(plotId);
+            case HIGH -> findEncodedHighByPlotId(plotId);
+            case FULL -> findEncodedFullByPlotId(plotId);
+        };
+    }
+
+    @Query("SELECT g.encoded.lowEncoding FROM PlotGeometry g WHERE g.farmPlot.id = :plotId")
+    Optional<byte[]> findEncodedLowByPlotId(@Param("plotId") Long plotId);
+
+    @Query("SELECT g.encoded.mediumEncoding FROM PlotGeometry g WHERE g.farmPlot.id = :plotId")
+    Optional<byte[]> findEncodedMediumByPlotId(@Param("plotId") Long plotId);
+
+    @Query("SELECT g.encoded.highEncoding FROM PlotGeometry g WHERE g.farmPlot.id = :plotId")
+    Optional<byte[]> findEncodedHighByPlotId(@Param("plotId") Long plotId);
+
+    @Query("SELECT g.encoded.fullEncoding FROM PlotGeometry g WHERE g.farmPlot.id = :plotId")
+    Optional<byte[]> findEncodedFullByPlotId(@Param("plotId") Long plotId);
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+package com.project.demo.logic.entity.plot;
+
+import com.project.demo.logic.geo.BoundingBox;
+import com.project.demo.logic.geo.GeoShape;
+import com.project.demo.logic.geo.StrTree;
+import com.project.demo.logic.persistence.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Índice espacial en memoria de los polígonos de las parcelas.
+ *
+ * Los polígonos se leen e interpretan una sola vez (la primera vez que se consulta el índice) y se guardan en
+ * un STR-tree, de modo que las búsquedas por área o por punto solo comparan con el polígono exacto las parcelas
+ * cuyo rectángulo envolvente coincide. Los controladores avisan al índice cuando cambia o se elimina el polígono
+ * de una parcela; el árbol se vuelve a armar en la siguiente consulta. Las coordenadas se tratan como planas
+ * (longitud, latitud) y no se contemplan polígonos que cruzan el antimeridiano.
+ */
+@Component
+public class PlotSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlotSpatialIndex.class);
+
+    /**
+     * Parcela indexada con su polígono ya interpretado.
+     */
+    public record IndexedPlot(Long plotId, Long farmId, GeoShape shape) {}
+
+    /**
+     * Par de parcelas de una misma finca cuyos polígonos se superponen; plotId siempre es el menor.
+     */
+    public record PlotOverlap(Long plotId, Long otherPlotId) {}
+
+    private final FarmPlotRepository farmPlotRepository;
+    private final TransactionTemplate readTransaction;
+
+    private final Map<Long, IndexedPlot> plots = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile boolean loaded;
+    private volatile StrTree<IndexedPlot> tree;
+
+    public PlotSpatialIndex(FarmPlotRepository farmPlotRepository, PlatformTransactionManager transactionManager) {
+        this.farmPlotRepository = farmPlotRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // Las actualizaciones se hacen después del commit de la transacción que modificó la parcela
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Parcelas cuyo polígono toca el área indicada, ordenadas por ID.
+     * Primero se descartan los candidatos que no cumplen el filtro y luego se recorren en orden de ID, de modo
+     * que la comparación exacta con el polígono se detiene al llegar al límite.
+     * @param filter Condición adicional (finca, acceso del usuario) que deben cumplir las parcelas.
+     * @param limit Cantidad máxima de parcelas a devolver.
+     */
+    public List<IndexedPlot> intersecting(BoundingBox area, Predicate<IndexedPlot> filter, int limit) {
+        List<IndexedPlot> candidates = new ArrayList<>();
+        tree().query(area, plot -> {
+            if (filter.test(plot)) {
+                candidates.add(plot);
+            }
+        });
+        candidates.sort(Comparator.comparing(IndexedPlot::plotId));
+
+        GeoShape areaShape = GeoShape.rectangle(area);
+        List<IndexedPlot> result = new ArrayList<>();
+        for (IndexedPlot plot : candidates) {
+            if (result.size() >= limit) {
+                break;
+            }
+            BoundingBox bounds = plot.shape().getBounds();
+            boolean inside = area.contains(bounds.minX(), bounds.minY()) && area.contains(bounds.maxX(), bounds.maxY());
+            if (inside || plot.shape().intersects(areaShape)) {
+                result.add(plot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parcelas cuyo polígono contiene el punto, ordenadas por ID.
+     */
+    public List<IndexedPlot> containing(double x, double y, Predicate<IndexedPlot> filter) {
+        List<IndexedPlot> result = new ArrayList<>();
+        tree().query(BoundingBox.ofPoint(x, y), plot -> {
+            if (filter.test(plot) && plot.shape().contains(x, y)) {
+                result.add(plot);
+            }
+        });
+        result.sort(Comparator.comparing(IndexedPlot::plotId));
+        return result;
+    }
+
+    /**
+     * Pares de parcelas de la finca cuyos polígonos comparten área (tocarse en un borde no cuenta).
+     */
+    public List<PlotOverlap> overlapsInFarm(Long farmId) {
+        ensureLoaded();
+        List<StrTree.Entry<IndexedPlot>> entries = plots.values().stream()
+                .filter(plot -> Objects.equals(plot.farmId(), farmId))
+                .map(plot -> new StrTree.Entry<>(plot.shape().getBounds(), plot))
+                .toList();
+        StrTree<IndexedPlot> farmTree = StrTree.build(entries);
+
+        List<PlotOverlap> result = new ArrayList<>();
+        for (StrTree.Entry<IndexedPlot> entry : entries) {
+            IndexedPlot plot = entry.item();
+            farmTree.query(entry.bounds(), other -> {
+                if (other.plotId() > plot.plotId() && plot.shape().overlaps(other.shape())) {
+                    result.add(new PlotOverlap(plot.plotId(), other.plotId()));
+                }
+            });
+        }
+        result.sort(Comparator.comparing(PlotOverlap::plotId).thenComparing(PlotOverlap::otherPlotId));
+        return result;
+    }
+
+    /**
+     * Vuelve a leer el polígono de la parcela. Debe llamarse cuando se crea o modifica la parcela o su geometría.
+     * Si hay una transacción de base de datos activa, la lectura se hace después del commit.
+     */
+    public void refreshPlot(Long plotId) {
+        if (plotId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (lock) {
+                if (!loaded) {
+                    return;
+                }
+                Optional<IPlotGeometrySource> source = readTransaction.execute(
+                        status -> farmPlotRepository.findGeometrySourceByPlotId(plotId));
+                IndexedPlot plot = source == null ? null : source.map(PlotSpatialIndex::toIndexedPlot).orElse(null);
+                if (plot == null) {
+                    plots.remove(plotId);
+                } else {
+                    plots.put(plotId, plot);
+                }
+                tree = null;
+            }
+        });
+    }
+
+    /**
+     * Quita la parcela del índice. Debe llamarse cuando se elimina la parcela.
+     */
+    public void removePlot(Long plotId) {
+        if (plotId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (lock) {
+                if (plots.remove(plotId) != null) {
+                    tree = null;
+                }
+            }
+        });
+    }
+
+    /**
+     * Quita del índice todas las parcelas de la finca. Debe llamarse cuando se elimina la finca.
+     */
+    public void removeFarm(Long farmId) {
+        if (farmId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            synchronized (lock) {
+                if (plots.values().removeIf(plot -> Objects.equals(plot.farmId(), farmId))) {
+                    tree = null;
+                }
+            }
+        });
+    }
+
+    private StrTree<IndexedPlot> tree() {
+        ensureLoaded();
+        StrTree<IndexedPlot> current = tree;
+        if (current == null) {
+            synchronized (lock) {
+                current = tree;
+                if (current == null) {
+                    current = StrTree.build(plots.values().stream()
+                            .map(plot -> new StrTree.Entry<>(plot.shape().getBounds(), plot))
+                            .toList());
+                    tree = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (lock) {
+            if (loaded) {
+                return;
+            }
+            long start = System.nanoTime();
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<IPlotGeometrySource> sources = farmPlotRepository.streamGeometrySources()) {
+                    sources.forEach(source -> {
+                        IndexedPlot plot = toIndexedPlot(source);
+                        if (plot != null) {
+                            plots.put(plot.plotId(), plot);
+                        }
+                    });
+                }
+            });
+            tree = null;
+            loaded = true;
+            logger.info("Plot spatial index loaded {} plots in {} ms", plots.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static IndexedPlot toIndexedPlot(IPlotGeometrySource source) {
+        if (source.getGeometry() == null || source.getGeometry().isBlank()) {
+            return null;
+        }
+        try {
+            return new IndexedPlot(source.getPlotId(), source.getFarmId(), GeoShape.parseGeoJson(source.getGeometry()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping plot {} in spatial index: {}", source.getPlotId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.demo.logic.entity.schema;
+
+import java.util.List;
+
+/**
+ * Definición de un índice que debe existir en la base de datos.
+ *
+ * @param table Nombre de la tabla.
+ * @param name Nombre del índice.
+ * @param columns Columnas del índice, en orden.
+ */
+public record IndexDefinition(String table, String name, List<String> columns) {
+
+    public static IndexDefinition of(String table, String name, String... columns) {
+        return new IndexDefinition(table, name, List.of(columns));
+    }
+
+    public String toDdl() {
+        return "CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")";
+    }
+}
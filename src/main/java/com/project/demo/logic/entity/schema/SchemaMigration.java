@@ -0,0 +1,14 @@
+package com.project.demo.logic.entity.schema;
+
+import java.util.List;
+
+/**
+ * Migración versionada del esquema. Las tablas y columnas las genera Hibernate a partir de las entidades;
+ * las migraciones solo ajustan datos existentes y crean índices.
+ *
+ * @param version Versión de la migración; se aplican en orden ascendente y una sola vez.
+ * @param description Descripción corta que queda registrada en schema_migrations.
+ * @param statements Sentencias SQL que se ejecutan antes de crear los índices (por ejemplo, rellenar columnas nuevas).
+ * @param indexes Índices que crea la migración.
+ */
+public record SchemaMigration(int version, String description, List<String> statements, List<IndexDefinition> indexes) {}
@@ -0,0 +1,37 @@
+package com.project.demo.logic.entity.schema;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de una migración del esquema ya aplicada.
+ */
+@Entity
+@Table(name = "schema_migrations")
+public class SchemaMigrationRecord {
+
+    @Id
+    private Integer version;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    public SchemaMigrationRecord() {}
+
+    public SchemaMigrationRecord(Integer version, String description, LocalDateTime appliedAt) {
+        this.version = version;
+        this.description = description;
+        this.appliedAt = appliedAt;
+    }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+    public void setAppliedAt(LocalDateTime appliedAt) { this.appliedAt = appliedAt; }
+}
@@ -0,0 +1,8 @@
+package com.project.demo.logic.entity.schema;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SchemaMigrationRecordRepository extends JpaRepository<SchemaMigrationRecord, Integer> {
+}
@@ -0,0 +1,79 @@
+package com.project.demo.logic.entity.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Aplica las migraciones pendientes de {@link SchemaMigrations} al arrancar la aplicación.
+ * Se ejecuta después de que Hibernate crea o actualiza las tablas, y antes de los seeders.
+ * Cada índice se crea solo si no existe, así que también es seguro sobre bases de datos
+ * donde Hibernate ya generó los índices declarados en las entidades.
+ */
+@Profile("!test")
+@Component
+@Order(0)
+public class SchemaMigrationRunner implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchemaMigrationRecordRepository migrationRecordRepository;
+
+    public SchemaMigrationRunner(JdbcTemplate jdbcTemplate, SchemaMigrationRecordRepository migrationRecordRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.migrationRecordRepository = migrationRecordRepository;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        for (SchemaMigration migration : SchemaMigrations.ALL) {
+            if (migrationRecordRepository.existsById(migration.version())) {
+                continue;
+            }
+            for (String statement : migration.statements()) {
+                int rows = jdbcTemplate.update(statement);
+                logger.info("Schema migration V{}: {} rows updated", migration.version(), rows);
+            }
+            for (IndexDefinition index : migration.indexes()) {
+                if (!indexExists(index)) {
+                    jdbcTemplate.execute(index.toDdl());
+                    logger.info("Schema migration V{}: created index {} on {}", migration.version(), index.name(), index.table());
+                }
+            }
+            migrationRecordRepository.save(new SchemaMigrationRecord(migration.version(), migration.description(), LocalDateTime.now()));
+        }
+    }
+
+    private boolean indexExists(IndexDefinition index) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Set<String> names = new HashSet<>();
+            for (String table : Set.of(index.table(), index.table().toUpperCase(Locale.ROOT))) {
+                try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+                    while (rs.next()) {
+                        String name = rs.getString("INDEX_NAME");
+                        if (name != null) {
+                            names.add(name.toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+            }
+            return names.contains(index.name().toLowerCase(Locale.ROOT));
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
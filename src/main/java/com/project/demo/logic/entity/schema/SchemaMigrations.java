@@ -0,0 +1,114 @@
+package com.project.demo.logic.entity.schema;
+
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionMonthlyRollupRepository;
+
+import java.util.List;
+
+/**
+ * Lista ordenada de migraciones del esquema. Para agregar una nueva se añade al final
+ * con la siguiente versión; nunca se modifica una migración ya publicada.
+ */
+public final class SchemaMigrations {
+
+    /**
+     * V1: índices compuestos para las consultas de reportes del dashboard.
+     * Los reportes filtran transacciones por usuario, tipo, fecha y opcionalmente finca,
+     * y el manejo de cultivos por finca y fecha (unido a user_x_farm por usuario).
+     */
+    public static final SchemaMigration V1_REPORT_INDEXES = new SchemaMigration(1, "report indexes", List.of(), List.of(
+            IndexDefinition.of("transactions", "idx_transactions_user_type_date",
+                    "user_id", "transaction_type", "transaction_date", "farm_id", "total_value"),
+            IndexDefinition.of("transactions", "idx_transactions_user_farm_date",
+                    "user_id", "farm_id", "transaction_date"),
+            IndexDefinition.of("crops_management", "idx_crops_management_farm_date",
+                    "id_farm", "action_date", "value_spent"),
+            IndexDefinition.of("user_x_farm", "idx_user_x_farm_user_farm",
+                    "user_id", "farm_id")
+    ));
+
+    /**
+     * V2: clave de mes precalculada (yyyy-MM) en transacciones y manejo de cultivos, para que los reportes
+     * agrupen por una columna en lugar de evaluar DATE_FORMAT fila por fila. Las filas nuevas la reciben
+     * desde la entidad; aquí se rellenan las existentes.
+     */
+    public static final SchemaMigration V2_MONTH_KEY = new SchemaMigration(2, "precomputed month key", List.of(
+            "UPDATE transactions SET month_key = DATE_FORMAT(transaction_date, '%Y-%m') " +
+                    "WHERE month_key IS NULL AND transaction_date IS NOT NULL",
+            "UPDATE crops_management SET month_key = DATE_FORMAT(action_date, '%Y-%m') " +
+                    "WHERE month_key IS NULL AND action_date IS NOT NULL"
+    ), List.of(
+            IndexDefinition.of("transactions", "idx_transactions_user_date_month",
+                    "user_id", "transaction_date", "month_key", "transaction_type", "is_active", "total_value")
+    ));
+
+    /**
+     * V3: índice para paginar por cursor los precios de una corporación en orden (updated_at, id) descendente.
+     */
+    public static final SchemaMigration V3_MARKET_PRICE_CURSOR = new SchemaMigration(3, "market price cursor index", List.of(), List.of(
+            IndexDefinition.of("corporation_market_prices", "idx_market_prices_corporation_updated",
+                    "user_id", "updated_at", "id")
+    ));
+
+    /**
+     * V4: las transacciones pasan de AUTO_INCREMENT a un generador de tabla (id_generators) para poder insertar
+     * en lotes. El generador "pooled" entrega los IDs (valor - asignación, valor], por eso el valor inicial se deja
+     * una asignación completa por encima del mayor ID existente.
+     */
+    public static final SchemaMigration V4_TRANSACTION_ID_GENERATOR = new SchemaMigration(4, "transaction id generator", List.of(
+            "INSERT INTO id_generators (generator_name, next_val) " +
+                    "SELECT 'transactions', COALESCE(MAX(id), 0) + " + (Transaction.ID_ALLOCATION_SIZE + 1) + " FROM transactions " +
+                    "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))"
+    ), List.of());
+
+    /**
+     * V5: índice para los filtros del listado de fincas de SUPER_ADMIN (país, provincia y rango de tamaño).
+     */
+    public static final SchemaMigration V5_FARM_ADMIN_FILTERS = new SchemaMigration(5, "farm admin filter index", List.of(), List.of(
+            IndexDefinition.of("farms", "idx_farms_country_province_size",
+                    "farm_country", "farm_state_province", "farm_size")
+    ));
+
+    /**
+     * V6: el cursor de precios de mercado pasa a ordenar solo por id, porque updated_at cambia al editar una fila.
+     * Reemplaza el índice de V3 por uno sobre (user_id, id).
+     */
+    public static final SchemaMigration V6_MARKET_PRICE_CURSOR_BY_ID = new SchemaMigration(6, "market price cursor by id", List.of(
+            "ALTER TABLE corporation_market_prices DROP INDEX idx_market_prices_corporation_updated"
+    ), List.of(
+            IndexDefinition.of("corporation_market_prices", "idx_market_prices_corporation_id",
+                    "user_id", "id")
+    ));
+
+    /**
+     * V7: índice para leer el acumulado mensual de todas las fincas de un usuario por rango de meses; la clave única
+     * (user_id, farm_id, month_key, crop_id) solo sirve para el rango de meses cuando se filtra por finca.
+     */
+    public static final SchemaMigration V7_ROLLUP_USER_MONTH = new SchemaMigration(7, "rollup user month index", List.of(), List.of(
+            IndexDefinition.of("transaction_monthly_rollups", "idx_rollups_user_month",
+                    "user_id", "month_key", "total_income", "total_expenses")
+    ));
+
+    /**
+     * V8: llena el acumulado mensual con las transacciones que ya existían antes de que se mantuviera de forma
+     * incremental; sin esto los reportes leerían ceros para los meses completos anteriores al despliegue.
+     * Se vacía primero para no sumar dos veces lo que ya se hubiera acumulado.
+     */
+    public static final SchemaMigration V8_ROLLUP_BACKFILL = new SchemaMigration(8, "rollup backfill", List.of(
+            "DELETE FROM transaction_monthly_rollups",
+            TransactionMonthlyRollupRepository.REBUILD_ALL_SQL
+    ), List.of());
+
+    public static final List<SchemaMigration> ALL = List.of(
+            V1_REPORT_INDEXES,
+            V2_MONTH_KEY,
+            V3_MARKET_PRICE_CURSOR,
+            V4_TRANSACTION_ID_GENERATOR,
+            V5_FARM_ADMIN_FILTERS,
+            V6_MARKET_PRICE_CURSOR_BY_ID,
+            V7_ROLLUP_USER_MONTH,
+            V8_ROLLUP_BACKFILL
+    );
+
+    private SchemaMigrations() {}
+}
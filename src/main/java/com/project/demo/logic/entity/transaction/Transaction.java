@@ -1,5 +1,6 @@
 package com.project.demo.logic.entity.transaction;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.project.demo.logic.entity.crop.Crop;
 import com.project.demo.logic.entity.farm.Farm;
@@ -11,12 +12,27 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_type_date",
+                columnList = "user_id, transaction_type, transaction_date, farm_id, total_value"),
+        @Index(name = "idx_transactions_user_farm_date", columnList = "user_id, farm_id, transaction_date"),
+        @Index(name = "idx_transactions_user_date_month",
+                columnList = "user_id, transaction_date, month_key, transaction_type, is_active, total_value")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Transaction {
 
+    /**
+     * IDs que reserva el generador por cada consulta a la tabla id_generators. Con IDENTITY Hibernate debe ejecutar
+     * cada INSERT por separado para conocer el ID; con un generador de tabla los IDs se conocen antes y los INSERT
+     * se envían en lotes JDBC.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transactions_id")
+    @TableGenerator(name = "transactions_id", table = "id_generators", pkColumnName = "generator_name",
+            valueColumnName = "next_val", pkColumnValue = "transactions", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -61,6 +77,19 @@ public class Transaction {
     @Column(name = "isActive")
     private Boolean isActive = true;
 
+    /**
+     * Mes de la transacción (yyyy-MM), precalculado para agrupar los reportes sin DATE_FORMAT.
+     */
+    @JsonIgnore
+    @Column(name = "month_key", length = 7)
+    private String monthKey;
+
+    @PrePersist
+    @PreUpdate
+    private void syncMonthKey() {
+        this.monthKey = transactionDate != null ? TransactionMonthlyRollup.monthKeyOf(transactionDate) : null;
+    }
+
     // Getters y Setters
 
     public Long getId() {
@@ -164,4 +193,8 @@ public class Transaction {
     }
 
     public void setIsActive(Boolean active) { isActive = active; }
-}
\ No newline at end of file
+
+    public String getMonthKey() {
+        return monthKey;
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.demo.logic.entity.transaction;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Acumulado mensual de transacciones por usuario, finca y cultivo.
+ * Se mantiene de forma incremental en cada alta, edición o desactivación de una transacción,
+ * para que los reportes del dashboard no tengan que recorrer la tabla completa de transacciones.
+ * Solo se acumulan transacciones activas y con fecha.
+ */
+@Entity
+@Table(name = "transaction_monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_farm_month_crop",
+                columnNames = {"user_id", "farm_id", "month_key", "crop_id"}))
+public class TransactionMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "farm_id", nullable = false)
+    private Long farmId;
+
+    @Column(name = "crop_id", nullable = false)
+    private Long cropId;
+
+    /**
+     * Mes de la transacción en formato yyyy-MM, igual que las etiquetas de los reportes.
+     */
+    @Column(name = "month_key", nullable = false, length = 7)
+    private String monthKey;
+
+    @Column(name = "total_income", nullable = false)
+    private Double totalIncome = 0.0;
+
+    @Column(name = "total_expenses", nullable = false)
+    private Double totalExpenses = 0.0;
+
+    /**
+     * Cantidad vendida (solo transacciones de tipo VENTA).
+     */
+    @Column(name = "quantity_sold", nullable = false)
+    private Double quantitySold = 0.0;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Calcula la clave de mes (yyyy-MM) para una fecha de transacción.
+     */
+    public static String monthKeyOf(LocalDateTime date) {
+        return YearMonth.from(date).toString();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getFarmId() { return farmId; }
+    public void setFarmId(Long farmId) { this.farmId = farmId; }
+    public Long getCropId() { return cropId; }
+    public void setCropId(Long cropId) { this.cropId = cropId; }
+    public String getMonthKey() { return monthKey; }
+    public void setMonthKey(String monthKey) { this.monthKey = monthKey; }
+    public Double getTotalIncome() { return totalIncome; }
+    public void setTotalIncome(Double totalIncome) { this.totalIncome = totalIncome; }
+    public Double getTotalExpenses() { return totalExpenses; }
+    public void setTotalExpenses(Double totalExpenses) { this.totalExpenses = totalExpenses; }
+    public Double getQuantitySold() { return quantitySold; }
+    public void setQuantitySold(Double quantitySold) { this.quantitySold = quantitySold; }
+    public Long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(Long transactionCount) { this.transactionCount = transactionCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,189 @@
+package com.project.demo.logic.entity.transaction;
+
+import com.project.demo.logic.dashboard.IMonthlySummary;
+import com.project.demo.logic.dashboard.IOperationalCost;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransactionMonthlyRollupRepository extends JpaRepository<TransactionMonthlyRollup, Long> {
+
+    List<TransactionMonthlyRollup> findByUserId(Long userId);
+
+    @Query("SELECT DISTINCT r.userId FROM TransactionMonthlyRollup r")
+    List<Long> findDistinctUserIds();
+
+    /**
+     * Suma (o resta, si los valores son negativos) un delta sobre la fila del acumulado.
+     * Si la fila no existe la crea; la operación es atómica gracias a la clave única.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups " +
+            "    (user_id, farm_id, crop_id, month_key, total_income, total_expenses, quantity_sold, transaction_count, updated_at) " +
+            "VALUES (:userId, :farmId, :cropId, :monthKey, :income, :expenses, :quantitySold, :transactionCount, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "    total_income = total_income + VALUES(total_income), " +
+            "    total_expenses = total_expenses + VALUES(total_expenses), " +
+            "    quantity_sold = quantity_sold + VALUES(quantity_sold), " +
+            "    transaction_count = transaction_count + VALUES(transaction_count), " +
+            "    updated_at = NOW()",
+            nativeQuery = true)
+    int upsertDelta(
+            @Param("userId") Long userId,
+            @Param("farmId") Long farmId,
+            @Param("cropId") Long cropId,
+            @Param("monthKey") String monthKey,
+            @Param("income") Double income,
+            @Param("expenses") Double expenses,
+            @Param("quantitySold") Double quantitySold,
+            @Param("transactionCount") Long transactionCount);
+
+    /**
+     * Elimina la fila del acumulado cuando ya no le quedan transacciones.
+     */
+    @Modifying
+    @Query("DELETE FROM TransactionMonthlyRollup r " +
+            "WHERE r.userId = :userId AND r.farmId = :farmId AND r.cropId = :cropId " +
+            "  AND r.monthKey = :monthKey AND r.transactionCount <= 0")
+    int deleteIfEmpty(
+            @Param("userId") Long userId,
+            @Param("farmId") Long farmId,
+            @Param("cropId") Long cropId,
+            @Param("monthKey") String monthKey);
+
+    @Modifying
+    @Query("DELETE FROM TransactionMonthlyRollup r WHERE r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    /**
+     * INSERT ... SELECT que recalcula el acumulado de todos los usuarios. Lo usan {@link #rebuildAll()} y la
+     * migración que llena el acumulado con las transacciones existentes.
+     */
+    String REBUILD_ALL_SQL = "INSERT INTO transaction_monthly_rollups " +
+            "    (user_id, farm_id, crop_id, month_key, total_income, total_expenses, quantity_sold, transaction_count, updated_at) " +
+            "SELECT t.user_id, t.farm_id, t.crop_id, DATE_FORMAT(t.transaction_date, '%Y-%m'), " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.total_value ELSE 0 END), 0.0), " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0), " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.quantity ELSE 0 END), 0.0), " +
+            "    COUNT(*), NOW() " +
+            "FROM transactions t " +
+            "WHERE t.is_active = TRUE AND t.transaction_date IS NOT NULL " +
+            "GROUP BY t.user_id, t.farm_id, t.crop_id, DATE_FORMAT(t.transaction_date, '%Y-%m')";
+
+    /**
+     * Recalcula el acumulado de todos los usuarios a partir de la tabla de transacciones.
+     * Debe ejecutarse después de vaciar la tabla del acumulado.
+     */
+    @Modifying
+    @Query(value = REBUILD_ALL_SQL, nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * Recalcula el acumulado de un usuario a partir de la tabla de transacciones.
+     * Debe ejecutarse después de borrar las filas del acumulado de ese usuario.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollups " +
+            "    (user_id, farm_id, crop_id, month_key, total_income, total_expenses, quantity_sold, transaction_count, updated_at) " +
+            "SELECT t.user_id, t.farm_id, t.crop_id, DATE_FORMAT(t.transaction_date, '%Y-%m'), " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.total_value ELSE 0 END), 0.0), " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0), " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.quantity ELSE 0 END), 0.0), " +
+            "    COUNT(*), NOW() " +
+            "FROM transactions t " +
+            "WHERE t.user_id = :userId AND t.is_active = TRUE AND t.transaction_date IS NOT NULL " +
+            "GROUP BY t.user_id, t.farm_id, t.crop_id, DATE_FORMAT(t.transaction_date, '%Y-%m')",
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+
+    /**
+     * Ingresos y egresos por mes leídos del acumulado, para un rango de meses completos (ambos inclusive).
+     * Hay una consulta con finca y otra sin ella, en lugar de {@code (:farmId IS NULL OR ...)}, para que cada
+     * una use su índice: la clave única con finca e idx_rollups_user_month sin ella.
+     *
+     * @param farmId Finca a filtrar, o null para todas las fincas del usuario.
+     */
+    default List<IMonthlySummary> sumIncomeVsExpensesByMonth(Long userId, String fromMonth, String toMonth, Long farmId) {
+        return farmId == null
+                ? sumIncomeVsExpensesByMonthForUser(userId, fromMonth, toMonth)
+                : sumIncomeVsExpensesByMonthForFarm(userId, fromMonth, toMonth, farmId);
+    }
+
+    @Query(value = "SELECT " +
+            "    r.month_key AS month, " +
+            "    COALESCE(SUM(r.total_income), 0.0) AS totalIncome, " +
+            "    COALESCE(SUM(r.total_expenses), 0.0) AS totalExpenses " +
+            "FROM transaction_monthly_rollups r " +
+            "WHERE r.user_id = :userId " +
+            "  AND r.month_key BETWEEN :fromMonth AND :toMonth " +
+            "GROUP BY r.month_key " +
+            "ORDER BY r.month_key ASC",
+            nativeQuery = true)
+    List<IMonthlySummary> sumIncomeVsExpensesByMonthForUser(
+            @Param("userId") Long userId,
+            @Param("fromMonth") String fromMonth,
+            @Param("toMonth") String toMonth);
+
+    @Query(value = "SELECT " +
+            "    r.month_key AS month, " +
+            "    COALESCE(SUM(r.total_income), 0.0) AS totalIncome, " +
+            "    COALESCE(SUM(r.total_expenses), 0.0) AS totalExpenses " +
+            "FROM transaction_monthly_rollups r " +
+            "WHERE r.user_id = :userId " +
+            "  AND r.farm_id = :farmId " +
+            "  AND r.month_key BETWEEN :fromMonth AND :toMonth " +
+            "GROUP BY r.month_key " +
+            "ORDER BY r.month_key ASC",
+            nativeQuery = true)
+    List<IMonthlySummary> sumIncomeVsExpensesByMonthForFarm(
+            @Param("userId") Long userId,
+            @Param("fromMonth") String fromMonth,
+            @Param("toMonth") String toMonth,
+            @Param("farmId") Long farmId);
+
+    /**
+     * Egresos por mes leídos del acumulado, para un rango de meses completos (ambos inclusive).
+     *
+     * @param farmId Finca a filtrar, o null para todas las fincas del usuario.
+     */
+    default List<IOperationalCost> sumExpensesByMonth(Long userId, String fromMonth, String toMonth, Long farmId) {
+        return farmId == null
+                ? sumExpensesByMonthForUser(userId, fromMonth, toMonth)
+                : sumExpensesByMonthForFarm(userId, fromMonth, toMonth, farmId);
+    }
+
+    @Query(value = "SELECT " +
+            "    r.month_key AS month, " +
+            "    COALESCE(SUM(r.total_expenses), 0.0) AS totalCost " +
+            "FROM transaction_monthly_rollups r " +
+            "WHERE r.user_id = :userId " +
+            "  AND r.month_key BETWEEN :fromMonth AND :toMonth " +
+            "GROUP BY r.month_key " +
+            "ORDER BY r.month_key ASC",
+            nativeQuery = true)
+    List<IOperationalCost> sumExpensesByMonthForUser(
+            @Param("userId") Long userId,
+            @Param("fromMonth") String fromMonth,
+            @Param("toMonth") String toMonth);
+
+    @Query(value = "SELECT " +
+            "    r.month_key AS month, " +
+            "    COALESCE(SUM(r.total_expenses), 0.0) AS totalCost " +
+            "FROM transaction_monthly_rollups r " +
+            "WHERE r.user_id = :userId " +
+            "  AND r.farm_id = :farmId " +
+            "  AND r.month_key BETWEEN :fromMonth AND :toMonth " +
+            "GROUP BY r.month_key " +
+            "ORDER BY r.month_key ASC",
+            nativeQuery = true)
+    List<IOperationalCost> sumExpensesByMonthForFarm(
+            @Param("userId") Long userId,
+            @Param("fromMonth") String fromMonth,
+            @Param("toMonth") String toMonth,
+            @Param("farmId") Long farmId);
+}
@@ -1,17 +1,24 @@
 package com.project.demo.logic.entity.transaction;
 
 import com.project.demo.logic.dashboard.*;
+import com.project.demo.logic.entity.http.PageCursor;
 import com.project.demo.rest.dashboard.DTO.TopCropYieldDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -19,47 +26,59 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     Optional<Transaction> findByIdAndUserId(Long id, Long userId);
 
-    @Query("SELECT COALESCE(SUM(t.totalValue), 0.0) FROM Transaction t WHERE t.user.id = :userId AND t.transactionType = 'VENTA'")
-    Double sumTotalIncomeByUserId(@Param("userId") Long userId);
-
-    @Query("SELECT COALESCE(SUM(t.totalValue), 0.0) FROM Transaction t WHERE t.user.id = :userId AND t.transactionType IN ('COMPRA', 'GASTO_INSUMO')")
-    Double sumTotalExpensesByUserId(@Param("userId") Long userId);
-
-    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.user.id = :userId")
-    Long countTransactionsByUserId(@Param("userId") Long userId);
-
     /**
-     * Obtiene un resumen de ingresos y egresos agrupados por mes usando una consulta SQL nativa.
-     * Esta consulta es más robusta para funciones específicas de la base de datos como DATE_FORMAT.
+     * Obtiene en una sola pasada los totales históricos del usuario (ingresos, egresos y cantidad de transacciones)
+     * y los ingresos y egresos del mes en curso, usando agregación condicional. Igual que los reportes, no cuenta
+     * las transacciones desactivadas.
      *
-     * @return Una lista de proyecciones con los datos del resumen.
+     * @param monthStart Inicio del mes en curso (inclusive).
+     * @param monthEnd Inicio del mes siguiente (exclusivo).
      */
     @Query(value = "SELECT " +
-            "    DATE_FORMAT(t.transaction_date, '%Y-%m') AS month, " +
             "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.total_value ELSE 0 END), 0.0) AS totalIncome, " +
-            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses, " +
+            "    COUNT(*) AS transactionCount, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' " +
+            "        AND t.transaction_date >= :monthStart AND t.transaction_date < :monthEnd THEN t.total_value ELSE 0 END), 0.0) AS monthIncome, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') " +
+            "        AND t.transaction_date >= :monthStart AND t.transaction_date < :monthEnd THEN t.total_value ELSE 0 END), 0.0) AS monthExpenses " +
             "FROM transactions t " +
-            "WHERE t.user_id = :userId " +
-            "  AND (:farmId IS NULL OR t.farm_id = :farmId) " +
-            "  AND t.transaction_date BETWEEN :startDate AND :endDate " +
-            "GROUP BY month " +
-            "ORDER BY month ASC",
+            "WHERE t.user_id = :userId AND t.is_active = TRUE",
             nativeQuery = true)
-    List<IMonthlySummary> getIncomeVsExpensesSummary(
+    IDashboardTotals getDashboardTotals(
             @Param("userId") Long userId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            @Param("farmId") Long farmId);
+            @Param("monthStart") LocalDateTime monthStart,
+            @Param("monthEnd") LocalDateTime monthEnd);
 
-    @Query("SELECT COALESCE(SUM(t.totalValue), 0.0) FROM Transaction t WHERE t.user.id = :userId AND t.transactionType = 'VENTA' AND t.transactionDate BETWEEN :startDate AND :endDate")
-    Double sumTotalIncomeByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    /**
+     * Recalcula en memoria las filas del acumulado mensual de un usuario directamente desde las transacciones.
+     * Lo usa el verificador de consistencia para comparar contra la tabla del acumulado.
+     */
+    @Query(value = "SELECT " +
+            "    t.user_id AS userId, " +
+            "    t.farm_id AS farmId, " +
+            "    t.crop_id AS cropId, " +
+            "    DATE_FORMAT(t.transaction_date, '%Y-%m') AS monthKey, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.total_value ELSE 0 END), 0.0) AS totalIncome, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.quantity ELSE 0 END), 0.0) AS quantitySold, " +
+            "    COUNT(*) AS transactionCount " +
+            "FROM transactions t " +
+            "WHERE t.user_id = :userId AND t.is_active = TRUE AND t.transaction_date IS NOT NULL " +
+            "GROUP BY t.user_id, t.farm_id, t.crop_id, monthKey",
+            nativeQuery = true)
+    List<IRollupRow> aggregateRollupRowsByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT COALESCE(SUM(t.totalValue), 0.0) FROM Transaction t WHERE t.user.id = :userId AND t.transactionType IN ('COMPRA', 'GASTO_INSUMO') AND t.transactionDate BETWEEN :startDate AND :endDate")
-    Double sumTotalExpensesByUserIdAndDateRange(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    @Query("SELECT DISTINCT t.user.id FROM Transaction t WHERE t.isActive = true")
+    List<Long> findDistinctActiveUserIds();
 
+    /**
+     * Los cinco cultivos con más cantidad vendida. Igual que {@link #getDashboardTotals}, ignora las transacciones
+     * desactivadas, para que el resumen y este listado de la misma respuesta coincidan.
+     */
     @Query("SELECT new com.project.demo.rest.dashboard.DTO.TopCropYieldDTO(c.cropName, SUM(t.quantity)) " +
             "FROM Transaction t JOIN t.crop c " +
-            "WHERE t.user.id = :userId AND t.transactionType = 'VENTA' " +
+            "WHERE t.user.id = :userId AND t.transactionType = 'VENTA' AND t.isActive = true " +
             "GROUP BY c.id, c.cropName " +
             "ORDER BY SUM(t.quantity) DESC " +
             "LIMIT 5")
@@ -105,78 +124,64 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     Page<Transaction> findByUserIdWithDetails(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * Obtiene un resumen de rendimiento por cultivo usando una consulta SQL nativa.
+     * Igual que {@link #findByUserIdWithDetails} pero sin la consulta COUNT, para cuando no se piden los totales.
      */
-    @Query(value = "SELECT " +
-            "    c.crop_name AS cropName, " +
-            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.quantity ELSE 0 END), 0.0) AS totalQuantitySold, " +
-            "    t.measure_unit AS measureUnit, " +
-            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.total_value ELSE 0 END), 0.0) AS totalIncome, " +
-            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses " +
-            "FROM transactions t " +
-            "JOIN crops c ON t.crop_id = c.id " +
-            "WHERE t.user_id = :userId " +
-            "  AND (:farmId IS NULL OR t.farm_id = :farmId) " +
-            "  AND (:cropId IS NULL OR t.crop_id = :cropId) " +
-            "  AND t.transaction_date BETWEEN :startDate AND :endDate " +
-            "GROUP BY c.crop_name, t.measure_unit " +
-            "ORDER BY c.crop_name ASC",
-            nativeQuery = true)
-    List<ICropYield> getCropYieldSummary(
-            @Param("userId") Long userId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            @Param("farmId") Long farmId,
-            @Param("cropId") Long cropId);
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.farm LEFT JOIN FETCH t.crop WHERE t.user.id = :userId AND t.isActive = true")
+    Slice<Transaction> findSliceByUserIdWithDetails(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.user.id = :userId AND t.isActive = true")
+    long countActiveByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.farm LEFT JOIN FETCH t.crop " +
+            "WHERE t.user.id = :userId AND t.isActive = true " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findFirstActiveByUserId(@Param("userId") Long userId, Limit limit);
 
     /**
-     * Obtiene un resumen de costos por cultivo usando una consulta SQL nativa.
+     * Transacciones posteriores a (date, id) en el orden fecha descendente e ID descendente.
+     * Las transacciones sin fecha quedan al final del orden (MySQL ubica los NULL al final en orden descendente).
      */
-    @Query(value = "SELECT " +
-            "    c.crop_name AS cropName, " +
-            "    COALESCE(SUM(t.total_value), 0.0) AS totalCost " +
-            "FROM transactions t " +
-            "JOIN crops c ON t.crop_id = c.id " +
-            "WHERE t.user_id = :userId " +
-            "  AND t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') " +
-            "  AND (:farmId IS NULL OR t.farm_id = :farmId) " +
-            "  AND t.transaction_date BETWEEN :startDate AND :endDate " +
-            "GROUP BY c.crop_name " +
-            "ORDER BY c.crop_name ASC",
-            nativeQuery = true)
-    List<ICropCost> getCropCostSummary(
-            @Param("userId") Long userId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            @Param("farmId") Long farmId);
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.farm LEFT JOIN FETCH t.crop " +
+            "WHERE t.user.id = :userId AND t.isActive = true " +
+            "AND (t.transactionDate < :date OR (t.transactionDate = :date AND t.id < :id) OR t.transactionDate IS NULL) " +
+            "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findActiveByUserIdAfter(@Param("userId") Long userId, @Param("date") LocalDateTime date,
+                                              @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.farm LEFT JOIN FETCH t.crop " +
+            "WHERE t.user.id = :userId AND t.isActive = true AND t.transactionDate IS NULL AND t.id < :id " +
+            "ORDER BY t.id DESC")
+    List<Transaction> findUndatedActiveByUserIdAfter(@Param("userId") Long userId, @Param("id") Long id, Limit limit);
 
     /**
-     * Obtiene un resumen de costos operativos por mes, combinando datos de transacciones y manejo de cultivos.
+     * Página por cursor de las transacciones activas del usuario, de la más reciente a la más antigua.
+     * El cursor es (fecha de la transacción, ID) de la última fila de la página anterior, o null para la primera.
      */
-    @Query(value = "SELECT month, SUM(cost) AS totalCost FROM (" +
-            "    SELECT DATE_FORMAT(t.transaction_date, '%Y-%m') AS month, t.total_value AS cost " +
-            "    FROM transactions t " +
-            "    WHERE t.user_id = :userId " +
-            "      AND t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') " +
-            "      AND t.transaction_date BETWEEN :startDate AND :endDate " +
-            "      AND (:farmId IS NULL OR t.farm_id = :farmId) " +
-            "    UNION ALL " +
-            "    SELECT DATE_FORMAT(cm.action_date, '%Y-%m') AS month, cm.value_spent AS cost " +
-            "    FROM crops_management cm " +
-            "    JOIN user_x_farm uxf ON cm.id_farm = uxf.farm_id " +
-            "    WHERE uxf.user_id = :userId " +
-            "      AND cm.value_spent IS NOT NULL AND cm.value_spent > 0 " +
-            "      AND cm.action_date BETWEEN :startDate AND :endDate " +
-            "      AND (:farmId IS NULL OR cm.id_farm = :farmId) " +
-            ") AS all_costs " +
-            "GROUP BY month " +
-            "ORDER BY month ASC",
-            nativeQuery = true)
-    List<IOperationalCost> getOperationalCostSummary(
-            @Param("userId") Long userId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            @Param("farmId") Long farmId);
+    default PageCursor.Result<Transaction> seekActiveByUserId(Long userId, PageCursor after, int size) {
+        Limit limit = Limit.of(PageCursor.fetchSize(size));
+        List<Transaction> rows;
+        if (after == null) {
+            rows = findFirstActiveByUserId(userId, limit);
+        } else if (after.sortKey() == null) {
+            rows = findUndatedActiveByUserIdAfter(userId, after.id(), limit);
+        } else {
+            rows = findActiveByUserIdAfter(userId, after.sortKeyAsDateTime(), after.id(), limit);
+        }
+        return PageCursor.Result.of(rows, size, t -> PageCursor.of(t.getTransactionDate(), t.getId()));
+    }
+
+    /**
+     * Recorre todas las transacciones activas del usuario con un cursor de solo avance, sin cargarlas en memoria.
+     * El tamaño de fetch Integer.MIN_VALUE hace que MySQL Connector/J envíe las filas una a una en lugar de
+     * cargar el resultado completo. El Stream debe cerrarse y usarse dentro de una transacción.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.farm LEFT JOIN FETCH t.crop " +
+            "WHERE t.user.id = :userId AND t.isActive = true ORDER BY t.transactionDate ASC, t.id ASC")
+    Stream<Transaction> streamActiveByUserId(@Param("userId") Long userId);
 
     /**
      * Obtiene un resumen de costos por finca, combinando datos de transacciones y manejo de cultivos.
@@ -1,7 +1,10 @@
 package com.project.demo.logic.entity.user;
 
+import com.project.demo.logic.entity.http.PageCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -24,4 +27,20 @@ public interface UserRepository extends JpaRepository<User, Long>  {
     @Query("select u from User u where u.role.id=?1 and u.isActive=true")
     Page<User> findByRoleId(Long roleId, Pageable pageable);
 
+    /**
+     * Página de usuarios sin la consulta COUNT, para cuando no se piden los totales.
+     */
+    Slice<User> findAllBy(Pageable pageable);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Página por cursor de todos los usuarios en orden de ID.
+     * @param after Cursor de la última fila de la página anterior, o null para la primera página.
+     */
+    default PageCursor.Result<User> seekAll(PageCursor after, int size) {
+        List<User> rows = findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after.id(), Limit.of(PageCursor.fetchSize(size)));
+        return PageCursor.Result.of(rows, size, user -> PageCursor.of(null, user.getId()));
+    }
+
 }
\ No newline at end of file
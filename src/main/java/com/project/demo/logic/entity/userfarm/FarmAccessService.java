@@ -0,0 +1,129 @@
+package com.project.demo.logic.entity.userfarm;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.project.demo.logic.entity.plot.FarmPlotRepository;
+import com.project.demo.logic.entity.user.User;
+import com.project.demo.logic.persistence.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Verifica si el usuario autenticado tiene acceso a una finca o a una parcela.
+ *
+ * Guarda en memoria, por usuario, el conjunto de IDs de las fincas a las que tiene acceso, y por parcela, el ID
+ * de su finca; así los controladores autorizan cada solicitud sin consultar user_x_farm ni cargar la parcela.
+ * Las entradas se invalidan cuando se crea o elimina una finca, se elimina una parcela o se elimina un usuario,
+ * y además vencen después del tiempo configurado, de modo que los cambios hechos fuera de la aplicación
+ * también terminan viéndose. Los usuarios SUPER_ADMIN tienen acceso a todo.
+ *
+ * A diferencia de consultar user_x_farm en cada solicitud, la autorización puede quedar desactualizada: un
+ * vínculo creado o quitado sin llamar a {@link #evictUser} o {@link #evictFarm} (por ejemplo, directamente en la
+ * base de datos) se respeta hasta {@code farm-access.cache.ttl-seconds} (300 s por defecto) después. Todo código
+ * que escriba vínculos de {@link UserXFarm} debe llamar a {@link #evictUser} con el usuario afectado.
+ */
+@Component
+public class FarmAccessService {
+
+    private final LoadingCache<Long, Set<Long>> farmIdsByUser;
+    private final LoadingCache<Long, Long> farmIdByPlot;
+
+    public FarmAccessService(
+            UserXFarmRepository userXFarmRepository,
+            FarmPlotRepository farmPlotRepository,
+            @Value("${farm-access.cache.max-users:10000}") long maxUsers,
+            @Value("${farm-access.cache.max-plots:100000}") long maxPlots,
+            @Value("${farm-access.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.farmIdsByUser = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(userId -> Set.copyOf(userXFarmRepository.findFarmIdsByUserId(userId)));
+        // Las parcelas que no existen no se guardan (el cargador devuelve null)
+        this.farmIdByPlot = Caffeine.newBuilder()
+                .maximumSize(maxPlots)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(plotId -> farmPlotRepository.findFarmIdById(plotId).orElse(null));
+    }
+
+    /**
+     * @return true si el usuario autenticado es SUPER_ADMIN o está asociado a la finca.
+     */
+    public boolean hasAccessToFarm(Long farmId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User currentUser)) {
+            return false;
+        }
+        if (isSuperAdmin(authentication)) {
+            return true;
+        }
+        return farmId != null && farmIdsByUser.get(currentUser.getId()).contains(farmId);
+    }
+
+    /**
+     * @return true si el usuario autenticado es SUPER_ADMIN o está asociado a la finca de la parcela.
+     * Si la parcela no existe, solo un SUPER_ADMIN tiene acceso.
+     */
+    public boolean hasAccessToPlot(Long plotId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User currentUser)) {
+            return false;
+        }
+        if (isSuperAdmin(authentication)) {
+            return true;
+        }
+        Long farmId = plotId == null ? null : farmIdByPlot.get(plotId);
+        return farmId != null && farmIdsByUser.get(currentUser.getId()).contains(farmId);
+    }
+
+    /**
+     * Descarta las fincas guardadas del usuario. Debe llamarse cuando se le asocia o desasocia una finca.
+     * Si hay una transacción de base de datos activa, la invalidación se hace después del commit.
+     */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        AfterCommit.run(() -> farmIdsByUser.invalidate(userId));
+    }
+
+    /**
+     * Descarta las entradas de los usuarios con acceso a la finca y las parcelas de la finca.
+     * Debe llamarse cuando se elimina la finca.
+     */
+    public void evictFarm(Long farmId) {
+        if (farmId == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            farmIdsByUser.asMap().values().removeIf(farmIds -> farmIds.contains(farmId));
+            farmIdByPlot.asMap().values().removeIf(id -> Objects.equals(id, farmId));
+        });
+    }
+
+    /**
+     * Descarta la finca guardada de la parcela. Debe llamarse cuando se elimina la parcela.
+     */
+    public void evictPlot(Long plotId) {
+        if (plotId == null) {
+            return;
+        }
+        AfterCommit.run(() -> farmIdByPlot.invalidate(plotId));
+    }
+
+    public void evictAll() {
+        AfterCommit.run(() -> {
+            farmIdsByUser.invalidateAll();
+            farmIdByPlot.invalidateAll();
+        });
+    }
+
+    private static boolean isSuperAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"));
+    }
+}
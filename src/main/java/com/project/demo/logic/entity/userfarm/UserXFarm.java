@@ -8,7 +8,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_x_farm")
+@Table(name = "user_x_farm", indexes = {
+        @Index(name = "idx_user_x_farm_user_farm", columnList = "user_id, farm_id")
+})
 public class UserXFarm {
     @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("userId")
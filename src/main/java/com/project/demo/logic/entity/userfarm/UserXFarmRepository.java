@@ -1,8 +1,11 @@
 package com.project.demo.logic.entity.userfarm;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,16 @@ public interface UserXFarmRepository extends JpaRepository<UserXFarm, UserFarmId
     List<UserXFarm> findByUserId(Long userId);
 
     Optional<UserXFarm> findByFarmIdAndUserId(Long farmId, Long userId);
+
+    /**
+     * Devuelve, de la lista recibida, los IDs de las fincas a las que el usuario tiene acceso.
+     */
+    @Query("SELECT uxf.farm.id FROM UserXFarm uxf WHERE uxf.user.id = :userId AND uxf.farm.id IN :farmIds")
+    List<Long> findAccessibleFarmIds(@Param("userId") Long userId, @Param("farmIds") Collection<Long> farmIds);
+
+    /**
+     * Devuelve los IDs de todas las fincas a las que el usuario tiene acceso.
+     */
+    @Query("SELECT uxf.farm.id FROM UserXFarm uxf WHERE uxf.user.id = :userId")
+    List<Long> findFarmIdsByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.project.demo.logic.geo;
+
+/**
+ * Rectángulo alineado a los ejes en coordenadas GeoJSON (x = longitud, y = latitud), con bordes incluidos.
+ * No contempla geometrías que cruzan el antimeridiano.
+ */
+public record BoundingBox(double minX, double minY, double maxX, double maxY) {
+
+    public BoundingBox {
+        if (Double.isNaN(minX) || Double.isNaN(minY) || Double.isNaN(maxX) || Double.isNaN(maxY)) {
+            throw new IllegalArgumentException("Bounding box coordinates must be numbers");
+        }
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("Bounding box min must not be greater than max");
+        }
+    }
+
+    public static BoundingBox ofPoint(double x, double y) {
+        return new BoundingBox(x, y, x, y);
+    }
+
+    public boolean intersects(BoundingBox other) {
+        return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+    }
+
+    public boolean contains(double x, double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(Math.min(minX, other.minX), Math.min(minY, other.minY),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY));
+    }
+
+    public double centerX() {
+        return (minX + maxX) / 2;
+    }
+
+    public double centerY() {
+        return (minY + maxY) / 2;
+    }
+}
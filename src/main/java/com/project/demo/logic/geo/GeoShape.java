@@ -0,0 +1,504 @@
+package com.project.demo.logic.geo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polígono o multipolígono leído de GeoJSON, con su rectángulo envolvente y su centroide ya calculados.
+ *
+ * Acepta Polygon, MultiPolygon, Feature, FeatureCollection y GeometryCollection (se toman todos los polígonos
+ * que contengan). Las coordenadas se tratan como planas (x = longitud, y = latitud), lo que es suficiente para
+ * el tamaño de una parcela. Las pruebas de pertenencia usan la regla par-impar, así que los huecos quedan fuera.
+ */
+public final class GeoShape {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * Anillo de un polígono, cerrado implícitamente (el último vértice se une con el primero).
+     */
+    record Ring(double[] xs, double[] ys) {
+        int size() {
+            return xs.length;
+        }
+    }
+
+    /**
+     * Por cada polígono, su anillo exterior seguido de sus huecos.
+     */
+    private final List<List<Ring>> polygons;
+    private final BoundingBox bounds;
+    private final double centroidX;
+    private final double centroidY;
+
+    private GeoShape(List<List<Ring>> polygons) {
+        this.polygons = polygons;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double weightedX = 0, weightedY = 0, totalArea = 0;
+        for (List<Ring> polygon : polygons) {
+            for (int r = 0; r < polygon.size(); r++) {
+                Ring ring = polygon.get(r);
+                double area = 0, cx = 0, cy = 0;
+                for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+                    minX = Math.min(minX, ring.xs[i]);
+                    minY = Math.min(minY, ring.ys[i]);
+                    maxX = Math.max(maxX, ring.xs[i]);
+                    maxY = Math.max(maxY, ring.ys[i]);
+                    double cross = ring.xs[j] * ring.ys[i] - ring.xs[i] * ring.ys[j];
+                    area += cross;
+                    cx += (ring.xs[j] + ring.xs[i]) * cross;
+                    cy += (ring.ys[j] + ring.ys[i]) * cross;
+                }
+                if (Math.abs(area) > EPSILON) {
+                    // El anillo exterior suma y los huecos restan, sin importar el sentido en que vengan
+                    double weight = (r == 0 ? 1 : -1) * Math.abs(area / 2);
+                    weightedX += weight * cx / (3 * area);
+                    weightedY += weight * cy / (3 * area);
+                    totalArea += weight;
+                }
+            }
+        }
+        this.bounds = new BoundingBox(minX, minY, maxX, maxY);
+        if (Math.abs(totalArea) > EPSILON) {
+            this.centroidX = weightedX / totalArea;
+            this.centroidY = weightedY / totalArea;
+        } else {
+            // Polígono degenerado (sin área): se usa el centro del rectángulo
+            this.centroidX = bounds.centerX();
+            this.centroidY = bounds.centerY();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException si el texto no es GeoJSON o no contiene ningún polígono válido.
+     */
+    public static GeoShape parseGeoJson(String geoJson) {
+        if (geoJson == null || geoJson.isBlank()) {
+            throw new IllegalArgumentException("Empty GeoJSON");
+        }
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(geoJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid GeoJSON: " + e.getOriginalMessage());
+        }
+        List<List<Ring>> polygons = new ArrayList<>();
+        collect(root, polygons);
+        if (polygons.isEmpty()) {
+            throw new IllegalArgumentException("GeoJSON without polygons");
+        }
+        return new GeoShape(List.copyOf(polygons));
+    }
+
+    /**
+     * Figura a partir de sus anillos ya leídos (usado por {@link GeometryCodec}); no valida los anillos.
+     */
+    static GeoShape of(List<List<Ring>> polygons) {
+        if (polygons.isEmpty()) {
+            throw new IllegalArgumentException("Shape without polygons");
+        }
+        return new GeoShape(List.copyOf(polygons));
+    }
+
+    /**
+     * Rectángulo como polígono, para consultas por área visible.
+     */
+    public static GeoShape rectangle(BoundingBox box) {
+        Ring ring = new Ring(new double[]{box.minX(), box.maxX(), box.maxX(), box.minX()},
+                new double[]{box.minY(), box.minY(), box.maxY(), box.maxY()});
+        return new GeoShape(List.of(List.of(ring)));
+    }
+
+    List<List<Ring>> polygons() {
+        return polygons;
+    }
+
+    public BoundingBox getBounds() {
+        return bounds;
+    }
+
+    public double getCentroidX() {
+        return centroidX;
+    }
+
+    public double getCentroidY() {
+        return centroidY;
+    }
+
+    public int getVertexCount() {
+        int count = 0;
+        for (List<Ring> polygon : polygons) {
+            for (Ring ring : polygon) {
+                count += ring.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Simplifica cada anillo con Douglas-Peucker: se descartan los vértices que quedan a menos de la tolerancia
+     * (en grados) del trazo simplificado. Un hueco que queda con menos de 3 vértices se descarta; un anillo
+     * exterior en ese caso se conserva sin simplificar. No se garantiza que los anillos resultantes no se crucen.
+     */
+    public GeoShape simplify(double tolerance) {
+        if (tolerance <= 0) {
+            return this;
+        }
+        List<List<Ring>> simplified = new ArrayList<>(polygons.size());
+        boolean changed = false;
+        for (List<Ring> polygon : polygons) {
+            List<Ring> rings = new ArrayList<>(polygon.size());
+            for (int r = 0; r < polygon.size(); r++) {
+                Ring ring = polygon.get(r);
+                Ring result = simplifyRing(ring, tolerance);
+                if (result == null) {
+                    result = r == 0 ? ring : null;
+                }
+                if (result != null) {
+                    rings.add(result);
+                }
+                changed |= result != ring;
+            }
+            simplified.add(List.copyOf(rings));
+        }
+        return changed ? new GeoShape(List.copyOf(simplified)) : this;
+    }
+
+    /**
+     * @return La figura como GeoJSON: Polygon si tiene un solo polígono, MultiPolygon si tiene varios.
+     * Los anillos se escriben cerrados (el primer vértice se repite al final).
+     */
+    public String toGeoJson() {
+        StringBuilder json = new StringBuilder(32 + getVertexCount() * 24);
+        boolean multi = polygons.size() > 1;
+        json.append("{\"type\":\"").append(multi ? "MultiPolygon" : "Polygon").append("\",\"coordinates\":");
+        if (multi) {
+            json.append('[');
+        }
+        for (int p = 0; p < polygons.size(); p++) {
+            if (p > 0) {
+                json.append(',');
+            }
+            json.append('[');
+            List<Ring> polygon = polygons.get(p);
+            for (int r = 0; r < polygon.size(); r++) {
+                if (r > 0) {
+                    json.append(',');
+                }
+                Ring ring = polygon.get(r);
+                json.append('[');
+                for (int i = 0; i <= ring.size(); i++) {
+                    int k = i % ring.size();
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    json.append('[').append(ring.xs[k]).append(',').append(ring.ys[k]).append(']');
+                }
+                json.append(']');
+            }
+            json.append(']');
+        }
+        if (multi) {
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * @return true si el punto está dentro de la figura (fuera de sus huecos). Los puntos del borde pueden
+     * quedar de cualquiera de los dos lados.
+     */
+    public boolean contains(double x, double y) {
+        if (!bounds.contains(x, y)) {
+            return false;
+        }
+        boolean inside = false;
+        for (List<Ring> polygon : polygons) {
+            for (Ring ring : polygon) {
+                for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+                    if ((ring.ys[i] > y) != (ring.ys[j] > y)
+                            && x < (ring.xs[j] - ring.xs[i]) * (y - ring.ys[i]) / (ring.ys[j] - ring.ys[i]) + ring.xs[i]) {
+                        inside = !inside;
+                    }
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * @return true si las figuras comparten algún punto, incluso si solo se tocan en el borde.
+     */
+    public boolean intersects(GeoShape other) {
+        if (!bounds.intersects(other.bounds)) {
+            return false;
+        }
+        if (anyVertexInside(this, other) || anyVertexInside(other, this)) {
+            return true;
+        }
+        return anyEdgesIntersect(other, false);
+    }
+
+    /**
+     * @return true si los interiores de las figuras se superponen. Dos parcelas vecinas que solo comparten
+     * un borde o un vértice no se superponen.
+     */
+    public boolean overlaps(GeoShape other) {
+        if (!bounds.intersects(other.bounds)) {
+            return false;
+        }
+        if (anyEdgesIntersect(other, true)) {
+            return true;
+        }
+        // Sin cruces propios, una figura está dentro de la otra o solo se tocan: basta con buscar algún vértice,
+        // punto medio de arista o el centroide de una estrictamente dentro de la otra
+        return anyPointStrictlyInside(this, other) || anyPointStrictlyInside(other, this);
+    }
+
+    private static boolean anyVertexInside(GeoShape shape, GeoShape container) {
+        for (List<Ring> polygon : shape.polygons) {
+            for (Ring ring : polygon) {
+                for (int i = 0; i < ring.size(); i++) {
+                    if (container.contains(ring.xs[i], ring.ys[i])) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean anyPointStrictlyInside(GeoShape shape, GeoShape container) {
+        if (shape.contains(shape.centroidX, shape.centroidY) && container.containsStrictly(shape.centroidX, shape.centroidY)) {
+            return true;
+        }
+        for (List<Ring> polygon : shape.polygons) {
+            for (Ring ring : polygon) {
+                for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+                    if (container.containsStrictly(ring.xs[i], ring.ys[i])
+                            || container.containsStrictly((ring.xs[i] + ring.xs[j]) / 2, (ring.ys[i] + ring.ys[j]) / 2)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean containsStrictly(double x, double y) {
+        return contains(x, y) && !onBoundary(x, y);
+    }
+
+    private boolean onBoundary(double x, double y) {
+        for (List<Ring> polygon : polygons) {
+            for (Ring ring : polygon) {
+                for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+                    if (onSegment(ring.xs[j], ring.ys[j], ring.xs[i], ring.ys[i], x, y)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param properOnly Si solo cuentan los cruces propios (las aristas se atraviesan en un punto interior de ambas).
+     */
+    private boolean anyEdgesIntersect(GeoShape other, boolean properOnly) {
+        for (List<Ring> polygon : polygons) {
+            for (Ring ring : polygon) {
+                for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+                    double ax = ring.xs[j], ay = ring.ys[j], bx = ring.xs[i], by = ring.ys[i];
+                    if (!other.bounds.intersects(new BoundingBox(Math.min(ax, bx), Math.min(ay, by), Math.max(ax, bx), Math.max(ay, by)))) {
+                        continue;
+                    }
+                    for (List<Ring> otherPolygon : other.polygons) {
+                        for (Ring otherRing : otherPolygon) {
+                            for (int k = 0, l = otherRing.size() - 1; k < otherRing.size(); l = k++) {
+                                if (segmentsIntersect(ax, ay, bx, by, otherRing.xs[l], otherRing.ys[l],
+                                        otherRing.xs[k], otherRing.ys[k], properOnly)) {
+                                    return true;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsIntersect(double ax, double ay, double bx, double by,
+                                             double cx, double cy, double dx, double dy, boolean properOnly) {
+        int o1 = orientation(ax, ay, bx, by, cx, cy);
+        int o2 = orientation(ax, ay, bx, by, dx, dy);
+        int o3 = orientation(cx, cy, dx, dy, ax, ay);
+        int o4 = orientation(cx, cy, dx, dy, bx, by);
+        if (o1 * o2 < 0 && o3 * o4 < 0) {
+            return true;
+        }
+        if (properOnly) {
+            return false;
+        }
+        return (o1 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (o2 == 0 && onSegment(ax, ay, bx, by, dx, dy))
+                || (o3 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (o4 == 0 && onSegment(cx, cy, dx, dy, bx, by));
+    }
+
+    /**
+     * Douglas-Peucker sobre un anillo cerrado: se parte en el primer vértice y el más alejado de él, y se
+     * simplifica cada mitad. Usa una pila en lugar de recursión para anillos con muchos vértices.
+     * @return El anillo simplificado (el mismo si no se descartó ningún vértice), o null si queda con menos de 3.
+     */
+    private static Ring simplifyRing(Ring ring, double tolerance) {
+        int n = ring.size();
+        int split = 0;
+        double farthest = -1;
+        for (int i = 1; i < n; i++) {
+            double dx = ring.xs[i] - ring.xs[0];
+            double dy = ring.ys[i] - ring.ys[0];
+            double distance = dx * dx + dy * dy;
+            if (distance > farthest) {
+                farthest = distance;
+                split = i;
+            }
+        }
+        boolean[] keep = new boolean[n + 1];
+        keep[0] = keep[split] = keep[n] = true;
+        double squaredTolerance = tolerance * tolerance;
+        ArrayDeque<int[]> pending = new ArrayDeque<>();
+        pending.push(new int[]{0, split});
+        pending.push(new int[]{split, n});
+        while (!pending.isEmpty()) {
+            int[] range = pending.pop();
+            int first = range[0], last = range[1];
+            int ax = first % n, bx = last % n;
+            int index = -1;
+            double maxDistance = squaredTolerance;
+            for (int i = first + 1; i < last; i++) {
+                double distance = squaredSegmentDistance(ring.xs[ax], ring.ys[ax], ring.xs[bx], ring.ys[bx], ring.xs[i], ring.ys[i]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    index = i;
+                }
+            }
+            if (index >= 0) {
+                keep[index] = true;
+                pending.push(new int[]{first, index});
+                pending.push(new int[]{index, last});
+            }
+        }
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                kept++;
+            }
+        }
+        if (kept == n) {
+            return ring;
+        }
+        if (kept < 3) {
+            return null;
+        }
+        double[] xs = new double[kept];
+        double[] ys = new double[kept];
+        for (int i = 0, k = 0; i < n; i++) {
+            if (keep[i]) {
+                xs[k] = ring.xs[i];
+                ys[k++] = ring.ys[i];
+            }
+        }
+        return new Ring(xs, ys);
+    }
+
+    private static double squaredSegmentDistance(double ax, double ay, double bx, double by, double px, double py) {
+        double dx = bx - ax, dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+        double ex = ax + t * dx - px, ey = ay + t * dy - py;
+        return ex * ex + ey * ey;
+    }
+
+    private static int orientation(double ax, double ay, double bx, double by, double px, double py) {
+        double cross = (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+        return cross > EPSILON ? 1 : cross < -EPSILON ? -1 : 0;
+    }
+
+    private static boolean onSegment(double ax, double ay, double bx, double by, double px, double py) {
+        return orientation(ax, ay, bx, by, px, py) == 0
+                && px >= Math.min(ax, bx) - EPSILON && px <= Math.max(ax, bx) + EPSILON
+                && py >= Math.min(ay, by) - EPSILON && py <= Math.max(ay, by) + EPSILON;
+    }
+
+    private static void collect(JsonNode node, List<List<Ring>> polygons) {
+        switch (node.path("type").asText()) {
+            case "Polygon" -> polygons.add(polygon(node.path("coordinates")));
+            case "MultiPolygon" -> {
+                for (JsonNode coordinates : node.path("coordinates")) {
+                    polygons.add(polygon(coordinates));
+                }
+            }
+            case "Feature" -> collect(node.path("geometry"), polygons);
+            case "FeatureCollection" -> {
+                for (JsonNode feature : node.path("features")) {
+                    collect(feature, polygons);
+                }
+            }
+            case "GeometryCollection" -> {
+                for (JsonNode geometry : node.path("geometries")) {
+                    collect(geometry, polygons);
+                }
+            }
+            default -> {
+                // Puntos, líneas u objetos sin tipo: no aportan área
+            }
+        }
+    }
+
+    private static List<Ring> polygon(JsonNode coordinates) {
+        if (!coordinates.isArray() || coordinates.isEmpty()) {
+            throw new IllegalArgumentException("Polygon without rings");
+        }
+        List<Ring> rings = new ArrayList<>(coordinates.size());
+        for (JsonNode ring : coordinates) {
+            rings.add(ring(ring));
+        }
+        return List.copyOf(rings);
+    }
+
+    private static Ring ring(JsonNode positions) {
+        if (!positions.isArray()) {
+            throw new IllegalArgumentException("Ring must be an array of positions");
+        }
+        int count = positions.size();
+        if (count > 1 && positions.get(0).equals(positions.get(count - 1))) {
+            count--;
+        }
+        if (count < 3) {
+            throw new IllegalArgumentException("Ring must have at least 3 distinct positions");
+        }
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            JsonNode position = positions.get(i);
+            if (!position.isArray() || position.size() < 2 || !position.get(0).isNumber() || !position.get(1).isNumber()) {
+                throw new IllegalArgumentException("Position must be [longitude, latitude]");
+            }
+            xs[i] = position.get(0).asDouble();
+            ys[i] = position.get(1).asDouble();
+            if (!Double.isFinite(xs[i]) || !Double.isFinite(ys[i])) {
+                throw new IllegalArgumentException("Position coordinates must be finite");
+            }
+        }
+        return new Ring(xs, ys);
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.demo.logic.geo;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificación binaria compacta de un {@link GeoShape}.
+ *
+ * Las coordenadas se redondean a 7 decimales (alrededor de 1 cm) y se guardan como enteros: cada vértice es la
+ * diferencia con el anterior, codificada en zigzag y varint, de modo que los vértices cercanos entre sí ocupan
+ * 2 a 4 bytes por coordenada en lugar de los ~20 caracteres del GeoJSON. Formato:
+ * versión, cantidad de polígonos y, por polígono, cantidad de anillos y, por anillo, cantidad de vértices
+ * seguida de sus diferencias (x, y).
+ */
+public final class GeometryCodec {
+
+    private static final int VERSION = 1;
+    private static final double SCALE = 1e7;
+
+    private GeometryCodec() {}
+
+    public static byte[] encode(GeoShape shape) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + shape.getVertexCount() * 6);
+        out.write(VERSION);
+        writeVarint(out, shape.polygons().size());
+        long previousX = 0, previousY = 0;
+        for (List<GeoShape.Ring> polygon : shape.polygons()) {
+            writeVarint(out, polygon.size());
+            for (GeoShape.Ring ring : polygon) {
+                writeVarint(out, ring.size());
+                for (int i = 0; i < ring.size(); i++) {
+                    long x = Math.round(ring.xs()[i] * SCALE);
+                    long y = Math.round(ring.ys()[i] * SCALE);
+                    writeVarint(out, zigzag(x - previousX));
+                    writeVarint(out, zigzag(y - previousY));
+                    previousX = x;
+                    previousY = y;
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException si los datos no tienen el formato de {@link #encode(GeoShape)}.
+     */
+    public static GeoShape decode(byte[] data) {
+        Reader in = new Reader(data);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported geometry encoding version " + version);
+        }
+        int polygonCount = in.readCount();
+        List<List<GeoShape.Ring>> polygons = new ArrayList<>(polygonCount);
+        long x = 0, y = 0;
+        for (int p = 0; p < polygonCount; p++) {
+            int ringCount = in.readCount();
+            List<GeoShape.Ring> rings = new ArrayList<>(ringCount);
+            for (int r = 0; r < ringCount; r++) {
+                int size = in.readCount();
+                double[] xs = new double[size];
+                double[] ys = new double[size];
+                for (int i = 0; i < size; i++) {
+                    x += unzigzag(in.readVarint());
+                    y += unzigzag(in.readVarint());
+                    xs[i] = x / SCALE;
+                    ys[i] = y / SCALE;
+                }
+                rings.add(new GeoShape.Ring(xs, ys));
+            }
+            polygons.add(List.copyOf(rings));
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Trailing bytes in geometry encoding");
+        }
+        return GeoShape.of(polygons);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated geometry encoding");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in geometry encoding");
+        }
+
+        /**
+         * Cantidad de elementos; no puede superar los bytes que quedan, así un dato corrupto no reserva memoria de más.
+         */
+        int readCount() {
+            long count = readVarint();
+            if (count > data.length - position) {
+                throw new IllegalArgumentException("Invalid count in geometry encoding");
+            }
+            return (int) count;
+        }
+
+        boolean hasRemaining() {
+            return position < data.length;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.demo.logic.geo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Árbol R inmutable cargado en bloque con el algoritmo Sort-Tile-Recursive (STR).
+ *
+ * Los elementos se ordenan por el centro de su rectángulo en x, se cortan en franjas verticales y cada franja
+ * se ordena en y y se agrupa en nodos de hasta {@code nodeCapacity} hijos; el proceso se repite por niveles hasta
+ * dejar una sola raíz. Así los nodos quedan casi llenos y con poca superposición, y una búsqueda por rectángulo
+ * solo visita las ramas cuyo rectángulo la intersecta. Para modificarlo se construye uno nuevo.
+ */
+public final class StrTree<T> {
+
+    public record Entry<T>(BoundingBox bounds, T item) {}
+
+    public static final int DEFAULT_NODE_CAPACITY = 16;
+
+    /**
+     * Nodo interno (con hijos) u hoja con un elemento (sin hijos).
+     */
+    private record Node<T>(BoundingBox bounds, List<Node<T>> children, T item) {}
+
+    private final Node<T> root;
+    private final int size;
+
+    private StrTree(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> StrTree<T> build(Collection<Entry<T>> entries) {
+        return build(entries, DEFAULT_NODE_CAPACITY);
+    }
+
+    public static <T> StrTree<T> build(Collection<Entry<T>> entries, int nodeCapacity) {
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException("Node capacity must be at least 2");
+        }
+        List<Node<T>> level = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            level.add(new Node<>(entry.bounds(), null, entry.item()));
+        }
+        if (level.isEmpty()) {
+            return new StrTree<>(null, 0);
+        }
+        while (level.size() > 1) {
+            level = pack(level, nodeCapacity);
+        }
+        return new StrTree<>(level.get(0), entries.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Entrega los elementos cuyo rectángulo intersecta el área (bordes incluidos), sin un orden definido.
+     */
+    public void query(BoundingBox area, Consumer<? super T> consumer) {
+        if (root == null || !root.bounds().intersects(area)) {
+            return;
+        }
+        Deque<Node<T>> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.pop();
+            if (node.children() == null) {
+                consumer.accept(node.item());
+                continue;
+            }
+            for (Node<T> child : node.children()) {
+                if (child.bounds().intersects(area)) {
+                    pending.push(child);
+                }
+            }
+        }
+    }
+
+    public List<T> query(BoundingBox area) {
+        List<T> result = new ArrayList<>();
+        query(area, result::add);
+        return result;
+    }
+
+    private static <T> List<Node<T>> pack(List<Node<T>> nodes, int nodeCapacity) {
+        int parentCount = (nodes.size() + nodeCapacity - 1) / nodeCapacity;
+        int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+        int sliceSize = sliceCount * nodeCapacity;
+
+        nodes.sort(Comparator.comparingDouble(node -> node.bounds().centerX()));
+        List<Node<T>> parents = new ArrayList<>(parentCount);
+        for (int sliceStart = 0; sliceStart < nodes.size(); sliceStart += sliceSize) {
+            List<Node<T>> slice = new ArrayList<>(nodes.subList(sliceStart, Math.min(nodes.size(), sliceStart + sliceSize)));
+            slice.sort(Comparator.comparingDouble(node -> node.bounds().centerY()));
+            for (int start = 0; start < slice.size(); start += nodeCapacity) {
+                List<Node<T>> children = List.copyOf(slice.subList(start, Math.min(slice.size(), start + nodeCapacity)));
+                BoundingBox bounds = children.get(0).bounds();
+                for (int i = 1; i < children.size(); i++) {
+                    bounds = bounds.union(children.get(i).bounds());
+                }
+                parents.add(new Node<>(bounds, children, null));
+            }
+        }
+        return parents;
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.demo.logic.outbound;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas fijas (en milisegundos), seguro para hilos y sin bloqueo.
+ * Los percentiles se estiman con el límite superior de la cubeta en la que caen.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKETS_MS = {5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000, 60_000};
+
+    /**
+     * Resumen del histograma. {@code buckets} tiene el número de llamadas por límite superior ("le") en ms,
+     * incluida la cubeta "+Inf".
+     */
+    public record Snapshot(long count, double meanMs, long maxMs, long p50Ms, long p95Ms, long p99Ms,
+                           Map<String, Long> buckets) {}
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS_MS.length + 1);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BUCKETS_MS.length && millis > BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] values = new long[counts.length()];
+        long count = 0;
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counts.get(i);
+            count += values[i];
+            buckets.put(i < BUCKETS_MS.length ? String.valueOf(BUCKETS_MS[i]) : "+Inf", values[i]);
+        }
+        long maxMs = maxNanos.get() / 1_000_000;
+        double meanMs = count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count;
+        return new Snapshot(count, meanMs, maxMs,
+                percentile(values, count, 0.50, maxMs),
+                percentile(values, count, 0.95, maxMs),
+                percentile(values, count, 0.99, maxMs),
+                buckets);
+    }
+
+    private static long percentile(long[] values, long count, double quantile, long maxMs) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < values.length; i++) {
+            seen += values[i];
+            if (seen >= rank) {
+                return i < BUCKETS_MS.length ? Math.min(BUCKETS_MS[i], maxMs) : maxMs;
+            }
+        }
+        return maxMs;
+    }
+}
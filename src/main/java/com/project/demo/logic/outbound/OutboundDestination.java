@@ -0,0 +1,35 @@
+package com.project.demo.logic.outbound;
+
+import java.time.Duration;
+
+/**
+ * Servicios externos a los que llama el backend, con sus tiempos de espera por defecto.
+ * Se pueden cambiar con outbound.http.{nombre}.connect-timeout-ms y outbound.http.{nombre}.read-timeout-ms.
+ */
+public enum OutboundDestination {
+    TOGETHER("together", Duration.ofSeconds(5), Duration.ofSeconds(60)),
+    GOOGLE("google", Duration.ofSeconds(3), Duration.ofSeconds(10)),
+    SENDGRID("sendgrid", Duration.ofSeconds(3), Duration.ofSeconds(10));
+
+    private final String propertyName;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    OutboundDestination(String propertyName, Duration connectTimeout, Duration readTimeout) {
+        this.propertyName = propertyName;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.demo.logic.outbound;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clientes HTTP compartidos para los servicios externos, uno por destino.
+ *
+ * Cada destino se configura con outbound.http.{nombre}.*: connect-timeout-ms, read-timeout-ms,
+ * max-concurrent (llamadas simultáneas, por defecto 20), failure-threshold (fallos seguidos que abren
+ * el circuito, por defecto 5) y open-seconds (tiempo que el circuito permanece abierto, por defecto 30).
+ */
+@Component
+public class OutboundHttpClients {
+
+    private final Map<OutboundDestination, OutboundIntegration> integrations = new EnumMap<>(OutboundDestination.class);
+
+    public OutboundHttpClients(Environment environment) {
+        for (OutboundDestination destination : OutboundDestination.values()) {
+            String prefix = "outbound.http." + destination.getPropertyName() + ".";
+            integrations.put(destination, new OutboundIntegration(
+                    destination,
+                    Duration.ofMillis(environment.getProperty(prefix + "connect-timeout-ms", Long.class,
+                            destination.getConnectTimeout().toMillis())),
+                    Duration.ofMillis(environment.getProperty(prefix + "read-timeout-ms", Long.class,
+                            destination.getReadTimeout().toMillis())),
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, 20),
+                    environment.getProperty(prefix + "failure-threshold", Integer.class, 5),
+                    Duration.ofSeconds(environment.getProperty(prefix + "open-seconds", Long.class, 30L))));
+        }
+    }
+
+    public OutboundIntegration get(OutboundDestination destination) {
+        return integrations.get(destination);
+    }
+
+    public List<OutboundIntegration.Stats> stats() {
+        return integrations.values().stream().map(OutboundIntegration::stats).toList();
+    }
+}
@@ -0,0 +1,143 @@
+package com.project.demo.logic.outbound;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Exceptions;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cliente HTTP de un servicio externo: un {@link HttpClient} del JDK que mantiene las conexiones abiertas y las
+ * reutiliza, expuesto como {@link RestTemplate} (con tiempo de espera de lectura) y como {@link WebClient}.
+ *
+ * Las llamadas se hacen dentro de {@link #execute}, que limita las llamadas simultáneas (bulkhead), las corta
+ * mientras el circuit breaker esté abierto y registra su latencia. Los errores 4xx (salvo 429) son errores
+ * de la solicitud y no abren el circuito.
+ */
+public class OutboundIntegration {
+
+    /**
+     * Estado del cliente y contadores acumulados desde el arranque.
+     */
+    public record Stats(String name, CircuitBreaker.State circuit, int inFlight, int maxConcurrent,
+                        long calls, long failures, long rejected, LatencyHistogram.Snapshot latency) {}
+
+    private final OutboundDestination destination;
+    private final RestTemplate restTemplate;
+    private final WebClient webClient;
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public OutboundIntegration(OutboundDestination destination, Duration connectTimeout, Duration readTimeout,
+                               int maxConcurrent, int failureThreshold, Duration openDuration) {
+        this.destination = destination;
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.webClient = WebClient.builder()
+                .clientConnector(new JdkClientHttpConnector(httpClient))
+                .build();
+        this.maxConcurrent = maxConcurrent;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+    }
+
+    public RestTemplate restTemplate() {
+        return restTemplate;
+    }
+
+    /**
+     * WebClient para respuestas en streaming; el tiempo de espera entre fragmentos lo define quien lo usa.
+     */
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    /**
+     * Ejecuta una llamada al servicio.
+     *
+     * @throws ResponseStatusException 503 si el circuito está abierto o ya hay {@code maxConcurrent} llamadas en curso.
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!bulkhead.tryAcquire()) {
+            rejected.increment();
+            throw unavailable();
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            rejected.increment();
+            throw unavailable();
+        }
+        calls.increment();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isFailure(e)) {
+                failures.increment();
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        } finally {
+            latency.record(System.nanoTime() - start);
+            bulkhead.release();
+        }
+    }
+
+    public void execute(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(destination.getPropertyName(), circuitBreaker.getState(),
+                maxConcurrent - bulkhead.availablePermits(), maxConcurrent,
+                calls.sum(), failures.sum(), rejected.sum(), latency.snapshot());
+    }
+
+    private ResponseStatusException unavailable() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "El servicio externo " + destination.getPropertyName() + " no está disponible, intenta de nuevo en unos minutos");
+    }
+
+    private static boolean isFailure(RuntimeException e) {
+        Throwable cause = Exceptions.unwrap(e);
+        HttpStatusCode status = null;
+        if (cause instanceof RestClientResponseException ex) {
+            status = ex.getStatusCode();
+        } else if (cause instanceof WebClientResponseException ex) {
+            status = ex.getStatusCode();
+        } else if (cause instanceof ErrorResponse ex) {
+            status = ex.getStatusCode();
+        }
+        return status == null || !status.is4xxClientError() || status.value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.demo.logic.persistence;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ejecuta acciones (invalidar cachés, avisar a procesos en segundo plano) después del commit de la transacción
+ * de base de datos activa, para que nadie vea o vuelva a cachear datos que todavía no están confirmados.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {}
+
+    /**
+     * Registra la acción para después del commit si hay una transacción activa; si no la hay, la ejecuta de inmediato.
+     * Si la transacción se revierte, la acción no se ejecuta.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
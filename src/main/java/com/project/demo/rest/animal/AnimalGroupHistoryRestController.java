@@ -4,17 +4,13 @@ import com.project.demo.logic.entity.animal.AnimalGroup;
 import com.project.demo.logic.entity.animal.AnimalGroupRepository;
 import com.project.demo.logic.entity.animal.AnimalGroupHistory;
 import com.project.demo.logic.entity.animal.AnimalGroupHistoryRepository;
-import com.project.demo.logic.entity.user.User;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -35,7 +31,7 @@ public class AnimalGroupHistoryRestController {
     private AnimalGroupRepository animalGroupRepository;
 
     @Autowired
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
 
     /**
      * Añade un nuevo registro al historial de un grupo de animales.
@@ -51,7 +47,7 @@ public class AnimalGroupHistoryRestController {
             return new GlobalResponseHandler().handleResponse("Animal Group with id " + groupId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied", HttpStatus.FORBIDDEN, request);
         }
 
@@ -73,7 +69,7 @@ public class AnimalGroupHistoryRestController {
             return new GlobalResponseHandler().handleResponse("Animal Group with id " + groupId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied", HttpStatus.FORBIDDEN, request);
         }
 
@@ -96,7 +92,7 @@ public class AnimalGroupHistoryRestController {
             return new GlobalResponseHandler().handleResponse("Animal Group with id " + groupId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied", HttpStatus.FORBIDDEN, request);
         }
 
@@ -133,7 +129,7 @@ public class AnimalGroupHistoryRestController {
             return new GlobalResponseHandler().handleResponse("Animal Group with id " + groupId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalGroup.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied", HttpStatus.FORBIDDEN, request);
         }
 
@@ -149,13 +145,4 @@ public class AnimalGroupHistoryRestController {
             return new GlobalResponseHandler().handleResponse("History entry with id " + historyId + " not found", HttpStatus.NOT_FOUND, request);
         }
     }
-
-    private boolean hasAccessToFarm(Long farmId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
 }
\ No newline at end of file
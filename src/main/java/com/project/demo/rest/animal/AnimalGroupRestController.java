@@ -6,14 +6,12 @@ import com.project.demo.logic.entity.farm.Farm;
 import com.project.demo.logic.entity.farm.FarmRepository;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.user.User;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,7 +32,7 @@ public class AnimalGroupRestController {
     private FarmRepository farmRepository;
 
     @Autowired
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
 
     /**
      * Crea un nuevo grupo de animales dentro de una granja específica.
@@ -45,7 +43,7 @@ public class AnimalGroupRestController {
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> createAnimalGroup(@PathVariable Long farmId, @RequestBody AnimalGroup group, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -70,7 +68,7 @@ public class AnimalGroupRestController {
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getAnimalGroupsByFarm(@PathVariable Long farmId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -87,7 +85,7 @@ public class AnimalGroupRestController {
     @GetMapping("/{groupId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getAnimalGroupById(@PathVariable Long farmId, @PathVariable Long groupId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -109,7 +107,7 @@ public class AnimalGroupRestController {
     @PutMapping("/{groupId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updateAnimalGroup(@PathVariable Long farmId, @PathVariable Long groupId, @RequestBody AnimalGroup groupDetails, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -138,7 +136,7 @@ public class AnimalGroupRestController {
     @DeleteMapping("/{groupId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> deleteAnimalGroup(@PathVariable Long farmId, @PathVariable Long groupId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -150,16 +148,4 @@ public class AnimalGroupRestController {
             return new GlobalResponseHandler().handleResponse("Animal group with id " + groupId + " not found in farm " + farmId, HttpStatus.NOT_FOUND, request);
         }
     }
-
-    /**
-     * Método de ayuda para verificar el acceso del usuario a la granja.
-     */
-    private boolean hasAccessToFarm(Long farmId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
 }
\ No newline at end of file
@@ -7,8 +7,7 @@ import com.project.demo.logic.entity.farm.FarmRepository;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.http.Meta;
 import com.project.demo.logic.entity.user.User;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.animal.AnimalGroupRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,7 +38,7 @@ public class AnimalRestController {
     private FarmRepository farmRepository;
 
     @Autowired
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
     @Autowired
     private AnimalGroupRepository animalGroupRepository;
 
@@ -52,7 +51,7 @@ public class AnimalRestController {
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> createAnimal(@PathVariable Long farmId, @RequestBody Animal animal, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Acceso denegado a la Finca " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -82,7 +81,7 @@ public class AnimalRestController {
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getAnimalsByFarm(@PathVariable Long farmId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Acceso denegado a la Finca " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -99,7 +98,7 @@ public class AnimalRestController {
     @GetMapping("/{animalId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getAnimalById(@PathVariable Long farmId, @PathVariable Long animalId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -121,7 +120,7 @@ public class AnimalRestController {
     @PutMapping("/{animalId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updateAnimal(@PathVariable Long farmId, @PathVariable Long animalId, @RequestBody Animal animalDetails, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -148,7 +147,7 @@ public class AnimalRestController {
     @DeleteMapping("/{animalId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> deleteAnimal(@PathVariable Long farmId, @PathVariable Long animalId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -161,21 +160,6 @@ public class AnimalRestController {
         }
     }
 
-    /**
-     * Método de ayuda para verificar el acceso del usuario a la granja.
-     */
-    private boolean hasAccessToFarm(Long farmId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || authentication.getPrincipal() == null) {
-            return false;
-        }
-        User currentUser = (User) authentication.getPrincipal();
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
-
     /**
      * Obtiene la lista de animales que pertenecen a un grupo específico dentro de una finca.
      *
@@ -198,7 +182,7 @@ public class AnimalRestController {
             @PathVariable Long groupId,
             HttpServletRequest request
     ) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Acceso denegado a la Finca " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -1,5 +1,6 @@
 package com.project.demo.rest.auth;
 
+import com.project.demo.logic.entity.auth.AuthenticatedUserCache;
 import com.project.demo.logic.entity.auth.AuthenticationService;
 import com.project.demo.logic.entity.auth.GoogleAuthService;
 import com.project.demo.logic.entity.auth.JwtService;
@@ -52,6 +53,9 @@ public class AuthRestController {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
     private final AuthenticationService authenticationService;
     private final JwtService jwtService;
     private final GoogleAuthService googleAuthService;
@@ -189,6 +193,7 @@ public class AuthRestController {
             User user = optionalUser.get();
             user.setUserPassword(passwordEncoder.encode(req.newPassword()));
             userRepository.save(user);
+            authenticatedUserCache.evictUser(user.getUserEmail());
 
             return new GlobalResponseHandler().handleResponse("Password reset successfully", new MessageResponse("Password reset successfully"), HttpStatus.OK, request);
         } catch (Exception e) {
@@ -4,12 +4,15 @@ import com.project.demo.logic.entity.crop.Crop;
 import com.project.demo.logic.entity.crop.CropRepository;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.http.Meta;
+import com.project.demo.logic.entity.http.PageCursor;
 import com.project.demo.logic.entity.user.User;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -58,9 +61,13 @@ public class CropRestController {
     }
 
     /**
-     * Obtiene una lista paginada de los cultivos del usuario actual.
-     * @param page Número de la página a obtener (por defecto es 1).
+     * Obtiene una lista paginada de los cultivos del usuario actual, en orden de creación.
+     * Si se envía {@code cursor} (vacío para la primera página) se pagina por llave usando el {@code nextCursor}
+     * de la respuesta anterior, sin OFFSET; en ese modo el total solo se calcula si se pide con {@code includeTotal}.
+     * @param page Número de la página a obtener (por defecto es 1, solo sin cursor).
      * @param size Tamaño de la página (por defecto es 10).
+     * @param cursor Cursor opaco de la página anterior.
+     * @param includeTotal Si se calculan los totales; por defecto sí con page y no con cursor.
      * @param currentUser El usuario actualmente autenticado.
      * @param request La solicitud HTTP.
      * @return Una respuesta con la lista de cultivos y metadatos de paginación.
@@ -70,15 +77,39 @@ public class CropRestController {
     public ResponseEntity<?> getMyCrops(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean includeTotal,
             @AuthenticationPrincipal User currentUser,
             HttpServletRequest request) {
 
-        Pageable pageable = PageRequest.of(page - 1, size);
-        Page<Crop> cropPage = cropRepository.findAllByUserId(currentUser.getId(), pageable);
-
         Meta meta = new Meta(request.getMethod(), request.getRequestURL().toString());
-        meta.setTotalPages(cropPage.getTotalPages());
-        meta.setTotalElements(cropPage.getTotalElements());
+
+        if (cursor != null) {
+            PageCursor.Result<Crop> result;
+            try {
+                result = cropRepository.seekByUserId(currentUser.getId(), PageCursor.decode(cursor), size);
+            } catch (IllegalArgumentException e) {
+                return new GlobalResponseHandler().handleResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
+            }
+            meta.setPageSize(size);
+            meta.setNextCursor(result.nextCursor());
+            if (Boolean.TRUE.equals(includeTotal)) {
+                meta.setTotalElements(cropRepository.countByUserId(currentUser.getId()));
+            }
+            return new GlobalResponseHandler().handleResponse("Cultivos obtenidos exitosamente",
+                    result.content(), HttpStatus.OK, meta);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, size, Sort.by("id"));
+        Slice<Crop> cropPage;
+        if (Boolean.FALSE.equals(includeTotal)) {
+            cropPage = cropRepository.findSliceByUserId(currentUser.getId(), pageable);
+        } else {
+            Page<Crop> counted = cropRepository.findAllByUserId(currentUser.getId(), pageable);
+            meta.setTotalPages(counted.getTotalPages());
+            meta.setTotalElements(counted.getTotalElements());
+            cropPage = counted;
+        }
         meta.setPageNumber(cropPage.getNumber() + 1);
         meta.setPageSize(cropPage.getSize());
 
@@ -1,5 +1,7 @@
 package com.project.demo.rest.cropsmanagement;
 
+import com.project.demo.logic.dashboard.DashboardCache;
+import com.project.demo.rest.suggestion.AiResponseCache;
 import com.project.demo.logic.entity.crop.Crop;
 import com.project.demo.logic.entity.cropsmanagement.CropsManagement;
 import com.project.demo.logic.entity.cropsmanagement.CropsManagementRepository;
@@ -8,11 +10,9 @@ import com.project.demo.logic.entity.plot.FarmPlot;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.role.Role;
 import com.project.demo.logic.entity.role.RoleRepository;
-import com.project.demo.logic.entity.user.User;
 import com.project.demo.logic.entity.user.UserRepository;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.userfarm.UserXFarm;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
 import com.project.demo.logic.entity.crop.CropRepository;
 import com.project.demo.logic.entity.plot.FarmPlotRepository;
 
@@ -23,8 +23,6 @@ import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -52,7 +50,7 @@ public class CropsManagementRestController {
     private CropRepository cropRepository;
 
     @Autowired
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
 
     @Autowired
     private UserRepository userRepository;
@@ -60,6 +58,12 @@ public class CropsManagementRestController {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private AiResponseCache aiResponseCache;
+
     /**
      * Obtiene todos los registros de manejo para una parcela.
      * @param plotId El ID de la parcela.
@@ -68,7 +72,7 @@ public class CropsManagementRestController {
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getManagementRecords(@PathVariable Long plotId, HttpServletRequest request) {
-        if (!hasAccessToPlot(plotId)) {
+        if (!farmAccessService.hasAccessToPlot(plotId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to plot " + plotId, HttpStatus.FORBIDDEN, request);
         }
         List<CropsManagement> records = cropsManagementRepository.findByFarmPlot_Id(plotId);
@@ -81,7 +85,7 @@ public class CropsManagementRestController {
     @GetMapping("/{recordId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getManagementRecordById(@PathVariable Long plotId, @PathVariable Long recordId, HttpServletRequest request) {
-        if (!hasAccessToPlot(plotId)) {
+        if (!farmAccessService.hasAccessToPlot(plotId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to plot " + plotId, HttpStatus.FORBIDDEN, request);
         }
         Optional<CropsManagement> recordOpt = cropsManagementRepository.findById(recordId);
@@ -97,7 +101,7 @@ public class CropsManagementRestController {
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> createManagementRecord(@PathVariable Long plotId, @RequestBody CreateManagementRecordRequest req, HttpServletRequest request) {
-        if (!hasAccessToPlot(plotId)) {
+        if (!farmAccessService.hasAccessToPlot(plotId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to plot " + plotId, HttpStatus.FORBIDDEN, request);
         }
         Optional<FarmPlot> plot = farmPlotRepository.findById(plotId);
@@ -118,6 +122,8 @@ public class CropsManagementRestController {
         record.setCreatedAt(LocalDateTime.now());
         record.setActive(true);
         CropsManagement saved = cropsManagementRepository.save(record);
+        dashboardCache.evictFarm(saved.getFarmId());
+        aiResponseCache.evictFarm(saved.getFarmId());
         // Build response with cropId included
         Map<String, Object> response = new java.util.HashMap<>();
         response.put("id", saved.getId());
@@ -141,7 +147,7 @@ public class CropsManagementRestController {
     @PutMapping("/{recordId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updateManagementRecord(@PathVariable Long plotId, @PathVariable Long recordId, @RequestBody UpdateManagementRecordRequest req, HttpServletRequest request) {
-        if (!hasAccessToPlot(plotId)) {
+        if (!farmAccessService.hasAccessToPlot(plotId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to plot " + plotId, HttpStatus.FORBIDDEN, request);
         }
         Optional<CropsManagement> recordOpt = cropsManagementRepository.findById(recordId);
@@ -177,6 +183,8 @@ public class CropsManagementRestController {
         }
         record.setUpdatedAt(LocalDateTime.now());
         CropsManagement updated = cropsManagementRepository.save(record);
+        dashboardCache.evictFarm(updated.getFarmId());
+        aiResponseCache.evictFarm(updated.getFarmId());
         return new GlobalResponseHandler().handleResponse("Record updated", updated, HttpStatus.OK, request);
     }
 
@@ -186,33 +194,19 @@ public class CropsManagementRestController {
     @DeleteMapping("/{recordId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> deleteManagementRecord(@PathVariable Long plotId, @PathVariable Long recordId, HttpServletRequest request) {
-        if (!hasAccessToPlot(plotId)) {
+        if (!farmAccessService.hasAccessToPlot(plotId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to plot " + plotId, HttpStatus.FORBIDDEN, request);
         }
-        if (!cropsManagementRepository.existsById(recordId)) {
+        Optional<CropsManagement> recordOpt = cropsManagementRepository.findById(recordId);
+        if (recordOpt.isEmpty()) {
             return new GlobalResponseHandler().handleResponse("Record not found", HttpStatus.NOT_FOUND, request);
         }
-        cropsManagementRepository.deleteById(recordId);
+        cropsManagementRepository.delete(recordOpt.get());
+        dashboardCache.evictFarm(recordOpt.get().getFarmId());
+        aiResponseCache.evictFarm(recordOpt.get().getFarmId());
         return new GlobalResponseHandler().handleResponse("Record deleted", null, HttpStatus.NO_CONTENT, request);
     }
 
-    /**
-     * Método privado para verificar si el usuario autenticado tiene acceso a una parcela.
-     * @param plotId El ID de la parcela a verificar.
-     * @return true si tiene acceso, false de lo contrario.
-     */
-    private boolean hasAccessToPlot(Long plotId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-        Optional<FarmPlot> plot = farmPlotRepository.findById(plotId);
-        if (plot.isEmpty()) return false;
-        Long farmId = plot.get().getFarm().getId();
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
-
     /**
      * DTO para crear registro de manejo agrícola
      */
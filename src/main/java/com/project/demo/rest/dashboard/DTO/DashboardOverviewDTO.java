@@ -0,0 +1,26 @@
+package com.project.demo.rest.dashboard.DTO;
+
+import java.util.List;
+
+/**
+ * DTO con todos los datos de la página principal del dashboard:
+ * resumen general, gráfico del mes en curso y los 5 cultivos con mayor rendimiento.
+ */
+public class DashboardOverviewDTO {
+    private DashboardSummaryDTO summary;
+    private DoughnutChartDTO monthlyChart;
+    private List<TopCropYieldDTO> topCrops;
+
+    public DashboardOverviewDTO(DashboardSummaryDTO summary, DoughnutChartDTO monthlyChart, List<TopCropYieldDTO> topCrops) {
+        this.summary = summary;
+        this.monthlyChart = monthlyChart;
+        this.topCrops = topCrops;
+    }
+
+    public DashboardSummaryDTO getSummary() { return summary; }
+    public void setSummary(DashboardSummaryDTO summary) { this.summary = summary; }
+    public DoughnutChartDTO getMonthlyChart() { return monthlyChart; }
+    public void setMonthlyChart(DoughnutChartDTO monthlyChart) { this.monthlyChart = monthlyChart; }
+    public List<TopCropYieldDTO> getTopCrops() { return topCrops; }
+    public void setTopCrops(List<TopCropYieldDTO> topCrops) { this.topCrops = topCrops; }
+}
@@ -0,0 +1,41 @@
+package com.project.demo.rest.dashboard.DTO;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de comparar el acumulado mensual contra las transacciones originales.
+ */
+public class RollupConsistencyReportDTO {
+
+    /**
+     * Diferencia encontrada en una fila (usuario, finca, cultivo, mes) del acumulado.
+     * Los valores "expected" se calculan desde las transacciones y los "actual" se leen del acumulado.
+     */
+    public record Mismatch(Long userId, Long farmId, Long cropId, String monthKey,
+                           double expectedIncome, double actualIncome,
+                           double expectedExpenses, double actualExpenses,
+                           double expectedQuantitySold, double actualQuantitySold,
+                           long expectedCount, long actualCount) {}
+
+    private long checkedUsers;
+    private long checkedRows;
+    private long mismatchCount;
+    private List<Mismatch> mismatches;
+
+    public RollupConsistencyReportDTO(long checkedUsers, long checkedRows, long mismatchCount, List<Mismatch> mismatches) {
+        this.checkedUsers = checkedUsers;
+        this.checkedRows = checkedRows;
+        this.mismatchCount = mismatchCount;
+        this.mismatches = mismatches;
+    }
+
+    public boolean isConsistent() { return mismatchCount == 0; }
+    public long getCheckedUsers() { return checkedUsers; }
+    public void setCheckedUsers(long checkedUsers) { this.checkedUsers = checkedUsers; }
+    public long getCheckedRows() { return checkedRows; }
+    public void setCheckedRows(long checkedRows) { this.checkedRows = checkedRows; }
+    public long getMismatchCount() { return mismatchCount; }
+    public void setMismatchCount(long mismatchCount) { this.mismatchCount = mismatchCount; }
+    public List<Mismatch> getMismatches() { return mismatches; }
+    public void setMismatches(List<Mismatch> mismatches) { this.mismatches = mismatches; }
+}
@@ -1,6 +1,8 @@
 package com.project.demo.rest.dashboard;
 
+import com.project.demo.logic.dashboard.DashboardCache;
 import com.project.demo.logic.dashboard.DashboardService;
+import com.project.demo.logic.dashboard.TransactionRollupService;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.user.User;
 import com.project.demo.rest.dashboard.DTO.*;
@@ -12,6 +14,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -21,14 +24,34 @@ public class DashboardRestController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
     @GetMapping("/summary")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getDashboardSummary(HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        DashboardSummaryDTO summary = dashboardService.getSummaryForUser(currentUser.getId());
+        DashboardSummaryDTO summary = dashboardCache.get(currentUser.getId(), "summary", null,
+                () -> dashboardService.getSummaryForUser(currentUser.getId()));
         return new GlobalResponseHandler().handleResponse("Resumen del dashboard recuperado correctamente", summary, HttpStatus.OK, request);
     }
 
+    /**
+     * Devuelve en una sola llamada el resumen, el gráfico mensual y los 5 cultivos principales
+     * que muestra la página principal del dashboard.
+     */
+    @GetMapping("/overview")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getDashboardOverview(HttpServletRequest request) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        DashboardOverviewDTO overview = dashboardCache.get(currentUser.getId(), "overview", null,
+                () -> dashboardService.getOverviewForUser(currentUser.getId()));
+        return new GlobalResponseHandler().handleResponse("Vista general del dashboard recuperada correctamente", overview, HttpStatus.OK, request);
+    }
+
     @PostMapping("/reports")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> generateReport(@RequestBody ReportRequestDTO reportRequest, HttpServletRequest request) {
@@ -38,33 +61,44 @@ public class DashboardRestController {
             return new GlobalResponseHandler().handleResponse("El tipo de informe es obligatorio", HttpStatus.BAD_REQUEST, request);
         }
 
+        Long userId = currentUser.getId();
+        String reportKey = "report:" + reportRequest.getReportType();
+        List<Object> params = Arrays.asList(reportRequest.getStartDate(), reportRequest.getEndDate(),
+                reportRequest.getFarmId(), reportRequest.getCropId());
+
         switch (reportRequest.getReportType()) {
             case INCOME_VS_EXPENSES:
-                IncomeVsExpensesDTO incomeVsExpensesData = dashboardService.generateIncomeVsExpensesReport(currentUser.getId(), reportRequest);
+                IncomeVsExpensesDTO incomeVsExpensesData = dashboardCache.get(userId, reportKey, params,
+                        () -> dashboardService.generateIncomeVsExpensesReport(userId, reportRequest));
                 return new GlobalResponseHandler().handleResponse("Informe de ingresos vs gastos generado exitosamente", incomeVsExpensesData, HttpStatus.OK, request);
 
             case CROP_YIELD:
-                List<CropYieldDTO> cropYieldReportData = dashboardService.generateCropYieldReport(currentUser.getId(), reportRequest);
+                List<CropYieldDTO> cropYieldReportData = dashboardCache.get(userId, reportKey, params,
+                        () -> dashboardService.generateCropYieldReport(userId, reportRequest));
                 return new GlobalResponseHandler().handleResponse("Informe de rendimiento de cultivos generado correctamente", cropYieldReportData, HttpStatus.OK, request);
 
             case PLOT_YIELD:
                 try {
-                    List<PlotYieldDTO> plotYieldReportData = dashboardService.generatePlotYieldReport(currentUser.getId(), reportRequest);
+                    List<PlotYieldDTO> plotYieldReportData = dashboardCache.get(userId, reportKey, params,
+                            () -> dashboardService.generatePlotYieldReport(userId, reportRequest));
                     return new GlobalResponseHandler().handleResponse("Informe de rendimiento de la parcela generado correctamente", plotYieldReportData, HttpStatus.OK, request);
                 } catch (IllegalArgumentException e) {
                     return new GlobalResponseHandler().handleResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
                 }
 
             case CROP_COSTS:
-                List<CropCostDTO> cropCostReportData = dashboardService.generateCropCostReport(currentUser.getId(), reportRequest);
+                List<CropCostDTO> cropCostReportData = dashboardCache.get(userId, reportKey, params,
+                        () -> dashboardService.generateCropCostReport(userId, reportRequest));
                 return new GlobalResponseHandler().handleResponse("Informe de costos de cultivo generado exitosamente", cropCostReportData, HttpStatus.OK, request);
 
             case OPERATIONAL_COSTS:
-                List<OperationalCostDTO> operationalCostReportData = dashboardService.generateOperationalCostReport(currentUser.getId(), reportRequest);
+                List<OperationalCostDTO> operationalCostReportData = dashboardCache.get(userId, reportKey, params,
+                        () -> dashboardService.generateOperationalCostReport(userId, reportRequest));
                 return new GlobalResponseHandler().handleResponse("Informe de costos operativos generado exitosamente", operationalCostReportData, HttpStatus.OK, request);
 
             case FARM_COSTS: // **NUEVO CASE**
-                List<FarmCostDTO> reportData = dashboardService.generateFarmCostReport(currentUser.getId(), reportRequest);
+                List<FarmCostDTO> reportData = dashboardCache.get(userId, reportKey, params,
+                        () -> dashboardService.generateFarmCostReport(userId, reportRequest));
                 return new GlobalResponseHandler().handleResponse("Informe de costos de la granja generado exitosamente", reportData, HttpStatus.OK, request);
 
             default:
@@ -76,7 +110,8 @@ public class DashboardRestController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getDashboardMonthlyChart(HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        DoughnutChartDTO chartData = dashboardService.getCurrentMonthChartForUser(currentUser.getId());
+        DoughnutChartDTO chartData = dashboardCache.get(currentUser.getId(), "monthly-chart", null,
+                () -> dashboardService.getCurrentMonthChartForUser(currentUser.getId()));
         return new GlobalResponseHandler().handleResponse("Datos del gráfico mensual recuperados correctamente", chartData, HttpStatus.OK, request);
     }
 
@@ -84,7 +119,45 @@ public class DashboardRestController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getDashboardCropYield(HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<TopCropYieldDTO> cropYieldData = dashboardService.getTopCropYieldsForUser(currentUser.getId());
+        List<TopCropYieldDTO> cropYieldData = dashboardCache.get(currentUser.getId(), "crop-yield", null,
+                () -> dashboardService.getTopCropYieldsForUser(currentUser.getId()));
         return new GlobalResponseHandler().handleResponse("Datos de rendimiento de los top 5 cultivos se recuperaron correctamente", cropYieldData, HttpStatus.OK, request);
     }
+
+    /**
+     * Recalcula el acumulado mensual de transacciones desde los datos originales.
+     * @param userId Usuario a recalcular; si se omite se recalculan todos.
+     */
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> rebuildRollup(@RequestParam(required = false) Long userId, HttpServletRequest request) {
+        int rows = transactionRollupService.rebuild(userId);
+        if (userId == null) {
+            dashboardCache.evictAll();
+        } else {
+            dashboardCache.evictUser(userId);
+        }
+        return new GlobalResponseHandler().handleResponse("Acumulado mensual recalculado correctamente", rows, HttpStatus.OK, request);
+    }
+
+    /**
+     * Compara el acumulado mensual contra las transacciones y devuelve las diferencias encontradas.
+     * @param userId Usuario a verificar; si se omite se verifican todos.
+     */
+    @GetMapping("/rollup/consistency")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> checkRollupConsistency(@RequestParam(required = false) Long userId, HttpServletRequest request) {
+        RollupConsistencyReportDTO report = transactionRollupService.checkConsistency(userId);
+        return new GlobalResponseHandler().handleResponse("Verificación del acumulado mensual completada", report, HttpStatus.OK, request);
+    }
+
+    /**
+     * Devuelve los contadores de aciertos, fallos y desalojos de la caché del dashboard.
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> getCacheStats(HttpServletRequest request) {
+        DashboardCacheStatsDTO stats = dashboardCache.stats();
+        return new GlobalResponseHandler().handleResponse("Estadísticas de la caché del dashboard recuperadas correctamente", stats, HttpStatus.OK, request);
+    }
 }
@@ -1,20 +1,29 @@
 package com.project.demo.rest.farm;
 
 import com.project.demo.logic.entity.farm.Farm;
+import com.project.demo.logic.entity.farm.FarmAdminFilter;
+import com.project.demo.logic.entity.farm.FarmAdminQueryRepository;
+import com.project.demo.logic.entity.farm.FarmListItem;
 import com.project.demo.logic.entity.farm.FarmRepository;
 import com.project.demo.logic.entity.farm.FarmsTechnicalInformation;
 import com.project.demo.logic.entity.farm.FarmsTechnicalInformationRepository;
+import com.project.demo.logic.entity.farm.IFarmSummary;
+import com.project.demo.logic.entity.plot.PlotSpatialIndex;
 import com.project.demo.logic.entity.user.User;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.userfarm.UserFarmId;
 import com.project.demo.logic.entity.userfarm.UserXFarm;
 import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.http.Meta;
+import com.project.demo.rest.suggestion.AiResponseCache;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,6 +32,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,15 +47,29 @@ record FarmCreationRequest(Farm farm, FarmsTechnicalInformation technicalInfo) {
 @RequestMapping("/farms")
 public class FarmRestController {
 
+    private static final int MAX_ADMIN_PAGE_SIZE = 100;
+
     @Autowired
     private FarmRepository farmRepository;
 
+    @Autowired
+    private FarmAdminQueryRepository farmAdminQueryRepository;
+
     @Autowired
     private UserXFarmRepository userXFarmRepository;
 
+    @Autowired
+    private FarmAccessService farmAccessService;
+
     @Autowired
     private FarmsTechnicalInformationRepository farmsTechnicalInformationRepository;
 
+    @Autowired
+    private AiResponseCache aiResponseCache;
+
+    @Autowired
+    private PlotSpatialIndex plotSpatialIndex;
+
     /**
      * Crea una nueva granja y la asigna automáticamente al usuario autenticado.
      * Si se envía información técnica, también la guarda.
@@ -71,6 +95,7 @@ public class FarmRestController {
         userFarmLink.setUser(currentUser);
         userFarmLink.setActive(true);
         userXFarmRepository.save(userFarmLink);
+        farmAccessService.evictUser(currentUser.getId());
 
         FarmsTechnicalInformation savedTechnicalInfo = null;
         // Save technical information if provided
@@ -89,8 +114,10 @@ public class FarmRestController {
 
     /**
      * Obtiene una lista de granjas.
-     * - Si el usuario es SUPER_ADMIN, devuelve todas las granjas de forma paginada.
-     * - Si es otro rol, devuelve una lista de las granjas asociadas a ese usuario (sin paginar).
+     * - Si el usuario es SUPER_ADMIN, devuelve una página de todas las granjas (solo sus columnas, sin colecciones),
+     *   filtrada opcionalmente por país, provincia, estado activo y rango de tamaño, y ordenada por {@code sort}.
+     *   Con {@code includeTotal=false} se omite el conteo total.
+     * - Si es otro rol, devuelve una lista de las granjas asociadas a ese usuario (sin paginar ni filtrar).
      * @return Lista de granjas.
      */
     @GetMapping
@@ -98,14 +125,51 @@ public class FarmRestController {
     public ResponseEntity<?> getFarms(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String stateProvince,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Double minSize,
+            @RequestParam(required = false) Double maxSize,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) Boolean includeTotal,
             HttpServletRequest request) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
 
         if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            List<Farm> allFarms = farmRepository.findAll();
-            return new GlobalResponseHandler().handleResponse("All farms retrieved successfully", allFarms, HttpStatus.OK, request);
+            if (page < 1 || size < 1 || size > MAX_ADMIN_PAGE_SIZE) {
+                return new GlobalResponseHandler().handleResponse("page must be >= 1 and size between 1 and " + MAX_ADMIN_PAGE_SIZE,
+                        HttpStatus.BAD_REQUEST, request);
+            }
+            if (!FarmAdminQueryRepository.SORTABLE_FIELDS.contains(sort)) {
+                return new GlobalResponseHandler().handleResponse("sort must be one of " + FarmAdminQueryRepository.SORTABLE_FIELDS,
+                        HttpStatus.BAD_REQUEST, request);
+            }
+            if (minSize != null && maxSize != null && minSize > maxSize) {
+                return new GlobalResponseHandler().handleResponse("minSize must not be greater than maxSize", HttpStatus.BAD_REQUEST, request);
+            }
+            Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(null);
+            if (sortDirection == null) {
+                return new GlobalResponseHandler().handleResponse("direction must be asc or desc", HttpStatus.BAD_REQUEST, request);
+            }
+
+            FarmAdminFilter filter = new FarmAdminFilter(blankToNull(country), blankToNull(stateProvince), active, minSize, maxSize);
+            Pageable pageable = PageRequest.of(page - 1, size, FarmAdminQueryRepository.sortOf(sortDirection, sort));
+            Meta meta = new Meta(request.getMethod(), request.getRequestURL().toString());
+            Slice<FarmListItem> farmsPage;
+            if (Boolean.FALSE.equals(includeTotal)) {
+                farmsPage = farmAdminQueryRepository.findSlice(filter, pageable);
+            } else {
+                Page<FarmListItem> counted = farmAdminQueryRepository.findPage(filter, pageable);
+                meta.setTotalPages(counted.getTotalPages());
+                meta.setTotalElements(counted.getTotalElements());
+                farmsPage = counted;
+            }
+            meta.setPageNumber(farmsPage.getNumber() + 1);
+            meta.setPageSize(farmsPage.getSize());
+            return new GlobalResponseHandler().handleResponse("All farms retrieved successfully", farmsPage.getContent(), HttpStatus.OK, meta);
         } else {
             List<Farm> userFarms = farmRepository.findFarmsByUserId(currentUser.getId());
             return new GlobalResponseHandler().handleResponse("User farms retrieved successfully", userFarms, HttpStatus.OK, request);
@@ -120,7 +184,7 @@ public class FarmRestController {
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getFarmById(@PathVariable Long id, HttpServletRequest request) {
-        if (!hasAccessToFarm(id)) {
+        if (!farmAccessService.hasAccessToFarm(id)) {
             return new GlobalResponseHandler().handleResponse("User does not have access to this farm", HttpStatus.FORBIDDEN, request);
         }
 
@@ -148,7 +212,7 @@ public class FarmRestController {
     @PutMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updateFarm(@PathVariable Long id, @RequestBody FarmCreationRequest updateRequest, HttpServletRequest request) {
-        if (!hasAccessToFarm(id)) {
+        if (!farmAccessService.hasAccessToFarm(id)) {
             return new GlobalResponseHandler().handleResponse("User does not have access to this farm", HttpStatus.FORBIDDEN, request);
         }
 
@@ -186,6 +250,8 @@ public class FarmRestController {
                 savedTechnicalInfo = farmsTechnicalInformationRepository.save(existingTechInfo);
             }
 
+            aiResponseCache.evictFarm(id);
+
             Map<String, Object> responseBody = new HashMap<>();
             responseBody.put("farm", updatedFarm);
             responseBody.put("technicalInfo", savedTechnicalInfo);
@@ -204,13 +270,16 @@ public class FarmRestController {
     @DeleteMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> deleteFarm(@PathVariable Long id, HttpServletRequest request) {
-        if (!hasAccessToFarm(id)) {
+        if (!farmAccessService.hasAccessToFarm(id)) {
             return new GlobalResponseHandler().handleResponse("User does not have access to this farm", HttpStatus.FORBIDDEN, request);
         }
 
         Optional<Farm> farmOptional = farmRepository.findById(id);
         if (farmOptional.isPresent()) {
             farmRepository.delete(farmOptional.get());
+            aiResponseCache.evictFarm(id);
+            farmAccessService.evictFarm(id);
+            plotSpatialIndex.removeFarm(id);
             return new GlobalResponseHandler().handleResponse("Farm and all associated data deleted successfully", farmOptional.get(), HttpStatus.OK, request);
         } else {
             return new GlobalResponseHandler().handleResponse("Farm id " + id + " not found", HttpStatus.NOT_FOUND, request);
@@ -218,23 +287,8 @@ public class FarmRestController {
     }
 
     /**
-     * Método privado para verificar si el usuario autenticado tiene acceso a una granja.
-     * @param farmId El ID de la granja a verificar.
-     * @return true si tiene acceso, false de lo contrario.
-     */
-    private boolean hasAccessToFarm(Long farmId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
-
-    /**
-     * Obtiene todas las fincas asociadas al usuario autenticado (farmAdmin).
+     * Obtiene todas las fincas asociadas al usuario autenticado (farmAdmin), cada una con su información técnica.
+     * Se leen con una sola consulta de proyección, sin cargar las colecciones de la finca.
      */
     @GetMapping("/my-farms")
     @PreAuthorize("hasAnyRole('USER', 'CORPORATION', 'FARM_ADMIN', 'SUPER_ADMIN')")
@@ -242,17 +296,19 @@ public class FarmRestController {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User currentUser = (User) authentication.getPrincipal();
-            List<Farm> farms = farmRepository.findFarmsByUserId(currentUser.getId());
-            List<Map<String, Object>> result = farms.stream().map(farm -> {
-                Optional<FarmsTechnicalInformation> techInfoOptional = farmsTechnicalInformationRepository.findByFarmId(farm.getId());
-                Map<String, Object> farmData = new HashMap<>();
-                farmData.put("farm", farm);
-                farmData.put("technicalInfo", techInfoOptional.orElse(null));
-                return farmData;
-            }).toList();
+            // Filas ordenadas por finca; si una finca tiene más de un registro técnico se usa el primero
+            Map<Long, FarmSummaryResponse> farms = new LinkedHashMap<>();
+            for (IFarmSummary row : farmRepository.findSummariesByUserId(currentUser.getId())) {
+                farms.putIfAbsent(row.getId(), FarmSummaryResponse.from(row));
+            }
+            List<FarmSummaryResponse> result = List.copyOf(farms.values());
             return new GlobalResponseHandler().handleResponse("Farms retrieved successfully", result, HttpStatus.OK, request);
         } catch (Exception e) {
             return new GlobalResponseHandler().handleResponse("Error retrieving farms: " + e.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR, request);
         }
     }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
 }
\ No newline at end of file
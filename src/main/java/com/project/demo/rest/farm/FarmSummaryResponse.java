@@ -0,0 +1,34 @@
+package com.project.demo.rest.farm;
+
+import com.project.demo.logic.entity.farm.IFarmSummary;
+
+import java.time.LocalDateTime;
+
+/**
+ * Finca con su información técnica tal como la devuelve GET /farms/my-farms.
+ * Mantiene la forma {"farm": {...}, "technicalInfo": {...}} de la respuesta, pero sin las colecciones de la
+ * entidad Farm (grupos animales, parcelas), para que serializarla no dispare cargas perezosas.
+ */
+record FarmSummaryResponse(FarmData farm, TechnicalInfoData technicalInfo) {
+
+    record FarmData(Long id, String farmName, String farmCountry, String farmStateProvince,
+                    String farmOtherDirections, String farmLocation, Double farmSize, String farmMeasureUnit,
+                    LocalDateTime createdAt, LocalDateTime updatedAt, Boolean active) {}
+
+    record TechnicalInfoData(Long id, String soilPh, String soilNutrients, Boolean irrigationSystem,
+                             String irrigationSystemType, Boolean waterAvailable, String waterUsageType,
+                             Boolean fertilizerPesticideUse, LocalDateTime createdAt, LocalDateTime updatedAt,
+                             Boolean isActive) {}
+
+    static FarmSummaryResponse from(IFarmSummary row) {
+        FarmData farm = new FarmData(row.getId(), row.getFarmName(), row.getFarmCountry(), row.getFarmStateProvince(),
+                row.getFarmOtherDirections(), row.getFarmLocation(), row.getFarmSize(), row.getFarmMeasureUnit(),
+                row.getCreatedAt(), row.getUpdatedAt(), row.getActive());
+        TechnicalInfoData technicalInfo = row.getTechnicalInfoId() == null ? null
+                : new TechnicalInfoData(row.getTechnicalInfoId(), row.getSoilPh(), row.getSoilNutrients(),
+                row.getIrrigationSystem(), row.getIrrigationSystemType(), row.getWaterAvailable(),
+                row.getWaterUsageType(), row.getFertilizerPesticideUse(), row.getTechnicalInfoCreatedAt(),
+                row.getTechnicalInfoUpdatedAt(), row.getTechnicalInfoActive());
+        return new FarmSummaryResponse(farm, technicalInfo);
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.demo.rest.mail;
+
+import com.project.demo.logic.entity.http.GlobalResponseHandler;
+import com.project.demo.logic.entity.mail.EmailOutboxDispatcher;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para consultar el estado del outbox de correos.
+ */
+@RestController
+@RequestMapping("/email-outbox")
+public class EmailOutboxRestController {
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    /**
+     * Devuelve los correos pendientes y fallidos, la antigüedad del pendiente más viejo, los contadores de
+     * envíos y reintentos, y el histograma de latencia de envío.
+     * @param request La solicitud HTTP.
+     * @return ResponseEntity con las estadísticas del outbox.
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> getEmailOutboxStats(HttpServletRequest request) {
+        return new GlobalResponseHandler().handleResponse("Email outbox stats retrieved successfully",
+                emailOutboxDispatcher.getStats(), HttpStatus.OK, request);
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.demo.rest.marketprice;
 
 import com.project.demo.logic.entity.http.Meta;
+import com.project.demo.logic.entity.http.PageCursor;
 import com.project.demo.logic.entity.marketprice.CorporationMarketPrice;
 import com.project.demo.logic.entity.marketprice.CorporationMarketPriceRepository;
 import com.project.demo.logic.entity.user.User;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -64,7 +66,14 @@ public class CorporationMarketPriceRestController {
     }
 
     /**
-     * Obtiene todos los precios de mercado establecidos por la corporación actualmente autenticada.
+     * Obtiene todos los precios de mercado establecidos por la corporación actualmente autenticada,
+     * del más reciente al más antiguo.
+     * Si se envía {@code cursor} (vacío para la primera página) se pagina por llave usando el {@code nextCursor}
+     * de la respuesta anterior, sin OFFSET; en ese modo el total solo se calcula si se pide con {@code includeTotal}.
+     * @param page Número de la página a obtener (solo sin cursor).
+     * @param size Tamaño de la página.
+     * @param cursor Cursor opaco de la página anterior.
+     * @param includeTotal Si se calculan los totales; por defecto sí con page y no con cursor.
      * @param request La solicitud HTTP.
      * @return ResponseEntity con una lista de sus precios de mercado.
      */
@@ -73,15 +82,38 @@ public class CorporationMarketPriceRestController {
     public ResponseEntity<?> getMyMarketPrices(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean includeTotal,
             HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        Pageable pageable = PageRequest.of(page - 1, size);
+        Meta meta = new Meta(request.getMethod(), request.getRequestURL().toString());
 
-        Page<CorporationMarketPrice> prices = marketPriceRepository.findByCorporationId(currentUser.getId(),pageable);
+        if (cursor != null) {
+            PageCursor.Result<CorporationMarketPrice> result;
+            try {
+                result = marketPriceRepository.seekByCorporationId(currentUser.getId(), PageCursor.decode(cursor), size);
+            } catch (IllegalArgumentException e) {
+                return new GlobalResponseHandler().handleResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
+            }
+            meta.setPageSize(size);
+            meta.setNextCursor(result.nextCursor());
+            if (Boolean.TRUE.equals(includeTotal)) {
+                meta.setTotalElements(marketPriceRepository.countByCorporationId(currentUser.getId()));
+            }
+            return new GlobalResponseHandler().handleResponse("My market prices retrieved successfully",
+                    result.content(), HttpStatus.OK, meta);
+        }
 
-        Meta meta = new Meta(request.getMethod(), request.getRequestURL().toString());
-        meta.setTotalPages(prices.getTotalPages());
-        meta.setTotalElements(prices.getTotalElements());
+        Pageable pageable = PageRequest.of(page - 1, size);
+        Slice<CorporationMarketPrice> prices;
+        if (Boolean.FALSE.equals(includeTotal)) {
+            prices = marketPriceRepository.findSliceByCorporationId(currentUser.getId(), pageable);
+        } else {
+            Page<CorporationMarketPrice> counted = marketPriceRepository.findByCorporationId(currentUser.getId(), pageable);
+            meta.setTotalPages(counted.getTotalPages());
+            meta.setTotalElements(counted.getTotalElements());
+            prices = counted;
+        }
         meta.setPageNumber(prices.getNumber() + 1);
         meta.setPageSize(prices.getSize());
 
@@ -0,0 +1,36 @@
+package com.project.demo.rest.outbound;
+
+import com.project.demo.logic.entity.http.GlobalResponseHandler;
+import com.project.demo.logic.outbound.OutboundHttpClients;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para consultar el estado de los clientes HTTP hacia servicios externos (IA, Google, SendGrid).
+ */
+@RestController
+@RequestMapping("/outbound-http")
+public class OutboundHttpRestController {
+
+    @Autowired
+    private OutboundHttpClients outboundHttpClients;
+
+    /**
+     * Devuelve, por servicio externo, el estado del circuit breaker, las llamadas en curso, los contadores de
+     * llamadas, fallos y rechazos, y el histograma de latencias.
+     * @param request La solicitud HTTP.
+     * @return ResponseEntity con las estadísticas de cada destino.
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> getOutboundHttpStats(HttpServletRequest request) {
+        return new GlobalResponseHandler().handleResponse("Outbound HTTP stats retrieved successfully",
+                outboundHttpClients.stats(), HttpStatus.OK, request);
+    }
+}
@@ -4,17 +4,15 @@ import com.project.demo.logic.entity.farm.Farm;
 import com.project.demo.logic.entity.farm.FarmRepository;
 import com.project.demo.logic.entity.plot.FarmPlot;
 import com.project.demo.logic.entity.plot.FarmPlotRepository;
-import com.project.demo.logic.entity.user.User;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.plot.PlotSpatialIndex;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
+import com.project.demo.rest.suggestion.AiResponseCache;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -34,7 +32,13 @@ public class FarmPlotRestController {
     private FarmRepository farmRepository;
 
     @Autowired
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
+
+    @Autowired
+    private AiResponseCache aiResponseCache;
+
+    @Autowired
+    private PlotSpatialIndex plotSpatialIndex;
 
     /**
      * Crea una nueva parcela dentro de una granja específica.
@@ -45,7 +49,7 @@ public class FarmPlotRestController {
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> createPlot(@PathVariable Long farmId, @RequestBody FarmPlot plot, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -56,6 +60,8 @@ public class FarmPlotRestController {
 
         plot.setFarm(farm.get());
         FarmPlot savedPlot = farmPlotRepository.save(plot);
+        aiResponseCache.evictFarm(farmId);
+        plotSpatialIndex.refreshPlot(savedPlot.getId());
         return new GlobalResponseHandler().handleResponse("Plot created successfully", savedPlot, HttpStatus.CREATED, request);
     }
 
@@ -67,7 +73,7 @@ public class FarmPlotRestController {
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getPlotsByFarm(@PathVariable Long farmId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -84,7 +90,7 @@ public class FarmPlotRestController {
     @GetMapping("/{plotId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> getPlotById(@PathVariable Long farmId, @PathVariable Long plotId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -106,7 +112,7 @@ public class FarmPlotRestController {
     @PutMapping("/{plotId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updatePlot(@PathVariable Long farmId, @PathVariable Long plotId, @RequestBody FarmPlot plotDetails, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
@@ -120,6 +126,8 @@ public class FarmPlotRestController {
             existingPlot.setActive(plotDetails.isActive());
             existingPlot.setGeometryPolygon(plotDetails.getGeometryPolygon());
             FarmPlot updatedPlot = farmPlotRepository.save(existingPlot);
+            aiResponseCache.evictFarm(farmId);
+            plotSpatialIndex.refreshPlot(plotId);
             return new GlobalResponseHandler().handleResponse("Plot updated successfully", updatedPlot, HttpStatus.OK, request);
         } else {
             return new GlobalResponseHandler().handleResponse("Plot with id " + plotId + " not found in farm " + farmId, HttpStatus.NOT_FOUND, request);
@@ -135,28 +143,19 @@ public class FarmPlotRestController {
     @DeleteMapping("/{plotId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> deletePlot(@PathVariable Long farmId, @PathVariable Long plotId, HttpServletRequest request) {
-        if (!hasAccessToFarm(farmId)) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
         }
 
         Optional<FarmPlot> optionalPlot = farmPlotRepository.findByIdAndFarmId(plotId, farmId);
         if (optionalPlot.isPresent()) {
             farmPlotRepository.delete(optionalPlot.get());
+            aiResponseCache.evictFarm(farmId);
+            farmAccessService.evictPlot(plotId);
+            plotSpatialIndex.removePlot(plotId);
             return new GlobalResponseHandler().handleResponse("Plot deleted successfully", optionalPlot.get(), HttpStatus.OK, request);
         } else {
             return new GlobalResponseHandler().handleResponse("Plot with id " + plotId + " not found in farm " + farmId, HttpStatus.NOT_FOUND, request);
         }
     }
-
-    /**
-     * Metodo de ayuda para verificar el acceso del usuario a la granja.
-     */
-    private boolean hasAccessToFarm(Long farmId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
 }
\ No newline at end of file
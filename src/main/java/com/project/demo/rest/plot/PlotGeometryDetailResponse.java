@@ -0,0 +1,15 @@
+package com.project.demo.rest.plot;
+
+import com.project.demo.logic.entity.plot.GeometryDetail;
+import com.project.demo.logic.geo.GeoShape;
+
+/**
+ * Geometría de una parcela con el nivel de detalle pedido por GET /plots/{plotId}/geometry?zoom=...
+ * vertexCount es null cuando el GeoJSON guardado no se pudo interpretar y se devuelve tal cual.
+ */
+record PlotGeometryDetailResponse(Long plotId, String detail, Integer vertexCount, String geometryPolygon) {
+
+    static PlotGeometryDetailResponse from(Long plotId, GeometryDetail detail, GeoShape shape) {
+        return new PlotGeometryDetailResponse(plotId, detail.name(), shape.getVertexCount(), shape.toGeoJson());
+    }
+}
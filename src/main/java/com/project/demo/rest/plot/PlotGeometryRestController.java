@@ -2,19 +2,20 @@ package com.project.demo.rest.plot;
 
 import com.project.demo.logic.entity.plot.FarmPlot;
 import com.project.demo.logic.entity.plot.FarmPlotRepository;
+import com.project.demo.logic.entity.plot.GeometryDetail;
+import com.project.demo.logic.entity.plot.IPlotGeometryView;
 import com.project.demo.logic.entity.plot.PlotGeometry;
 import com.project.demo.logic.entity.plot.PlotGeometryRepository;
-import com.project.demo.logic.entity.user.User;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.plot.PlotSpatialIndex;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
+import com.project.demo.logic.geo.GeometryCodec;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
@@ -33,7 +34,9 @@ public class PlotGeometryRestController {
     @Autowired
     private FarmPlotRepository farmPlotRepository;
     @Autowired
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
+    @Autowired
+    private PlotSpatialIndex plotSpatialIndex;
 
     /**
      * Crea la geometría de una parcela (solo si no existe).
@@ -49,7 +52,7 @@ public class PlotGeometryRestController {
             return new GlobalResponseHandler().handleResponse("Plot with id " + plotId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied to this plot's farm", HttpStatus.FORBIDDEN, request);
         }
 
@@ -62,27 +65,74 @@ public class PlotGeometryRestController {
         geometry.setGeometryPolygon(geometryPolygonJson);
 
         PlotGeometry savedGeometry = geometryRepository.save(geometry);
+        plotSpatialIndex.refreshPlot(plotId);
         return new GlobalResponseHandler().handleResponse("Geometry created successfully", savedGeometry, HttpStatus.CREATED, request);
     }
 
     /**
      * Obtiene la geometría de una parcela específica, validando el acceso.
+     * Sin parámetros devuelve la entidad con el GeoJSON tal como se guardó. Con zoom, devuelve el polígono
+     * simplificado precalculado para ese zoom; con format=binary, lo devuelve en la codificación compacta
+     * (application/octet-stream) en lugar de GeoJSON.
      * @param plotId El ID de la parcela.
+     * @param zoom Zoom del mapa (opcional).
+     * @param format "geojson" (por defecto) o "binary".
      * @return La geometría encontrada.
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> getGeometry(@PathVariable Long plotId, HttpServletRequest request) {
-        if (!hasAccessToPlot(plotId)) {
+    public ResponseEntity<?> getGeometry(
+            @PathVariable Long plotId,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(defaultValue = "geojson") String format,
+            HttpServletRequest request) {
+        boolean binary = format.equalsIgnoreCase("binary");
+        if (!binary && !format.equalsIgnoreCase("geojson")) {
+            return new GlobalResponseHandler().handleResponse("format must be geojson or binary", HttpStatus.BAD_REQUEST, request);
+        }
+        if (zoom != null && zoom < 0) {
+            return new GlobalResponseHandler().handleResponse("zoom must not be negative", HttpStatus.BAD_REQUEST, request);
+        }
+        if (!farmAccessService.hasAccessToPlot(plotId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to this plot", HttpStatus.FORBIDDEN, request);
         }
 
-        Optional<PlotGeometry> geometry = geometryRepository.findByFarmPlot_Id(plotId);
-        if (geometry.isPresent()) {
-            return new GlobalResponseHandler().handleResponse("Geometry retrieved successfully", geometry.get(), HttpStatus.OK, request);
-        } else {
-            return new GlobalResponseHandler().handleResponse("Geometry not found for plot " + plotId, HttpStatus.NOT_FOUND, request);
+        if (zoom == null && !binary) {
+            Optional<IPlotGeometryView> geometry = geometryRepository.findViewByFarmPlot_Id(plotId);
+            if (geometry.isPresent()) {
+                return new GlobalResponseHandler().handleResponse("Geometry retrieved successfully", geometry.get(), HttpStatus.OK, request);
+            } else {
+                return new GlobalResponseHandler().handleResponse("Geometry not found for plot " + plotId, HttpStatus.NOT_FOUND, request);
+            }
+        }
+
+        GeometryDetail detail = zoom == null ? GeometryDetail.FULL : GeometryDetail.forZoom(zoom);
+        byte[] encoded = geometryRepository.findEncodedByPlotId(plotId, detail).orElse(null);
+        String rawGeometry = null;
+        if (encoded == null) {
+            // Sin codificación guardada: geometría anterior a la codificación o GeoJSON no válido
+            Optional<PlotGeometry> geometry = geometryRepository.findByFarmPlot_Id(plotId);
+            if (geometry.isEmpty()) {
+                return new GlobalResponseHandler().handleResponse("Geometry not found for plot " + plotId, HttpStatus.NOT_FOUND, request);
+            }
+            encoded = geometry.get().getEncoded(detail);
+            rawGeometry = geometry.get().getGeometryPolygon();
+        }
+
+        if (binary) {
+            if (encoded == null) {
+                return new GlobalResponseHandler().handleResponse("Geometry for plot " + plotId + " is not a valid GeoJSON polygon", HttpStatus.UNPROCESSABLE_ENTITY, request);
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header("X-Geometry-Detail", detail.name())
+                    .body(encoded);
         }
+
+        PlotGeometryDetailResponse response = encoded == null
+                ? new PlotGeometryDetailResponse(plotId, detail.name(), null, rawGeometry)
+                : PlotGeometryDetailResponse.from(plotId, detail, GeometryCodec.decode(encoded));
+        return new GlobalResponseHandler().handleResponse("Geometry retrieved successfully", response, HttpStatus.OK, request);
     }
 
     /**
@@ -99,7 +149,7 @@ public class PlotGeometryRestController {
             return new GlobalResponseHandler().handleResponse("Plot with id " + plotId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied to this plot's farm", HttpStatus.FORBIDDEN, request);
         }
 
@@ -110,6 +160,7 @@ public class PlotGeometryRestController {
         geometry.setGeometryPolygon(geometryPolygonJson);
 
         PlotGeometry savedGeometry = geometryRepository.save(geometry);
+        plotSpatialIndex.refreshPlot(plotId);
         return new GlobalResponseHandler().handleResponse("Geometry saved successfully", savedGeometry, HttpStatus.OK, request);
     }
 
@@ -121,34 +172,17 @@ public class PlotGeometryRestController {
     @DeleteMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> deleteGeometry(@PathVariable Long plotId, HttpServletRequest request) {
-        if (!hasAccessToPlot(plotId)) {
+        if (!farmAccessService.hasAccessToPlot(plotId)) {
             return new GlobalResponseHandler().handleResponse("Access Denied to this plot", HttpStatus.FORBIDDEN, request);
         }
 
         Optional<PlotGeometry> optionalGeometry = geometryRepository.findByFarmPlot_Id(plotId);
         if (optionalGeometry.isPresent()) {
             geometryRepository.delete(optionalGeometry.get());
+            plotSpatialIndex.refreshPlot(plotId);
             return new GlobalResponseHandler().handleResponse("Geometry deleted successfully", optionalGeometry.get(), HttpStatus.OK, request);
         } else {
             return new GlobalResponseHandler().handleResponse("Geometry not found for plot " + plotId, HttpStatus.NOT_FOUND, request);
         }
     }
-
-    /**
-     * Metodo de ayuda para verificar si el usuario actual tiene acceso a una parcela
-     * a través de su pertenencia a la granja padre.
-     */
-    private boolean hasAccessToPlot(Long plotId) {
-        Optional<FarmPlot> optionalPlot = farmPlotRepository.findById(plotId);
-        return optionalPlot.map(farmPlot -> hasAccessToFarm(farmPlot.getFarm().getId())).orElse(false);
-    }
-
-    private boolean hasAccessToFarm(Long farmId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
 }
\ No newline at end of file
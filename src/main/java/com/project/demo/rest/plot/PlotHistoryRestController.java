@@ -4,17 +4,13 @@ import com.project.demo.logic.entity.plot.FarmPlot;
 import com.project.demo.logic.entity.plot.FarmPlotRepository;
 import com.project.demo.logic.entity.plot.PlotHistory;
 import com.project.demo.logic.entity.plot.PlotHistoryRepository;
-import com.project.demo.logic.entity.user.User;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -35,7 +31,7 @@ public class PlotHistoryRestController {
     private FarmPlotRepository farmPlotRepository;
 
     @Autowired
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
 
     /**
      * Añade un nuevo registro al historial de la parcela, validando el acceso.
@@ -51,7 +47,7 @@ public class PlotHistoryRestController {
             return new GlobalResponseHandler().handleResponse("Plot with id " + plotId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied", HttpStatus.FORBIDDEN, request);
         }
 
@@ -73,7 +69,7 @@ public class PlotHistoryRestController {
             return new GlobalResponseHandler().handleResponse("Plot with id " + plotId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied", HttpStatus.FORBIDDEN, request);
         }
 
@@ -96,7 +92,7 @@ public class PlotHistoryRestController {
             return new GlobalResponseHandler().handleResponse("Plot with id " + plotId + " not found", HttpStatus.NOT_FOUND, request);
         }
 
-        if (!hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
+        if (!farmAccessService.hasAccessToFarm(optionalPlot.get().getFarm().getId())) {
             return new GlobalResponseHandler().handleResponse("Access Denied", HttpStatus.FORBIDDEN, request);
         }
 
@@ -118,13 +114,4 @@ public class PlotHistoryRestController {
             return new GlobalResponseHandler().handleResponse("History entry with id " + historyId + " not found", HttpStatus.NOT_FOUND, request);
         }
     }
-
-    private boolean hasAccessToFarm(Long farmId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User currentUser = (User) authentication.getPrincipal();
-        if (authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_SUPER_ADMIN"))) {
-            return true;
-        }
-        return userXFarmRepository.existsById(new UserFarmId(farmId, currentUser.getId()));
-    }
 }
\ No newline at end of file
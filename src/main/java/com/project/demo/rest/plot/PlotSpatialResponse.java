@@ -0,0 +1,20 @@
+package com.project.demo.rest.plot;
+
+import com.project.demo.logic.entity.plot.PlotSpatialIndex;
+import com.project.demo.logic.geo.BoundingBox;
+import com.project.demo.logic.geo.GeoShape;
+
+/**
+ * Parcela encontrada por una búsqueda espacial, con su rectángulo envolvente y su centroide.
+ * No incluye el polígono: el cliente lo pide con GET /plots/{plotId}/geometry si lo necesita.
+ */
+record PlotSpatialResponse(Long plotId, Long farmId, double minLng, double minLat, double maxLng, double maxLat,
+                           double centroidLng, double centroidLat) {
+
+    static PlotSpatialResponse from(PlotSpatialIndex.IndexedPlot plot) {
+        GeoShape shape = plot.shape();
+        BoundingBox bounds = shape.getBounds();
+        return new PlotSpatialResponse(plot.plotId(), plot.farmId(), bounds.minX(), bounds.minY(),
+                bounds.maxX(), bounds.maxY(), shape.getCentroidX(), shape.getCentroidY());
+    }
+}
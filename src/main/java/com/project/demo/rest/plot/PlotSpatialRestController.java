@@ -0,0 +1,105 @@
+package com.project.demo.rest.plot;
+
+import com.project.demo.logic.entity.http.GlobalResponseHandler;
+import com.project.demo.logic.entity.plot.PlotSpatialIndex;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
+import com.project.demo.logic.geo.BoundingBox;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Controlador REST para búsquedas espaciales sobre los polígonos de las parcelas, resueltas con
+ * {@link PlotSpatialIndex}. Solo se devuelven parcelas de fincas a las que el usuario tiene acceso.
+ */
+@RestController
+@RequestMapping("/plots")
+public class PlotSpatialRestController {
+
+    private static final int MAX_LIMIT = 5000;
+
+    @Autowired
+    private PlotSpatialIndex plotSpatialIndex;
+
+    @Autowired
+    private FarmAccessService farmAccessService;
+
+    /**
+     * Obtiene las parcelas cuyo polígono toca el área visible del mapa.
+     * @param farmId Si se indica, solo se buscan parcelas de esa finca.
+     * @param limit Cantidad máxima de parcelas (por defecto 500, máximo 5000).
+     * @return Las parcelas encontradas, ordenadas por ID.
+     */
+    @GetMapping("/intersecting")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getIntersecting(
+            @RequestParam double minLng,
+            @RequestParam double minLat,
+            @RequestParam double maxLng,
+            @RequestParam double maxLat,
+            @RequestParam(required = false) Long farmId,
+            @RequestParam(defaultValue = "500") int limit,
+            HttpServletRequest request) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return new GlobalResponseHandler().handleResponse("limit must be between 1 and " + MAX_LIMIT, HttpStatus.BAD_REQUEST, request);
+        }
+        if (!isValidPoint(minLng, minLat) || !isValidPoint(maxLng, maxLat) || minLng > maxLng || minLat > maxLat) {
+            return new GlobalResponseHandler().handleResponse("Invalid bounding box", HttpStatus.BAD_REQUEST, request);
+        }
+        if (farmId != null && !farmAccessService.hasAccessToFarm(farmId)) {
+            return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
+        }
+
+        List<PlotSpatialResponse> plots = plotSpatialIndex.intersecting(
+                        new BoundingBox(minLng, minLat, maxLng, maxLat),
+                        plot -> farmId == null ? farmAccessService.hasAccessToFarm(plot.farmId()) : Objects.equals(plot.farmId(), farmId),
+                        limit).stream()
+                .map(PlotSpatialResponse::from)
+                .toList();
+        return new GlobalResponseHandler().handleResponse("Plots retrieved successfully", plots, HttpStatus.OK, request);
+    }
+
+    /**
+     * Obtiene las parcelas cuyo polígono contiene el punto indicado.
+     * @return Las parcelas encontradas (normalmente una), ordenadas por ID.
+     */
+    @GetMapping("/containing")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getContaining(@RequestParam double lng, @RequestParam double lat, HttpServletRequest request) {
+        if (!isValidPoint(lng, lat)) {
+            return new GlobalResponseHandler().handleResponse("Invalid point", HttpStatus.BAD_REQUEST, request);
+        }
+
+        List<PlotSpatialResponse> plots = plotSpatialIndex.containing(lng, lat,
+                        plot -> farmAccessService.hasAccessToFarm(plot.farmId())).stream()
+                .map(PlotSpatialResponse::from)
+                .toList();
+        return new GlobalResponseHandler().handleResponse("Plots retrieved successfully", plots, HttpStatus.OK, request);
+    }
+
+    /**
+     * Obtiene los pares de parcelas de una finca cuyos polígonos se superponen.
+     * @param farmId El ID de la finca.
+     * @return Los pares encontrados.
+     */
+    @GetMapping("/overlaps")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getOverlaps(@RequestParam Long farmId, HttpServletRequest request) {
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
+            return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
+        }
+
+        List<PlotSpatialIndex.PlotOverlap> overlaps = plotSpatialIndex.overlapsInFarm(farmId);
+        return new GlobalResponseHandler().handleResponse("Plot overlaps retrieved successfully", overlaps, HttpStatus.OK, request);
+    }
+
+    private static boolean isValidPoint(double lng, double lat) {
+        return lng >= -180 && lng <= 180 && lat >= -90 && lat <= 90;
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.demo.rest.suggestion;
+
+import com.project.demo.logic.persistence.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Caché en memoria de las respuestas de la IA, por finca, contexto y pregunta.
+ *
+ * La clave incluye un hash del contexto de la finca, así que un cambio en los datos que llegan al modelo
+ * produce otra clave; además se invalidan las entradas de la finca cuando cambian la finca, su información
+ * técnica, sus parcelas o sus registros de manejo. La pregunta se normaliza (minúsculas, sin tildes, sin
+ * signos de puntuación y con los espacios colapsados) para que preguntas casi idénticas compartan respuesta.
+ * Tiene tamaño máximo (se desaloja lo menos usado) y tiempo de vida.
+ */
+@Component
+public class AiResponseCache {
+
+    record Key(Long farmId, String contextHash, String prompt) {}
+
+    public record Stats(long size, long hitCount, long missCount, long evictionCount, double hitRate) {}
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern PUNCTUATION = Pattern.compile("[^\\p{L}\\p{N}\\s]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Cache<Key, String> cache;
+
+    public AiResponseCache(@Value("${ai.suggestions.cache.max-size:1000}") long maxSize,
+                           @Value("${ai.suggestions.cache.ttl-minutes:60}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Construye la clave de una pregunta sobre una finca con el contexto completo que se enviaría al modelo.
+     */
+    Key key(Long farmId, String context, String prompt) {
+        return new Key(farmId, sha256(context), normalize(prompt));
+    }
+
+    /**
+     * @return La respuesta guardada, o null si no hay (cuenta como acierto o fallo en las estadísticas).
+     */
+    String get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    void put(Key key, String response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Invalida las respuestas de una finca. Si hay una transacción de base de datos activa,
+     * la invalidación se hace después del commit.
+     */
+    public void evictFarm(Long farmId) {
+        if (farmId == null) {
+            return;
+        }
+        AfterCommit.run(() -> cache.asMap().keySet().removeIf(k -> Objects.equals(k.farmId(), farmId)));
+    }
+
+    public void evictAll() {
+        AfterCommit.run(cache::invalidateAll);
+    }
+
+    public Stats stats() {
+        CacheStats stats = cache.stats();
+        return new Stats(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+    static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(prompt, Normalizer.Form.NFD);
+        text = DIACRITICS.matcher(text).replaceAll("");
+        text = PUNCTUATION.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.project.demo.rest.suggestion;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Solicitud de sugerencia a la IA que se procesa en segundo plano.
+ * El cliente la consulta por su jobId o se suscribe a sus eventos (SSE); cada cambio de estado se envía
+ * a los suscriptores como un evento con el nombre del estado y el job serializado como datos.
+ * En modo streaming, además, cada fragmento de texto se envía como un evento "chunk" con {"content": "..."}.
+ */
+public class AiSuggestionJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final Long userId;
+    private final Long farmId;
+    private final String prompt;
+    private final boolean streaming;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.PENDING;
+    private volatile String suggestion;
+    private volatile Integer errorStatus;
+    private volatile String error;
+    private volatile LocalDateTime completedAt;
+    private volatile Long suggestionId;
+    private final StringBuilder partial = new StringBuilder();
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    /**
+     * Ordena los cambios de estado y los envíos a los suscriptores. Es un ReentrantLock y no synchronized porque
+     * los jobs corren en hilos virtuales y emitter.send bloquea en I/O: dentro de un monitor fijaría el hilo portador.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public AiSuggestionJob(Long userId, Long farmId, String prompt, boolean streaming) {
+        this.userId = userId;
+        this.farmId = farmId;
+        this.prompt = prompt;
+        this.streaming = streaming;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    @JsonIgnore
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getFarmId() {
+        return farmId;
+    }
+
+    @JsonIgnore
+    public String getPrompt() {
+        return prompt;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getSuggestion() {
+        return suggestion;
+    }
+
+    /**
+     * Código HTTP que habría devuelto la generación síncrona cuando el job falla (404, 402, 500...).
+     */
+    public Integer getErrorStatus() {
+        return errorStatus;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * ID de la sugerencia guardada al terminar un job en modo streaming.
+     */
+    public Long getSuggestionId() {
+        return suggestionId;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void markRunning() {
+        lock.lock();
+        try {
+            status = Status.RUNNING;
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void appendChunk(String content) {
+        lock.lock();
+        try {
+            partial.append(content);
+            for (SseEmitter emitter : emitters) {
+                sendChunk(emitter, content);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void complete(String suggestion, Long suggestionId) {
+        lock.lock();
+        try {
+            this.suggestion = suggestion;
+            this.suggestionId = suggestionId;
+            this.completedAt = LocalDateTime.now();
+            this.status = Status.COMPLETED;
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void fail(int errorStatus, String error) {
+        lock.lock();
+        try {
+            this.errorStatus = errorStatus;
+            this.error = error;
+            this.completedAt = LocalDateTime.now();
+            this.status = Status.FAILED;
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra un suscriptor y le envía el estado actual, junto con el texto recibido hasta ahora si el job
+     * está en curso. Si el job ya terminó, el stream se cierra de inmediato.
+     */
+    void subscribe(SseEmitter emitter) {
+        lock.lock();
+        try {
+            if (!send(emitter)) {
+                return;
+            }
+            if (status == Status.RUNNING && !partial.isEmpty() && !sendChunk(emitter, partial.toString())) {
+                return;
+            }
+            if (isFinished()) {
+                emitter.complete();
+                return;
+            }
+            emitters.add(emitter);
+            emitter.onCompletion(() -> emitters.remove(emitter));
+            emitter.onTimeout(() -> emitters.remove(emitter));
+            emitter.onError(e -> emitters.remove(emitter));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish() {
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter) && isFinished()) {
+                emitter.complete();
+            }
+        }
+        if (isFinished()) {
+            emitters.clear();
+        }
+    }
+
+    private boolean send(SseEmitter emitter) {
+        return send(emitter, SseEmitter.event()
+                .name(status.name().toLowerCase())
+                .data(this, MediaType.APPLICATION_JSON));
+    }
+
+    private boolean sendChunk(SseEmitter emitter, String content) {
+        return send(emitter, SseEmitter.event()
+                .name("chunk")
+                .data(Map.of("content", content), MediaType.APPLICATION_JSON));
+    }
+
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // El cliente cerró la conexión
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.project.demo.rest.suggestion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.demo.logic.entity.farm.FarmRepository;
+import com.project.demo.logic.entity.suggestion.AiSuggestion;
+import com.project.demo.logic.entity.suggestion.AiSuggestionRepository;
+import com.project.demo.logic.entity.user.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ejecuta en segundo plano las solicitudes de sugerencias a la IA, para no ocupar un hilo de Tomcat
+ * mientras se espera la respuesta del modelo.
+ *
+ * Los jobs corren en hilos virtuales, con un máximo de jobs simultáneos y una cola acotada; cuando la cola
+ * está llena se rechazan con 503. Cada usuario puede tener un número limitado de jobs pendientes o en curso
+ * (429 si lo supera). Los jobs terminados se conservan un tiempo para que el cliente pueda consultarlos.
+ * Los jobs en modo streaming reenvían cada fragmento a sus suscriptores SSE y guardan el texto final
+ * como una {@link AiSuggestion} del usuario.
+ */
+@Service
+public class AiSuggestionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiSuggestionJobService.class);
+
+    /**
+     * Estado del ejecutor y contadores acumulados desde el arranque.
+     */
+    public record Stats(int queueDepth, int queueCapacity, int running, int maxConcurrent, int usersWithActiveJobs,
+                        long submitted, long completed, long failed, long rejected) {}
+
+    private final AiSuggestionService aiSuggestionService;
+    private final AiSuggestionRepository aiSuggestionRepository;
+    private final UserRepository userRepository;
+    private final FarmRepository farmRepository;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, AiSuggestionJob> jobs;
+    private final Map<Long, Integer> activeJobsByUser = new ConcurrentHashMap<>();
+    private final int maxJobsPerUser;
+    private final int queueCapacity;
+    private final long sseTimeoutMillis;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AiSuggestionJobService(
+            AiSuggestionService aiSuggestionService,
+            AiSuggestionRepository aiSuggestionRepository,
+            UserRepository userRepository,
+            FarmRepository farmRepository,
+            @Value("${ai.suggestions.jobs.max-concurrent:8}") int maxConcurrent,
+            @Value("${ai.suggestions.jobs.queue-capacity:100}") int queueCapacity,
+            @Value("${ai.suggestions.jobs.max-per-user:2}") int maxJobsPerUser,
+            @Value("${ai.suggestions.jobs.retention-minutes:30}") long retentionMinutes,
+            @Value("${ai.suggestions.jobs.sse-timeout-ms:120000}") long sseTimeoutMillis) {
+        this.aiSuggestionService = aiSuggestionService;
+        this.aiSuggestionRepository = aiSuggestionRepository;
+        this.userRepository = userRepository;
+        this.farmRepository = farmRepository;
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.queueCapacity = queueCapacity;
+        this.sseTimeoutMillis = sseTimeoutMillis;
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("ai-suggestion-", 0).factory());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+    }
+
+    /**
+     * Encola la generación de una sugerencia.
+     *
+     * @return El job creado, en estado PENDING.
+     * @throws ResponseStatusException 429 si el usuario ya tiene el máximo de jobs activos, 503 si la cola está llena.
+     */
+    public AiSuggestionJob submit(Long userId, String prompt, Long farmId, boolean streaming) {
+        if (!acquire(userId)) {
+            rejected.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Ya tienes " + maxJobsPerUser + " sugerencias en proceso, espera a que terminen");
+        }
+        AiSuggestionJob job = new AiSuggestionJob(userId, farmId, prompt, streaming);
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getJobId());
+            release(userId);
+            rejected.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "El servicio de sugerencias está saturado, intenta de nuevo en unos minutos");
+        }
+        submitted.incrementAndGet();
+        return job;
+    }
+
+    /**
+     * Busca un job del usuario. Los jobs de otros usuarios no se distinguen de los inexistentes.
+     */
+    public Optional<AiSuggestionJob> find(String jobId, Long userId) {
+        AiSuggestionJob job = jobs.getIfPresent(jobId);
+        return job != null && job.getUserId().equals(userId) ? Optional.of(job) : Optional.empty();
+    }
+
+    /**
+     * Abre un stream SSE con los cambios de estado del job.
+     */
+    public SseEmitter subscribe(AiSuggestionJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    public Stats getStats() {
+        return new Stats(executor.getQueue().size(), queueCapacity, executor.getActiveCount(),
+                executor.getMaximumPoolSize(), activeJobsByUser.size(),
+                submitted.get(), completed.get(), failed.get(), rejected.get());
+    }
+
+    private void run(AiSuggestionJob job) {
+        try {
+            job.markRunning();
+            if (job.isStreaming()) {
+                String suggestion = aiSuggestionService.streamSuggestion(job.getPrompt(), job.getFarmId(), job::appendChunk);
+                job.complete(suggestion, save(job, suggestion).getId());
+            } else {
+                job.complete(aiSuggestionService.generateSuggestion(job.getPrompt(), job.getFarmId()), null);
+            }
+            completed.incrementAndGet();
+        } catch (ResponseStatusException e) {
+            job.fail(e.getStatusCode().value(), e.getReason());
+            failed.incrementAndGet();
+        } catch (RuntimeException e) {
+            logger.error("AI suggestion job {} failed", job.getJobId(), e);
+            job.fail(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Ocurrió un error generando la sugerencia");
+            failed.incrementAndGet();
+        } finally {
+            release(job.getUserId());
+        }
+    }
+
+    private AiSuggestion save(AiSuggestionJob job, String suggestion) {
+        AiSuggestion aiSuggestion = new AiSuggestion();
+        aiSuggestion.setUser(userRepository.getReferenceById(job.getUserId()));
+        aiSuggestion.setRelatedFarm(farmRepository.getReferenceById(job.getFarmId()));
+        aiSuggestion.setSuggestion(suggestion);
+        aiSuggestion.setActive(true);
+        return aiSuggestionRepository.save(aiSuggestion);
+    }
+
+    private boolean acquire(Long userId) {
+        boolean[] acquired = {false};
+        activeJobsByUser.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxJobsPerUser) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    private void release(Long userId) {
+        activeJobsByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
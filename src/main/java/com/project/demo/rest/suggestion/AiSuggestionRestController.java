@@ -3,6 +3,7 @@ package com.project.demo.rest.suggestion;
 import com.project.demo.logic.entity.suggestion.AiSuggestion;
 import com.project.demo.logic.entity.suggestion.AiSuggestionRepository;
 import com.project.demo.logic.entity.user.User;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.http.Meta;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,11 +12,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 import java.util.Optional;
@@ -99,13 +103,23 @@ public class AiSuggestionRestController {
 
 
     @Autowired
-    private AiSuggestionService aiSuggestionService;
+    private AiSuggestionJobService aiSuggestionJobService;
+
+    @Autowired
+    private AiResponseCache aiResponseCache;
+
+    @Autowired
+    private FarmAccessService farmAccessService;
+
     /**
-     * Genera una sugerencia temporal basada en el prompt y la finca especificada para el usuario autenticado.
+     * Encola la generación de una sugerencia basada en el prompt y la finca especificada para el usuario autenticado.
+     * La respuesta llega de inmediato con el id del job; el resultado se consulta en /jobs/{jobId}
+     * o se recibe por SSE en /jobs/{jobId}/events.
      * @param payload Mapa con los parámetros 'prompt' (mensaje) y 'farmId' (ID de la finca).
      * @param currentUser Usuario actualmente autenticado.
      * @param request La solicitud HTTP.
-     * @return ResponseEntity con la sugerencia generada o error si faltan parámetros obligatorios.
+     * @return ResponseEntity 202 con el job creado, 403 si el usuario no tiene acceso a la finca, o error si faltan
+     * parámetros obligatorios o se alcanzó el límite de jobs.
      */
     @PostMapping("/generate")
     @PreAuthorize("hasRole('USER')")
@@ -123,10 +137,108 @@ public class AiSuggestionRestController {
         if (farmId == null) {
             return new GlobalResponseHandler().handleResponse("El farmId es requerido", HttpStatus.BAD_REQUEST, request);
         }
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
+            return new GlobalResponseHandler().handleResponse("Access Denied to farm " + farmId, HttpStatus.FORBIDDEN, request);
+        }
+
+        try {
+            AiSuggestionJob job = aiSuggestionJobService.submit(currentUser.getId(), prompt, farmId, false);
+            return new GlobalResponseHandler().handleResponse("Sugerencia en proceso", job, HttpStatus.ACCEPTED, request);
+        } catch (ResponseStatusException e) {
+            return new GlobalResponseHandler().handleResponse(e.getReason(), HttpStatus.valueOf(e.getStatusCode().value()), request);
+        }
+    }
+
+    /**
+     * Genera una sugerencia y la envía como Server-Sent Events a medida que el modelo la produce: un evento
+     * "chunk" por fragmento de texto y, al final, "completed" con el texto completo y el ID de la sugerencia,
+     * que queda guardada para el usuario, o "failed" con el error.
+     * @param payload Mapa con los parámetros 'prompt' (mensaje) y 'farmId' (ID de la finca).
+     * @param currentUser Usuario actualmente autenticado.
+     * @return El stream de eventos del job; 403 si el usuario no tiene acceso a la finca.
+     */
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public SseEmitter streamSuggestion(
+            @RequestBody Map<String, Object> payload,
+            @AuthenticationPrincipal User currentUser) {
+
+        String prompt = (String) payload.get("prompt");
+        Long farmId = payload.get("farmId") != null ? Long.valueOf(payload.get("farmId").toString()) : null;
+
+        if (prompt == null || prompt.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El mensaje es requerido");
+        }
+        if (farmId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El farmId es requerido");
+        }
+        if (!farmAccessService.hasAccessToFarm(farmId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied to farm " + farmId);
+        }
 
-        String suggestion = aiSuggestionService.generateSuggestion(prompt, farmId);
+        AiSuggestionJob job = aiSuggestionJobService.submit(currentUser.getId(), prompt, farmId, true);
+        return aiSuggestionJobService.subscribe(job);
+    }
 
-        return new GlobalResponseHandler().handleResponse("Sugerencia generada exitosamente", suggestion, HttpStatus.OK, request);
+    /**
+     * Consulta el estado de un job de generación del usuario autenticado y, si terminó, su resultado.
+     * @param jobId El ID del job devuelto por /generate.
+     * @param currentUser Usuario actualmente autenticado.
+     * @param request La solicitud HTTP.
+     * @return ResponseEntity con el job o 404 si no existe, ya expiró o pertenece a otro usuario.
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getSuggestionJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request) {
+        Optional<AiSuggestionJob> job = aiSuggestionJobService.find(jobId, currentUser.getId());
+        if (job.isEmpty()) {
+            return new GlobalResponseHandler().handleResponse("Job not found", HttpStatus.NOT_FOUND, request);
+        }
+        return new GlobalResponseHandler().handleResponse("Job retrieved successfully", job.get(), HttpStatus.OK, request);
+    }
+
+    /**
+     * Abre un stream de Server-Sent Events con los cambios de estado del job. Cada evento se llama como el
+     * estado (pending, running, completed, failed) y el stream se cierra cuando el job termina.
+     * @param jobId El ID del job devuelto por /generate.
+     * @param currentUser Usuario actualmente autenticado.
+     * @return El stream de eventos, o 404 si el job no existe o pertenece a otro usuario.
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public SseEmitter streamSuggestionJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal User currentUser) {
+        AiSuggestionJob job = aiSuggestionJobService.find(jobId, currentUser.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found"));
+        return aiSuggestionJobService.subscribe(job);
+    }
+
+    /**
+     * Devuelve la profundidad de la cola, los jobs en curso y los contadores de jobs completados, fallidos y rechazados.
+     * @param request La solicitud HTTP.
+     * @return ResponseEntity con las métricas del ejecutor de sugerencias.
+     */
+    @GetMapping("/jobs/stats")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> getSuggestionJobStats(HttpServletRequest request) {
+        return new GlobalResponseHandler().handleResponse("AI suggestion job stats retrieved successfully",
+                aiSuggestionJobService.getStats(), HttpStatus.OK, request);
+    }
+
+    /**
+     * Devuelve el tamaño y los contadores de aciertos, fallos y desalojos de la caché de respuestas de la IA.
+     * @param request La solicitud HTTP.
+     * @return ResponseEntity con las estadísticas de la caché, incluida la tasa de aciertos.
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> getResponseCacheStats(HttpServletRequest request) {
+        return new GlobalResponseHandler().handleResponse("AI response cache stats retrieved successfully",
+                aiResponseCache.stats(), HttpStatus.OK, request);
     }
 
 }
\ No newline at end of file
@@ -2,21 +2,25 @@ package com.project.demo.rest.suggestion;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.project.demo.logic.entity.farm.Farm;
-import com.project.demo.logic.entity.farm.FarmRepository;
-import com.project.demo.logic.entity.farm.FarmsTechnicalInformation;
-import com.project.demo.logic.entity.farm.FarmsTechnicalInformationRepository;
-
+import com.project.demo.logic.outbound.OutboundDestination;
+import com.project.demo.logic.outbound.OutboundHttpClients;
+import com.project.demo.logic.outbound.OutboundIntegration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import com.fasterxml.jackson.core.type.TypeReference;
 
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Exceptions;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class AiSuggestionService {
@@ -30,21 +34,62 @@ public class AiSuggestionService {
     @Value("${together.api.max_tokens}")
     private int togetherMaxTokens;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    /**
+     * Endpoint de chat completions. Se puede apuntar a un servidor local (stub) para pruebas.
+     */
+    @Value("${together.api.url:https://api.together.xyz/v1/chat/completions}")
+    private String togetherApiUrl;
 
-    private final String TOGETHER_API_URL = "https://api.together.xyz/v1/chat/completions";
-    @Autowired
-    private FarmRepository farmRepository;
+    /**
+     * Tiempo máximo de espera entre dos fragmentos del stream.
+     */
+    @Value("${together.api.stream-idle-timeout-seconds:60}")
+    private long streamIdleTimeoutSeconds;
 
+    /**
+     * Tokens que admite el modelo entre el prompt y la respuesta.
+     */
+    @Value("${ai.suggestions.context-window-tokens:4000}")
+    private int contextWindowTokens;
+
+    private static final String STREAM_DONE = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_EVENT_TYPE = new ParameterizedTypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private static final String SYSTEM_PREFIX = "Eres un asistente agrícola experto en dar sugerencias personalizadas para el manejo de fincas. " +
+            "Usa la siguiente información de la finca como contexto para tus respuestas:\n";
+    private static final String SYSTEM_SUFFIX = "\nResponde SIEMPRE en español, en máximo 4 párrafos completos y asegurándote de terminar las ideas sin cortar frases.";
+    private static final String USER_SUFFIX = "\nRecuerda: responde siempre en español.";
+    /**
+     * Tokens de formato que agrega el modelo por cada mensaje del chat (rol y delimitadores).
+     */
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private static final Pattern SECTION_SEPARATOR = Pattern.compile("(?m)^===|\\n\\n");
+    private static final List<String> KEYWORDS = List.of("críticos", "ID", "Fecha", "cultivo", "riego", "agua", "fertilizante");
+    // un grupo por palabra clave, para saber cuál coincidió sin volver a recorrer la sección
+    private static final Pattern KEYWORD_PATTERN = Pattern.compile(
+            KEYWORDS.stream().map(k -> "(" + Pattern.quote(k) + ")").collect(Collectors.joining("|")),
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final int ALL_KEYWORDS = (1 << KEYWORDS.size()) - 1;
+
+    private final FarmContextLoader farmContextLoader;
+    private final TokenCounter tokenCounter;
+    /**
+     * Tokens del prompt que no dependen de la finca ni de la pregunta.
+     */
+    private final int fixedPromptTokens;
 
+    @Autowired
+    private AiResponseCache aiResponseCache;
 
     @Autowired
-    private FarmsTechnicalInformationRepository farmsTechnicalInformationRepository;
+    private OutboundHttpClients outboundHttpClients;
 
-    public AiSuggestionService(FarmRepository farmRepository,
-                               FarmsTechnicalInformationRepository farmsTechnicalInformationRepository) {
-        this.farmRepository = farmRepository;
-        this.farmsTechnicalInformationRepository = farmsTechnicalInformationRepository;
+    public AiSuggestionService(FarmContextLoader farmContextLoader, TokenCounter tokenCounter) {
+        this.farmContextLoader = farmContextLoader;
+        this.tokenCounter = tokenCounter;
+        this.fixedPromptTokens = tokenCounter.count(SYSTEM_PREFIX) + tokenCounter.count(SYSTEM_SUFFIX) + 2 * MESSAGE_OVERHEAD_TOKENS;
     }
 
 
@@ -60,49 +105,13 @@ public class AiSuggestionService {
      */
     public String generateSuggestion(String userInput, Long farmId) {
         try {
-            //para obtener data de la finca
-            Farm farm = farmRepository.findById(farmId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No se encontró la finca con ID " + farmId));
-
-            //info tecnica de finca
-            Optional<FarmsTechnicalInformation> techInfoOpt = farmsTechnicalInformationRepository.findByFarmId(farmId);
-
-            // 3. Convertir a Map
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.findAndRegisterModules();
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<>() {};
-            Map<String, Object> farmMap = mapper.convertValue(farm, typeRef);
-            Map<String, Object> techInfoMap = techInfoOpt.map(info -> mapper.convertValue(info, typeRef)).orElse(null);
-
-           // contexto para la ia
-            Map<String, Object> farmDataMap = new HashMap<>();
-            farmDataMap.put("farm", farmMap);
-            farmDataMap.put("technicalInfo", techInfoMap);
-            String contextoCompleto = buildContextJson(Map.of("data", farmDataMap));
-
-            //rcortar inteligentemente si excede el limite
-            int maxTokensDisponibles = 4000;
-            String contextoOptimizado = cutContext(contextoCompleto, maxTokensDisponibles - contarTokens(userInput) - togetherMaxTokens);
-
-            //request
-            Map<String, Object> body = new HashMap<>();
-            body.put("model", togetherModel);
-            body.put("max_tokens", togetherMaxTokens);
-            body.put("temperature", 0.7);
-
-            List<Map<String, String>> messages = new ArrayList<>();
-            messages.add(Map.of(
-                    "role", "system",
-                    "content", "Eres un asistente agrícola experto en dar sugerencias personalizadas para el manejo de fincas. " +
-                            "Usa la siguiente información de la finca como contexto para tus respuestas:\n" +
-                            contextoOptimizado +
-                            "\nResponde SIEMPRE en español, en máximo 4 párrafos completos y asegurándote de terminar las ideas sin cortar frases."
-            ));
-            messages.add(Map.of(
-                    "role", "user",
-                    "content", userInput + "\nRecuerda: responde siempre en español."
-            ));
-            body.put("messages", messages);
+            String context = buildFarmContext(farmId);
+            AiResponseCache.Key cacheKey = aiResponseCache.key(farmId, context, userInput);
+            String cached = aiResponseCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+            Map<String, Object> body = buildRequestBody(userInput, context);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -110,23 +119,16 @@ public class AiSuggestionService {
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
 
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    TOGETHER_API_URL,
+            OutboundIntegration together = outboundHttpClients.get(OutboundDestination.TOGETHER);
+            ResponseEntity<Map> response = together.execute(() -> together.restTemplate().exchange(
+                    togetherApiUrl,
                     HttpMethod.POST,
                     entity,
                     Map.class
-            );
+            ));
 
             if (response.getBody() != null && response.getBody().containsKey("error")) {
-                Map<String, Object> errorData = (Map<String, Object>) response.getBody().get("error");
-                String errorMsg = errorData.getOrDefault("message", "Error desconocido").toString();
-                String errorType = errorData.getOrDefault("type", "").toString();
-
-                if ("credit_limit".equalsIgnoreCase(errorType)) {
-                    throw new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, errorMsg);
-                } else {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMsg);
-                }
+                throw apiError((Map<String, Object>) response.getBody().get("error"));
             }
 
             if (response.getStatusCode().is2xxSuccessful()) {
@@ -134,7 +136,9 @@ public class AiSuggestionService {
                 if (choices != null && !choices.isEmpty()) {
                     Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
                     if (message != null && message.containsKey("content")) {
-                        return message.get("content").toString().trim();
+                        String suggestion = message.get("content").toString().trim();
+                        aiResponseCache.put(cacheKey, suggestion);
+                        return suggestion;
                     }
                 }
             }
@@ -151,201 +155,232 @@ public class AiSuggestionService {
     }
 
     /**
-     * Recorta el contexto textual de manera inteligente para no superar
-     * un límite máximo de tokens, priorizando secciones más relevantes.
+     * Igual que {@link #generateSuggestion}, pero pide la respuesta en modo streaming ("stream": true) y
+     * entrega cada fragmento de texto a {@code onChunk} a medida que llega. Bloquea el hilo actual hasta que
+     * el modelo termina, por lo que debe llamarse desde un hilo de fondo.
      *
-     * @param contexto Texto completo del contexto.
-     * @param maxTokens Límite máximo de tokens permitidos.
-     * @return Texto recortado que mantiene las secciones más importantes.
+     * @param userInput Texto con la pregunta o solicitud del usuario.
+     * @param farmId ID de la finca para la cual se genera la sugerencia.
+     * @param onChunk Recibe cada fragmento de texto en el orden en que llega.
+     * @return Texto completo de la sugerencia.
+     * @throws ResponseStatusException Si la finca no existe, hay error en la API o en la generación.
      */
-    private String cutContext(String contexto, int maxTokens) {
-        List<String> secciones = divideIntoSections(contexto);
-        List<String> palabrasClave = Arrays.asList("críticos", "ID", "Fecha", "cultivo", "riego", "agua", "fertilizante");
-
-        List<SeccionConScore> lista = new ArrayList<>();
-        for (String sec : secciones) {
-            int score = calculateRelevanceSection(sec, palabrasClave);
-            lista.add(new SeccionConScore(sec, score));
+    @SuppressWarnings("unchecked")
+    public String streamSuggestion(String userInput, Long farmId, Consumer<String> onChunk) {
+        String context = buildFarmContext(farmId);
+        AiResponseCache.Key cacheKey = aiResponseCache.key(farmId, context, userInput);
+        String cached = aiResponseCache.get(cacheKey);
+        if (cached != null) {
+            // Respuesta ya conocida: se entrega completa en un solo fragmento
+            onChunk.accept(cached);
+            return cached;
         }
+        Map<String, Object> body = buildRequestBody(userInput, context);
+        body.put("stream", true);
 
-        lista.sort((a, b) -> Integer.compare(b.score, a.score));
-
-        StringBuilder nuevoContexto = new StringBuilder();
-        int tokensUsados = 0;
-        for (SeccionConScore sc : lista) {
-            int tokensSeccion = contarTokens(sc.texto);
-            if (tokensUsados + tokensSeccion <= maxTokens) {
-                nuevoContexto.append(sc.texto).append("\n");
-                tokensUsados += tokensSeccion;
-            } else {
-                break;
+        StringBuilder suggestion = new StringBuilder();
+        OutboundIntegration together = outboundHttpClients.get(OutboundDestination.TOGETHER);
+        try {
+            together.execute(() -> together.webClient().post()
+                    .uri(togetherApiUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .headers(headers -> headers.setBearerAuth(togetherApiKey))
+                    .bodyValue(body)
+                    .retrieve()
+                    .onStatus(HttpStatusCode::isError, response -> response.bodyToMono(Map.class)
+                            .defaultIfEmpty(Map.of())
+                            .map(error -> error.get("error") instanceof Map<?, ?> data
+                                    ? apiError((Map<String, Object>) data)
+                                    : new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                                    "La API de IA respondió con estado " + response.statusCode().value())))
+                    .bodyToFlux(SSE_EVENT_TYPE)
+                    .mapNotNull(ServerSentEvent::data)
+                    .takeWhile(data -> !STREAM_DONE.equals(data.trim()))
+                    .map(this::readChunk)
+                    .filter(chunk -> !chunk.isEmpty())
+                    .timeout(Duration.ofSeconds(streamIdleTimeoutSeconds))
+                    // Se consume en el hilo que llama, no en el event loop de Netty, porque onChunk puede bloquear
+                    .toStream()
+                    .forEach(chunk -> {
+                        suggestion.append(chunk);
+                        onChunk.accept(chunk);
+                    }));
+        } catch (ResponseStatusException ex) {
+            throw ex;
+        } catch (Exception e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof ResponseStatusException ex) {
+                throw ex;
             }
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Ocurrió un error generando la sugerencia: " + cause.getMessage());
         }
 
-        return nuevoContexto.toString().trim();
-    }
-    /**
-     * Divide el contexto completo en secciones separadas para evaluación
-     * de relevancia.
-     *
-     * @param contexto Texto completo del contexto.
-     * @return Lista de secciones extraídas del texto.
-     */
-    private List<String> divideIntoSections(String contexto) {
-        return Arrays.stream(contexto.split("(?m)^===|\\n\\n")) // separa por dobles saltos o separadores
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .toList();
+        if (suggestion.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "No se pudo generar una sugerencia");
+        }
+        String result = suggestion.toString().trim();
+        aiResponseCache.put(cacheKey, result);
+        return result;
     }
 
-
     /**
-     * Calcula la relevancia de una sección específica basado en la presencia
-     * de palabras clave y la longitud de la sección.
-     *
-     * @param seccion Texto de la sección.
-     * @param palabrasClave Lista de palabras clave para evaluar relevancia.
-     * @return Puntaje de relevancia numérico para la sección.
+     * Extrae el texto de un fragmento del stream ({"choices":[{"delta":{"content":"..."}}]}).
+     * Si el fragmento trae un error de la API, lo lanza como ResponseStatusException.
      */
-    private int calculateRelevanceSection(String seccion, List<String> palabrasClave) {
-        int score = 0;
-        for (String palabra : palabrasClave) {
-            if (seccion.toLowerCase().contains(palabra.toLowerCase())) {
-                score += 3;
+    @SuppressWarnings("unchecked")
+    private String readChunk(String data) {
+        try {
+            Map<String, Object> chunk = objectMapper.readValue(data, Map.class);
+            if (chunk.get("error") instanceof Map<?, ?> error) {
+                throw apiError((Map<String, Object>) error);
+            }
+            List<Map<String, Object>> choices = (List<Map<String, Object>>) chunk.get("choices");
+            if (choices == null || choices.isEmpty()) {
+                return "";
             }
+            Map<String, Object> delta = (Map<String, Object>) choices.get(0).get("delta");
+            Object content = delta != null ? delta.get("content") : null;
+            return content != null ? content.toString() : "";
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Respuesta inválida de la API de IA");
         }
-        score += Math.min(seccion.length() / 100, 5);
-        return score;
     }
-    // Clase interna usada para manejar secciones con puntuación
-    private static class SeccionConScore {
-        String texto;
-        int score;
-        SeccionConScore(String texto, int score) {
-            this.texto = texto;
-            this.score = score;
+
+    /**
+     * Convierte el objeto "error" de la API en la excepción correspondiente (402 si se agotó el crédito).
+     */
+    private ResponseStatusException apiError(Map<String, Object> errorData) {
+        String errorMsg = errorData.getOrDefault("message", "Error desconocido").toString();
+        String errorType = errorData.getOrDefault("type", "").toString();
+
+        if ("credit_limit".equalsIgnoreCase(errorType)) {
+            return new ResponseStatusException(HttpStatus.PAYMENT_REQUIRED, errorMsg);
         }
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMsg);
     }
 
     /**
-     * Cuenta una aproximación del número de tokens en un texto dado,
-     * usado para gestionar límites en las solicitudes a la IA.
+     * Construye el contexto completo de la finca (datos generales e información técnica), sin recortar.
      *
-     * @param texto Texto para contar tokens.
-     * @return Número aproximado de tokens.
+     * @throws ResponseStatusException 404 si la finca no existe.
+     */
+    private String buildFarmContext(Long farmId) {
+        return farmContextLoader.load(farmId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No se encontró la finca con ID " + farmId));
+    }
+
+    /**
+     * Arma el cuerpo de la solicitud de chat: el contexto de la finca como mensaje de sistema y la pregunta del usuario.
+     * El contexto se recorta para que el prompt completo más la respuesta quepan en la ventana del modelo.
      */
-    private int contarTokens(String texto) {
-        if (texto == null || texto.isEmpty()) return 0;
-        return texto.length() / 4; // aprox
+    private Map<String, Object> buildRequestBody(String userInput, String contextoCompleto) {
+        String userMessage = userInput + USER_SUFFIX;
+        //rcortar inteligentemente si excede el limite
+        int contextBudget = contextWindowTokens - togetherMaxTokens - fixedPromptTokens - tokenCounter.count(userMessage);
+        String contextoOptimizado = cutContext(contextoCompleto, contextBudget);
+
+        //request
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", togetherModel);
+        body.put("max_tokens", togetherMaxTokens);
+        body.put("temperature", 0.7);
+
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of(
+                "role", "system",
+                "content", SYSTEM_PREFIX + contextoOptimizado + SYSTEM_SUFFIX
+        ));
+        messages.add(Map.of(
+                "role", "user",
+                "content", userMessage
+        ));
+        body.put("messages", messages);
+        return body;
     }
 
     /**
-     * Construye un contexto textual a partir de un JSON que contiene información
-     * de la finca y su información técnica para ser usada como contexto en la IA.
+     * Recorta el contexto textual para no superar un límite máximo de tokens, priorizando las secciones
+     * más relevantes. Las secciones se eligen de mayor a menor puntaje, saltando las que no caben para
+     * aprovechar el espacio con otras más cortas, y se devuelven en su orden original.
      *
-     * @param fullResponseJson Mapa con la información completa (finca y técnica).
-     * @return Texto formateado que representa el contexto para la IA.
+     * @param contexto Texto completo del contexto.
+     * @param maxTokens Límite máximo de tokens permitidos.
+     * @return Texto recortado que mantiene las secciones más importantes.
      */
-    @SuppressWarnings("unchecked")
-    public String buildContextJson(Map<String, Object> fullResponseJson) {
-        StringBuilder contexto = new StringBuilder();
-
-        if (fullResponseJson == null) return "";
-
-        // Obtener data
-        Map<String, Object> data = (Map<String, Object>) fullResponseJson.get("data");
-        if (data == null) return "";
-
-        // inf tecnica
-        Map<String, Object> techInfo = (Map<String, Object>) data.get("technicalInfo");
-        if (techInfo != null) {
-            contexto.append("Información técnica de la finca:\n");
-            contexto.append("- pH del suelo: ").append(orEmpty(techInfo.get("soilPh"))).append("\n");
-            contexto.append("- Nutrientes del suelo: ").append(orEmpty(techInfo.get("soilNutrients"))).append("\n");
-            contexto.append("- Tipo de sistema de riego: ").append(orEmpty(techInfo.get("irrigationSystemType"))).append("\n");
-            contexto.append("- Disponibilidad de agua: ").append(orEmpty(techInfo.get("waterAvailable"))).append("\n");
-            contexto.append("- Uso del agua: ").append(orEmpty(techInfo.get("waterUsageType"))).append("\n");
-            contexto.append("- Uso de fertilizantes y pesticidas: ").append(orEmpty(techInfo.get("fertilizerPesticideUse"))).append("\n\n");
+    String cutContext(String contexto, int maxTokens) {
+        if (maxTokens <= 0 || contexto == null || contexto.isEmpty()) {
+            return "";
+        }
+        String[] secciones = divideIntoSections(contexto);
+        int separatorTokens = tokenCounter.count("\n");
+
+        int[] tokens = new int[secciones.length];
+        long[] ranking = new long[secciones.length];
+        int total = 0;
+        for (int i = 0; i < secciones.length; i++) {
+            tokens[i] = tokenCounter.count(secciones[i]) + separatorTokens;
+            total += tokens[i];
+            // mayor puntaje primero y, a igual puntaje, el orden original
+            ranking[i] = ((long) -calculateRelevanceSection(secciones[i]) << 32) | i;
+        }
+        if (total <= maxTokens) {
+            return String.join("\n", secciones);
         }
+        Arrays.sort(ranking);
 
-        // info finca
-        Map<String, Object> farm = (Map<String, Object>) data.get("farm");
-        if (farm != null) {
-            contexto.append("Datos generales de la finca:\n");
-            contexto.append("- Nombre: ").append(orEmpty(farm.get("farmName"))).append("\n");
-            contexto.append("- País: ").append(orEmpty(farm.get("farmCountry"))).append("\n");
-            contexto.append("- Provincia/Estado: ").append(orEmpty(farm.get("farmStateProvince"))).append("\n");
-            contexto.append("- Otras direcciones: ").append(orEmpty(farm.get("farmOtherDirections"))).append("\n");
-            contexto.append("- Ubicación (lat,lng): ").append(orEmpty(farm.get("farmLocation"))).append("\n");
-            contexto.append("- Tamaño: ").append(orEmpty(farm.get("farmSize"))).append(" ").append(orEmpty(farm.get("farmMeasureUnit"))).append("\n\n");
-
-            // grupos animales
-            List<Map<String, Object>> animalGroups = (List<Map<String, Object>>) farm.get("animalGroups");
-            if (animalGroups != null && !animalGroups.isEmpty()) {
-                contexto.append("Grupos animales:\n");
-                for (Map<String, Object> grupo : animalGroups) {
-                    contexto.append("- Grupo: ").append(orEmpty(grupo.get("groupName"))).append("\n");
-                    contexto.append("  - Tipo de producción: ").append(orEmpty(grupo.get("productionType"))).append("\n");
-                    contexto.append("  - Medida: ").append(orEmpty(grupo.get("measure"))).append("\n");
-
-                    List<Map<String, Object>> animals = (List<Map<String, Object>>) grupo.get("animals");
-                    if (animals != null && !animals.isEmpty()) {
-                        contexto.append("  - Animales:\n");
-                        for (Map<String, Object> animal : animals) {
-                            contexto.append("    * Especie: ").append(orEmpty(animal.get("species"))).append(", ");
-                            contexto.append("Raza: ").append(orEmpty(animal.get("breed"))).append(", ");
-                            contexto.append("Cantidad: ").append(orEmpty(animal.get("count"))).append("\n");
-                        }
-                    }
-                }
-                contexto.append("\n");
+        boolean[] incluida = new boolean[secciones.length];
+        int tokensUsados = 0;
+        for (long rank : ranking) {
+            int i = (int) rank;
+            if (tokensUsados + tokens[i] <= maxTokens) {
+                incluida[i] = true;
+                tokensUsados += tokens[i];
             }
+        }
 
-            // Parcelas (plots)
-            List<Map<String, Object>> plots = (List<Map<String, Object>>) farm.get("plots");
-            if (plots != null && !plots.isEmpty()) {
-                contexto.append("Parcelas de la finca:\n");
-                for (Map<String, Object> parcela : plots) {
-                    contexto.append("- Parcela: ").append(orEmpty(parcela.get("plotName"))).append("\n");
-                    contexto.append("  - Descripción: ").append(orEmpty(parcela.get("plotDescription"))).append("\n");
-                    contexto.append("  - Tipo: ").append(orEmpty(parcela.get("plotType"))).append("\n");
-                    contexto.append("  - Uso actual: ").append(orEmpty(parcela.get("currentUsage"))).append("\n");
-
-                    List<Map<String, Object>> cropsManagements = (List<Map<String, Object>>) parcela.get("cropsManagements");
-                    if (cropsManagements != null && !cropsManagements.isEmpty()) {
-                        contexto.append("  - Manejo de cultivos:\n");
-                        for (Map<String, Object> manejo : cropsManagements) {
-                            contexto.append("    * Acción: ").append(orEmpty(manejo.get("actionName"))).append("\n");
-                            contexto.append("      Fecha acción: ").append(orEmpty(manejo.get("actionDate"))).append("\n");
-                            contexto.append("      Valor gastado: ").append(orEmpty(manejo.get("valueSpent"))).append("\n");
-
-                            // Info del cultivo
-                            Map<String, Object> crop = (Map<String, Object>) manejo.get("crop");
-                            if (crop != null) {
-                                contexto.append("      Cultivo: ").append(orEmpty(crop.get("cropName"))).append("\n");
-                                contexto.append("      Tipo: ").append(orEmpty(crop.get("cropType"))).append("\n");
-                                contexto.append("      Variedad: ").append(orEmpty(crop.get("cropVariety"))).append("\n");
-                            }
-                        }
-                    }
-                }
-                contexto.append("\n");
+        StringJoiner nuevoContexto = new StringJoiner("\n");
+        for (int i = 0; i < secciones.length; i++) {
+            if (incluida[i]) {
+                nuevoContexto.add(secciones[i]);
             }
         }
-
-        return contexto.toString();
+        return nuevoContexto.toString();
     }
 
     /**
-     * Método auxiliar para devolver un String no nulo, reemplazando null con
-     * texto por defecto "Sin Datos".
+     * Divide el contexto completo en secciones separadas para evaluación
+     * de relevancia.
      *
-     * @param obj Objeto a convertir a String.
-     * @return String del objeto o "Sin Datos" si es null.
+     * @param contexto Texto completo del contexto.
+     * @return Secciones extraídas del texto.
      */
-    private String orEmpty(Object obj) {
-        return (obj == null) ? "Sin Datos" : obj.toString();
+    private String[] divideIntoSections(String contexto) {
+        return SECTION_SEPARATOR.splitAsStream(contexto) // separa por dobles saltos o separadores
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
     }
 
-
-}
\ No newline at end of file
+    /**
+     * Calcula la relevancia de una sección en una sola pasada: 3 puntos por cada palabra clave distinta
+     * que aparece (sin distinguir mayúsculas) más hasta 5 puntos por la longitud de la sección.
+     *
+     * @param seccion Texto de la sección.
+     * @return Puntaje de relevancia numérico para la sección.
+     */
+    private int calculateRelevanceSection(String seccion) {
+        int encontradas = 0;
+        Matcher matcher = KEYWORD_PATTERN.matcher(seccion);
+        while (matcher.find() && encontradas != ALL_KEYWORDS) {
+            for (int g = 1; g <= KEYWORDS.size(); g++) {
+                if (matcher.start(g) >= 0) {
+                    encontradas |= 1 << (g - 1);
+                    break;
+                }
+            }
+        }
+        return Integer.bitCount(encontradas) * 3 + Math.min(seccion.length() / 100, 5);
+    }
+}
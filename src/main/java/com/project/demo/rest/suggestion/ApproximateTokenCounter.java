@@ -0,0 +1,13 @@
+package com.project.demo.rest.suggestion;
+
+/**
+ * Aproximación de un token por cada 4 caracteres. Se usa cuando no hay un vocabulario BPE configurado.
+ */
+public class ApproximateTokenCounter implements TokenCounter {
+
+    @Override
+    public int count(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        return text.length() / 4; // aprox
+    }
+}
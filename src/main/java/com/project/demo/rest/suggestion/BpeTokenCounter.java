@@ -0,0 +1,106 @@
+package com.project.demo.rest.suggestion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Contador de tokens BPE a nivel de bytes, compatible con los vocabularios en formato tiktoken
+ * (una línea por token: el token en base64, un espacio y su rango).
+ *
+ * El texto se divide primero en fragmentos con la misma expresión regular que cl100k_base; cada fragmento
+ * que no está completo en el vocabulario se codifica en UTF-8 y se fusionan sus pares de bytes de menor rango
+ * hasta que no quede ninguna fusión posible. Solo se cuentan los tokens, no se construye la lista de IDs.
+ */
+public class BpeTokenCounter implements TokenCounter {
+
+    private static final Pattern PRE_TOKENIZER = Pattern.compile(
+            "'(?i:[sdmt]|ll|ve|re)|[^\\r\\n\\p{L}\\p{N}]?+\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]++[\\r\\n]*|\\s*[\\r\\n]|\\s+(?!\\S)|\\s+");
+
+    /**
+     * Rango de cada token. Las claves son los bytes del token como String ISO-8859-1 (un char por byte),
+     * para poder buscar subcadenas de un fragmento sin copiar arreglos.
+     */
+    private final Map<String, Integer> ranks;
+
+    BpeTokenCounter(Map<String, Integer> ranks) {
+        this.ranks = ranks;
+    }
+
+    /**
+     * Carga un vocabulario en formato tiktoken.
+     *
+     * @throws IOException Si el archivo no se puede leer o tiene líneas inválidas.
+     */
+    public static BpeTokenCounter load(Path vocabFile) throws IOException {
+        Map<String, Integer> ranks = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(vocabFile, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int space = line.indexOf(' ');
+                if (space < 0) {
+                    throw new IOException("Línea inválida en el vocabulario: " + line);
+                }
+                try {
+                    byte[] token = Base64.getDecoder().decode(line.substring(0, space));
+                    ranks.put(new String(token, StandardCharsets.ISO_8859_1), Integer.parseInt(line.substring(space + 1).trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Línea inválida en el vocabulario: " + line, e);
+                }
+            }
+        }
+        return new BpeTokenCounter(ranks);
+    }
+
+    @Override
+    public int count(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int tokens = 0;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            String piece = new String(matcher.group().getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+            tokens += ranks.containsKey(piece) ? 1 : countMerged(piece);
+        }
+        return tokens;
+    }
+
+    /**
+     * Fusiona los pares de menor rango de un fragmento y devuelve cuántas partes quedan.
+     * Los bytes sueltos que no están en el vocabulario cuentan como un token cada uno.
+     */
+    private int countMerged(String piece) {
+        int parts = piece.length();
+        // bounds[i] es el inicio de la parte i; bounds[parts] es el final del fragmento
+        int[] bounds = new int[parts + 1];
+        for (int i = 0; i <= parts; i++) {
+            bounds[i] = i;
+        }
+        while (parts > 1) {
+            int bestRank = Integer.MAX_VALUE;
+            int bestIndex = -1;
+            for (int i = 0; i < parts - 1; i++) {
+                Integer rank = ranks.get(piece.substring(bounds[i], bounds[i + 2]));
+                if (rank != null && rank < bestRank) {
+                    bestRank = rank;
+                    bestIndex = i;
+                }
+            }
+            if (bestIndex < 0) {
+                break;
+            }
+            System.arraycopy(bounds, bestIndex + 2, bounds, bestIndex + 1, parts - bestIndex - 1);
+            parts--;
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,197 @@
+package com.project.demo.rest.suggestion;
+
+import com.project.demo.logic.entity.animal.AnimalGroupRepository;
+import com.project.demo.logic.entity.animal.AnimalRepository;
+import com.project.demo.logic.entity.animal.IAnimalContext;
+import com.project.demo.logic.entity.animal.IAnimalGroupContext;
+import com.project.demo.logic.entity.cropsmanagement.CropsManagementRepository;
+import com.project.demo.logic.entity.cropsmanagement.ICropsManagementContext;
+import com.project.demo.logic.entity.farm.FarmRepository;
+import com.project.demo.logic.entity.farm.IFarmContext;
+import com.project.demo.logic.entity.plot.FarmPlotRepository;
+import com.project.demo.logic.entity.plot.IPlotContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Carga los datos de una finca que se envían como contexto a la IA y los convierte en texto.
+ *
+ * En lugar de cargar la entidad Farm y recorrer sus colecciones (grupos, animales, parcelas, manejos), se leen
+ * solo los campos que aparecen en el texto con un número fijo de consultas de proyección (a lo sumo cinco),
+ * cada una con un máximo de filas configurable. Los registros de manejo se toman de los más recientes.
+ */
+@Component
+public class FarmContextLoader {
+
+    /**
+     * Datos de la finca ya cargados, listos para convertirse en texto.
+     * Los animales y los registros de manejo se asocian a su grupo y parcela por groupId y plotId.
+     */
+    public record FarmContext(IFarmContext farm,
+                              List<IAnimalGroupContext> animalGroups,
+                              List<IAnimalContext> animals,
+                              List<IPlotContext> plots,
+                              List<ICropsManagementContext> cropsManagements) {}
+
+    private final FarmRepository farmRepository;
+    private final AnimalGroupRepository animalGroupRepository;
+    private final AnimalRepository animalRepository;
+    private final FarmPlotRepository farmPlotRepository;
+    private final CropsManagementRepository cropsManagementRepository;
+    private final int maxAnimalGroups;
+    private final int maxAnimals;
+    private final int maxPlots;
+    private final int maxManagementRecords;
+
+    public FarmContextLoader(
+            FarmRepository farmRepository,
+            AnimalGroupRepository animalGroupRepository,
+            AnimalRepository animalRepository,
+            FarmPlotRepository farmPlotRepository,
+            CropsManagementRepository cropsManagementRepository,
+            @Value("${ai.suggestions.context.max-animal-groups:20}") int maxAnimalGroups,
+            @Value("${ai.suggestions.context.max-animals:50}") int maxAnimals,
+            @Value("${ai.suggestions.context.max-plots:20}") int maxPlots,
+            @Value("${ai.suggestions.context.max-management-records:100}") int maxManagementRecords) {
+        this.farmRepository = farmRepository;
+        this.animalGroupRepository = animalGroupRepository;
+        this.animalRepository = animalRepository;
+        this.farmPlotRepository = farmPlotRepository;
+        this.cropsManagementRepository = cropsManagementRepository;
+        this.maxAnimalGroups = maxAnimalGroups;
+        this.maxAnimals = maxAnimals;
+        this.maxPlots = maxPlots;
+        this.maxManagementRecords = maxManagementRecords;
+    }
+
+    /**
+     * Construye el contexto completo de la finca (datos generales, información técnica, grupos animales
+     * y parcelas con sus registros de manejo), sin recortar.
+     *
+     * @return El texto del contexto, o vacío si la finca no existe.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> load(Long farmId) {
+        List<IFarmContext> farm = farmRepository.findContextById(farmId, Limit.of(1));
+        if (farm.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<IAnimalGroupContext> animalGroups = animalGroupRepository.findContextByFarmId(farmId, Limit.of(maxAnimalGroups));
+        List<IAnimalContext> animals = animalGroups.isEmpty()
+                ? List.of()
+                : animalRepository.findContextByGroupIds(animalGroups.stream().map(IAnimalGroupContext::getId).toList(),
+                Limit.of(maxAnimals));
+
+        List<IPlotContext> plots = farmPlotRepository.findContextByFarmId(farmId, Limit.of(maxPlots));
+        List<ICropsManagementContext> cropsManagements = plots.isEmpty()
+                ? List.of()
+                : cropsManagementRepository.findContextByFarmIdAndPlotIds(farmId,
+                plots.stream().map(IPlotContext::getId).toList(), Limit.of(maxManagementRecords));
+
+        return Optional.of(render(new FarmContext(farm.get(0), animalGroups, animals, plots, cropsManagements)));
+    }
+
+    /**
+     * Convierte los datos de la finca en el texto que recibe la IA. Los valores nulos se muestran como "Sin Datos".
+     */
+    public static String render(FarmContext context) {
+        StringBuilder contexto = new StringBuilder(1024);
+        IFarmContext farm = context.farm();
+
+        // inf tecnica
+        if (farm.getTechnicalInfoId() != null) {
+            contexto.append("Información técnica de la finca:\n");
+            contexto.append("- pH del suelo: ").append(orEmpty(farm.getSoilPh())).append("\n");
+            contexto.append("- Nutrientes del suelo: ").append(orEmpty(farm.getSoilNutrients())).append("\n");
+            contexto.append("- Tipo de sistema de riego: ").append(orEmpty(farm.getIrrigationSystemType())).append("\n");
+            contexto.append("- Disponibilidad de agua: ").append(orEmpty(farm.getWaterAvailable())).append("\n");
+            contexto.append("- Uso del agua: ").append(orEmpty(farm.getWaterUsageType())).append("\n");
+            contexto.append("- Uso de fertilizantes y pesticidas: ").append(orEmpty(farm.getFertilizerPesticideUse())).append("\n\n");
+        }
+
+        // info finca
+        contexto.append("Datos generales de la finca:\n");
+        contexto.append("- Nombre: ").append(orEmpty(farm.getFarmName())).append("\n");
+        contexto.append("- País: ").append(orEmpty(farm.getFarmCountry())).append("\n");
+        contexto.append("- Provincia/Estado: ").append(orEmpty(farm.getFarmStateProvince())).append("\n");
+        contexto.append("- Otras direcciones: ").append(orEmpty(farm.getFarmOtherDirections())).append("\n");
+        contexto.append("- Ubicación (lat,lng): ").append(orEmpty(farm.getFarmLocation())).append("\n");
+        contexto.append("- Tamaño: ").append(orEmpty(farm.getFarmSize())).append(" ").append(orEmpty(farm.getFarmMeasureUnit())).append("\n\n");
+
+        // grupos animales
+        if (!context.animalGroups().isEmpty()) {
+            Map<Long, List<IAnimalContext>> animalsByGroup = groupBy(context.animals(), IAnimalContext::getGroupId);
+            contexto.append("Grupos animales:\n");
+            for (IAnimalGroupContext grupo : context.animalGroups()) {
+                contexto.append("- Grupo: ").append(orEmpty(grupo.getGroupName())).append("\n");
+                contexto.append("  - Tipo de producción: ").append(orEmpty(grupo.getProductionType())).append("\n");
+                contexto.append("  - Medida: ").append(orEmpty(grupo.getMeasure())).append("\n");
+
+                List<IAnimalContext> animals = animalsByGroup.get(grupo.getId());
+                if (animals != null) {
+                    contexto.append("  - Animales:\n");
+                    for (IAnimalContext animal : animals) {
+                        contexto.append("    * Especie: ").append(orEmpty(animal.getSpecies())).append(", ");
+                        contexto.append("Raza: ").append(orEmpty(animal.getBreed())).append(", ");
+                        contexto.append("Cantidad: ").append(orEmpty(animal.getCount())).append("\n");
+                    }
+                }
+            }
+            contexto.append("\n");
+        }
+
+        // Parcelas (plots)
+        if (!context.plots().isEmpty()) {
+            Map<Long, List<ICropsManagementContext>> managementsByPlot = groupBy(context.cropsManagements(), ICropsManagementContext::getPlotId);
+            contexto.append("Parcelas de la finca:\n");
+            for (IPlotContext parcela : context.plots()) {
+                contexto.append("- Parcela: ").append(orEmpty(parcela.getPlotName())).append("\n");
+                contexto.append("  - Descripción: ").append(orEmpty(parcela.getPlotDescription())).append("\n");
+                contexto.append("  - Tipo: ").append(orEmpty(parcela.getPlotType())).append("\n");
+                contexto.append("  - Uso actual: ").append(orEmpty(parcela.getCurrentUsage())).append("\n");
+
+                List<ICropsManagementContext> cropsManagements = managementsByPlot.get(parcela.getId());
+                if (cropsManagements != null) {
+                    contexto.append("  - Manejo de cultivos:\n");
+                    for (ICropsManagementContext manejo : cropsManagements) {
+                        contexto.append("    * Acción: ").append(orEmpty(manejo.getActionName())).append("\n");
+                        contexto.append("      Fecha acción: ").append(orEmpty(manejo.getActionDate())).append("\n");
+                        contexto.append("      Valor gastado: ").append(orEmpty(manejo.getValueSpent())).append("\n");
+
+                        // Info del cultivo
+                        if (manejo.getCropName() != null || manejo.getCropType() != null || manejo.getCropVariety() != null) {
+                            contexto.append("      Cultivo: ").append(orEmpty(manejo.getCropName())).append("\n");
+                            contexto.append("      Tipo: ").append(orEmpty(manejo.getCropType())).append("\n");
+                            contexto.append("      Variedad: ").append(orEmpty(manejo.getCropVariety())).append("\n");
+                        }
+                    }
+                }
+            }
+            contexto.append("\n");
+        }
+
+        return contexto.toString();
+    }
+
+    private static <T> Map<Long, List<T>> groupBy(List<T> rows, Function<T, Long> key) {
+        Map<Long, List<T>> grouped = new LinkedHashMap<>();
+        for (T row : rows) {
+            grouped.computeIfAbsent(key.apply(row), k -> new ArrayList<>()).add(row);
+        }
+        return grouped;
+    }
+
+    private static String orEmpty(Object obj) {
+        return (obj == null) ? "Sin Datos" : obj.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.demo.rest.suggestion;
+
+/**
+ * Cuenta los tokens que ocupa un texto en el prompt del modelo. Se usa para ajustar el contexto de la finca
+ * al presupuesto de tokens de la solicitud.
+ */
+public interface TokenCounter {
+
+    /**
+     * @return Número de tokens del texto (0 si es null o vacío).
+     */
+    int count(String text);
+}
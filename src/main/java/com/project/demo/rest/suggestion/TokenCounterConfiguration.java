@@ -0,0 +1,33 @@
+package com.project.demo.rest.suggestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Elige el contador de tokens del prompt: BPE si ai.suggestions.tokenizer.vocab-path apunta a un vocabulario
+ * en formato tiktoken, o la aproximación de 4 caracteres por token si no hay vocabulario o no se puede leer.
+ */
+@Configuration
+public class TokenCounterConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenCounterConfiguration.class);
+
+    @Bean
+    public TokenCounter tokenCounter(@Value("${ai.suggestions.tokenizer.vocab-path:}") String vocabPath) {
+        if (vocabPath.isBlank()) {
+            return new ApproximateTokenCounter();
+        }
+        try {
+            return BpeTokenCounter.load(Path.of(vocabPath));
+        } catch (IOException e) {
+            logger.warn("Could not load tokenizer vocabulary {}, falling back to approximate token counts", vocabPath, e);
+            return new ApproximateTokenCounter();
+        }
+    }
+}
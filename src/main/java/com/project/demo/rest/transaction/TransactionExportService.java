@@ -0,0 +1,139 @@
+package com.project.demo.rest.transaction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta el libro completo de transacciones de un usuario escribiendo fila por fila en la respuesta.
+ * Las transacciones se leen con un cursor y se desacoplan del contexto de persistencia apenas se escriben,
+ * así el consumo de memoria no depende de la cantidad de filas.
+ */
+@Service
+public class TransactionExportService {
+
+    /**
+     * Cada cuántas filas se vacía el buffer hacia el cliente.
+     */
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String CSV_HEADER = "id,transactionDate,transactionType,farmId,farmName,cropId,cropName," +
+            "quantity,measureUnit,pricePerUnit,totalValue";
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Escribe todas las transacciones activas del usuario en el formato indicado.
+     *
+     * @return Cantidad de filas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        try (Stream<Transaction> transactions = transactionRepository.streamActiveByUserId(userId)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                TransactionDTO dto = new TransactionDTO(transaction);
+                entityManager.detach(transaction);
+
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer writer, TransactionDTO dto) throws IOException {
+        writer.write(String.join(",",
+                csv(dto.getId()),
+                csv(dto.getTransactionDate()),
+                csv(dto.getTransactionType()),
+                csv(dto.getFarmId()),
+                csvText(dto.getFarmName()),
+                csv(dto.getCropId()),
+                csvText(dto.getCropName()),
+                csv(dto.getQuantity()),
+                csv(dto.getMeasureUnit()),
+                csv(dto.getPricePerUnit()),
+                csv(dto.getTotalValue())));
+        writer.write('\n');
+    }
+
+    /**
+     * Escapa un texto libre escrito por el usuario. Si empieza con =, +, -, @, tabulador o retorno de carro,
+     * una hoja de cálculo lo interpretaría como fórmula, así que se antepone un apóstrofo para que se muestre
+     * como texto. Los campos numéricos no pasan por aquí, para no alterar valores negativos.
+     */
+    static String csvText(String value) {
+        if (value != null && !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return csv("'" + value);
+        }
+        return csv(value);
+    }
+
+    /**
+     * Escapa un valor según RFC 4180: se encierra entre comillas si contiene separadores, comillas o saltos de línea.
+     */
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
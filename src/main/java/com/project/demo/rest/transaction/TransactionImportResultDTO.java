@@ -0,0 +1,33 @@
+package com.project.demo.rest.transaction;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de una importación masiva de transacciones.
+ * Las filas válidas se guardan aunque otras tengan errores; cada error indica el número de fila (desde 1).
+ */
+public class TransactionImportResultDTO {
+
+    public record RowError(int row, String message) {}
+
+    private int receivedRows;
+    private int importedRows;
+    private int failedRows;
+    private List<RowError> errors;
+
+    public TransactionImportResultDTO(int receivedRows, int importedRows, List<RowError> errors) {
+        this.receivedRows = receivedRows;
+        this.importedRows = importedRows;
+        this.failedRows = errors.size();
+        this.errors = errors;
+    }
+
+    public int getReceivedRows() { return receivedRows; }
+    public void setReceivedRows(int receivedRows) { this.receivedRows = receivedRows; }
+    public int getImportedRows() { return importedRows; }
+    public void setImportedRows(int importedRows) { this.importedRows = importedRows; }
+    public int getFailedRows() { return failedRows; }
+    public void setFailedRows(int failedRows) { this.failedRows = failedRows; }
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+}
@@ -0,0 +1,16 @@
+package com.project.demo.rest.transaction;
+
+/**
+ * Fila de una importación masiva de transacciones, tal como llega en el JSON o en el CSV.
+ * Los valores se reciben como texto para poder reportar errores de formato por fila
+ * en lugar de rechazar la solicitud completa.
+ */
+public record TransactionImportRow(
+        String farmId,
+        String cropId,
+        String transactionType,
+        String quantity,
+        String measureUnit,
+        String pricePerUnit,
+        String totalValue,
+        String transactionDate) {}
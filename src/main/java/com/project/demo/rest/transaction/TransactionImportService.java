@@ -0,0 +1,309 @@
+package com.project.demo.rest.transaction;
+
+import com.project.demo.logic.dashboard.TransactionRollupService;
+import com.project.demo.logic.entity.crop.Crop;
+import com.project.demo.logic.entity.crop.CropRepository;
+import com.project.demo.logic.entity.farm.Farm;
+import com.project.demo.logic.entity.transaction.MeasureUnitEnum;
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionEnum;
+import com.project.demo.logic.entity.user.User;
+import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importa transacciones en bloque. Las filas se validan primero, las fincas y cultivos referenciados se
+ * resuelven con una consulta cada uno, y las transacciones válidas se insertan en lotes JDBC
+ * (ver {@link Transaction#ID_ALLOCATION_SIZE}). El acumulado mensual se actualiza con un upsert por grupo.
+ */
+@Service
+public class TransactionImportService {
+
+    /**
+     * Cada cuántas filas se envía el lote a la base de datos y se vacía el contexto de persistencia.
+     * Coincide con hibernate.jdbc.batch_size.
+     */
+    private static final int BATCH_SIZE = 50;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("farmId", "cropId", "transactionType", "transactionDate");
+
+    @Value("${transactions.import.max-rows:10000}")
+    private int maxRows;
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private UserXFarmRepository userXFarmRepository;
+
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Fila ya convertida a los tipos de la entidad, con su número de fila original.
+     */
+    private record ParsedRow(int row, Long farmId, Long cropId, TransactionEnum transactionType, Double quantity,
+                             MeasureUnitEnum measureUnit, Double pricePerUnit, Double totalValue,
+                             LocalDateTime transactionDate) {}
+
+    /**
+     * Valida e inserta las filas para el usuario. Las filas con errores se omiten y se reportan;
+     * las demás se guardan en la misma transacción.
+     *
+     * @throws IllegalArgumentException si se reciben más filas de las permitidas.
+     */
+    @Transactional
+    public TransactionImportResultDTO importRows(Long userId, List<TransactionImportRow> rows) {
+        checkRowCount(rows.size());
+        List<TransactionImportResultDTO.RowError> errors = new ArrayList<>();
+
+        List<ParsedRow> parsed = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                parsed.add(parse(i + 1, rows.get(i)));
+            } catch (IllegalArgumentException e) {
+                errors.add(new TransactionImportResultDTO.RowError(i + 1, e.getMessage()));
+            }
+        }
+
+        Set<Long> farmIds = parsed.stream().map(ParsedRow::farmId).collect(Collectors.toSet());
+        Set<Long> cropIds = parsed.stream().map(ParsedRow::cropId).collect(Collectors.toSet());
+        Set<Long> accessibleFarms = farmIds.isEmpty() ? Set.of()
+                : new HashSet<>(userXFarmRepository.findAccessibleFarmIds(userId, farmIds));
+        Map<Long, Crop> ownedCrops = new HashMap<>();
+        if (!cropIds.isEmpty()) {
+            for (Crop crop : cropRepository.findByUserIdAndIdIn(userId, cropIds)) {
+                ownedCrops.put(crop.getId(), crop);
+            }
+        }
+
+        List<TransactionRollupService.RollupDelta> deltas = new ArrayList<>();
+        int imported = 0;
+        for (ParsedRow row : parsed) {
+            if (!accessibleFarms.contains(row.farmId())) {
+                errors.add(new TransactionImportResultDTO.RowError(row.row(), "Finca no encontrada: " + row.farmId()));
+                continue;
+            }
+            if (!ownedCrops.containsKey(row.cropId())) {
+                errors.add(new TransactionImportResultDTO.RowError(row.row(), "Cultivo no encontrado: " + row.cropId()));
+                continue;
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setUser(entityManager.getReference(User.class, userId));
+            transaction.setFarm(entityManager.getReference(Farm.class, row.farmId()));
+            transaction.setCrop(entityManager.getReference(Crop.class, row.cropId()));
+            transaction.setTransactionType(row.transactionType());
+            transaction.setQuantity(row.quantity());
+            transaction.setMeasureUnit(row.measureUnit());
+            transaction.setPricePerUnit(row.pricePerUnit());
+            transaction.setTotalValue(row.totalValue());
+            transaction.setTransactionDate(row.transactionDate());
+            entityManager.persist(transaction);
+            deltas.add(transactionRollupService.snapshot(transaction));
+
+            if (++imported % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        transactionRollupService.recordInserts(deltas);
+
+        errors.sort((a, b) -> Integer.compare(a.row(), b.row()));
+        return new TransactionImportResultDTO(rows.size(), imported, errors);
+    }
+
+    /**
+     * Lee un CSV con encabezado. Las columnas se identifican por nombre (farmId, cropId, transactionType,
+     * quantity, measureUnit, pricePerUnit, totalValue, transactionDate) y las demás se ignoran, así que se
+     * acepta el mismo formato que produce la exportación. No admite saltos de línea dentro de un campo.
+     *
+     * @throws IllegalArgumentException si falta una columna obligatoria o se superan las filas permitidas.
+     */
+    public List<TransactionImportRow> readCsv(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return List.of();
+        }
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitCsvLine(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Falta la columna obligatoria: " + required);
+            }
+        }
+
+        List<TransactionImportRow> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            checkRowCount(rows.size() + 1);
+            List<String> values = splitCsvLine(line);
+            rows.add(new TransactionImportRow(
+                    column(values, columns, "farmId"),
+                    column(values, columns, "cropId"),
+                    column(values, columns, "transactionType"),
+                    column(values, columns, "quantity"),
+                    column(values, columns, "measureUnit"),
+                    column(values, columns, "pricePerUnit"),
+                    column(values, columns, "totalValue"),
+                    column(values, columns, "transactionDate")));
+        }
+        return rows;
+    }
+
+    private void checkRowCount(int count) {
+        if (count > maxRows) {
+            throw new IllegalArgumentException("La importación admite como máximo " + maxRows + " filas");
+        }
+    }
+
+    private static ParsedRow parse(int rowNumber, TransactionImportRow row) {
+        if (row == null) {
+            throw new IllegalArgumentException("Fila vacía");
+        }
+        Long farmId = parseLong("farmId", required("farmId", row.farmId()));
+        Long cropId = parseLong("cropId", required("cropId", row.cropId()));
+        TransactionEnum type = parseEnum(TransactionEnum.class, "transactionType", required("transactionType", row.transactionType()));
+        LocalDateTime date = parseDate(required("transactionDate", row.transactionDate()));
+        Double quantity = parseAmount("quantity", row.quantity());
+        MeasureUnitEnum measureUnit = isBlank(row.measureUnit()) ? null
+                : parseEnum(MeasureUnitEnum.class, "measureUnit", row.measureUnit());
+        Double pricePerUnit = parseAmount("pricePerUnit", row.pricePerUnit());
+        Double totalValue = parseAmount("totalValue", row.totalValue());
+        if (totalValue == null) {
+            if (quantity == null || pricePerUnit == null) {
+                throw new IllegalArgumentException("Se requiere totalValue, o quantity y pricePerUnit");
+            }
+            totalValue = quantity * pricePerUnit;
+        }
+        return new ParsedRow(rowNumber, farmId, cropId, type, quantity, measureUnit, pricePerUnit, totalValue, date);
+    }
+
+    private static String required(String field, String value) {
+        if (isBlank(value)) {
+            throw new IllegalArgumentException("El campo " + field + " es obligatorio");
+        }
+        return value.trim();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static Long parseLong(String field, String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para " + field + ": " + value);
+        }
+    }
+
+    private static Double parseAmount(String field, String value) {
+        if (isBlank(value)) {
+            return null;
+        }
+        double amount;
+        try {
+            amount = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para " + field + ": " + value);
+        }
+        if (amount < 0 || Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("El campo " + field + " debe ser un número positivo");
+        }
+        return amount;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String field, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor no válido para " + field + ": " + value);
+        }
+    }
+
+    /**
+     * Acepta fecha y hora ISO (2024-03-01T10:30:00) o solo la fecha (2024-03-01, al inicio del día).
+     */
+    private static LocalDateTime parseDate(String value) {
+        try {
+            return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida: " + value);
+        }
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Separa una línea CSV según RFC 4180: los campos entre comillas pueden contener comas y comillas dobladas.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -1,21 +1,34 @@
 package com.project.demo.rest.transaction;
 
+import com.project.demo.logic.dashboard.DashboardCache;
+import com.project.demo.logic.dashboard.TransactionRollupService;
 import com.project.demo.logic.entity.transaction.Transaction;
 import com.project.demo.logic.entity.transaction.TransactionRepository;
 import com.project.demo.logic.entity.user.User;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.http.Meta;
+import com.project.demo.logic.entity.http.PageCursor;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
@@ -29,6 +42,18 @@ public class TransactionRestController {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionRollupService transactionRollupService;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
     /**
      * Crea una nueva transacción para el usuario USER (Farm-Admin). El usuario de la transacción
      * se asigna automáticamente basado en la sesión actual.
@@ -38,19 +63,74 @@ public class TransactionRestController {
      */
     @PostMapping
     @PreAuthorize("hasRole('USER')")
+    @Transactional
     public ResponseEntity<?> createTransaction(@RequestBody Transaction transaction, HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         transaction.setUser(currentUser);
         Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionRollupService.recordChange(null, transactionRollupService.snapshot(savedTransaction));
+        dashboardCache.evictUser(currentUser.getId());
 
         Transaction fullTransaction = transactionRepository.findById(savedTransaction.getId()).orElse(savedTransaction);
         return new GlobalResponseHandler().handleResponse("Transacción realizada exitosamente!", new TransactionDTO(fullTransaction), HttpStatus.CREATED, request);
     }
 
     /**
-     * Obtiene una lista paginada de las transacciones del usuario USER (Farm-Admin).
-     * @param page El número de página a solicitar.
+     * Importa en bloque transacciones del usuario USER (Farm-Admin), enviadas como un arreglo JSON de filas.
+     * Las filas válidas se insertan en lotes y las inválidas se reportan con su número de fila.
+     * @param rows Las filas a importar.
+     * @param request La solicitud HTTP.
+     * @return ResponseEntity con la cantidad de filas importadas y los errores por fila.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> importTransactions(@RequestBody List<TransactionImportRow> rows, HttpServletRequest request) {
+        return importRows(() -> rows, request);
+    }
+
+    /**
+     * Importa en bloque transacciones del usuario USER (Farm-Admin) desde un CSV con encabezado.
+     * Acepta el mismo formato que genera /transactions/export.
+     * @param body El contenido CSV.
+     * @param request La solicitud HTTP.
+     * @return ResponseEntity con la cantidad de filas importadas y los errores por fila.
+     */
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> importTransactionsCsv(InputStream body, HttpServletRequest request) {
+        return importRows(() -> transactionImportService.readCsv(body), request);
+    }
+
+    private interface ImportSource {
+        List<TransactionImportRow> read() throws IOException;
+    }
+
+    private ResponseEntity<?> importRows(ImportSource source, HttpServletRequest request) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        TransactionImportResultDTO result;
+        try {
+            result = transactionImportService.importRows(currentUser.getId(), source.read());
+        } catch (IllegalArgumentException | IOException e) {
+            return new GlobalResponseHandler().handleResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
+        }
+        if (result.getImportedRows() > 0) {
+            dashboardCache.evictUser(currentUser.getId());
+        }
+
+        HttpStatus status = result.getFailedRows() == 0 ? HttpStatus.CREATED
+                : result.getImportedRows() > 0 ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+        return new GlobalResponseHandler().handleResponse("Importación procesada: " + result.getImportedRows()
+                + " de " + result.getReceivedRows() + " transacciones guardadas", result, status, request);
+    }
+
+    /**
+     * Obtiene una lista paginada de las transacciones del usuario USER (Farm-Admin), de la más reciente a la más antigua.
+     * Si se envía {@code cursor} (vacío para la primera página) se pagina por llave usando el {@code nextCursor}
+     * de la respuesta anterior, sin OFFSET; en ese modo el total solo se calcula si se pide con {@code includeTotal}.
+     * @param page El número de página a solicitar (solo sin cursor).
      * @param size El número de elementos por página.
+     * @param cursor Cursor opaco de la página anterior.
+     * @param includeTotal Si se calculan los totales; por defecto sí con page y no con cursor.
      * @param request La solicitud HTTP.
      * @return ResponseEntity con una lista de transacciones y metadatos de paginación.
      */
@@ -59,23 +139,77 @@ public class TransactionRestController {
     public ResponseEntity<?> getUserTransactions(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean includeTotal,
             HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        Pageable pageable = PageRequest.of(page - 1, size);
+        Meta meta = new Meta(request.getMethod(), request.getRequestURL().toString());
 
-        Page<Transaction> transactionPage = transactionRepository.findByUserIdWithDetails(currentUser.getId(), pageable);
+        if (cursor != null) {
+            PageCursor.Result<TransactionDTO> result;
+            try {
+                result = transactionRepository.seekActiveByUserId(currentUser.getId(), PageCursor.decode(cursor), size)
+                        .map(TransactionDTO::new);
+            } catch (IllegalArgumentException e) {
+                return new GlobalResponseHandler().handleResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
+            }
+            meta.setPageSize(size);
+            meta.setNextCursor(result.nextCursor());
+            if (Boolean.TRUE.equals(includeTotal)) {
+                meta.setTotalElements(transactionRepository.countActiveByUserId(currentUser.getId()));
+            }
+            return new GlobalResponseHandler().handleResponse("Transacción obtenida exitosamente!", result.content(), HttpStatus.OK, meta);
+        }
 
-        Page<TransactionDTO> dtoPage = transactionPage.map(TransactionDTO::new);
+        Pageable pageable = PageRequest.of(page - 1, size,
+                Sort.by(Sort.Order.desc("transactionDate"), Sort.Order.desc("id")));
 
-        Meta meta = new Meta(request.getMethod(), request.getRequestURL().toString());
-        meta.setTotalPages(dtoPage.getTotalPages());
-        meta.setTotalElements(dtoPage.getTotalElements());
+        Slice<TransactionDTO> dtoPage;
+        if (Boolean.FALSE.equals(includeTotal)) {
+            dtoPage = transactionRepository.findSliceByUserIdWithDetails(currentUser.getId(), pageable).map(TransactionDTO::new);
+        } else {
+            Page<TransactionDTO> counted = transactionRepository.findByUserIdWithDetails(currentUser.getId(), pageable).map(TransactionDTO::new);
+            meta.setTotalPages(counted.getTotalPages());
+            meta.setTotalElements(counted.getTotalElements());
+            dtoPage = counted;
+        }
         meta.setPageNumber(dtoPage.getNumber() + 1);
         meta.setPageSize(dtoPage.getSize());
 
         return new GlobalResponseHandler().handleResponse("Transacción obtenida exitosamente!", dtoPage.getContent(), HttpStatus.OK, meta);
     }
 
+    /**
+     * Exporta todas las transacciones activas del usuario USER (Farm-Admin) como CSV o NDJSON.
+     * Las filas se escriben directamente en la respuesta a medida que se leen de la base de datos,
+     * sin paginación ni consulta de conteo.
+     * @param format Formato de salida: csv (por defecto) o ndjson.
+     * @param request La solicitud HTTP.
+     * @param response La respuesta HTTP donde se escriben las filas.
+     * @return null si la exportación se escribió en la respuesta, o un error si el formato no es válido.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> exportUserTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        TransactionExportService.ExportFormat exportFormat;
+        try {
+            exportFormat = TransactionExportService.ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return new GlobalResponseHandler().handleResponse("Formato de exportación no válido: " + format, HttpStatus.BAD_REQUEST, request);
+        }
+
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"");
+        transactionExportService.export(currentUser.getId(), exportFormat, response.getOutputStream());
+        return null;
+    }
+
     /**
      * Actualiza una transacción específica del usuario USER (Farm-Admin).
      * @param id El ID de la transacción a actualizar.
@@ -85,12 +219,14 @@ public class TransactionRestController {
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
+    @Transactional
     public ResponseEntity<?> updateUserTransaction(@PathVariable Long id, @RequestBody Transaction transactionDetails, HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Optional<Transaction> optionalTransaction = transactionRepository.findByIdAndUserId(id, currentUser.getId());
 
         if (optionalTransaction.isPresent()) {
             Transaction existingTransaction = optionalTransaction.get();
+            TransactionRollupService.RollupDelta before = transactionRollupService.snapshot(existingTransaction);
 
             existingTransaction.setTransactionType(transactionDetails.getTransactionType());
             existingTransaction.setQuantity(transactionDetails.getQuantity());
@@ -103,6 +239,8 @@ public class TransactionRestController {
             existingTransaction.setCrop(transactionDetails.getCrop());
 
             Transaction updatedTransaction = transactionRepository.save(existingTransaction);
+            transactionRollupService.recordChange(before, transactionRollupService.snapshot(updatedTransaction));
+            dashboardCache.evictUser(currentUser.getId());
             Transaction fullTransaction = transactionRepository.findById(updatedTransaction.getId()).orElse(updatedTransaction);
 
             return new GlobalResponseHandler().handleResponse("Transacción actualizada exitosamente!", new TransactionDTO(fullTransaction), HttpStatus.OK, request);
@@ -119,14 +257,18 @@ public class TransactionRestController {
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
+    @Transactional
     public ResponseEntity<?> deleteUserTransaction(@PathVariable Long id, HttpServletRequest request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Optional<Transaction> optionalTransaction = transactionRepository.findByIdAndUserId(id, currentUser.getId());
 
         if (optionalTransaction.isPresent()) {
             Transaction transactionToDeactivate = optionalTransaction.get();
+            TransactionRollupService.RollupDelta before = transactionRollupService.snapshot(transactionToDeactivate);
             transactionToDeactivate.setIsActive(false);
             transactionRepository.save(transactionToDeactivate);
+            transactionRollupService.recordChange(before, null);
+            dashboardCache.evictUser(currentUser.getId());
 
             return new GlobalResponseHandler().handleResponse("Transacción eliminada exitosamente!", new TransactionDTO(transactionToDeactivate), HttpStatus.OK, request);
         } else {
@@ -1,14 +1,19 @@
 package com.project.demo.rest.user;
 
+import com.project.demo.logic.entity.auth.AuthenticatedUserCache;
 import com.project.demo.logic.entity.user.User;
 import com.project.demo.logic.entity.user.UserRepository;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.http.GlobalResponseHandler;
 import com.project.demo.logic.entity.http.Meta;
+import com.project.demo.logic.entity.http.PageCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,8 +38,16 @@ public class UserRestController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Autowired
+    private FarmAccessService farmAccessService;
+
     /**
-     * Obtiene una lista paginada de todos los usuarios.
+     * Obtiene una lista paginada de todos los usuarios, en orden de ID.
+     * Si se envía {@code cursor} (vacío para la primera página) se pagina por llave usando el {@code nextCursor}
+     * de la respuesta anterior, sin OFFSET; en ese modo el total solo se calcula si se pide con {@code includeTotal}.
      * Solo accesible para SUPER_ADMIN.
      * @return Una respuesta con la lista de usuarios y metadatos de paginación.
      */
@@ -43,14 +56,38 @@ public class UserRestController {
     public ResponseEntity<?> getAllUsers(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean includeTotal,
             HttpServletRequest request) {
 
-        Pageable pageable = PageRequest.of(page - 1, size);
-        Page<User> usersPage = userRepository.findAll(pageable);
-
         Meta meta = new Meta(request.getMethod(), request.getRequestURL().toString());
-        meta.setTotalPages(usersPage.getTotalPages());
-        meta.setTotalElements(usersPage.getTotalElements());
+
+        if (cursor != null) {
+            PageCursor.Result<User> result;
+            try {
+                result = userRepository.seekAll(PageCursor.decode(cursor), size);
+            } catch (IllegalArgumentException e) {
+                return new GlobalResponseHandler().handleResponse(e.getMessage(), HttpStatus.BAD_REQUEST, request);
+            }
+            meta.setPageSize(size);
+            meta.setNextCursor(result.nextCursor());
+            if (Boolean.TRUE.equals(includeTotal)) {
+                meta.setTotalElements(userRepository.count());
+            }
+            return new GlobalResponseHandler().handleResponse("Users retrieved successfully",
+                    result.content(), HttpStatus.OK, meta);
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, size, Sort.by("id"));
+        Slice<User> usersPage;
+        if (Boolean.FALSE.equals(includeTotal)) {
+            usersPage = userRepository.findAllBy(pageable);
+        } else {
+            Page<User> counted = userRepository.findAll(pageable);
+            meta.setTotalPages(counted.getTotalPages());
+            meta.setTotalElements(counted.getTotalElements());
+            usersPage = counted;
+        }
         meta.setPageNumber(usersPage.getNumber() + 1);
         meta.setPageSize(usersPage.getSize());
 
@@ -71,6 +108,7 @@ public class UserRestController {
     public ResponseEntity<?> addUser(@RequestBody User user, HttpServletRequest request) {
         user.setUserPassword(passwordEncoder.encode(user.getUserPassword()));
         userRepository.save(user);
+        authenticatedUserCache.evictUser(user.getUserEmail());
         return new GlobalResponseHandler().handleResponse("User updated successfully",
                 user, HttpStatus.OK, request);
     }
@@ -99,7 +137,14 @@ public class UserRestController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updateAuthenticatedUser(@RequestBody User userDetails, HttpServletRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User existingUser = (User) authentication.getPrincipal();
+        User principal = (User) authentication.getPrincipal();
+        // El principal puede venir del caché de autenticación y estar desactualizado,
+        // así que se modifica una copia recién leída de la base de datos.
+        User existingUser = userRepository.findById(principal.getId()).orElse(null);
+        if (existingUser == null) {
+            return new GlobalResponseHandler().handleResponse("Usuario no encontrado", HttpStatus.NOT_FOUND, request);
+        }
+        String previousEmail = existingUser.getUserEmail();
         String newBusinessId = userDetails.getBusinessId();
         if (newBusinessId != null && !newBusinessId.equals(existingUser.getBusinessId())) {
             Optional<User> foundBusinessId = userRepository.findByBusinessId(newBusinessId);
@@ -144,6 +189,7 @@ public class UserRestController {
             existingUser.setUserPassword(passwordEncoder.encode(userDetails.getUserPassword()));
         }
         User updatedUser = userRepository.save(existingUser);
+        authenticatedUserCache.evictUser(previousEmail);
         return new GlobalResponseHandler().handleResponse("Perfil actualizado correctamente", updatedUser, HttpStatus.OK, request);
     }
 
@@ -162,6 +208,8 @@ public class UserRestController {
         Optional<User> foundOrder = userRepository.findById(userId);
         if(foundOrder.isPresent()) {
             userRepository.deleteById(userId);
+            authenticatedUserCache.evictUser(foundOrder.get().getUserEmail());
+            farmAccessService.evictUser(userId);
             return new GlobalResponseHandler().handleResponse("User deleted successfully",
                     foundOrder.get(), HttpStatus.OK, request);
         } else {
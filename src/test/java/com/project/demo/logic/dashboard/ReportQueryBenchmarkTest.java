@@ -0,0 +1,274 @@
+package com.project.demo.logic.dashboard;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compara el plan y la latencia de las consultas de reportes anteriores (filtros {@code :x IS NULL OR ...},
+ * BETWEEN y agrupación por DATE_FORMAT) contra las que arma {@link ReportQueryBuilder}.
+ * Es una medición, no una prueba: solo se ejecuta con REPORT_BENCHMARK=true y escribe los resultados en la salida.
+ * <pre>REPORT_BENCHMARK=true ./gradlew test --tests '*ReportQueryBenchmarkTest' -i</pre>
+ */
+@EnabledIfEnvironmentVariable(named = "REPORT_BENCHMARK", matches = "true")
+public class ReportQueryBenchmarkTest {
+
+    private static final int USERS = 50;
+    private static final int FARMS_PER_USER = 4;
+    private static final int CROPS = 20;
+    private static final int TRANSACTIONS = 300_000;
+    private static final int MANAGEMENT_RECORDS = 100_000;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 100;
+
+    private static final Pattern PARAM = Pattern.compile(":(\\w+)");
+
+    private static final String LEGACY_INCOME_VS_EXPENSES = "SELECT " +
+            "    DATE_FORMAT(t.transaction_date, '%Y-%m') AS month, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.total_value ELSE 0 END), 0.0) AS totalIncome, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses " +
+            "FROM transactions t " +
+            "WHERE t.user_id = :userId " +
+            "  AND (:farmId IS NULL OR t.farm_id = :farmId) " +
+            "  AND t.transaction_date BETWEEN :startDate AND :endDate " +
+            "GROUP BY month " +
+            "ORDER BY month ASC";
+
+    private static final String LEGACY_CROP_YIELD = "SELECT " +
+            "    c.crop_name AS cropName, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.quantity ELSE 0 END), 0.0) AS totalQuantitySold, " +
+            "    t.measure_unit AS measureUnit, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type = 'VENTA' THEN t.total_value ELSE 0 END), 0.0) AS totalIncome, " +
+            "    COALESCE(SUM(CASE WHEN t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') THEN t.total_value ELSE 0 END), 0.0) AS totalExpenses " +
+            "FROM transactions t " +
+            "JOIN crops c ON t.crop_id = c.id " +
+            "WHERE t.user_id = :userId " +
+            "  AND (:farmId IS NULL OR t.farm_id = :farmId) " +
+            "  AND (:cropId IS NULL OR t.crop_id = :cropId) " +
+            "  AND t.transaction_date BETWEEN :startDate AND :endDate " +
+            "GROUP BY c.crop_name, t.measure_unit " +
+            "ORDER BY c.crop_name ASC";
+
+    private static final String LEGACY_OPERATIONAL_COST = "SELECT month, SUM(cost) AS totalCost FROM (" +
+            "    SELECT DATE_FORMAT(t.transaction_date, '%Y-%m') AS month, t.total_value AS cost " +
+            "    FROM transactions t " +
+            "    WHERE t.user_id = :userId " +
+            "      AND t.transaction_type IN ('COMPRA', 'GASTO_INSUMO') " +
+            "      AND t.transaction_date BETWEEN :startDate AND :endDate " +
+            "      AND (:farmId IS NULL OR t.farm_id = :farmId) " +
+            "    UNION ALL " +
+            "    SELECT DATE_FORMAT(cm.action_date, '%Y-%m') AS month, cm.value_spent AS cost " +
+            "    FROM crops_management cm " +
+            "    JOIN user_x_farm uxf ON cm.id_farm = uxf.farm_id " +
+            "    WHERE uxf.user_id = :userId " +
+            "      AND cm.value_spent IS NOT NULL AND cm.value_spent > 0 " +
+            "      AND cm.action_date BETWEEN :startDate AND :endDate " +
+            "      AND (:farmId IS NULL OR cm.id_farm = :farmId) " +
+            ") AS all_costs " +
+            "GROUP BY month " +
+            "ORDER BY month ASC";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void loadData() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:report_benchmark" + ReportTestSchema.URL_OPTIONS, "sa", "");
+        ReportTestSchema.create(connection);
+        Random random = new Random(42);
+        LocalDateTime origin = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        try (PreparedStatement crop = connection.prepareStatement("INSERT INTO crops (id, crop_name) VALUES (?, ?)")) {
+            for (int i = 1; i <= CROPS; i++) {
+                crop.setLong(1, i);
+                crop.setString(2, "Cultivo " + i);
+                crop.addBatch();
+            }
+            crop.executeBatch();
+        }
+        try (PreparedStatement link = connection.prepareStatement("INSERT INTO user_x_farm (farm_id, user_id) VALUES (?, ?)")) {
+            for (int user = 1; user <= USERS; user++) {
+                for (int f = 0; f < FARMS_PER_USER; f++) {
+                    link.setLong(1, farmOf(user, f));
+                    link.setLong(2, user);
+                    link.addBatch();
+                }
+            }
+            link.executeBatch();
+        }
+        try (PreparedStatement tx = connection.prepareStatement("INSERT INTO transactions (id, user_id, farm_id, crop_id, " +
+                "transaction_type, quantity, measure_unit, price_per_unit, total_value, transaction_date, is_active, month_key) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 'KILOGRAMO', 1.0, ?, ?, TRUE, ?)")) {
+            for (int i = 1; i <= TRANSACTIONS; i++) {
+                int user = 1 + random.nextInt(USERS);
+                LocalDateTime date = origin.plusMinutes(random.nextInt(5 * 365 * 24 * 60));
+                double quantity = 1 + random.nextInt(100);
+                tx.setLong(1, i);
+                tx.setLong(2, user);
+                tx.setLong(3, farmOf(user, random.nextInt(FARMS_PER_USER)));
+                tx.setLong(4, 1 + random.nextInt(CROPS));
+                tx.setString(5, random.nextBoolean() ? "VENTA" : "COMPRA");
+                tx.setDouble(6, quantity);
+                tx.setDouble(7, quantity * 10);
+                tx.setTimestamp(8, Timestamp.valueOf(date));
+                tx.setString(9, date.toString().substring(0, 7));
+                tx.addBatch();
+                if (i % 5_000 == 0) {
+                    tx.executeBatch();
+                }
+            }
+            tx.executeBatch();
+        }
+        try (PreparedStatement cm = connection.prepareStatement("INSERT INTO crops_management (id, id_crop, id_farm_plot, " +
+                "id_farm, value_spent, action_date, month_key) VALUES (?, ?, 1, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= MANAGEMENT_RECORDS; i++) {
+                int user = 1 + random.nextInt(USERS);
+                LocalDateTime date = origin.plusMinutes(random.nextInt(5 * 365 * 24 * 60));
+                cm.setLong(1, i);
+                cm.setLong(2, 1 + random.nextInt(CROPS));
+                cm.setLong(3, farmOf(user, random.nextInt(FARMS_PER_USER)));
+                cm.setDouble(4, random.nextInt(500));
+                cm.setTimestamp(5, Timestamp.valueOf(date));
+                cm.setString(6, date.toString().substring(0, 7));
+                cm.addBatch();
+                if (i % 5_000 == 0) {
+                    cm.executeBatch();
+                }
+            }
+            cm.executeBatch();
+        }
+        try (PreparedStatement analyze = connection.prepareStatement("ANALYZE")) {
+            analyze.execute();
+        }
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void compareLegacyAndBuiltReportQueries() throws SQLException {
+        LocalDateTime start = LocalDateTime.of(2022, 3, 10, 0, 0);
+        LocalDateTime endExclusive = LocalDateTime.of(2023, 9, 21, 0, 0);
+        Long userId = 7L;
+
+        for (Long farmId : Arrays.asList(null, farmOf(7, 2))) {
+            Map<String, Object> legacyParams = new HashMap<>();
+            legacyParams.put("userId", userId);
+            legacyParams.put("farmId", farmId);
+            legacyParams.put("cropId", null);
+            legacyParams.put("startDate", start);
+            legacyParams.put("endDate", endExclusive.minusNanos(1));
+            String scope = farmId == null ? "all farms" : "farm " + farmId;
+
+            compare("income vs expenses, " + scope,
+                    List.of(new Sql(LEGACY_INCOME_VS_EXPENSES, legacyParams)),
+                    List.of(Sql.of(ReportQueryRepository.incomeVsExpensesByMonthQuery(userId, start, endExclusive, farmId))));
+            compare("crop yield, " + scope,
+                    List.of(new Sql(LEGACY_CROP_YIELD, legacyParams)),
+                    List.of(Sql.of(ReportQueryRepository.cropYieldQuery(userId, start, endExclusive, farmId, null))));
+            compare("operational cost, " + scope,
+                    List.of(new Sql(LEGACY_OPERATIONAL_COST, legacyParams)),
+                    List.of(Sql.of(ReportQueryRepository.expensesByMonthQuery(userId, start, endExclusive, farmId)),
+                            Sql.of(ReportQueryRepository.cropManagementCostByMonthQuery(userId, start, endExclusive, farmId))));
+        }
+    }
+
+    private void compare(String label, List<Sql> legacy, List<Sql> built) throws SQLException {
+        double legacyMs = medianMillis(legacy);
+        double builtMs = medianMillis(built);
+        System.out.printf("%n=== %s ===%nlegacy: %.3f ms (median of %d)%nbuilt:  %.3f ms (median of %d)%n",
+                label, legacyMs, RUNS, builtMs, RUNS);
+        for (Sql sql : legacy) {
+            System.out.println("-- legacy plan\n" + explain(sql));
+        }
+        for (Sql sql : built) {
+            System.out.println("-- built plan\n" + explain(sql));
+        }
+    }
+
+    private double medianMillis(List<Sql> queries) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            for (Sql sql : queries) {
+                run(sql, "");
+            }
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            for (Sql sql : queries) {
+                run(sql, "");
+            }
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2] / 1_000_000.0;
+    }
+
+    private String explain(Sql sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = prepare(sql, "EXPLAIN "); ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private void run(Sql sql, String prefix) throws SQLException {
+        try (PreparedStatement statement = prepare(sql, prefix); ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                rs.getObject(1);
+            }
+        }
+    }
+
+    /**
+     * Convierte los parámetros con nombre en parámetros posicionales, como hace Hibernate al enviar la consulta.
+     */
+    private PreparedStatement prepare(Sql sql, String prefix) throws SQLException {
+        Matcher matcher = PARAM.matcher(sql.text());
+        List<Object> values = new ArrayList<>();
+        StringBuilder positional = new StringBuilder(prefix);
+        while (matcher.find()) {
+            Object value = sql.parameters().get(matcher.group(1));
+            values.add(value instanceof LocalDateTime date ? Timestamp.valueOf(date) : value);
+            matcher.appendReplacement(positional, "?");
+        }
+        matcher.appendTail(positional);
+        PreparedStatement statement = connection.prepareStatement(positional.toString());
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i));
+        }
+        return statement;
+    }
+
+    private static long farmOf(int user, int index) {
+        return (long) user * FARMS_PER_USER + index;
+    }
+
+    private record Sql(String text, Map<String, Object> parameters) {
+        static Sql of(ReportQueryBuilder builder) {
+            return new Sql(builder.toSql(), builder.parameters());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.project.demo.logic.dashboard;
+
+import com.project.demo.logic.entity.cropsmanagement.CropsManagementRepository;
+import com.project.demo.logic.entity.transaction.TransactionMonthlyRollupRepository;
+import com.project.demo.logic.entity.transaction.TransactionRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Ejecuta EXPLAIN sobre cada consulta de reportes (en H2, modo MySQL) con los índices de las migraciones
+ * aplicados, y falla si alguna recorre completa una de las tablas grandes.
+ */
+public class ReportQueryIndexTest {
+
+    private static final Pattern PARAM = Pattern.compile(":(\\w+)");
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "(TRANSACTIONS|CROPS_MANAGEMENT|USER_X_FARM|TRANSACTION_MONTHLY_ROLLUPS)\\.tableScan");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void createSchema() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:report_explain" + ReportTestSchema.URL_OPTIONS, "sa", "");
+        ReportTestSchema.create(connection);
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        connection.close();
+    }
+
+    @TestFactory
+    List<DynamicTest> reportQueriesDoNotScanFullTables() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Class<?> repository : List.of(TransactionRepository.class, CropsManagementRepository.class,
+                TransactionMonthlyRollupRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null || !query.nativeQuery()
+                        || !query.value().trim().toUpperCase(Locale.ROOT).startsWith("SELECT")) {
+                    continue;
+                }
+                String name = repository.getSimpleName() + "." + method.getName();
+                tests.add(DynamicTest.dynamicTest(name + " (all farms)", () -> assertNoFullScan(name, query.value(), "NULL")));
+                tests.add(DynamicTest.dynamicTest(name + " (one farm)", () -> assertNoFullScan(name, query.value(), "1")));
+            }
+        }
+        return tests;
+    }
+
+    @TestFactory
+    List<DynamicTest> builtReportQueriesDoNotScanFullTables() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 15, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 6, 15, 0, 0);
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Long farmId : Arrays.asList(null, 1L)) {
+            String suffix = farmId == null ? " (all farms)" : " (one farm)";
+            Map<String, ReportQueryBuilder> queries = Map.of(
+                    "incomeVsExpensesByMonth", ReportQueryRepository.incomeVsExpensesByMonthQuery(1L, start, end, farmId),
+                    "expensesByMonth", ReportQueryRepository.expensesByMonthQuery(1L, start, end, farmId),
+                    "cropManagementCostByMonth", ReportQueryRepository.cropManagementCostByMonthQuery(1L, start, end, farmId),
+                    "cropYield", ReportQueryRepository.cropYieldQuery(1L, start, end, farmId, farmId),
+                    "cropCost", ReportQueryRepository.cropCostQuery(1L, start, end, farmId));
+            queries.forEach((name, query) -> tests.add(DynamicTest.dynamicTest(name + suffix,
+                    () -> assertNoFullScan(name, toLiteralSql(query)))));
+        }
+        return tests;
+    }
+
+    private static void assertNoFullScan(String name, String sql, String farmId) throws SQLException {
+        assertNoFullScan(name, bind(sql, farmId));
+    }
+
+    /**
+     * Sustituye los parámetros de una consulta armada por literales, para poder ejecutar EXPLAIN sobre ella.
+     */
+    static String toLiteralSql(ReportQueryBuilder query) {
+        String sql = query.toSql();
+        for (Map.Entry<String, Object> parameter : query.parameters().entrySet()) {
+            Object value = parameter.getValue();
+            String literal = value instanceof LocalDateTime date
+                    ? "TIMESTAMP '" + Timestamp.valueOf(date) + "'"
+                    : String.valueOf(value);
+            sql = sql.replaceAll(":" + parameter.getKey() + "\\b", Matcher.quoteReplacement(literal));
+        }
+        return sql;
+    }
+
+    private static void assertNoFullScan(String name, String sql) throws SQLException {
+        String plan = explain(sql);
+        assertFalse(FULL_SCAN.matcher(plan).find(), name + " performs a full table scan:\n" + plan);
+    }
+
+    private static String bind(String sql, String farmId) {
+        Map<String, String> values = Map.of(
+                "userId", "1",
+                "farmId", farmId,
+                "cropId", "NULL",
+                "startDate", "TIMESTAMP '2024-01-15 00:00:00'",
+                "endDate", "TIMESTAMP '2024-06-15 00:00:00'",
+                "monthStart", "TIMESTAMP '2024-06-01 00:00:00'",
+                "monthEnd", "TIMESTAMP '2024-07-01 00:00:00'",
+                "fromMonth", "'2024-02'",
+                "toMonth", "'2024-05'");
+        Matcher matcher = PARAM.matcher(sql);
+        StringBuilder bound = new StringBuilder();
+        while (matcher.find()) {
+            String value = values.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalArgumentException("No test value for parameter :" + matcher.group(1));
+            }
+            matcher.appendReplacement(bound, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(bound);
+        return bound.toString();
+    }
+
+    private static String explain(String sql) throws SQLException {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.demo.logic.dashboard;
+
+import com.project.demo.logic.entity.schema.IndexDefinition;
+import com.project.demo.logic.entity.schema.SchemaMigration;
+import com.project.demo.logic.entity.schema.SchemaMigrations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Esquema mínimo de las tablas que usan los reportes, para pruebas con H2 en modo MySQL.
+ * Incluye los índices de {@link SchemaMigrations}, así que también crea las tablas que esas migraciones indexan.
+ */
+final class ReportTestSchema {
+
+    static final String URL_OPTIONS = ";MODE=MySQL;NON_KEYWORDS=MONTH";
+
+    private ReportTestSchema() {}
+
+    static void create(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE ALIAS DATE_FORMAT FOR '" + ReportTestSchema.class.getName() + ".dateFormat'");
+            st.execute("CREATE TABLE farms (id BIGINT PRIMARY KEY, farm_name VARCHAR(255), farm_country VARCHAR(100), " +
+                    "farm_state_province VARCHAR(100), farm_size DOUBLE)");
+            st.execute("CREATE TABLE crops (id BIGINT PRIMARY KEY, crop_name VARCHAR(255))");
+            st.execute("CREATE TABLE farm_plots (id BIGINT PRIMARY KEY, plot_name VARCHAR(255))");
+            st.execute("CREATE TABLE user_x_farm (farm_id BIGINT, user_id BIGINT, PRIMARY KEY (farm_id, user_id))");
+            st.execute("CREATE TABLE transactions (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, farm_id BIGINT NOT NULL, " +
+                    "crop_id BIGINT NOT NULL, transaction_type VARCHAR(50), quantity DOUBLE, measure_unit VARCHAR(50), " +
+                    "price_per_unit DOUBLE, total_value DOUBLE, transaction_date TIMESTAMP, is_active BOOLEAN, month_key CHAR(7))");
+            st.execute("CREATE TABLE crops_management (id BIGINT PRIMARY KEY, id_crop BIGINT, id_farm_plot BIGINT, " +
+                    "id_farm BIGINT NOT NULL, value_spent DOUBLE, action_date TIMESTAMP NOT NULL, month_key CHAR(7))");
+            st.execute("CREATE TABLE transaction_monthly_rollups (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                    "farm_id BIGINT NOT NULL, crop_id BIGINT NOT NULL, month_key CHAR(7) NOT NULL, total_income DOUBLE, " +
+                    "total_expenses DOUBLE, quantity_sold DOUBLE, transaction_count BIGINT, updated_at TIMESTAMP, " +
+                    "CONSTRAINT uk_rollup_user_farm_month_crop UNIQUE (user_id, farm_id, month_key, crop_id))");
+            st.execute("CREATE TABLE corporation_market_prices (id BIGINT PRIMARY KEY, crop_id BIGINT NOT NULL, " +
+                    "user_id BIGINT NOT NULL, price DOUBLE NOT NULL, measure_unit VARCHAR(50), updated_at TIMESTAMP)");
+            for (SchemaMigration migration : SchemaMigrations.ALL) {
+                for (IndexDefinition index : migration.indexes()) {
+                    st.execute(index.toDdl());
+                }
+            }
+        }
+    }
+
+    /**
+     * Sustituto de DATE_FORMAT de MySQL para H2; solo se usa con el formato '%Y-%m'.
+     */
+    public static String dateFormat(Timestamp value, String pattern) {
+        return value == null ? null : value.toLocalDateTime().toString().substring(0, 7);
+    }
+}
@@ -0,0 +1,202 @@
+package com.project.demo.logic.dashboard;
+
+import com.project.demo.logic.entity.crop.Crop;
+import com.project.demo.logic.entity.farm.Farm;
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionEnum;
+import com.project.demo.logic.entity.transaction.TransactionMonthlyRollup;
+import com.project.demo.logic.entity.transaction.TransactionMonthlyRollupRepository;
+import com.project.demo.logic.entity.transaction.TransactionRepository;
+import com.project.demo.logic.entity.user.User;
+import com.project.demo.rest.dashboard.DTO.RollupConsistencyReportDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba {@link TransactionRollupService} con repositorios simulados en memoria: el acumulado se mantiene
+ * con los deltas del servicio y se compara contra la agregación que haría la consulta de verificación.
+ */
+public class TransactionRollupServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final Map<String, TransactionMonthlyRollup> rollups = new LinkedHashMap<>();
+    private final List<Transaction> transactions = new ArrayList<>();
+
+    private TransactionRollupService service;
+    private User user;
+    private Farm farm;
+    private Crop crop;
+
+    @BeforeEach
+    void setUp() {
+        TransactionMonthlyRollupRepository rollupRepository = Mockito.mock(TransactionMonthlyRollupRepository.class);
+        TransactionRepository transactionRepository = Mockito.mock(TransactionRepository.class);
+
+        Mockito.when(rollupRepository.upsertDelta(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            TransactionMonthlyRollup row = rollups.computeIfAbsent(key(invocation.getArgument(0),
+                    invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)), k -> {
+                TransactionMonthlyRollup created = new TransactionMonthlyRollup();
+                created.setUserId(invocation.getArgument(0));
+                created.setFarmId(invocation.getArgument(1));
+                created.setCropId(invocation.getArgument(2));
+                created.setMonthKey(invocation.getArgument(3));
+                created.setTotalIncome(0.0);
+                created.setTotalExpenses(0.0);
+                created.setQuantitySold(0.0);
+                created.setTransactionCount(0L);
+                return created;
+            });
+            row.setTotalIncome(row.getTotalIncome() + (Double) invocation.getArgument(4));
+            row.setTotalExpenses(row.getTotalExpenses() + (Double) invocation.getArgument(5));
+            row.setQuantitySold(row.getQuantitySold() + (Double) invocation.getArgument(6));
+            row.setTransactionCount(row.getTransactionCount() + (Long) invocation.getArgument(7));
+            return 1;
+        });
+        Mockito.when(rollupRepository.deleteIfEmpty(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    String key = key(invocation.getArgument(0), invocation.getArgument(1),
+                            invocation.getArgument(2), invocation.getArgument(3));
+                    TransactionMonthlyRollup row = rollups.get(key);
+                    if (row != null && row.getTransactionCount() <= 0) {
+                        rollups.remove(key);
+                        return 1;
+                    }
+                    return 0;
+                });
+        Mockito.when(rollupRepository.findByUserId(USER_ID))
+                .thenAnswer(invocation -> new ArrayList<>(rollups.values()));
+        Mockito.when(transactionRepository.aggregateRollupRowsByUserId(USER_ID))
+                .thenAnswer(invocation -> aggregate());
+
+        service = new TransactionRollupService();
+        ReflectionTestUtils.setField(service, "rollupRepository", rollupRepository);
+        ReflectionTestUtils.setField(service, "transactionRepository", transactionRepository);
+
+        user = new User();
+        user.setId(USER_ID);
+        farm = new Farm();
+        farm.setId(3L);
+        crop = new Crop();
+        crop.setId(5L);
+    }
+
+    private static String key(Long userId, Long farmId, Long cropId, String monthKey) {
+        return userId + ":" + farmId + ":" + cropId + ":" + monthKey;
+    }
+
+    /**
+     * Misma semántica que la consulta nativa de verificación: solo transacciones activas con fecha,
+     * ingresos y cantidad de VENTA, egresos de COMPRA y GASTO_INSUMO, y COUNT(*) por grupo.
+     */
+    private List<IRollupRow> aggregate() {
+        Map<String, double[]> totals = new LinkedHashMap<>();
+        Map<String, Transaction> firstByKey = new LinkedHashMap<>();
+        for (Transaction t : transactions) {
+            if (!Boolean.TRUE.equals(t.getIsActive()) || t.getTransactionDate() == null) {
+                continue;
+            }
+            String monthKey = TransactionMonthlyRollup.monthKeyOf(t.getTransactionDate());
+            String key = key(t.getUser().getId(), t.getFarm().getId(), t.getCrop().getId(), monthKey);
+            double[] row = totals.computeIfAbsent(key, k -> new double[4]);
+            firstByKey.putIfAbsent(key, t);
+            String type = t.getTransactionType() != null ? t.getTransactionType().name() : null;
+            if ("VENTA".equals(type)) {
+                row[0] += t.getTotalValue();
+                row[2] += t.getQuantity();
+            } else if ("COMPRA".equals(type) || "GASTO_INSUMO".equals(type)) {
+                row[1] += t.getTotalValue();
+            }
+            row[3]++;
+        }
+
+        List<IRollupRow> rows = new ArrayList<>();
+        totals.forEach((key, row) -> {
+            Transaction t = firstByKey.get(key);
+            IRollupRow projection = Mockito.mock(IRollupRow.class);
+            Mockito.when(projection.getUserId()).thenReturn(t.getUser().getId());
+            Mockito.when(projection.getFarmId()).thenReturn(t.getFarm().getId());
+            Mockito.when(projection.getCropId()).thenReturn(t.getCrop().getId());
+            Mockito.when(projection.getMonthKey()).thenReturn(TransactionMonthlyRollup.monthKeyOf(t.getTransactionDate()));
+            Mockito.when(projection.getTotalIncome()).thenReturn(row[0]);
+            Mockito.when(projection.getTotalExpenses()).thenReturn(row[1]);
+            Mockito.when(projection.getQuantitySold()).thenReturn(row[2]);
+            Mockito.when(projection.getTransactionCount()).thenReturn((long) row[3]);
+            rows.add(projection);
+        });
+        return rows;
+    }
+
+    private Transaction insert(TransactionEnum type, double totalValue, double quantity, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setFarm(farm);
+        transaction.setCrop(crop);
+        transaction.setTransactionType(type);
+        transaction.setTotalValue(totalValue);
+        transaction.setQuantity(quantity);
+        transaction.setTransactionDate(date);
+        transaction.setIsActive(true);
+        transactions.add(transaction);
+        service.recordChange(null, service.snapshot(transaction));
+        return transaction;
+    }
+
+    @Test
+    void testRollupStaysConsistentAcrossInsertEditAndDeactivate() {
+        LocalDateTime january = LocalDateTime.of(2024, 1, 15, 10, 0);
+        LocalDateTime february = LocalDateTime.of(2024, 2, 10, 10, 0);
+
+        Transaction sale = insert(TransactionEnum.VENTA, 100.0, 10.0, january);
+        Transaction purchase = insert(TransactionEnum.COMPRA, 40.0, 2.0, january);
+        Transaction untyped = insert(null, 25.0, 1.0, january);
+        assertTrue(service.checkConsistency(USER_ID).isConsistent());
+
+        // Edición: cambia el valor y el mes de la venta
+        TransactionRollupService.RollupDelta before = service.snapshot(sale);
+        sale.setTotalValue(150.0);
+        sale.setTransactionDate(february);
+        service.recordChange(before, service.snapshot(sale));
+
+        // Edición: la compra pasa a ser venta
+        before = service.snapshot(purchase);
+        purchase.setTransactionType(TransactionEnum.VENTA);
+        service.recordChange(before, service.snapshot(purchase));
+
+        // Desactivación
+        before = service.snapshot(untyped);
+        untyped.setIsActive(false);
+        service.recordChange(before, service.snapshot(untyped));
+
+        RollupConsistencyReportDTO report = service.checkConsistency(USER_ID);
+        assertEquals(0, report.getMismatchCount(), () -> report.getMismatches().toString());
+        assertEquals(2, report.getCheckedRows());
+
+        TransactionMonthlyRollup januaryRow = rollups.get(key(USER_ID, 3L, 5L, "2024-01"));
+        assertEquals(40.0, januaryRow.getTotalIncome(), 0.001);
+        assertEquals(0.0, januaryRow.getTotalExpenses(), 0.001);
+        assertEquals(1L, januaryRow.getTransactionCount());
+        assertEquals(150.0, rollups.get(key(USER_ID, 3L, 5L, "2024-02")).getTotalIncome(), 0.001);
+    }
+
+    @Test
+    void testTransactionWithoutTypeIsNotCountedAsExpense() {
+        Transaction untyped = insert(null, 25.0, 1.0, LocalDateTime.of(2024, 3, 1, 8, 0));
+
+        TransactionRollupService.RollupDelta delta = service.snapshot(untyped);
+        assertEquals(0.0, delta.income(), 0.001);
+        assertEquals(0.0, delta.expenses(), 0.001);
+        assertTrue(service.checkConsistency(USER_ID).isConsistent());
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.demo.logic.datagen;
+
+import com.project.demo.logic.entity.transaction.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba la reserva de ids de transacciones de {@link SyntheticDataSeeder} contra H2 en modo MySQL.
+ */
+public class SyntheticDataSeederTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SyntheticDataSeeder seeder;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:datagen_ids;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE id_generators (generator_name VARCHAR(255) PRIMARY KEY, next_val BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT PRIMARY KEY)");
+        seeder = new SyntheticDataSeeder(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                null, null, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private long nextVal() {
+        return jdbcTemplate.queryForObject(
+                "SELECT next_val FROM id_generators WHERE generator_name = 'transactions'", Long.class);
+    }
+
+    /**
+     * El generador "pooled" de Hibernate entrega los ids (next_val - asignación, next_val], así que el siguiente
+     * bloque no debe empezar dentro del rango reservado.
+     */
+    private void assertHibernateStartsAfter(long lastReservedId) {
+        assertTrue(nextVal() - Transaction.ID_ALLOCATION_SIZE + 1 > lastReservedId);
+    }
+
+    @Test
+    void testReservationStartsAfterTheHighestExistingId() {
+        jdbcTemplate.update("INSERT INTO transactions (id) VALUES (7), (120)");
+
+        long first = seeder.reserveTransactionIds(1000);
+
+        assertEquals(121, first);
+        assertHibernateStartsAfter(first + 1000 - 1);
+    }
+
+    @Test
+    void testReservationStartsAfterIdsAlreadyHandedOutByTheGenerator() {
+        jdbcTemplate.update("INSERT INTO transactions (id) VALUES (120)");
+        jdbcTemplate.update("INSERT INTO id_generators (generator_name, next_val) VALUES ('transactions', 5000)");
+
+        long first = seeder.reserveTransactionIds(10);
+
+        assertEquals(5001, first);
+        assertHibernateStartsAfter(first + 10 - 1);
+
+        long second = seeder.reserveTransactionIds(10);
+        assertTrue(second > first + 10 - 1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.demo.logic.entity.auth;
+
+import com.project.demo.logic.entity.role.Role;
+import com.project.demo.logic.entity.role.RoleEnum;
+import com.project.demo.logic.entity.user.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba que {@link AuthenticatedUserCache} entregue una copia propia del usuario en cada acierto.
+ */
+public class AuthenticatedUserCacheTest {
+
+    private static User user() {
+        Role role = new Role();
+        role.setId(1L);
+        role.setRoleName(RoleEnum.USER);
+        User user = new User();
+        user.setId(10L);
+        user.setUserEmail("ana@example.com");
+        user.setName("Ana");
+        user.setRole(role);
+        user.setIsActive(true);
+        return user;
+    }
+
+    @Test
+    void testEachHitReturnsAFreshCopyOfTheUser() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(100, 300);
+        User original = user();
+        cache.put("token", Mockito.mock(Claims.class), original);
+
+        User first = (User) cache.get("token");
+        assertNotSame(original, first);
+        assertEquals(10L, first.getId());
+        assertEquals("ana@example.com", first.getUsername());
+        assertEquals("ROLE_USER", first.getAuthorities().iterator().next().getAuthority());
+
+        first.setName("Modificado");
+        original.setName("Modificado");
+        User second = (User) cache.get("token");
+        assertNotSame(first, second);
+        assertEquals("Ana", second.getName());
+    }
+
+    @Test
+    void testEvictUserDropsItsTokens() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(100, 300);
+        cache.put("token", Mockito.mock(Claims.class), user());
+
+        cache.evictUser("ANA@example.com");
+
+        assertNull(cache.get("token"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.project.demo.logic.entity.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba {@link VerificationCodeService} con el almacenamiento en memoria y un reloj controlado.
+ */
+public class VerificationCodeServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+    private static final byte[] HMAC_KEY = "test-verification-secret".getBytes(StandardCharsets.UTF_8);
+
+    private InMemoryVerificationCodeStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryVerificationCodeStore(100, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private VerificationCodeService service(Instant now) {
+        return new VerificationCodeService(store, Duration.ofMinutes(60), 3, 60, Clock.fixed(now, ZoneOffset.UTC), HMAC_KEY);
+    }
+
+    @Test
+    void testValidCodeIsAcceptedOnce() {
+        VerificationCodeService service = service(NOW);
+        String code = service.generateCode("ana@example.com");
+
+        assertEquals(6, code.length());
+        assertTrue(service.verifyCode("Ana@Example.com", code));
+        assertFalse(service.verifyCode("ana@example.com", code));
+    }
+
+    @Test
+    void testCodeIsInvalidatedAfterMaxFailedAttempts() {
+        VerificationCodeService service = service(NOW);
+        String code = service.generateCode("ana@example.com");
+        String wrong = code.equals("000000") ? "111111" : "000000";
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(service.verifyCode("ana@example.com", wrong));
+        }
+
+        assertFalse(service.verifyCode("ana@example.com", code));
+        assertTrue(store.get("ana@example.com").isEmpty());
+    }
+
+    @Test
+    void testExpiredCodeIsRejected() {
+        String code = service(NOW.minus(Duration.ofMinutes(61))).generateCode("ana@example.com");
+
+        assertFalse(service(NOW).verifyCode("ana@example.com", code));
+    }
+
+    @Test
+    void testNewCodeReplacesPreviousOne() {
+        VerificationCodeService service = service(NOW);
+        String first = service.generateCode("ana@example.com");
+        String second = service.generateCode("ana@example.com");
+
+        if (!first.equals(second)) {
+            assertFalse(service.verifyCode("ana@example.com", first));
+        }
+        assertTrue(service.verifyCode("ana@example.com", second));
+    }
+
+    @Test
+    void testConcurrentVerificationsRespectLimitAndSingleUse() throws Exception {
+        VerificationCodeService service = service(NOW);
+        String code = service.generateCode("ana@example.com");
+        String wrong = code.equals("000000") ? "111111" : "000000";
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            attempts.add(() -> service.verifyCode("ana@example.com", wrong));
+        }
+        for (int i = 0; i < 5; i++) {
+            attempts.add(() -> service.verifyCode("ana@example.com", code));
+        }
+        int accepted = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                accepted += result.get() ? 1 : 0;
+            }
+        }
+
+        assertTrue(accepted <= 1);
+        assertTrue(store.get("ana@example.com").isEmpty());
+    }
+
+    @Test
+    void testCodeIsHashedWithServerKey() {
+        String code = service(NOW).generateCode("ana@example.com");
+        VerificationCodeService otherKey = new VerificationCodeService(store, Duration.ofMinutes(60), 3, 60,
+                Clock.fixed(NOW, ZoneOffset.UTC), "another-secret".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(otherKey.verifyCode("ana@example.com", code));
+        assertTrue(service(NOW).verifyCode("ana@example.com", code));
+    }
+}
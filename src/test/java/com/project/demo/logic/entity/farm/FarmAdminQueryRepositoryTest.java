@@ -0,0 +1,48 @@
+package com.project.demo.logic.entity.farm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba la paginación sin total y el orden del listado de fincas de {@link FarmAdminQueryRepository}.
+ */
+public class FarmAdminQueryRepositoryTest {
+
+    private final Pageable pageable = PageRequest.of(1, 3);
+
+    @Test
+    void testExtraRowMeansThereIsANextPageAndIsDropped() {
+        Slice<Integer> slice = FarmAdminQueryRepository.toSlice(List.of(1, 2, 3, 4), pageable);
+
+        assertTrue(slice.hasNext());
+        assertEquals(List.of(1, 2, 3), slice.getContent());
+        assertEquals(1, slice.getNumber());
+    }
+
+    @Test
+    void testFullOrShortPageWithoutExtraRowIsTheLast() {
+        Slice<Integer> full = FarmAdminQueryRepository.toSlice(List.of(1, 2, 3), pageable);
+        assertFalse(full.hasNext());
+        assertEquals(List.of(1, 2, 3), full.getContent());
+
+        Slice<Integer> partial = FarmAdminQueryRepository.toSlice(List.of(1), pageable);
+        assertFalse(partial.hasNext());
+        assertEquals(List.of(1), partial.getContent());
+
+        assertFalse(FarmAdminQueryRepository.toSlice(List.of(), pageable).hasNext());
+    }
+
+    @Test
+    void testIdTieBreakerIsOnlyAddedWhenSortingByAnotherField() {
+        assertEquals(Sort.by(Sort.Direction.DESC, "farmSize").and(Sort.by("id")),
+                FarmAdminQueryRepository.sortOf(Sort.Direction.DESC, "farmSize"));
+        assertEquals(Sort.by(Sort.Direction.DESC, "id"), FarmAdminQueryRepository.sortOf(Sort.Direction.DESC, "id"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.project.demo.logic.entity.mail;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba {@link EmailOutboxDispatcher} con el repositorio simulado y el buzón falso.
+ */
+public class EmailOutboxDispatcherTest {
+
+    private EmailOutboxRepository repository;
+    private FakeEmailTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(EmailOutboxRepository.class);
+        transport = new FakeEmailTransport();
+        Mockito.when(repository.saveAll(ArgumentMatchers.<List<EmailOutbox>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private EmailOutboxDispatcher dispatcher(EmailTransport emailTransport, int maxAttempts) {
+        return new EmailOutboxDispatcher(repository, emailTransport, Mockito.mock(PlatformTransactionManager.class),
+                10, maxAttempts, 30, 3600, 120, 24, 5000);
+    }
+
+    private void due(EmailOutbox... emails) {
+        Mockito.when(repository.findDueForUpdate(Mockito.eq(EmailOutboxStatus.PENDING), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(emails))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void testDispatchSendsDueEmailsAndMarksThemSent() {
+        EmailOutbox email = new EmailOutbox("ana@example.com", "Código", "Tu código es 123456");
+        due(email);
+
+        dispatcher(transport, 3).dispatch();
+
+        assertEquals(List.of(new FakeEmailTransport.SentEmail("ana@example.com", "Código", "Tu código es 123456")),
+                transport.getMessages());
+        assertEquals(EmailOutboxStatus.SENT, email.getStatus());
+        assertEquals(EmailOutboxDispatcher.REDACTED_BODY, email.getBody());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getSentAt());
+        Mockito.verify(repository).save(email);
+    }
+
+    @Test
+    void testFailedSendIsRetriedLaterUntilAttemptsRunOut() {
+        EmailTransport failing = (to, subject, body) -> {
+            throw new RuntimeException("SendGrid no responde");
+        };
+        EmailOutbox email = new EmailOutbox("ana@example.com", "Código", "Tu código es 123456");
+        due(email);
+
+        dispatcher(failing, 2).dispatch();
+
+        assertEquals(EmailOutboxStatus.PENDING, email.getStatus());
+        assertEquals("Tu código es 123456", email.getBody());
+        assertEquals("SendGrid no responde", email.getLastError());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(10)));
+
+        due(email);
+        dispatcher(failing, 2).dispatch();
+
+        assertEquals(EmailOutboxStatus.FAILED, email.getStatus());
+        assertEquals(EmailOutboxDispatcher.REDACTED_BODY, email.getBody());
+        assertEquals(2, email.getAttempts());
+    }
+
+    @Test
+    void testBackoffGrowsExponentiallyUpToTheMaximum() {
+        EmailOutboxDispatcher dispatcher = dispatcher(transport, 8);
+
+        for (int i = 0; i < 20; i++) {
+            Duration first = dispatcher.backoff(1);
+            assertTrue(first.compareTo(Duration.ofSeconds(15)) >= 0 && first.compareTo(Duration.ofSeconds(30)) <= 0);
+            Duration third = dispatcher.backoff(3);
+            assertTrue(third.compareTo(Duration.ofSeconds(60)) >= 0 && third.compareTo(Duration.ofSeconds(120)) <= 0);
+            assertTrue(dispatcher.backoff(30).compareTo(Duration.ofHours(1)) <= 0);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.demo.logic.entity.userfarm;
+
+import com.project.demo.logic.entity.plot.FarmPlotRepository;
+import com.project.demo.logic.entity.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba que {@link FarmAccessService} consulte la base de datos una sola vez por usuario y por parcela,
+ * y que vuelva a consultarla después de invalidar.
+ */
+public class FarmAccessServiceTest {
+
+    private UserXFarmRepository userXFarmRepository;
+    private FarmPlotRepository farmPlotRepository;
+    private FarmAccessService service;
+
+    @BeforeEach
+    void setUp() {
+        userXFarmRepository = Mockito.mock(UserXFarmRepository.class);
+        farmPlotRepository = Mockito.mock(FarmPlotRepository.class);
+        service = new FarmAccessService(userXFarmRepository, farmPlotRepository, 100, 100, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(Long userId, String role) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    @Test
+    void testFarmAccessIsLoadedOncePerUser() {
+        authenticate(1L, "ROLE_USER");
+        Mockito.when(userXFarmRepository.findFarmIdsByUserId(1L)).thenReturn(List.of(10L, 11L));
+
+        assertTrue(service.hasAccessToFarm(10L));
+        assertTrue(service.hasAccessToFarm(11L));
+        assertFalse(service.hasAccessToFarm(12L));
+
+        Mockito.verify(userXFarmRepository, Mockito.times(1)).findFarmIdsByUserId(1L);
+    }
+
+    @Test
+    void testPlotAccessUsesCachedPlotFarm() {
+        authenticate(1L, "ROLE_USER");
+        Mockito.when(userXFarmRepository.findFarmIdsByUserId(1L)).thenReturn(List.of(10L));
+        Mockito.when(farmPlotRepository.findFarmIdById(5L)).thenReturn(Optional.of(10L));
+        Mockito.when(farmPlotRepository.findFarmIdById(6L)).thenReturn(Optional.of(20L));
+        Mockito.when(farmPlotRepository.findFarmIdById(7L)).thenReturn(Optional.empty());
+
+        assertTrue(service.hasAccessToPlot(5L));
+        assertTrue(service.hasAccessToPlot(5L));
+        assertFalse(service.hasAccessToPlot(6L));
+        assertFalse(service.hasAccessToPlot(7L));
+
+        Mockito.verify(farmPlotRepository, Mockito.times(1)).findFarmIdById(5L);
+    }
+
+    @Test
+    void testEvictUserReloadsFarms() {
+        authenticate(1L, "ROLE_USER");
+        Mockito.when(userXFarmRepository.findFarmIdsByUserId(1L)).thenReturn(List.of(10L), List.of(10L, 11L));
+
+        assertFalse(service.hasAccessToFarm(11L));
+        service.evictUser(1L);
+
+        assertTrue(service.hasAccessToFarm(11L));
+    }
+
+    @Test
+    void testEvictFarmRemovesAccess() {
+        authenticate(1L, "ROLE_USER");
+        Mockito.when(userXFarmRepository.findFarmIdsByUserId(1L)).thenReturn(List.of(10L), List.of());
+
+        assertTrue(service.hasAccessToFarm(10L));
+        service.evictFarm(10L);
+
+        assertFalse(service.hasAccessToFarm(10L));
+    }
+
+    @Test
+    void testSuperAdminHasAccessWithoutQueries() {
+        authenticate(1L, "ROLE_SUPER_ADMIN");
+
+        assertTrue(service.hasAccessToFarm(10L));
+        assertTrue(service.hasAccessToPlot(5L));
+
+        Mockito.verifyNoInteractions(userXFarmRepository, farmPlotRepository);
+    }
+
+    @Test
+    void testUnauthenticatedHasNoAccess() {
+        assertFalse(service.hasAccessToFarm(10L));
+        assertFalse(service.hasAccessToPlot(5L));
+    }
+}
@@ -0,0 +1,101 @@
+package com.project.demo.logic.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba la interpretación de polígonos GeoJSON, las comparaciones entre polígonos, la simplificación y la
+ * codificación binaria, y que {@link StrTree} devuelva lo mismo que recorrer todos los rectángulos.
+ */
+public class GeoShapeTest {
+
+    private static final String SQUARE = "{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[10,0],[10,10],[0,10],[0,0]]]}";
+
+    @Test
+    void testParsePolygonBoundsAndCentroid() {
+        GeoShape shape = GeoShape.parseGeoJson(SQUARE);
+
+        assertEquals(new BoundingBox(0, 0, 10, 10), shape.getBounds());
+        assertEquals(5, shape.getCentroidX(), 1e-9);
+        assertEquals(5, shape.getCentroidY(), 1e-9);
+        assertTrue(shape.contains(5, 5));
+        assertFalse(shape.contains(11, 5));
+    }
+
+    @Test
+    void testInvalidGeoJsonIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> GeoShape.parseGeoJson("not json"));
+        assertThrows(IllegalArgumentException.class, () -> GeoShape.parseGeoJson("{\"type\":\"Point\",\"coordinates\":[1,2]}"));
+    }
+
+    @Test
+    void testTouchingShapesIntersectButDoNotOverlap() {
+        GeoShape square = GeoShape.parseGeoJson(SQUARE);
+        GeoShape neighbour = GeoShape.rectangle(new BoundingBox(10, 0, 20, 10));
+        GeoShape overlapping = GeoShape.rectangle(new BoundingBox(5, 5, 15, 15));
+
+        assertTrue(square.intersects(neighbour));
+        assertFalse(square.overlaps(neighbour));
+        assertTrue(square.overlaps(overlapping));
+    }
+
+    @Test
+    void testStrTreeQueryMatchesLinearScan() {
+        Random random = new Random(42);
+        List<StrTree.Entry<Integer>> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            entries.add(new StrTree.Entry<>(new BoundingBox(x, y, x + random.nextDouble(), y + random.nextDouble()), i));
+        }
+        StrTree<Integer> tree = StrTree.build(entries);
+
+        for (int q = 0; q < 100; q++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            BoundingBox area = new BoundingBox(x, y, x + 5, y + 5);
+            List<Integer> expected = entries.stream().filter(e -> e.bounds().intersects(area)).map(StrTree.Entry::item).sorted().toList();
+
+            assertEquals(expected, tree.query(area).stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void testSimplifyDropsVerticesWithinTolerance() {
+        StringBuilder json = new StringBuilder("{\"type\":\"Polygon\",\"coordinates\":[[");
+        int vertices = 1000;
+        for (int i = 0; i <= vertices; i++) {
+            double angle = 2 * Math.PI * (i % vertices) / vertices;
+            json.append(i > 0 ? "," : "").append('[').append(Math.cos(angle)).append(',').append(Math.sin(angle)).append(']');
+        }
+        GeoShape circle = GeoShape.parseGeoJson(json.append("]]}").toString());
+
+        GeoShape simplified = circle.simplify(0.01);
+
+        assertTrue(simplified.getVertexCount() < 50);
+        assertTrue(simplified.getVertexCount() >= 3);
+        assertEquals(0, simplified.getCentroidX(), 0.01);
+        assertTrue(simplified.contains(0, 0));
+        assertSame(circle, circle.simplify(0));
+    }
+
+    @Test
+    void testCodecRoundTripKeepsSevenDecimals() {
+        GeoShape shape = GeoShape.parseGeoJson("{\"type\":\"MultiPolygon\",\"coordinates\":["
+                + "[[[-84.12345678,9.9],[-84.1,9.9],[-84.1,9.95],[-84.12345678,9.9]]],"
+                + "[[[1,1],[2,1],[2,2],[1,2],[1,1]],[[1.2,1.2],[1.4,1.2],[1.4,1.4],[1.2,1.2]]]]}");
+
+        GeoShape decoded = GeometryCodec.decode(GeometryCodec.encode(shape));
+
+        assertEquals(shape.getVertexCount(), decoded.getVertexCount());
+        assertEquals(-84.1234568, decoded.getBounds().minX(), 1e-12);
+        assertEquals(shape.getCentroidY(), decoded.getCentroidY(), 1e-6);
+        assertTrue(decoded.toGeoJson().startsWith("{\"type\":\"MultiPolygon\""));
+        assertThrows(IllegalArgumentException.class, () -> GeometryCodec.decode(new byte[]{1, (byte) 0x80}));
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.demo.logic.outbound;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void testSuccessResetsFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenAllowsSingleTrialCall() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ZERO);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -5,7 +5,7 @@ import com.project.demo.logic.entity.animal.Animal;
 import com.project.demo.logic.entity.animal.AnimalRepository;
 import com.project.demo.logic.entity.farm.Farm;
 import com.project.demo.logic.entity.farm.FarmRepository;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.animal.AnimalGroupRepository;
 import com.project.demo.logic.entity.user.User;
 import org.junit.jupiter.api.Test;
@@ -41,7 +41,7 @@ public class AnimalRestControllerTest {
         java.util.List<Animal> animals = java.util.Arrays.asList(animal1, animal2);
         Mockito.when(farmRepository.findById(1L)).thenReturn(Optional.of(farm));
         Mockito.when(animalRepository.findByFarmId(1L)).thenReturn(animals);
-        Mockito.when(userXFarmRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(farmAccessService.hasAccessToFarm(Mockito.any())).thenReturn(true);
 
         // Set up custom User principal in SecurityContext
         User mockUser = new User();
@@ -63,13 +63,15 @@ public class AnimalRestControllerTest {
     @MockBean
     private FarmRepository farmRepository;
     @MockBean
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
     @MockBean
     private AnimalGroupRepository animalGroupRepository;
     @MockBean
     private com.project.demo.logic.entity.auth.JwtService jwtService;
         @MockBean
         private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+    @MockBean
+    private com.project.demo.logic.entity.auth.AuthenticatedUserCache authenticatedUserCache;
 
     @Test
     void testCreateAnimalSuccess() throws Exception {
@@ -79,7 +81,7 @@ public class AnimalRestControllerTest {
         farm.setId(1L);
         Mockito.when(farmRepository.findById(1L)).thenReturn(Optional.of(farm));
         Mockito.when(animalRepository.save(Mockito.any(Animal.class))).thenReturn(animal);
-        Mockito.when(userXFarmRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(farmAccessService.hasAccessToFarm(Mockito.any())).thenReturn(true);
         String json = "{\"species\":\"Cow\"}";
 
         // Set up custom User principal in SecurityContext
@@ -100,7 +102,7 @@ public class AnimalRestControllerTest {
     @Test
     void testCreateAnimalFarmNotFound() throws Exception {
         Mockito.when(farmRepository.findById(99L)).thenReturn(Optional.empty());
-        Mockito.when(userXFarmRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(farmAccessService.hasAccessToFarm(Mockito.any())).thenReturn(true);
         String json = "{\"species\":\"Cow\"}";
 
         // Set up custom User principal in SecurityContext
@@ -120,7 +122,7 @@ public class AnimalRestControllerTest {
 
     @Test
     void testCreateAnimalAccessDenied() throws Exception {
-        Mockito.when(userXFarmRepository.existsById(Mockito.any())).thenReturn(false);
+        Mockito.when(farmAccessService.hasAccessToFarm(Mockito.any())).thenReturn(false);
         String json = "{\"species\":\"Cow\"}";
 
         // Set up custom User principal in SecurityContext
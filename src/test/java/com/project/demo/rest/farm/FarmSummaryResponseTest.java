@@ -0,0 +1,48 @@
+package com.project.demo.rest.farm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.demo.logic.entity.farm.IFarmSummary;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba que {@link FarmSummaryResponse} conserve la forma {"farm": {...}, "technicalInfo": {...}} de GET /farms/my-farms.
+ */
+public class FarmSummaryResponseTest {
+
+    private static IFarmSummary row(Long technicalInfoId) {
+        IFarmSummary row = Mockito.mock(IFarmSummary.class);
+        Mockito.when(row.getId()).thenReturn(3L);
+        Mockito.when(row.getFarmName()).thenReturn("Finca Norte");
+        Mockito.when(row.getFarmSize()).thenReturn(12.5);
+        Mockito.when(row.getActive()).thenReturn(true);
+        Mockito.when(row.getTechnicalInfoId()).thenReturn(technicalInfoId);
+        Mockito.when(row.getSoilPh()).thenReturn(technicalInfoId == null ? null : "6.5");
+        Mockito.when(row.getIrrigationSystem()).thenReturn(technicalInfoId == null ? null : true);
+        return row;
+    }
+
+    @Test
+    void testFarmWithTechnicalInfoKeepsBothObjects() {
+        JsonNode json = new ObjectMapper().valueToTree(FarmSummaryResponse.from(row(9L)));
+
+        assertEquals(3L, json.get("farm").get("id").asLong());
+        assertEquals("Finca Norte", json.get("farm").get("farmName").asText());
+        assertEquals(12.5, json.get("farm").get("farmSize").asDouble(), 0.001);
+        assertTrue(json.get("farm").get("active").asBoolean());
+        assertEquals(9L, json.get("technicalInfo").get("id").asLong());
+        assertEquals("6.5", json.get("technicalInfo").get("soilPh").asText());
+        assertTrue(json.get("technicalInfo").get("irrigationSystem").asBoolean());
+    }
+
+    @Test
+    void testFarmWithoutTechnicalInfoHasNullTechnicalInfo() {
+        JsonNode json = new ObjectMapper().valueToTree(FarmSummaryResponse.from(row(null)));
+
+        assertEquals(3L, json.get("farm").get("id").asLong());
+        assertTrue(json.get("technicalInfo").isNull());
+    }
+}
@@ -1,20 +1,26 @@
 package com.project.demo.rest.plot;
 
+import com.project.demo.logic.entity.auth.AuthenticatedUserCache;
 import com.project.demo.logic.entity.auth.JwtService;
 import com.project.demo.logic.entity.farm.Farm;
 import com.project.demo.logic.entity.plot.FarmPlot;
 import com.project.demo.logic.entity.plot.FarmPlotRepository;
+import com.project.demo.logic.entity.plot.GeometryDetail;
+import com.project.demo.logic.entity.plot.IPlotGeometryView;
 import com.project.demo.logic.entity.plot.PlotGeometry;
 import com.project.demo.logic.entity.plot.PlotGeometryRepository;
-import com.project.demo.logic.entity.userfarm.UserFarmId;
-import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import com.project.demo.logic.entity.plot.PlotSpatialIndex;
+import com.project.demo.logic.entity.userfarm.FarmAccessService;
 import com.project.demo.logic.entity.user.User;
+import com.project.demo.logic.geo.GeoShape;
+import com.project.demo.logic.geo.GeometryCodec;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.web.servlet.MockMvc;
@@ -33,6 +39,8 @@ public class PlotGeometryRestControllerTest {
     private JwtService jwtService;
     @MockBean
     private UserDetailsService userDetailsService;
+    @MockBean
+    private AuthenticatedUserCache authenticatedUserCache;
     @Autowired
     private MockMvc mockMvc;
     @MockBean
@@ -40,7 +48,9 @@ public class PlotGeometryRestControllerTest {
     @MockBean
     private FarmPlotRepository farmPlotRepository;
     @MockBean
-    private UserXFarmRepository userXFarmRepository;
+    private FarmAccessService farmAccessService;
+    @MockBean
+    private PlotSpatialIndex plotSpatialIndex;
 
     @Test
     void testGetGeometryByPlotSuccess() throws Exception {
@@ -61,12 +71,38 @@ public class PlotGeometryRestControllerTest {
         geometry.setId(1L);
         geometry.setFarmPlot(plot);
         Mockito.when(farmPlotRepository.findById(1L)).thenReturn(Optional.of(plot));
-        Mockito.when(geometryRepository.findByFarmPlot_Id(1L)).thenReturn(Optional.of(geometry));
-        Mockito.when(userXFarmRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(geometryRepository.findViewByFarmPlot_Id(1L)).thenReturn(Optional.of(
+                new SpelAwareProxyProjectionFactory().createProjection(IPlotGeometryView.class, geometry)));
+        Mockito.when(farmAccessService.hasAccessToPlot(1L)).thenReturn(true);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/plots/1/geometry")
             .contentType(MediaType.APPLICATION_JSON))
-            .andExpect(MockMvcResultMatchers.status().isOk());
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.data.id").value(1));
+        Mockito.verify(geometryRepository, Mockito.never()).findByFarmPlot_Id(1L);
+    }
+
+    @Test
+    void testGetSimplifiedGeometryForZoom() throws Exception {
+        User mockUser = new User();
+        mockUser.setId(1L);
+        Authentication authentication = Mockito.mock(Authentication.class);
+        Mockito.when(authentication.getPrincipal()).thenReturn(mockUser);
+        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+        Mockito.when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        byte[] encoded = GeometryCodec.encode(GeoShape.parseGeoJson("{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[1,0],[1,1],[0,0]]]}"));
+        Mockito.when(farmAccessService.hasAccessToPlot(1L)).thenReturn(true);
+        Mockito.when(geometryRepository.findEncodedByPlotId(1L, GeometryDetail.LOW)).thenReturn(Optional.of(encoded));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/plots/1/geometry").param("zoom", "10"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.data.detail").value("LOW"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.data.vertexCount").value(3));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/plots/1/geometry").param("zoom", "10").param("format", "binary"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().bytes(encoded));
     }
 
     @Test
@@ -85,7 +121,7 @@ public class PlotGeometryRestControllerTest {
         plot.setId(1L);
         plot.setFarm(mockFarm);
         Mockito.when(farmPlotRepository.findById(1L)).thenReturn(Optional.of(plot));
-        Mockito.when(userXFarmRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(farmAccessService.hasAccessToFarm(1L)).thenReturn(true);
         Mockito.when(geometryRepository.findByFarmPlot_Id(1L)).thenReturn(Optional.empty());
         Mockito.when(geometryRepository.save(Mockito.any(PlotGeometry.class))).thenReturn(new PlotGeometry());
         String geoJson = "{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[1,1],[2,2],[0,0]]]}";
@@ -129,7 +165,7 @@ public class PlotGeometryRestControllerTest {
         plot.setId(1L);
         plot.setFarm(mockFarm);
         Mockito.when(farmPlotRepository.findById(1L)).thenReturn(Optional.of(plot));
-        Mockito.when(userXFarmRepository.existsById(Mockito.any(UserFarmId.class))).thenReturn(true);
+        Mockito.when(farmAccessService.hasAccessToFarm(1L)).thenReturn(true);
         Mockito.when(geometryRepository.findByFarmPlot_Id(1L)).thenReturn(Optional.of(new PlotGeometry()));
         String geoJson = "{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[1,1],[2,2],[0,0]]]}";
         mockMvc.perform(MockMvcRequestBuilders.post("/plots/1/geometry")
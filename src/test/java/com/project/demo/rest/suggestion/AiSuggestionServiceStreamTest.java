@@ -0,0 +1,127 @@
+package com.project.demo.rest.suggestion;
+
+import com.project.demo.logic.outbound.OutboundHttpClients;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el modo streaming de {@link AiSuggestionService} contra un servidor local que imita la API de
+ * chat completions (together.api.url apunta al stub).
+ */
+public class AiSuggestionServiceStreamTest {
+
+    private HttpServer server;
+    private AiSuggestionService service;
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+
+        FarmContextLoader farmContextLoader = Mockito.mock(FarmContextLoader.class);
+        Mockito.when(farmContextLoader.load(1L)).thenReturn(Optional.of("Datos generales de la finca:\n- Nombre: Finca La Esperanza\n"));
+        Mockito.when(farmContextLoader.load(99L)).thenReturn(Optional.empty());
+
+        service = new AiSuggestionService(farmContextLoader, new ApproximateTokenCounter());
+        ReflectionTestUtils.setField(service, "togetherApiKey", "test-key");
+        ReflectionTestUtils.setField(service, "togetherModel", "test-model");
+        ReflectionTestUtils.setField(service, "togetherMaxTokens", 800);
+        ReflectionTestUtils.setField(service, "contextWindowTokens", 4000);
+        ReflectionTestUtils.setField(service, "streamIdleTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(service, "aiResponseCache", new AiResponseCache(100, 60));
+        ReflectionTestUtils.setField(service, "outboundHttpClients", new OutboundHttpClients(new MockEnvironment()));
+        ReflectionTestUtils.setField(service, "togetherApiUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/v1/chat/completions");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void respond(int status, String contentType, String body) {
+        server.createContext("/v1/chat/completions", exchange -> {
+            requests.incrementAndGet();
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+    }
+
+    @Test
+    void testStreamSuggestionRelaysChunksInOrder() {
+        respond(200, "text/event-stream",
+                "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}\n\n" +
+                "data: {\"choices\":[{\"delta\":{\"content\":\"Riega \"}}]}\n\n" +
+                "data: {\"choices\":[{\"delta\":{\"content\":\"por la mañana.\"}}]}\n\n" +
+                "data: [DONE]\n\n");
+
+        List<String> chunks = new ArrayList<>();
+        String suggestion = service.streamSuggestion("¿Cuándo riego?", 1L, chunks::add);
+
+        assertEquals(List.of("Riega ", "por la mañana."), chunks);
+        assertEquals("Riega por la mañana.", suggestion);
+        assertTrue(requestBody.get().contains("\"stream\":true"));
+        assertTrue(requestBody.get().contains("\"model\":\"test-model\""));
+    }
+
+    @Test
+    void testStreamSuggestionReusesCachedResponseForEquivalentPrompt() {
+        respond(200, "text/event-stream",
+                "data: {\"choices\":[{\"delta\":{\"content\":\"Riega por la mañana.\"}}]}\n\n" +
+                "data: [DONE]\n\n");
+
+        service.streamSuggestion("¿Cuándo riego?", 1L, chunk -> {});
+        List<String> chunks = new ArrayList<>();
+        String suggestion = service.streamSuggestion("  cuando   RIEGO ", 1L, chunks::add);
+
+        assertEquals(1, requests.get());
+        assertEquals("Riega por la mañana.", suggestion);
+        assertEquals(List.of("Riega por la mañana."), chunks);
+    }
+
+    @Test
+    void testStreamSuggestionMapsCreditLimitError() {
+        respond(400, "application/json",
+                "{\"error\":{\"type\":\"credit_limit\",\"message\":\"Sin crédito disponible\"}}");
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.streamSuggestion("¿Cuándo riego?", 1L, chunk -> {}));
+
+        assertEquals(HttpStatus.PAYMENT_REQUIRED, ex.getStatusCode());
+        assertEquals("Sin crédito disponible", ex.getReason());
+    }
+
+    @Test
+    void testStreamSuggestionFailsForUnknownFarm() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.streamSuggestion("¿Cuándo riego?", 99L, chunk -> {}));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+}
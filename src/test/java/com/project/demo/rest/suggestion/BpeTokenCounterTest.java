@@ -0,0 +1,61 @@
+package com.project.demo.rest.suggestion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba {@link BpeTokenCounter} con un vocabulario pequeño en formato tiktoken.
+ */
+public class BpeTokenCounterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BpeTokenCounter load(List<String> tokens) throws IOException {
+        StringBuilder vocab = new StringBuilder();
+        for (int rank = 0; rank < tokens.size(); rank++) {
+            vocab.append(Base64.getEncoder().encodeToString(tokens.get(rank).getBytes(StandardCharsets.UTF_8)))
+                    .append(' ').append(rank).append('\n');
+        }
+        Path file = tempDir.resolve("vocab.tiktoken");
+        Files.writeString(file, vocab.toString(), StandardCharsets.US_ASCII);
+        return BpeTokenCounter.load(file);
+    }
+
+    @Test
+    void testCountMergesLowestRankPairsFirst() throws IOException {
+        BpeTokenCounter counter = load(List.of("a", "b", "c", "d", " ", "ab", "abc", " a", " ab"));
+
+        assertEquals(0, counter.count(""));
+        // "abc" está completo en el vocabulario
+        assertEquals(1, counter.count("abc"));
+        // " abd": se fusiona "ab" (rango 5) antes que " a" (rango 7), luego " " + "ab" -> " ab"; queda " ab" + "d"
+        assertEquals(2, counter.count(" abd"));
+        assertEquals(3, counter.count("abc abd"));
+    }
+
+    @Test
+    void testCountsUnknownBytesIndividually() throws IOException {
+        BpeTokenCounter counter = load(List.of("a"));
+
+        // "ñ" son dos bytes en UTF-8 y ninguno está en el vocabulario
+        assertEquals(2, counter.count("ñ"));
+    }
+
+    @Test
+    void testLoadRejectsInvalidLines() throws IOException {
+        Path file = tempDir.resolve("broken.tiktoken");
+        Files.writeString(file, "YQ==\n", StandardCharsets.US_ASCII);
+
+        assertThrows(IOException.class, () -> BpeTokenCounter.load(file));
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.demo.rest.transaction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.demo.logic.entity.crop.Crop;
+import com.project.demo.logic.entity.farm.Farm;
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.transaction.TransactionEnum;
+import com.project.demo.logic.entity.transaction.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba el formato CSV de {@link TransactionExportService}.
+ */
+public class TransactionExportServiceTest {
+
+    @Test
+    void testCsvQuotesValuesWithSeparatorsQuotesOrLineBreaks() {
+        assertEquals("", TransactionExportService.csv(null));
+        assertEquals("Finca Norte", TransactionExportService.csv("Finca Norte"));
+        assertEquals("\"Norte, lote 2\"", TransactionExportService.csv("Norte, lote 2"));
+        assertEquals("\"Finca \"\"La Esperanza\"\"\"", TransactionExportService.csv("Finca \"La Esperanza\""));
+        assertEquals("\"línea 1\nlínea 2\"", TransactionExportService.csv("línea 1\nlínea 2"));
+        assertEquals("-12.5", TransactionExportService.csv(-12.5));
+    }
+
+    @Test
+    void testCsvTextNeutralisesFormulaPrefixes() {
+        assertEquals("'=1+1", TransactionExportService.csvText("=1+1"));
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\"", TransactionExportService.csvText("=HYPERLINK(\"x\")"));
+        assertEquals("'+1", TransactionExportService.csvText("+1"));
+        assertEquals("'-1", TransactionExportService.csvText("-1"));
+        assertEquals("'@SUM(A1)", TransactionExportService.csvText("@SUM(A1)"));
+        assertEquals("\"'=1,2\"", TransactionExportService.csvText("=1,2"));
+        assertEquals("Maíz", TransactionExportService.csvText("Maíz"));
+        assertEquals("", TransactionExportService.csvText(null));
+    }
+
+    @Test
+    void testExportWritesHeaderAndEscapedRows() throws Exception {
+        Farm farm = new Farm();
+        farm.setId(3L);
+        farm.setFarmName("=cmd|' /C calc'!A0");
+        Crop crop = new Crop();
+        crop.setId(5L);
+        crop.setCropName("Café, grano");
+        Transaction transaction = new Transaction();
+        transaction.setId(1L);
+        transaction.setFarm(farm);
+        transaction.setCrop(crop);
+        transaction.setTransactionType(TransactionEnum.VENTA);
+        transaction.setQuantity(10.0);
+        transaction.setPricePerUnit(2.5);
+        transaction.setTotalValue(25.0);
+        transaction.setTransactionDate(LocalDateTime.of(2024, 5, 1, 8, 30));
+
+        TransactionRepository repository = Mockito.mock(TransactionRepository.class);
+        Mockito.when(repository.streamActiveByUserId(7L)).thenReturn(Stream.of(transaction));
+        TransactionExportService service = new TransactionExportService();
+        ReflectionTestUtils.setField(service, "transactionRepository", repository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "entityManager", Mockito.mock(EntityManager.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.export(7L, TransactionExportService.ExportFormat.CSV, out);
+
+        assertEquals(1, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,transactionDate,transactionType,farmId,farmName,cropId,cropName," +
+                "quantity,measureUnit,pricePerUnit,totalValue", lines[0]);
+        assertEquals("1,2024-05-01T08:30,VENTA,3,'=cmd|' /C calc'!A0,5,\"Café, grano\",10.0,,2.5,25.0", lines[1]);
+    }
+}
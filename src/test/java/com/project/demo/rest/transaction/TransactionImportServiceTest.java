@@ -0,0 +1,131 @@
+package com.project.demo.rest.transaction;
+
+import com.project.demo.logic.dashboard.TransactionRollupService;
+import com.project.demo.logic.entity.crop.Crop;
+import com.project.demo.logic.entity.crop.CropRepository;
+import com.project.demo.logic.entity.transaction.Transaction;
+import com.project.demo.logic.entity.userfarm.UserXFarmRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba la lectura del CSV y la validación de filas de {@link TransactionImportService}.
+ */
+public class TransactionImportServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private TransactionImportService service;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        UserXFarmRepository userXFarmRepository = Mockito.mock(UserXFarmRepository.class);
+        Mockito.when(userXFarmRepository.findAccessibleFarmIds(Mockito.eq(USER_ID), Mockito.any()))
+                .thenReturn(List.of(3L));
+        Crop crop = new Crop();
+        crop.setId(5L);
+        CropRepository cropRepository = Mockito.mock(CropRepository.class);
+        Mockito.when(cropRepository.findByUserIdAndIdIn(Mockito.eq(USER_ID), Mockito.any()))
+                .thenReturn(List.of(crop));
+        entityManager = Mockito.mock(EntityManager.class);
+
+        service = new TransactionImportService();
+        ReflectionTestUtils.setField(service, "maxRows", 3);
+        ReflectionTestUtils.setField(service, "userXFarmRepository", userXFarmRepository);
+        ReflectionTestUtils.setField(service, "cropRepository", cropRepository);
+        ReflectionTestUtils.setField(service, "transactionRollupService", Mockito.mock(TransactionRollupService.class));
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+    }
+
+    private static TransactionImportRow row(String farmId, String cropId, String type, String quantity,
+                                            String pricePerUnit, String totalValue, String date) {
+        return new TransactionImportRow(farmId, cropId, type, quantity, null, pricePerUnit, totalValue, date);
+    }
+
+    @Test
+    void testSplitCsvLineHandlesQuotesAndEmptyFields() {
+        assertEquals(List.of("1", "2", "VENTA"), TransactionImportService.splitCsvLine("1,2,VENTA"));
+        assertEquals(List.of("", "a", ""), TransactionImportService.splitCsvLine(",a,"));
+        assertEquals(List.of("Norte, lote 2", "x"), TransactionImportService.splitCsvLine("\"Norte, lote 2\",x"));
+        assertEquals(List.of("Finca \"La Esperanza\""), TransactionImportService.splitCsvLine("\"Finca \"\"La Esperanza\"\"\""));
+        assertEquals(List.of(""), TransactionImportService.splitCsvLine(""));
+    }
+
+    @Test
+    void testReadCsvAcceptsTheExportFormat() throws Exception {
+        String csv = "\uFEFFid,transactionDate,transactionType,farmId,farmName,cropId,cropName," +
+                "quantity,measureUnit,pricePerUnit,totalValue\n" +
+                "1,2024-05-01T08:30,VENTA,3,\"Norte, lote 2\",5,Café,10.0,,2.5,25.0\n" +
+                "\n";
+
+        List<TransactionImportRow> rows = service.readCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(new TransactionImportRow("3", "5", "VENTA", "10.0", "", "2.5", "25.0", "2024-05-01T08:30")), rows);
+    }
+
+    @Test
+    void testReadCsvRejectsMissingColumnsAndTooManyRows() {
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class, () -> service.readCsv(
+                new ByteArrayInputStream("farmId,cropId,transactionType\n3,5,VENTA\n".getBytes(StandardCharsets.UTF_8))));
+        assertEquals("Falta la columna obligatoria: transactionDate", missing.getMessage());
+
+        String tooMany = "farmId,cropId,transactionType,transactionDate\n" + "3,5,VENTA,2024-05-01\n".repeat(4);
+        assertThrows(IllegalArgumentException.class,
+                () -> service.readCsv(new ByteArrayInputStream(tooMany.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testImportRowsReportsParseErrorsAndSavesValidRows() {
+        List<TransactionImportRow> rows = List.of(
+                row("3", "5", "venta", "4", "2.5", null, "2024-05-01"),
+                row("3", "5", "REGALO", null, null, "10", "2024-05-01"),
+                row("3", "5", "COMPRA", "-1", null, "10", "2024-05-01"));
+
+        TransactionImportResultDTO result = service.importRows(USER_ID, rows);
+
+        assertEquals(3, result.getReceivedRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(List.of(
+                new TransactionImportResultDTO.RowError(2, "Valor no válido para transactionType: REGALO"),
+                new TransactionImportResultDTO.RowError(3, "El campo quantity debe ser un número positivo")),
+                result.getErrors());
+
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        Mockito.verify(entityManager).persist(saved.capture());
+        assertEquals(10.0, saved.getValue().getTotalValue(), 0.001);
+        assertEquals(LocalDateTime.of(2024, 5, 1, 0, 0), saved.getValue().getTransactionDate());
+    }
+
+    @Test
+    void testImportRowsRejectsMissingFieldsAndUnknownFarmsOrCrops() {
+        List<TransactionImportRow> rows = List.of(
+                row("3", "5", "VENTA", null, null, "10", " "),
+                row("3", "5", "VENTA", "2", null, null, "2024-05-01"),
+                row("x", "5", "VENTA", null, null, "10", "2024-05-01"),
+                row("9", "5", "VENTA", null, null, "10", "2024-05-01T10:00:00"));
+
+        ReflectionTestUtils.setField(service, "maxRows", 10);
+        TransactionImportResultDTO result = service.importRows(USER_ID, rows);
+
+        assertEquals(0, result.getImportedRows());
+        assertEquals(List.of(
+                new TransactionImportResultDTO.RowError(1, "El campo transactionDate es obligatorio"),
+                new TransactionImportResultDTO.RowError(2, "Se requiere totalValue, o quantity y pricePerUnit"),
+                new TransactionImportResultDTO.RowError(3, "Valor no válido para farmId: x"),
+                new TransactionImportResultDTO.RowError(4, "Finca no encontrada: 9")),
+                result.getErrors());
+        Mockito.verify(entityManager, Mockito.never()).persist(Mockito.any());
+    }
+}